@@ -410,6 +410,7 @@ suite = {
       "dependencies" : [
         "com.oracle.truffle.js",
         "com.oracle.truffle.js.parser",
+        "com.oracle.truffle.js.snapshot",
       ],
       "distDependencies" : [
         "regex:TREGEX",
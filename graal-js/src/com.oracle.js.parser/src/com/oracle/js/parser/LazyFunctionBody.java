@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.js.parser;
+
+import java.util.List;
+
+import com.oracle.js.parser.ir.FunctionNode;
+import com.oracle.js.parser.ir.Scope;
+
+/**
+ * Information recorded by the pre-parser for a function whose body has been checked for errors
+ * and scanned for identifier references, but is not kept in the AST. The complete function can be
+ * reparsed on demand from its parameter list using {@link Parser#reparseLazyFunction(FunctionNode)}.
+ */
+public final class LazyFunctionBody {
+    /** Parser state at the opening parenthesis of the parameter list. */
+    final Parser.ParserState parametersParserState;
+    /** Parser state just before the closing brace of the function body. */
+    final Parser.ParserState endParserState;
+    /** Scope enclosing the function. */
+    final Scope parentScope;
+    /** Was the code enclosing the function strict? */
+    final boolean strict;
+    /** Function flags before the body was scanned. */
+    final int functionFlags;
+    /** Function flags found by scanning the body. */
+    final int bodyFlags;
+    /** Identifier references in the function body, including those of nested functions. */
+    private final List<String> referencedNames;
+
+    LazyFunctionBody(Parser.ParserState parametersParserState, Parser.ParserState endParserState, Scope parentScope, boolean strict, int functionFlags, int bodyFlags,
+                    List<String> referencedNames) {
+        this.parametersParserState = parametersParserState;
+        this.endParserState = endParserState;
+        this.parentScope = parentScope;
+        this.strict = strict;
+        this.functionFlags = functionFlags;
+        this.bodyFlags = bodyFlags;
+        this.referencedNames = referencedNames;
+    }
+
+    /**
+     * Returns the names of all identifiers referenced in the skipped function body, or in the
+     * bodies of its nested functions, that may refer to a variable of an outer scope. This is a
+     * conservative approximation: names declared in the function body itself are included, too.
+     */
+    public List<String> getReferencedNames() {
+        return referencedNames;
+    }
+}
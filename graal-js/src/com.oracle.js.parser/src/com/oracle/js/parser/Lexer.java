@@ -135,7 +135,7 @@ public class Lexer extends Scanner {
     boolean pauseOnRightBrace;
 
     /** Map to intern strings during parsing (memory footprint). */
-    private final Map<String, TruffleString> internedStrings;
+    private Map<String, TruffleString> internedStrings;
 
     private static final int JAVASCRIPT_WHITESPACE_HIGH_START = '\u1680'; // Ogham space mark
 
@@ -206,6 +206,16 @@ public class Lexer extends Scanner {
         internedStrings = lexer.internedStrings;
     }
 
+    /**
+     * Takes over the interned strings and the template literal state of another lexer of the same
+     * source, so that this lexer can seamlessly continue where the other one left off.
+     */
+    void continueFrom(final Lexer lexer) {
+        assert lexer.source == source;
+        internedStrings = lexer.internedStrings;
+        pauseOnRightBrace = lexer.pauseOnRightBrace;
+    }
+
     static class State extends Scanner.State {
         /** Pending new line number and position. */
         public final int pendingLine;
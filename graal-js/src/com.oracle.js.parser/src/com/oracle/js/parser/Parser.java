@@ -108,13 +108,16 @@ import static com.oracle.js.parser.TokenType.WHILE;
 import static com.oracle.js.parser.TokenType.YIELD;
 import static com.oracle.js.parser.TokenType.YIELD_STAR;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import org.graalvm.collections.Pair;
@@ -357,6 +360,14 @@ public class Parser extends AbstractParser {
 
     private RecompilableScriptFunctionData reparsedFunction;
 
+    /** Are function bodies pre-parsed, see {@link LazyFunctionBody}? */
+    private boolean lazyParsing;
+    /**
+     * Has the source range being parsed been checked for errors already, so that pre-parsed bodies
+     * can be skipped without parsing them (true when reparsing a pre-parsed function)?
+     */
+    private boolean lazyBodiesChecked;
+
     private boolean isModule;
 
     /**
@@ -449,6 +460,74 @@ public class Parser extends AbstractParser {
         this.reparsedFunction = reparsedFunction;
     }
 
+    /**
+     * Reparses a function whose body has been skipped by the pre-parser (see
+     * {@link FunctionNode#getLazyFunctionBody()}). Only the source range of the function, from its
+     * parameter list to the end of its body, is parsed again; free identifiers are resolved in the
+     * scope that enclosed the function in the original parse. The bodies of nested functions are
+     * pre-parsed again.
+     *
+     * @param lazyFunction pre-parsed function node from a previous parse of the same source
+     * @return the fully parsed function node
+     */
+    public FunctionNode reparseLazyFunction(final FunctionNode lazyFunction) {
+        final LazyFunctionBody lazyBody = lazyFunction.getLazyFunctionBody();
+        assert lazyBody != null && lazyFunction.getSource() == source;
+        lazyParsing = true;
+        // The function has been parsed completely when the script was parsed, so the bodies of
+        // its nested functions are known to be free of errors.
+        lazyBodiesChecked = true;
+        isStrictMode = lazyBody.strict;
+        // Do not lex beyond the closing brace of the function body.
+        prepareLexer(0, lazyBody.endParserState.position + 1);
+        restoreParserState(lazyBody.parametersParserState);
+
+        final long functionToken = lazyFunction.getFirstToken();
+        final IdentNode ident = lazyFunction.getIdent();
+        final int functionLine = lazyFunction.getLineNumber();
+        // A use of new.target found by the pre-parser, even if only in a nested function, has
+        // already determined the calling convention of the function, so we have to keep it.
+        final int functionFlags = lazyBody.functionFlags | (lazyBody.bodyFlags & FunctionNode.USES_NEW_TARGET);
+        final boolean getter = (functionFlags & FunctionNode.IS_GETTER) != 0;
+        final ParserContextFunctionNode function = new ParserContextFunctionNode(functionToken, ident, lazyFunction.getNameTS(), functionLine, functionFlags,
+                        getter ? List.of() : null, 0, lazyBody.parentScope, null);
+        function.setInternalName(lazyFunction.getInternalNameTS());
+        lc.push(function);
+        try {
+            Block functionBody;
+            expect(LPAREN);
+            if (getter) {
+                expect(RPAREN);
+                functionBody = functionBody(function);
+            } else {
+                final ParserContextBlockNode parameterBlock = function.createParameterBlock();
+                lc.push(parameterBlock);
+                try {
+                    if ((functionFlags & FunctionNode.IS_SETTER) != 0) {
+                        if (!env.syntaxExtensions || type != RPAREN) {
+                            formalParameter(false, false);
+                        }
+                    } else {
+                        formalParameterList(function.isGenerator(), function.isAsync());
+                    }
+                    expect(RPAREN);
+
+                    functionBody = functionBody(function);
+                } finally {
+                    restoreBlock(parameterBlock);
+                }
+
+                verifyParameterList(function);
+                if (parameterBlock != null) {
+                    functionBody = wrapParameterBlock(parameterBlock, functionBody);
+                }
+            }
+            return createFunctionNode(function, functionToken, ident, functionLine, functionBody);
+        } finally {
+            lc.pop(function);
+        }
+    }
+
     /**
      * Set up first token. Skips opening EOL.
      */
@@ -518,6 +597,7 @@ public class Parser extends AbstractParser {
     public FunctionNode parse(final TruffleString scriptName, final int startPos, final int len, final int reparseFlags, Scope parentScope, List<String> argumentNames) {
         long startTime = PROFILE_PARSING ? System.nanoTime() : 0L;
         try {
+            lazyParsing = env.lazyParsing && !scripting && reparsedFunction == null && reparseFlags == 0 && parentScope == null && argumentNames == null;
             prepareLexer(startPos, len);
 
             scanFirstToken();
@@ -4438,12 +4518,14 @@ public class Parser extends AbstractParser {
         final boolean computed = type == LBRACKET;
         final Expression propertyName = classElementName(yield, await, allowPrivate);
         final IdentNode getterName = computed ? null : createMethodNameIdent(propertyName, GET_SPC);
+        final ParserState parametersParserState = lazyParserState();
         expect(LPAREN);
         expect(RPAREN);
 
         int functionFlags = FunctionNode.IS_GETTER | FunctionNode.IS_METHOD |
                         (computed ? FunctionNode.IS_ANONYMOUS : 0);
         final ParserContextFunctionNode functionNode = createParserContextFunctionNode(getterName, getSetToken, functionFlags, functionLine, List.of(), 0);
+        functionNode.setParametersParserState(parametersParserState);
         lc.push(functionNode);
 
         Block functionBody;
@@ -4469,11 +4551,13 @@ public class Parser extends AbstractParser {
         final Expression propertyName = classElementName(yield, await, allowPrivate);
         final IdentNode setterName = computed ? null : createMethodNameIdent(propertyName, SET_SPC);
 
+        final ParserState parametersParserState = lazyParserState();
         expect(LPAREN);
 
         int functionFlags = FunctionNode.IS_SETTER | FunctionNode.IS_METHOD |
                         (computed ? FunctionNode.IS_ANONYMOUS : 0);
         final ParserContextFunctionNode functionNode = createParserContextFunctionNode(setterName, getSetToken, functionFlags, functionLine);
+        functionNode.setParametersParserState(parametersParserState);
         lc.push(functionNode);
 
         Block functionBody;
@@ -4510,6 +4594,7 @@ public class Parser extends AbstractParser {
     private PropertyFunction propertyMethodFunction(Expression key, final long methodToken, final int methodLine, final boolean generator, final int flags, boolean computed, boolean async) {
         final IdentNode methodNameNode = computed ? null : createMethodNameIdent(key, "");
 
+        final ParserState parametersParserState = lazyParserState();
         expect(LPAREN);
 
         int functionFlags = flags |
@@ -4517,6 +4602,7 @@ public class Parser extends AbstractParser {
                         (generator ? FunctionNode.IS_GENERATOR : 0) |
                         (async ? FunctionNode.IS_ASYNC : 0);
         final ParserContextFunctionNode functionNode = createParserContextFunctionNode(methodNameNode, methodToken, functionFlags, methodLine);
+        functionNode.setParametersParserState(parametersParserState);
         lc.push(functionNode);
 
         try {
@@ -5258,6 +5344,7 @@ public class Parser extends AbstractParser {
             }
         }
 
+        final ParserState parametersParserState = lazyParserState();
         expect(LPAREN);
 
         boolean isAnonymous = name == null;
@@ -5270,6 +5357,7 @@ public class Parser extends AbstractParser {
                         (declared ? FunctionNode.IS_DECLARED : 0) |
                         ((isStatement && !isAnonymous) ? FunctionNode.IS_STATEMENT : 0);
         final ParserContextFunctionNode functionNode = createParserContextFunctionNode(name, functionToken, functionFlags, functionLine);
+        functionNode.setParametersParserState(parametersParserState);
         if (isAnonymous) {
             // name is null, generate anonymous name
             functionNode.setInternalName(getDefaultFunctionName());
@@ -5624,6 +5712,7 @@ public class Parser extends AbstractParser {
         final int bodyFinish;
         final boolean parseBody;
         Object endParserState = null;
+        LazyFunctionBody lazyBody = null;
         // Create a new function block.
         ParserContextBlockNode body = newBlock(functionNode.createBodyScope(lexer::stringIntern));
         try {
@@ -5656,7 +5745,12 @@ public class Parser extends AbstractParser {
                 bodyFinish = finish;
             } else {
                 expectDontAdvance(LBRACE);
-                if (parseBody || !skipFunctionBody(functionNode)) {
+                if (lazyParsing && isPreParsable(functionNode)) {
+                    lazyBody = preParseFunctionBody(functionNode);
+                }
+                // Unless it has been checked before, a pre-parsed body is still parsed completely
+                // so that all early errors are reported now; its AST is discarded below.
+                if ((lazyBody == null || !lazyBodiesChecked) && (parseBody || !skipFunctionBody(functionNode))) {
                     next();
                     // Gather the function elements.
                     final List<Statement> prevFunctionDecls = functionDeclarations;
@@ -5700,7 +5794,10 @@ public class Parser extends AbstractParser {
 
         // NOTE: we can only do alterations to the function node after restoreFunctionNode.
 
-        if (parseBody) {
+        if (lazyBody != null) {
+            body.setStatements(List.of());
+            functionNode.setEndParserState(lazyBody);
+        } else if (parseBody) {
             functionNode.setEndParserState(endParserState);
         } else if (!body.getStatements().isEmpty()) {
             /*
@@ -5756,7 +5853,14 @@ public class Parser extends AbstractParser {
         }
         final ParserState parserState = (ParserState) data.getEndParserState();
         assert parserState != null;
+        skipToParserState(parserState);
+        return true;
+    }
 
+    /**
+     * Skips to the RBRACE of a function body, and continues parsing from there.
+     */
+    private void skipToParserState(final ParserState parserState) {
         if (k < stream.last() && start < parserState.position && parserState.position <= Token.descPosition(stream.get(stream.last()))) {
             // RBRACE is already in the token stream, so fast forward to it
             for (; k < stream.last(); k++) {
@@ -5766,29 +5870,286 @@ public class Parser extends AbstractParser {
                     type = Token.descType(token);
                     next();
                     assert type == RBRACE && start == parserState.position;
-                    return true;
+                    return;
                 }
             }
         }
 
+        restoreParserState(parserState);
+    }
+
+    /**
+     * Discards the buffered tokens and continues lexing at the given parser state.
+     */
+    private void restoreParserState(final ParserState parserState) {
         stream.reset();
+        final Lexer previousLexer = lexer;
         lexer = parserState.createLexer(source, lexer, stream, scripting, env.ecmaScriptVersion, shebang, isModule, allowBigInt);
+        lexer.continueFrom(previousLexer);
         line = parserState.line;
         linePosition = parserState.linePosition;
         // Doesn't really matter, but it's safe to treat it as if there were a semicolon before
-        // the RBRACE.
+        // the token.
         type = SEMICOLON;
         scanFirstToken();
+    }
 
-        return true;
+    /**
+     * Captures the parser state at the current token if lazy parsing is enabled, so that a
+     * function whose parameter list starts here can later be reparsed from this point.
+     */
+    private ParserState lazyParserState() {
+        return lazyParsing ? new ParserState(Token.descPosition(token), line, linePosition) : null;
+    }
+
+    private static boolean isPreParsable(final ParserContextFunctionNode functionNode) {
+        // Class constructors are excluded since their function node is replaced later on with
+        // one that takes on the source section (and thus the id) of the class.
+        return functionNode.getParametersParserState() != null && !functionNode.isClassConstructor();
+    }
+
+    /**
+     * Pre-parses a function body for lazy parsing: the tokens of the body are scanned to find its
+     * closing brace, the names it references and the function flags its enclosing functions
+     * depend on. A token scan cannot rule out syntax errors and other early errors, though, so
+     * unless the body has been checked before (see {@link #lazyBodiesChecked}), the caller still
+     * parses the body to report them and then discards its AST.
+     *
+     * @return the pre-parsed body, or {@code null} if the body has to be kept in the AST; the
+     *         parser is positioned at the closing brace of the body if it need not be parsed, and
+     *         at its opening brace otherwise
+     */
+    private LazyFunctionBody preParseFunctionBody(final ParserContextFunctionNode functionNode) {
+        assert type == LBRACE;
+        final ParserState bodyParserState = new ParserState(Token.descPosition(token), line, linePosition);
+        final int functionFlags = functionNode.getFlags();
+        final Set<String> referencedNames = new LinkedHashSet<>();
+        final List<IdentNode> privateNames = new ArrayList<>();
+        // Open brackets and template substitutions; IF stands for a parenthesized control head.
+        final ArrayDeque<TokenType> brackets = new ArrayDeque<>();
+        int bodyFlags = 0;
+        boolean hasClass = false;
+        boolean complete = false;
+        boolean preParsed = false;
+        final boolean previousPauseOnRightBrace = lexer.pauseOnRightBrace;
+        try {
+            lexer.pauseOnRightBrace = true;
+            TokenType beforePrevious = null;
+            TokenType previous = LBRACE;
+            boolean closesControlHead = false;
+            next();
+            // Leave the directive prologue to the full parser.
+            if (type == STRING || type == ESCSTRING) {
+                return null;
+            }
+            while (true) {
+                final boolean afterPropertyAccess = previous == PERIOD || previous == TokenType.OPTIONAL_CHAIN;
+                boolean controlHead = false;
+                switch (type) {
+                    case LPAREN:
+                        final boolean isControlHead = previous == IF || previous == WHILE || previous == TokenType.FOR || previous == TokenType.WITH ||
+                                        (previous == AWAIT && beforePrevious == TokenType.FOR);
+                        brackets.push(isControlHead ? IF : LPAREN);
+                        break;
+                    case LBRACKET:
+                    case LBRACE:
+                    case TEMPLATE_HEAD:
+                        brackets.push(type);
+                        break;
+                    case RPAREN:
+                        if (brackets.isEmpty() || brackets.peek() == LBRACKET || brackets.peek() == LBRACE || brackets.peek() == TEMPLATE_HEAD) {
+                            return null;
+                        }
+                        controlHead = brackets.pop() == IF;
+                        break;
+                    case RBRACKET:
+                        if (brackets.isEmpty() || brackets.pop() != LBRACKET) {
+                            return null;
+                        }
+                        break;
+                    case RBRACE:
+                        if (brackets.isEmpty()) {
+                            complete = true;
+                            break;
+                        } else if (brackets.peek() == TEMPLATE_HEAD) {
+                            lexer.scanTemplateSpan();
+                            next();
+                            if (type == TEMPLATE_TAIL) {
+                                brackets.pop();
+                            }
+                        } else if (brackets.pop() != LBRACE) {
+                            return null;
+                        }
+                        break;
+                    case DIV:
+                    case ASSIGN_DIV:
+                        final Boolean regExp = slashStartsRegExp(previous, afterPropertyAccess, closesControlHead);
+                        if (regExp == null) {
+                            return null;
+                        } else if (regExp) {
+                            if (!lexer.scanLiteral(token, type, lineInfoReceiver)) {
+                                return null;
+                            }
+                            next();
+                        }
+                        break;
+                    case IDENT:
+                        if (!afterPropertyAccess) {
+                            final String name = ((TruffleString) getValue(token)).toJavaStringUncached();
+                            if (EVAL_NAME.equals(name)) {
+                                // Possibly a direct eval, which needs the full scope information.
+                                return null;
+                            } else if (ARGUMENTS_NAME.toJavaStringUncached().equals(name)) {
+                                bodyFlags |= FunctionNode.USES_ARGUMENTS;
+                            }
+                            referencedNames.add(name);
+                        }
+                        break;
+                    case PRIVATE_IDENT:
+                        if (lc.getCurrentClass() == null || !(isClassFields() || isES2021())) {
+                            return null;
+                        }
+                        privateNames.add(createIdentNode(token, start + Token.descLength(token), (TruffleString) getValue(token)).setIsPrivate());
+                        break;
+                    case THIS:
+                        if (!afterPropertyAccess) {
+                            bodyFlags |= FunctionNode.USES_THIS;
+                            referencedNames.add(THIS.getName());
+                        }
+                        break;
+                    case SUPER:
+                        if (!afterPropertyAccess && functionNode.isMethod()) {
+                            bodyFlags |= FunctionNode.USES_SUPER;
+                            referencedNames.add(SUPER.getName());
+                            referencedNames.add(THIS.getName());
+                        }
+                        break;
+                    case PERIOD:
+                        if (previous == TokenType.NEW && beforePrevious != PERIOD && beforePrevious != TokenType.OPTIONAL_CHAIN) {
+                            bodyFlags |= FunctionNode.USES_NEW_TARGET;
+                            referencedNames.add(NEW_TARGET_NAME.toJavaStringUncached());
+                        }
+                        break;
+                    case CLASS:
+                        hasClass = hasClass || !afterPropertyAccess;
+                        break;
+                    case IMPORT:
+                        if (!afterPropertyAccess) {
+                            // import() and import.meta need the active script or module.
+                            return null;
+                        }
+                        break;
+                    case ERROR:
+                    case EOF:
+                        return null;
+                    default:
+                        if (!afterPropertyAccess && (type.isContextualKeyword() || type.isFutureStrict())) {
+                            referencedNames.add(type.getName());
+                        }
+                        break;
+                }
+                if (complete) {
+                    break;
+                }
+                beforePrevious = previous;
+                previous = type;
+                closesControlHead = controlHead;
+                // No backtracking from here on.
+                stream.commit(k);
+                next();
+            }
+            // Private names of a nested class may be declared rather than used.
+            if (hasClass && !privateNames.isEmpty()) {
+                return null;
+            }
+            preParsed = true;
+        } catch (final ParserException e) {
+            // Let the full parser report the error.
+            return null;
+        } finally {
+            lexer.pauseOnRightBrace = previousPauseOnRightBrace;
+            if (!preParsed) {
+                restoreParserState(bodyParserState);
+            }
+        }
+
+        functionNode.setFlag(bodyFlags);
+        for (String name : referencedNames) {
+            addIdentifierReference(name);
+        }
+        final ParserContextClassNode currentClass = lc.getCurrentClass();
+        for (IdentNode privateName : privateNames) {
+            currentClass.usePrivateName(privateName);
+            addIdentifierReference(privateName.getName());
+        }
+        final ParserState endParserState = new ParserState(Token.descPosition(token), line, linePosition);
+        if (!lazyBodiesChecked) {
+            // The body still has to be parsed to check it for errors.
+            restoreParserState(bodyParserState);
+        }
+        return new LazyFunctionBody(functionNode.getParametersParserState(), endParserState, functionNode.getParentScope(), isStrictMode,
+                        functionFlags, bodyFlags, List.copyOf(referencedNames));
+    }
+
+    /**
+     * Decides whether a slash following the given token starts a regular expression literal or is
+     * a division operator.
+     *
+     * @return {@code null} if that cannot be decided from the preceding token alone
+     */
+    private static Boolean slashStartsRegExp(final TokenType previous, final boolean afterPropertyAccess, final boolean closesControlHead) {
+        if (afterPropertyAccess) {
+            // identifier name, e.g. `a.return / 2`
+            return Boolean.FALSE;
+        }
+        switch (previous) {
+            case RPAREN:
+                return closesControlHead;
+            case LPAREN:
+            case LBRACKET:
+            case LBRACE:
+            case TEMPLATE_HEAD:
+            case TEMPLATE_MIDDLE:
+            case RETURN:
+            case THROW:
+            case CASE:
+            case DO:
+            case ELSE:
+                return Boolean.TRUE;
+            case IDENT:
+            case PRIVATE_IDENT:
+            case THIS:
+            case SUPER:
+            case RBRACKET:
+            case TEMPLATE:
+            case TEMPLATE_TAIL:
+            case REGEX:
+                return Boolean.FALSE;
+            case INCPREFIX:
+            case DECPREFIX:
+            case RBRACE:
+                // postfix or prefix operator, end of a block or of an object literal
+                return null;
+            default:
+                break;
+        }
+        switch (previous.getKind()) {
+            case BINARY:
+            case UNARY:
+                return Boolean.TRUE;
+            case LITERAL:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
     }
 
     /**
      * Encapsulates part of the state of the parser, enough to reconstruct the state of both parser
      * and lexer for resuming parsing after skipping a function body.
      */
-    private static class ParserState {
-        private final int position;
+    static final class ParserState {
+        final int position;
         private final int line;
         private final int linePosition;
 
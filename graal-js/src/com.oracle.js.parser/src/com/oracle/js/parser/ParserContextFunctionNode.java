@@ -89,6 +89,8 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
 
     /** Opaque node for parser end state, see {@link Parser} */
     private Object endParserState;
+    /** Parser state at the parameter list; non-null if the body may be pre-parsed. */
+    private Parser.ParserState parametersParserState;
 
     private int length;
     private int parameterCount;
@@ -289,6 +291,20 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
         this.endParserState = endParserState;
     }
 
+    /**
+     * Returns the ParserState at the opening parenthesis of the parameter list, from which the
+     * function can be reparsed if its body is skipped by the pre-parser.
+     *
+     * @return the parser state, or {@code null} if the body must not be pre-parsed
+     */
+    Parser.ParserState getParametersParserState() {
+        return parametersParserState;
+    }
+
+    void setParametersParserState(final Parser.ParserState parametersParserState) {
+        this.parametersParserState = parametersParserState;
+    }
+
     /**
      * Returns the if of this function
      *
@@ -514,6 +530,13 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
         return bodyScope;
     }
 
+    /**
+     * Returns the scope enclosing this function.
+     */
+    public Scope getParentScope() {
+        return parentScope;
+    }
+
     /**
      * Replace non-strict with strict eval scope.
      */
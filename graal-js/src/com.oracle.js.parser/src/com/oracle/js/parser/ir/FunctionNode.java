@@ -45,6 +45,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
+import com.oracle.js.parser.LazyFunctionBody;
 import com.oracle.js.parser.Source;
 import com.oracle.js.parser.Token;
 import com.oracle.js.parser.ir.visitor.NodeVisitor;
@@ -587,6 +588,25 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         return endParserState;
     }
 
+    /**
+     * Returns the information recorded by the pre-parser if the body of this function has been
+     * skipped, i.e. the function has to be reparsed before it can be translated.
+     *
+     * @return the pre-parsed function body, or {@code null} if the body has been fully parsed.
+     */
+    public LazyFunctionBody getLazyFunctionBody() {
+        return endParserState instanceof LazyFunctionBody ? (LazyFunctionBody) endParserState : null;
+    }
+
+    /**
+     * Was the body of this function skipped by the pre-parser?
+     *
+     * @return true if the function needs to be reparsed before it can be translated.
+     */
+    public boolean isPreParsed() {
+        return endParserState instanceof LazyFunctionBody;
+    }
+
     /**
      * Get the name of this function
      *
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022, 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import java.nio.ByteBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.js.runtime.array.AtomicReadModifyWrite;
+import com.oracle.truffle.js.runtime.array.ByteBufferAccess;
+
+/**
+ * Measures the atomic read-modify-write primitives behind {@code Atomics.add/and/or/...} on a
+ * shared buffer with several agents (threads) contending for the same element. Compares the
+ * native fetch-and-op accessors with the read plus compare-and-exchange retry loop they replace.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+@Threads(4)
+public class JMHAtomicsContentionBenchmark {
+    @State(Scope.Benchmark)
+    public static class SharedBuffer {
+        @Param({"ADD", "OR"}) AtomicReadModifyWrite operation;
+
+        ByteBuffer buffer;
+
+        @Setup
+        public void doSetup() {
+            buffer = ByteBuffer.allocateDirect(64);
+        }
+    }
+
+    private static final ByteBufferAccess ACCESS = ByteBufferAccess.nativeOrder();
+
+    @Benchmark
+    public int testFetchAndOpInt32(SharedBuffer state) {
+        return ACCESS.getAndUpdateInt32(state.buffer, 0, 1, state.operation);
+    }
+
+    @Benchmark
+    public int testCompareExchangeLoopInt32(SharedBuffer state) {
+        ByteBuffer buffer = state.buffer;
+        int initial;
+        do {
+            initial = ACCESS.getInt32(buffer, 0);
+        } while (ACCESS.compareExchangeInt32(buffer, 0, initial, state.operation.applyAsInt(initial, 1)) != initial);
+        return initial;
+    }
+
+    @Benchmark
+    public int testFetchAndOpInt8(SharedBuffer state) {
+        return ACCESS.getAndUpdateSubword(state.buffer, 1, 1, 1, state.operation);
+    }
+
+    @Benchmark
+    public int testCompareExchangeLoopInt8(SharedBuffer state) {
+        ByteBuffer buffer = state.buffer;
+        int initial;
+        do {
+            initial = ACCESS.getInt8(buffer, 1);
+        } while (ACCESS.compareExchangeInt8(buffer, 1, initial, state.operation.applyAsInt(initial, 1)) != initial);
+        return initial;
+    }
+
+    @Benchmark
+    public long testFetchAndOpInt64(SharedBuffer state) {
+        return ACCESS.getAndUpdateInt64(state.buffer, 8, 1L, state.operation);
+    }
+
+    @Benchmark
+    public long testCompareExchangeLoopInt64(SharedBuffer state) {
+        ByteBuffer buffer = state.buffer;
+        long initial;
+        do {
+            initial = ACCESS.getInt64(buffer, 8);
+        } while (ACCESS.compareExchangeInt64(buffer, 8, initial, state.operation.applyAsLong(initial, 1L)) != initial);
+        return initial;
+    }
+}
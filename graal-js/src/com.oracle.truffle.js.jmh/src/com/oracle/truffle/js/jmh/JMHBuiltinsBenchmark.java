@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of frequently used core builtins. Each {@link Workload} is a JavaScript
+ * function that is created once per trial in a shared context and then invoked with the
+ * {@code size} parameter, so that only the builtin operations themselves are measured.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHBuiltinsBenchmark {
+
+    public enum Workload {
+        JSON_PARSE("" +
+                        "var text = JSON.stringify(Array.from({length: n}, (_, i) => ({id: i, name: 'item' + i, price: i * 1.5, tags: ['a', 'b'], nested: {ok: i % 2 === 0}})));" +
+                        "return () => JSON.parse(text);"),
+        JSON_STRINGIFY("" +
+                        "var value = Array.from({length: n}, (_, i) => ({id: i, name: 'item' + i, price: i * 1.5, tags: ['a', 'b'], nested: {ok: i % 2 === 0}}));" +
+                        "return () => JSON.stringify(value);"),
+        ARRAY_SORT("" +
+                        "var values = Array.from({length: n}, (_, i) => (i * 7919) % n);" +
+                        "return () => values.slice().sort((a, b) => a - b);"),
+        ARRAY_MAP_FILTER_REDUCE("" +
+                        "var values = Array.from({length: n}, (_, i) => i);" +
+                        "return () => values.map(x => x * 3).filter(x => (x & 1) === 0).reduce((acc, x) => acc + x, 0);"),
+        STRING_SPLIT("" +
+                        "var text = Array.from({length: n}, (_, i) => 'word' + i).join(' ');" +
+                        "return () => text.split(' ');"),
+        STRING_REPLACE("" +
+                        "var text = Array.from({length: n}, (_, i) => 'word' + i).join(' ');" +
+                        "return () => text.replace(/word(\\d)/g, 'w$1');"),
+        STRING_INDEX_OF("" +
+                        "var text = 'a'.repeat(n) + 'needle';" +
+                        "return () => text.indexOf('needle') + text.indexOf('b');"),
+        REGEXP_EXEC("" +
+                        "var text = Array.from({length: n}, (_, i) => 'key' + i + '=' + (i * 13)).join('&');" +
+                        "return () => { var re = /(\\w+)=(\\d+)/g, m, sum = 0; while ((m = re.exec(text)) !== null) { sum += m[2].length; } return sum; };"),
+        MAP_SET_CHURN("" +
+                        "return () => {" +
+                        "  var map = new Map(), set = new Set();" +
+                        "  for (var i = 0; i < n; i++) { map.set('k' + i, i); set.add(i); }" +
+                        "  for (var i = 0; i < n; i += 2) { map.delete('k' + i); set.delete(i); }" +
+                        "  var sum = 0; for (var [k, v] of map) { sum += v; } for (var v of set) { sum += v; }" +
+                        "  return sum;" +
+                        "};"),
+        PROMISE_CHAIN("" +
+                        "return () => { var p = Promise.resolve(0); for (var i = 0; i < n; i++) { p = p.then(x => x + 1); } return p; };"),
+        ASYNC_AWAIT("" +
+                        "async function step(x) { return x + 1; }" +
+                        "return async () => { var x = 0; for (var i = 0; i < n; i++) { x = await step(x); } return x; };"),
+        TYPED_ARRAY_COPY_FILL("" +
+                        "var source = new Float64Array(n).map((_, i) => i), target = new Float64Array(n);" +
+                        "return () => { target.set(source); target.copyWithin(0, n >> 1); target.fill(1.5, 0, n >> 2); return source.slice(1); };"),
+        POLYMORPHIC_PROPERTY_ACCESS("" +
+                        "var objects = Array.from({length: n}, (_, i) => { switch (i % 4) {" +
+                        "  case 0: return {x: i, y: 1}; case 1: return {y: 1, x: i}; case 2: return {z: 0, x: i, y: 1}; default: return {x: i, w: 2, y: 1}; } });" +
+                        "return () => { var sum = 0; for (var i = 0; i < objects.length; i++) { sum += objects[i].x + objects[i].y; } return sum; };");
+
+        final String setupCode;
+
+        Workload(String setupCode) {
+            this.setupCode = setupCode;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class WarmContext {
+        @Param Workload workload;
+        @Param({"1000"}) int size;
+
+        Context context;
+        Value function;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            Value factory = context.eval(Source.create("js", "(function(n) {" + workload.setupCode + "})"));
+            function = factory.execute(size);
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SharedEngine {
+        Engine engine;
+        Source source;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            engine = Engine.create();
+            source = Source.create("js", "Object.keys(globalThis).length");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            engine.close();
+        }
+    }
+
+    @Benchmark
+    public Value testBuiltin(WarmContext state) {
+        return state.function.execute();
+    }
+
+    @Benchmark
+    public int testContextCreation(SharedEngine state) {
+        try (Context context = Context.newBuilder("js").engine(state.engine).build()) {
+            return context.eval(state.source).asInt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2022, 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code JSON.parse} throughput for documents consisting of many objects of the same
+ * layout, with and without the JSON object layout cache.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHJSONParseBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        protected static final int OBJECT_COUNT = 1000;
+
+        @Param({"true", "false"}) boolean layoutCache;
+
+        Context context;
+        Value parse;
+        Value sameShapeDocument;
+        Value mixedShapeDocument;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.newBuilder("js").allowExperimentalOptions(true).option("js.json-parse-layout-cache", String.valueOf(layoutCache)).build();
+            parse = context.eval(Source.create("js", "(function(text) { return JSON.parse(text); })"));
+            sameShapeDocument = context.eval(Source.create("js", "JSON.stringify(Array.from({length: " + OBJECT_COUNT + "}, (_, i) => " +
+                            "({id: i, name: 'item' + i, price: i * 1.5, tags: ['a', 'b'], active: i % 2 === 0, address: {street: 'Main', zip: '' + i}})))"));
+            mixedShapeDocument = context.eval(Source.create("js", "JSON.stringify(Array.from({length: " + OBJECT_COUNT + "}, (_, i) => " +
+                            "(i % 3 === 0 ? {id: i, name: 'item' + i} : i % 3 === 1 ? {name: 'item' + i, id: i, extra: true} : {key: i, value: null})))"));
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testParseSameShape(MyState state) {
+        return state.parse.execute(state.sameShapeDocument);
+    }
+
+    @Benchmark
+    public Value testParseMixedShapes(MyState state) {
+        return state.parse.execute(state.mixedShapeDocument);
+    }
+}
@@ -59,6 +59,7 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Supplier;
 
+import com.oracle.js.parser.Lexer.RegexToken;
 import com.oracle.js.parser.ir.Expression;
 import com.oracle.js.parser.ir.Module;
 import com.oracle.js.parser.ir.Module.ExportEntry;
@@ -243,8 +244,15 @@ public final class GraalJSEvaluator implements JSParser {
         if (isModuleSource(source)) {
             return fakeScriptForModule(context, source);
         }
+        if (argumentNames == null && ScriptCodeCache.isEnabled(context, source)) {
+            return ScriptCodeCache.parseScript(context, source, prolog, epilog, isStrict, factory -> translateScript(factory, context, source, prolog, epilog, isStrict, null));
+        }
+        return translateScript(NodeFactory.getInstance(context), context, source, prolog, epilog, isStrict, argumentNames);
+    }
+
+    private static ScriptNode translateScript(NodeFactory factory, JSContext context, Source source, String prolog, String epilog, boolean isStrict, List<String> argumentNames) {
         try {
-            return JavaScriptTranslator.translateScript(NodeFactory.getInstance(context), context, source, isStrict, prolog, epilog, argumentNames);
+            return JavaScriptTranslator.translateScript(factory, context, source, isStrict, prolog, epilog, argumentNames);
         } catch (com.oracle.js.parser.ParserException e) {
             throw Errors.createSyntaxError(e.getMessage());
         }
@@ -390,6 +398,21 @@ public final class GraalJSEvaluator implements JSParser {
 
     }
 
+    @Override
+    public com.oracle.js.parser.ir.FunctionNode preparseModule(JSContext context, Source source, List<RegexToken> regexLiterals) {
+        return GraalJSParserHelper.preparseModule(context, source, context.getParserOptions().putStrict(true), regexLiterals);
+    }
+
+    @TruffleBoundary
+    @Override
+    public JSModuleData parseModule(JSContext context, Source source, com.oracle.js.parser.ir.FunctionNode preparsedModule, List<RegexToken> regexLiterals) {
+        if (!GraalJSParserHelper.validateRegexLiterals(context, regexLiterals, context.getParserOptions())) {
+            // parse again to report the error at the right location
+            return parseModule(context, source);
+        }
+        return JavaScriptTranslator.translateModule(NodeFactory.getInstance(context), context, source, preparsedModule);
+    }
+
     @TruffleBoundary
     @Override
     public JSModuleData envParseModule(JSRealm realm, Source source) {
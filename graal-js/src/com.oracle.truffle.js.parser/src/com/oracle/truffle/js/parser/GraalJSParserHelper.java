@@ -94,6 +94,46 @@ public final class GraalJSParserHelper {
         return parseSource(context, truffleSource, parserOptions, true, false, false, null, "", "", null);
     }
 
+    /**
+     * Parses a module without touching any realm state, so that it can be done on a background
+     * thread. Regular expression literals are collected into {@code regexLiterals} instead of being
+     * validated, see {@link #validateRegexLiterals}.
+     *
+     * @return the parsed module, or {@code null} if the source has syntax errors
+     */
+    public static FunctionNode preparseModule(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions, List<RegexToken> regexLiterals) {
+        com.oracle.js.parser.Source source = com.oracle.js.parser.Source.sourceFor(truffleSource.getName(), truffleSource.getCharacters(), false);
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions, false);
+        ErrorManager errors = new ErrorManager.StringBuilderErrorManager();
+        errors.setLimit(0);
+        Parser parser = createParser(context, env, source, errors, parserOptions, regexLiterals);
+        FunctionNode parsed;
+        try {
+            parsed = parser.parseModule(COLON_MODULE);
+        } catch (ParserException e) {
+            return null;
+        }
+        return errors.hasErrors() ? null : parsed;
+    }
+
+    /**
+     * Validates regular expression literals collected by {@link #preparseModule}.
+     *
+     * @return {@code false} if any of the literals is invalid
+     */
+    public static boolean validateRegexLiterals(JSContext context, List<RegexToken> regexLiterals, JSParserOptions parserOptions) {
+        if (context.getContextOptions().isValidateRegExpLiterals()) {
+            for (RegexToken regex : regexLiterals) {
+                try {
+                    RegexCompilerInterface.validate(context, regex.getExpression(), regex.getOptions(), parserOptions.getEcmaScriptVersion());
+                } catch (JSException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private static FunctionNode parseSource(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions,
                     boolean parseModule, boolean eval, boolean evalInFunction, Scope evalScope, String prologue, String epilogue, List<String> argumentNames) {
         CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
@@ -109,7 +149,8 @@ public final class GraalJSParserHelper {
         }
         com.oracle.js.parser.Source source = com.oracle.js.parser.Source.sourceFor(truffleSource.getName(), code, eval);
 
-        ScriptEnvironment env = makeScriptEnvironment(parserOptions);
+        boolean lazyParsing = !parseModule && !eval && argumentNames == null && context.getContextOptions().isLazyParsing() && context.getContextOptions().isLazyTranslation();
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions, lazyParsing);
         ErrorManager errors;
         if (eval) {
             errors = new ErrorManager.ThrowErrorManager();
@@ -137,6 +178,25 @@ public final class GraalJSParserHelper {
         return parsed;
     }
 
+    /**
+     * Parses the complete AST of a function whose body has been skipped by the pre-parser.
+     */
+    public static FunctionNode reparseLazyFunction(JSContext context, FunctionNode lazyFunction) {
+        CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
+        JSParserOptions parserOptions = context.getParserOptions();
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions, true);
+        ErrorManager errors = new ErrorManager.ThrowErrorManager();
+        errors.setLimit(0);
+
+        Parser parser = createParser(context, env, lazyFunction.getSource(), errors, parserOptions);
+        try {
+            return parser.reparseLazyFunction(lazyFunction);
+        } catch (ParserException e) {
+            // early errors of a pre-parsed body are only detected by the reparse
+            throw Errors.createSyntaxError(e.getMessage());
+        }
+    }
+
     public static Expression parseExpression(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions) {
         CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
         CharSequence code = truffleSource.getCharacters();
@@ -156,13 +216,20 @@ public final class GraalJSParserHelper {
     }
 
     private static Parser createParser(JSContext context, ScriptEnvironment env, com.oracle.js.parser.Source source, ErrorManager errors, JSParserOptions parserOptions) {
+        return createParser(context, env, source, errors, parserOptions, null);
+    }
+
+    private static Parser createParser(JSContext context, ScriptEnvironment env, com.oracle.js.parser.Source source, ErrorManager errors, JSParserOptions parserOptions,
+                    List<RegexToken> deferredRegexLiterals) {
         return new Parser(env, source, errors) {
             @Override
             protected void validateLexerToken(LexerToken lexerToken) {
                 if (lexerToken instanceof RegexToken) {
                     final RegexToken regex = (RegexToken) lexerToken;
                     // validate regular expression
-                    if (context.getContextOptions().isValidateRegExpLiterals()) {
+                    if (deferredRegexLiterals != null) {
+                        deferredRegexLiterals.add(regex);
+                    } else if (context.getContextOptions().isValidateRegExpLiterals()) {
                         try {
                             RegexCompilerInterface.validate(context, regex.getExpression(), regex.getOptions(), parserOptions.getEcmaScriptVersion());
                         } catch (JSException e) {
@@ -180,6 +247,10 @@ public final class GraalJSParserHelper {
     }
 
     private static ScriptEnvironment makeScriptEnvironment(JSParserOptions parserOptions) {
+        return makeScriptEnvironment(parserOptions, false);
+    }
+
+    private static ScriptEnvironment makeScriptEnvironment(JSParserOptions parserOptions, boolean lazyParsing) {
         ScriptEnvironment.Builder builder = ScriptEnvironment.builder();
         builder.strict(parserOptions.isStrict());
         builder.ecmaScriptVersion(parserOptions.getEcmaScriptVersion());
@@ -194,6 +265,7 @@ public final class GraalJSParserHelper {
         builder.importAssertions(parserOptions.isImportAssertions());
         builder.privateFieldsIn(parserOptions.isPrivateFieldsIn());
         builder.topLevelAwait(parserOptions.isTopLevelAwait());
+        builder.lazyParsing(lazyParsing);
         if (parserOptions.isFunctionStatementError()) {
             builder.functionStatementBehavior(FunctionStatementBehavior.ERROR);
         } else {
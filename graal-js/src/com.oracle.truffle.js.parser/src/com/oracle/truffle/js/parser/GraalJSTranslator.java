@@ -52,6 +52,7 @@ import java.util.Objects;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
+import com.oracle.js.parser.LazyFunctionBody;
 import com.oracle.js.parser.Lexer;
 import com.oracle.js.parser.TokenType;
 import com.oracle.js.parser.ir.AccessNode;
@@ -368,6 +369,10 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         boolean functionMode = !isGlobal || (isStrict && isIndirectEval);
 
         boolean lazyTranslation = context.getContextOptions().isLazyTranslation() && functionMode && !functionNode.isProgram() && !inDirectEval;
+        if (!lazyTranslation && functionNode.isPreParsed()) {
+            // The body has been skipped by the pre-parser, so we have to parse it now.
+            return enterFunctionNode(GraalJSParserHelper.reparseLazyFunction(context, functionNode));
+        }
 
         TruffleString functionName = getFunctionName(functionNode);
         JSFunctionData functionData;
@@ -387,7 +392,8 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
             Environment parentEnv = environment;
             functionData.setLazyInit(fd -> {
                 GraalJSTranslator translator = newTranslator(parentEnv, savedLC);
-                translator.translateFunctionOnDemand(functionNode, fd, isStrict, isGlobal, needsParentFrame, functionName, hasSyntheticArguments);
+                FunctionNode parsedFunctionNode = functionNode.isPreParsed() ? translator.reparseLazyFunction(functionNode) : functionNode;
+                translator.translateFunctionOnDemand(parsedFunctionNode, fd, isStrict, isGlobal, needsParentFrame, functionName, hasSyntheticArguments);
             });
             functionRoot = null;
         } else {
@@ -411,7 +417,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 }
 
                 if (functionNode.isProgram()) {
-                    functionNeedsParentFramePass(functionNode, context);
+                    functionNeedsParentFramePass(functionNode, new LexicalContext(), context);
                 }
 
                 boolean needsParentFrame = functionNode.usesAncestorScope();
@@ -1013,12 +1019,23 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         return Collections.emptyList();
     }
 
-    private static void functionNeedsParentFramePass(FunctionNode rootFunctionNode, JSContext context) {
+    /**
+     * Parses the body of a function that has been skipped by the pre-parser. Since its nested
+     * functions have not been seen by the pass over the whole script, determines here which of them
+     * need the parent frame.
+     */
+    private FunctionNode reparseLazyFunction(FunctionNode lazyFunctionNode) {
+        FunctionNode functionNode = GraalJSParserHelper.reparseLazyFunction(context, lazyFunctionNode);
+        functionNeedsParentFramePass(functionNode, lc.copy(), context);
+        return functionNode;
+    }
+
+    private static void functionNeedsParentFramePass(FunctionNode rootFunctionNode, LexicalContext outerLC, JSContext context) {
         if (!context.getContextOptions().isLazyTranslation()) {
             return; // nothing to do
         }
 
-        com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext> visitor = new com.oracle.js.parser.ir.visitor.NodeVisitor<>(new LexicalContext()) {
+        com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext> visitor = new com.oracle.js.parser.ir.visitor.NodeVisitor<>(outerLC) {
             @Override
             public boolean enterIdentNode(IdentNode identNode) {
                 if (!identNode.isPropertyName()) {
@@ -1138,6 +1155,20 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 // TODO if function does not have nested functions we can skip it
                 return true;
             }
+
+            @Override
+            public boolean enterBlock(Block block) {
+                if (block.isFunctionBody()) {
+                    LazyFunctionBody lazyBody = lc.getCurrentFunction().getLazyFunctionBody();
+                    if (lazyBody != null) {
+                        // replay the references of the body skipped by the pre-parser
+                        for (String varName : lazyBody.getReferencedNames()) {
+                            findSymbol(varName);
+                        }
+                    }
+                }
+                return true;
+            }
         };
 
         rootFunctionNode.accept(visitor);
@@ -2104,14 +2135,40 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
     }
 
     private JavaScriptNode desugarForIn(ForNode forNode, JavaScriptNode modify, JumpTargetCloseable<ContinueTarget> jumpTarget) {
-        JavaScriptNode createIteratorNode;
         if (forNode.isForEach()) {
-            createIteratorNode = factory.createEnumerate(context, modify, true);
-        } else {
-            assert forNode.isForIn() && !forNode.isForEach() && !forNode.isForOf();
-            createIteratorNode = factory.createEnumerate(context, modify, false);
+            JavaScriptNode createIteratorNode = factory.createEnumerate(context, modify, true);
+            return desugarForInOrOfBody(forNode, factory.createGetIterator(context, createIteratorNode), jumpTarget);
+        }
+        assert forNode.isForIn() && !forNode.isForEach() && !forNode.isForOf();
+        return desugarForInKeys(forNode, factory.createEnumerateForInState(context, modify), jumpTarget);
+    }
+
+    /**
+     * The for-in iterator is not observable and never closed, so instead of the iterator protocol,
+     * the loop condition advances the enumeration state directly and writes the next key.
+     */
+    private JavaScriptNode desugarForInKeys(ForNode forNode, JavaScriptNode enumerate, JumpTargetCloseable<ContinueTarget> jumpTarget) {
+        VarRef iteratorVar = environment.createTempVar();
+        JavaScriptNode iteratorInit = iteratorVar.createWriteNode(enumerate);
+        VarRef nextKeyVar = environment.createTempVar();
+        // while (nextKey = ForInNextKey(iterator))
+        JavaScriptNode condition = factory.createForInNextKey(context, iteratorVar.createReadNode(), (WriteNode) nextKeyVar.createWriteNode(null));
+        JavaScriptNode wrappedBody;
+        try (EnvironmentCloseable blockEnv = new EnvironmentCloseable(needsPerIterationScope(forNode) ? newPerIterationEnvironment(lc.getCurrentBlock().getScope()) : environment)) {
+            VarRef nextKeyVar2 = environment.findTempVar(nextKeyVar.getFrameSlot());
+            JavaScriptNode writeNext = tagStatement(desugarForHeadAssignment(forNode, nextKeyVar2.createReadNode()), forNode);
+            JavaScriptNode body = transform(forNode.getBody());
+            wrappedBody = blockEnv.wrapBlockScope(createBlock(writeNext, body));
         }
-        return desugarForInOrOfBody(forNode, factory.createGetIterator(context, createIteratorNode), jumpTarget);
+        wrappedBody = jumpTarget.wrapContinueTargetNode(wrappedBody);
+        RepeatingNode repeatingNode = factory.createWhileDoRepeatingNode(condition, wrappedBody);
+        LoopNode loopNode = factory.createLoopNode(repeatingNode);
+        JavaScriptNode whileNode = factory.createDesugaredForIn(loopNode);
+        JavaScriptNode wrappedWhile = jumpTarget.wrapBreakTargetNode(whileNode);
+        JavaScriptNode resetIterator = iteratorVar.createWriteNode(factory.createConstant(JSFrameUtil.DEFAULT_VALUE));
+        wrappedWhile = factory.createTryFinally(wrappedWhile, resetIterator);
+        ensureHasSourceSection(whileNode, forNode);
+        return createBlock(iteratorInit, wrappedWhile);
     }
 
     private JavaScriptNode desugarForOf(ForNode forNode, JavaScriptNode modify, JumpTargetCloseable<ContinueTarget> jumpTarget) {
@@ -124,6 +124,10 @@ public final class JavaScriptTranslator extends GraalJSTranslator {
 
     public static JSModuleData translateModule(NodeFactory factory, JSContext context, Source source) {
         FunctionNode parsed = GraalJSParserHelper.parseModule(context, source, context.getParserOptions().putStrict(true));
+        return translateModule(factory, context, source, parsed);
+    }
+
+    public static JSModuleData translateModule(NodeFactory factory, JSContext context, Source source, FunctionNode parsed) {
         JavaScriptTranslator translator = new JavaScriptTranslator(factory, context, source, 0, null, true);
         JSFunctionData functionData = translator.translateModule(parsed);
         return new JSModuleData(parsed.getModule(), source, functionData, functionData.getRootNode().getFrameDescriptor());
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.parser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+import org.graalvm.home.HomeFinder;
+
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.nodes.JSNodeDecoder;
+import com.oracle.truffle.js.nodes.NodeFactory;
+import com.oracle.truffle.js.nodes.ScriptNode;
+import com.oracle.truffle.js.nodes.function.FunctionRootNode;
+import com.oracle.truffle.js.runtime.JSContext;
+
+/**
+ * On-disk cache of translated scripts ({@code js.code-cache-dir}).
+ *
+ * Entries are binary snapshots as produced by the snapshot tool, named after a digest of the
+ * source content, the prolog and epilog, strict mode, the explicitly set options, the GraalJS
+ * version, and the snapshot format checksum. The cache directory is accessed through
+ * {@link TruffleFile}, so it is subject to the context's IO permissions. A missing or unreadable
+ * entry falls back to regular translation, which is recorded by a {@link ScriptRecorder} (if
+ * available) to write a new entry.
+ */
+final class ScriptCodeCache {
+
+    private static final String FILE_SUFFIX = ".bin";
+    private static final String VERSION = HomeFinder.getInstance().getVersion();
+
+    private static final ScriptRecorder RECORDER = loadRecorder();
+
+    /**
+     * Digests of source contents, so that a source is hashed only once.
+     */
+    private static final Map<Source, byte[]> SOURCE_DIGESTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ScriptCodeCache() {
+    }
+
+    private static ScriptRecorder loadRecorder() {
+        Iterator<ScriptRecorder> recorders = ServiceLoader.load(ScriptRecorder.class, ScriptCodeCache.class.getClassLoader()).iterator();
+        return recorders.hasNext() ? recorders.next() : null;
+    }
+
+    static boolean isEnabled(JSContext context, Source source) {
+        return !context.getContextOptions().getCodeCacheDir().isEmpty() && source.hasCharacters();
+    }
+
+    static ScriptNode parseScript(JSContext context, Source source, String prolog, String epilog, boolean strict, Function<NodeFactory, ScriptNode> translate) {
+        NodeFactory nodeFactory = NodeFactory.getInstance(context);
+        TruffleLanguage.Env env = JavaScriptLanguage.getCurrentEnv();
+        TruffleFile entry = getEntryFile(env, context, source, prolog, epilog, strict);
+        if (entry == null) {
+            return translate.apply(nodeFactory);
+        }
+        ScriptNode cached = load(context, source, entry);
+        if (cached != null) {
+            return cached;
+        }
+        // Function bodies translated lazily would be missing from the recording.
+        if (RECORDER == null || context.getContextOptions().isLazyTranslation()) {
+            return translate.apply(nodeFactory);
+        }
+        ScriptRecorder.ScriptRecording recording = RECORDER.startRecording(nodeFactory);
+        ScriptNode script = translate.apply(recording.getNodeFactory());
+        byte[] bytes;
+        try {
+            bytes = recording.finish(script, source.getName());
+        } catch (RuntimeException e) {
+            // the cache is best-effort: failing to record an entry must not fail the script
+            return script;
+        }
+        store(env, entry, bytes);
+        return script;
+    }
+
+    private static ScriptNode load(JSContext context, Source source, TruffleFile entry) {
+        byte[] bytes;
+        try {
+            if (!entry.isRegularFile()) {
+                return null;
+            }
+            bytes = entry.readAllBytes();
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+        try {
+            SnapshotProvider snapshot = new BinarySnapshotProvider(ByteBuffer.wrap(bytes));
+            return ScriptNode.fromFunctionRoot(context, (FunctionRootNode) snapshot.apply(NodeFactory.getInstance(context), context, source));
+        } catch (RuntimeException e) {
+            // stale or corrupt entry: translate again and overwrite it
+            return null;
+        }
+    }
+
+    private static void store(TruffleLanguage.Env env, TruffleFile entry, byte[] bytes) {
+        try {
+            TruffleFile dir = entry.getParent();
+            dir.createDirectories();
+            TruffleFile tmp = env.createTempFile(dir, entry.getName(), ".tmp");
+            try {
+                try (OutputStream out = tmp.newOutputStream()) {
+                    out.write(bytes);
+                }
+                tmp.move(entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                if (tmp.exists()) {
+                    tmp.delete();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // the cache is best-effort: failing to write an entry must not fail the script
+        }
+    }
+
+    private static TruffleFile getEntryFile(TruffleLanguage.Env env, JSContext context, Source source, String prolog, String epilog, boolean strict) {
+        byte[] sourceDigest = getSourceDigest(source);
+        if (sourceDigest == null) {
+            return null;
+        }
+        MessageDigest digest = newDigest();
+        if (digest == null) {
+            return null;
+        }
+        digest.update(sourceDigest);
+        digest.update(prolog.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(epilog.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(context.getContextOptions().getStableOptionsKey().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(ByteBuffer.allocate(8).putInt(strict ? 1 : 0).putInt(JSNodeDecoder.getChecksum()).array());
+        StringBuilder name = new StringBuilder();
+        for (byte b : digest.digest()) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        name.append(FILE_SUFFIX);
+        try {
+            return env.getPublicTruffleFile(context.getContextOptions().getCodeCacheDir()).resolve(name.toString());
+        } catch (UnsupportedOperationException | IllegalArgumentException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static byte[] getSourceDigest(Source source) {
+        byte[] sourceDigest = SOURCE_DIGESTS.get(source);
+        if (sourceDigest == null) {
+            MessageDigest digest = newDigest();
+            if (digest == null) {
+                return null;
+            }
+            sourceDigest = digest.digest(source.getCharacters().toString().getBytes(StandardCharsets.UTF_8));
+            SOURCE_DIGESTS.put(source, sourceDigest);
+        }
+        return sourceDigest;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+}
@@ -103,6 +103,31 @@ public final class DoubleConversion {
         return buffer.format(DtoaMode.SHORTEST, 0);
     }
 
+    /**
+     * Maximal length of the shortest string representation of a double number, e.g.
+     * {@code -0.000001234567890123456}.
+     */
+    public static final int kMaxShortestLength = 25;
+
+    /**
+     * Converts a double number to its shortest string representation and writes it into the given
+     * array without any intermediate string. The digit buffer can be reused across calls.
+     *
+     * @param value number to convert
+     * @param buffer digit buffer of at least {@link DtoaBuffer#kFastDtoaMaximalLength} capacity
+     * @param result destination array of at least {@link #kMaxShortestLength} capacity
+     * @return the number of characters written
+     */
+    public static int toShortest(final double value, final DtoaBuffer buffer, final char[] result) {
+        assert Double.isFinite(value) : value;
+        assert result.length >= kMaxShortestLength;
+
+        buffer.clear();
+        dtoaShortest(value, buffer);
+
+        return buffer.format(DtoaMode.SHORTEST, 0, result);
+    }
+
     private static void dtoaShortest(final double value, final DtoaBuffer buffer) {
         final double absValue = Math.abs(value);
 
@@ -289,12 +314,13 @@ public final class DoubleConversion {
             assert buffer.getLength() == requestedDigits + 1;
         }
 
-        StringBuilder resultBuilder = new StringBuilder();
+        char[] result = new char[buffer.getMaxFormattedLength(0)];
+        int pos = 0;
         if (sign && (value != 0.0 || !uniqueZero)) {
-            resultBuilder.append('-');
+            result[pos++] = '-';
         }
 
-        buffer.toExponentialFormat(resultBuilder);
-        return resultBuilder.toString();
+        pos = buffer.toExponentialFormat(result, pos);
+        return new String(result, 0, pos);
     }
 }
@@ -118,6 +118,14 @@ public class DtoaBuffer {
         decimalPoint = 0;
     }
 
+    /**
+     * Clear the buffer contents and sign so that it can be reused for another conversion.
+     */
+    void clear() {
+        reset();
+        isNegative = false;
+    }
+
     /**
      * Get the raw digits of this buffer as string.
      * @return the raw buffer contents
@@ -151,88 +159,137 @@ public class DtoaBuffer {
      * @return formatted string
      */
     public String format(final DtoaMode mode, final int digitsAfterPoint) {
-        final StringBuilder buffer = new StringBuilder();
+        final char[] result = new char[getMaxFormattedLength(digitsAfterPoint)];
+        final int resultLength = format(mode, digitsAfterPoint, result);
+        return new String(result, 0, resultLength);
+    }
+
+    /**
+     * Writes the formatted buffer content into the given array, using the specified conversion
+     * mode and padding. The array must have room for at least
+     * {@link #getMaxFormattedLength(int)} characters.
+     *
+     * @param mode conversion mode
+     * @param digitsAfterPoint number of digits after point
+     * @param result the destination array
+     * @return the number of characters written
+     */
+    public int format(final DtoaMode mode, final int digitsAfterPoint, final char[] result) {
+        int pos = 0;
         if (isNegative) {
-            buffer.append('-');
+            result[pos++] = '-';
         }
 
         // check for minus sign
         switch (mode) {
             case SHORTEST:
                 if (decimalPoint < -5 || decimalPoint > 21) {
-                    toExponentialFormat(buffer);
+                    pos = toExponentialFormat(result, pos);
                 } else {
-                    toFixedFormat(buffer, digitsAfterPoint);
+                    pos = toFixedFormat(result, pos, digitsAfterPoint);
                 }
                 break;
             case FIXED:
-                toFixedFormat(buffer, digitsAfterPoint);
+                pos = toFixedFormat(result, pos, digitsAfterPoint);
                 break;
             case PRECISION:
                 if (decimalPoint < -5 || decimalPoint > length) {
-                    toExponentialFormat(buffer);
+                    pos = toExponentialFormat(result, pos);
                 } else {
-                    toFixedFormat(buffer, digitsAfterPoint);
+                    pos = toFixedFormat(result, pos, digitsAfterPoint);
                 }
                 break;
         }
 
-        return buffer.toString();
+        return pos;
     }
 
-    private void toFixedFormat(final StringBuilder buffer, final int digitsAfterPoint) {
+    /**
+     * Returns an upper bound for the number of characters produced by formatting the current
+     * buffer content.
+     *
+     * @param digitsAfterPoint number of digits after point
+     * @return maximal formatted length
+     */
+    public int getMaxFormattedLength(final int digitsAfterPoint) {
+        // sign, "0.", zero padding, digits, decimal point, trailing zeros, "e+dddd"
+        return 1 + 2 + Math.abs(decimalPoint) + length + 1 + Math.max(0, digitsAfterPoint) + 6;
+    }
+
+    private int toFixedFormat(final char[] result, final int start, final int digitsAfterPoint) {
+        int pos = start;
         if (decimalPoint <= 0) {
             // < 1,
-            buffer.append('0');
+            result[pos++] = '0';
             if (length > 0) {
-                buffer.append('.');
+                result[pos++] = '.';
                 final int padding = -decimalPoint;
                 for (int i = 0; i < padding; i++) {
-                    buffer.append('0');
+                    result[pos++] = '0';
                 }
-                buffer.append(chars, 0, length);
+                System.arraycopy(chars, 0, result, pos, length);
+                pos += length;
             } else {
                 decimalPoint = 1;
             }
         } else if (decimalPoint >= length) {
             // large integer, add trailing zeroes
-            buffer.append(chars, 0, length);
+            System.arraycopy(chars, 0, result, pos, length);
+            pos += length;
             for (int i = length; i < decimalPoint; i++) {
-                buffer.append('0');
+                result[pos++] = '0';
             }
         } else if (decimalPoint < length) {
             // >= 1, split decimals and insert decimalPoint
-            buffer.append(chars, 0, decimalPoint);
-            buffer.append('.');
-            buffer.append(chars, decimalPoint, length - decimalPoint);
+            System.arraycopy(chars, 0, result, pos, decimalPoint);
+            pos += decimalPoint;
+            result[pos++] = '.';
+            System.arraycopy(chars, decimalPoint, result, pos, length - decimalPoint);
+            pos += length - decimalPoint;
         }
 
         // Create trailing zeros if requested
         if (digitsAfterPoint > 0) {
             if (decimalPoint >= length) {
-                buffer.append('.');
+                result[pos++] = '.';
             }
             for (int i = Math.max(0, length - decimalPoint); i < digitsAfterPoint; i++) {
-                buffer.append('0');
+                result[pos++] = '0';
             }
         }
+        return pos;
     }
 
-    void toExponentialFormat(final StringBuilder buffer) {
+    int toExponentialFormat(final char[] result, final int start) {
         assert length != 0;
-        buffer.append(chars[0]);
+        int pos = start;
+        result[pos++] = chars[0];
         if (length > 1) {
             // insert decimal decimalPoint if more than one digit was produced
-            buffer.append('.');
-            buffer.append(chars, 1, length - 1);
+            result[pos++] = '.';
+            System.arraycopy(chars, 1, result, pos, length - 1);
+            pos += length - 1;
         }
-        buffer.append(EXPONENT_CHARACTER);
+        result[pos++] = EXPONENT_CHARACTER;
         final int exponent = decimalPoint - 1;
         assert Math.abs(exponent) < 10000;
+        int absExponent;
         if (exponent >= 0) {
-            buffer.append('+');
+            result[pos++] = '+';
+            absExponent = exponent;
+        } else {
+            result[pos++] = '-';
+            absExponent = -exponent;
+        }
+        // write the exponent digits from most to least significant
+        int divisor = 1;
+        while (divisor * 10 <= absExponent) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            result[pos++] = (char) ('0' + (absExponent / divisor) % 10);
         }
-        buffer.append(exponent);
+        return pos;
     }
 
     @Override
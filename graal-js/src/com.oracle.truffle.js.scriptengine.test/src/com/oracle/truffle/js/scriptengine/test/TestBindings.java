@@ -41,8 +41,10 @@
 package com.oracle.truffle.js.scriptengine.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeFalse;
@@ -50,6 +52,8 @@ import static org.junit.Assume.assumeFalse;
 import java.util.function.Predicate;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
@@ -57,6 +61,7 @@ import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 import javax.script.SimpleScriptContext;
 
+import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.HostAccess;
 import org.junit.Test;
 
@@ -459,4 +464,93 @@ public class TestBindings {
         assertTrue((boolean) engine.eval("typeof key === 'undefined'"));
     }
 
+    @Test
+    public void pooledBindings() throws ScriptException {
+        GraalJSScriptEngine engine = GraalJSScriptEngine.create(null, TestUtil.newContextBuilder(), 1);
+        try {
+            Bindings bindings1 = engine.createBindings();
+            engine.eval("var pooledVar = 42; globalThis.pooledProp = 'x';", bindings1);
+            assertEquals(42, engine.eval("pooledVar", bindings1));
+            ((AutoCloseable) bindings1).close();
+
+            Bindings bindings2 = engine.createBindings();
+            assertEquals("undefined", engine.eval("typeof pooledVar", bindings2));
+            assertEquals("undefined", engine.eval("typeof pooledProp", bindings2));
+            assertEquals("function", engine.eval("typeof Array.prototype.map", bindings2));
+            ((AutoCloseable) bindings2).close();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        } finally {
+            engine.close();
+        }
+    }
+
+    private static Context pooledContext(GraalJSScriptEngine engine, Bindings bindings) {
+        ScriptContext scriptContext = new SimpleScriptContext();
+        scriptContext.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+        return engine.getPolyglotContext(scriptContext);
+    }
+
+    @Test
+    public void pooledBindingsModifiedBuiltins() throws ScriptException {
+        GraalJSScriptEngine engine = GraalJSScriptEngine.create(null, TestUtil.newContextBuilder(), 1);
+        try {
+            Bindings bindings1 = engine.createBindings();
+            Context context1 = pooledContext(engine, bindings1);
+            engine.eval("globalThis.unmodified = 1; var topLevelVar = 2; function topLevelFunction() {}", bindings1);
+            ((AutoCloseable) bindings1).close();
+
+            // context with only new global bindings is reused
+            Bindings bindings2 = engine.createBindings();
+            assertSame(context1, pooledContext(engine, bindings2));
+            assertEquals("undefined", engine.eval("typeof unmodified", bindings2));
+            assertEquals("undefined", engine.eval("typeof topLevelVar", bindings2));
+            assertEquals("undefined", engine.eval("typeof topLevelFunction", bindings2));
+            engine.eval("JSON = null;", bindings2);
+            ((AutoCloseable) bindings2).close();
+
+            // context with a changed global binding is not reused
+            Bindings bindings3 = engine.createBindings();
+            assertNotSame(context1, pooledContext(engine, bindings3));
+            assertEquals("function", engine.eval("typeof JSON.stringify", bindings3));
+            engine.eval("let lexical = 1;", bindings3);
+            Context context3 = pooledContext(engine, bindings3);
+            ((AutoCloseable) bindings3).close();
+
+            // context with a top-level lexical declaration is not reused
+            Bindings bindings4 = engine.createBindings();
+            assertNotSame(context3, pooledContext(engine, bindings4));
+            ((AutoCloseable) bindings4).close();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        } finally {
+            engine.close();
+        }
+    }
+
+    @Test
+    public void pooledBindingsClosedWithEngine() {
+        GraalJSScriptEngine engine = GraalJSScriptEngine.create(null, TestUtil.newContextBuilder(), 1);
+        Bindings bindings = engine.createBindings();
+        Context context = pooledContext(engine, bindings);
+        engine.close();
+        try {
+            context.eval("js", "1");
+            fail("pooled context in use should be closed with the engine");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void compiledScriptRepeatedEval() throws ScriptException {
+        ScriptEngine engine = getEngine();
+        CompiledScript script = ((Compilable) engine).compile("typeof counter === 'undefined' ? (counter = 1) : ++counter");
+        assertEquals(1, script.eval());
+        assertEquals(2, script.eval());
+        Bindings bindings = engine.createBindings();
+        assertEquals(1, script.eval(bindings));
+        assertEquals(3, script.eval());
+    }
+
 }
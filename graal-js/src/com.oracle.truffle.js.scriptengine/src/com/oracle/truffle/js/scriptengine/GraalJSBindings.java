@@ -42,6 +42,7 @@ package com.oracle.truffle.js.scriptengine;
 
 import java.util.AbstractMap;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -50,6 +51,7 @@ import javax.script.Bindings;
 import javax.script.ScriptContext;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.TypeLiteral;
 import org.graalvm.polyglot.Value;
 import org.graalvm.polyglot.proxy.ProxyObject;
@@ -69,10 +71,19 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
     private Context.Builder contextBuilder;
     // ScriptContext of the ScriptEngine where these bindings form ENGINE_SCOPE bindings
     private ScriptContext engineScriptContext;
+    // Pool providing the context, unless magic options have been set on these bindings
+    private GraalJSContextPool contextPool;
+    // Sources of compiled scripts parsed in the context, dropped when the context is closed
+    private Map<Source, Value> parsedSources;
 
     GraalJSBindings(Context.Builder contextBuilder, ScriptContext scriptContext) {
+        this(contextBuilder, scriptContext, null);
+    }
+
+    GraalJSBindings(Context.Builder contextBuilder, ScriptContext scriptContext, GraalJSContextPool contextPool) {
         this.contextBuilder = contextBuilder;
         this.engineScriptContext = scriptContext;
+        this.contextPool = contextPool;
     }
 
     GraalJSBindings(Context context, ScriptContext scriptContext) {
@@ -88,7 +99,7 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
     }
 
     private void initContext() {
-        context = GraalJSScriptEngine.createDefaultContext(contextBuilder);
+        context = contextPool != null ? contextPool.acquire() : GraalJSScriptEngine.createDefaultContext(contextBuilder);
         initGlobal();
     }
 
@@ -120,6 +131,8 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
                     throw new IllegalArgumentException("unkown graal-js option \"" + name + "\"");
                 } else {
                     contextBuilder = optionSetter.setOption(contextBuilder, v);
+                    // pooled contexts do not have this option
+                    contextPool = null;
                     return true;
                 }
             } else {
@@ -167,16 +180,49 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
         return context;
     }
 
+    /**
+     * Returns the given source parsed in the context of these bindings, parsing it on first use.
+     */
+    synchronized Value getParsedSource(Source source) {
+        requireContext();
+        if (parsedSources == null) {
+            parsedSources = new HashMap<>();
+        }
+        Value parsed = parsedSources.get(source);
+        if (parsed == null) {
+            parsed = context.parse(source);
+            parsedSources.put(source, parsed);
+        }
+        return parsed;
+    }
+
     @Override
     public Set<Entry<String, Object>> entrySet() {
         requireContext();
         return global.entrySet();
     }
 
+    /**
+     * Closes the context of these bindings or, if it has been taken from a context pool, resets
+     * it and returns it to the pool. In the latter case, the bindings may be used again and will
+     * then acquire another context.
+     */
     @Override
     public void close() {
         if (context != null) {
-            context.close();
+            synchronized (this) {
+                parsedSources = null;
+            }
+            if (contextPool != null) {
+                Context pooledContext = context;
+                context = null;
+                global = null;
+                deleteProperty = null;
+                clear = null;
+                contextPool.release(pooledContext);
+            } else {
+                context.close();
+            }
         }
     }
 
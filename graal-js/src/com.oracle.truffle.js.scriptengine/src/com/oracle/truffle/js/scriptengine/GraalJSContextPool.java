@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.scriptengine;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
+
+/**
+ * Pool of initialized polyglot contexts used for bindings created by
+ * {@link GraalJSScriptEngine#createBindings()} when pooling is enabled.
+ *
+ * A released context is only reused if its global bindings can be returned to the state they had
+ * when the context was created:
+ * <ul>
+ * <li>Global object properties and polyglot bindings that did not exist when the context was
+ * created are removed. Top-level {@code var} and {@code function} declarations cannot be removed;
+ * they are set to {@code undefined} instead. If another new binding cannot be removed (e.g., a
+ * top-level {@code let}), the context is closed.</li>
+ * <li>If a global binding that existed when the context was created has been changed (e.g., a
+ * built-in constructor replaced), the context is closed.</li>
+ * <li>The legacy static properties of {@code RegExp} (e.g., {@code RegExp.lastMatch}) are
+ * reset.</li>
+ * </ul>
+ * Only the global object is checked, so that the check does not depend on the number of built-in
+ * objects. Changes to the built-in objects themselves (e.g., a property added to
+ * {@code Array.prototype}), state that is not reachable through properties, like the
+ * {@link Symbol#for Symbol.for} registry, and host objects shared with the context are not
+ * covered.
+ */
+final class GraalJSContextPool implements AutoCloseable {
+
+    /**
+     * Returns the functions that reset the global object: {@code resetBinding(key)} removes a new
+     * global binding, or sets it to {@code undefined} if it cannot be deleted, and returns whether
+     * this succeeded; {@code isUnmodified()} removes the remaining new (symbol-keyed) properties
+     * and returns whether the initial global properties are unchanged. The functions they use are
+     * captured now, so they cannot be replaced by scripts.
+     */
+    private static final String GLOBAL_RESET_SCRIPT = "" +
+                    "(function() {\n" +
+                    "'use strict';\n" +
+                    "const global = globalThis, call = Function.prototype.call;\n" +
+                    "const ownKeys = Reflect.ownKeys, getOwnPropertyDescriptor = Reflect.getOwnPropertyDescriptor, deleteProperty = Reflect.deleteProperty, is = Object.is;\n" +
+                    "const hasOwn = call.bind(Object.prototype.hasOwnProperty), setHas = call.bind(Set.prototype.has), setAdd = call.bind(Set.prototype.add);\n" +
+                    "const exec = call.bind(RegExp.prototype.exec), emptyRegExp = /(?:)/;\n" +
+                    "const fields = ['value', 'get', 'set', 'writable', 'enumerable', 'configurable'];\n" +
+                    "const initialKeys = ownKeys(global), initial = new Set(initialKeys), residual = new Set(), snapshot = [];\n" +
+                    "for (const key of initialKeys) {\n" +
+                    "  const d = getOwnPropertyDescriptor(global, key);\n" +
+                    "  for (const field of fields) { snapshot.push(hasOwn(d, field) ? d[field] : undefined); }\n" +
+                    "}\n" +
+                    "const resetBinding = function(key) {\n" +
+                    "  const d = getOwnPropertyDescriptor(global, key);\n" +
+                    "  if (d === undefined) { return false; }\n" +
+                    "  if (deleteProperty(global, key)) { return true; }\n" +
+                    "  if (hasOwn(d, 'value') && d.writable && d.enumerable) { global[key] = undefined; setAdd(residual, key); return true; }\n" +
+                    "  return false;\n" +
+                    "};\n" +
+                    "const isUnmodified = function() {\n" +
+                    "  exec(emptyRegExp, '');\n" +
+                    "  const keys = ownKeys(global);\n" +
+                    "  for (let k = 0; k < keys.length; k++) {\n" +
+                    "    const key = keys[k];\n" +
+                    "    if (!setHas(initial, key) && !setHas(residual, key) && !resetBinding(key)) { return false; }\n" +
+                    "  }\n" +
+                    "  let j = 0;\n" +
+                    "  for (let k = 0; k < initialKeys.length; k++) {\n" +
+                    "    const d = getOwnPropertyDescriptor(global, initialKeys[k]);\n" +
+                    "    if (d === undefined) { return false; }\n" +
+                    "    for (let f = 0; f < fields.length; f++) {\n" +
+                    "      const field = fields[f];\n" +
+                    "      if (!is(hasOwn(d, field) ? d[field] : undefined, snapshot[j++])) { return false; }\n" +
+                    "    }\n" +
+                    "  }\n" +
+                    "  return true;\n" +
+                    "};\n" +
+                    "return [resetBinding, isUnmodified];\n" +
+                    "})()";
+
+    private static final class PooledContext {
+        final Context context;
+        final Set<String> initialKeys;
+        final Set<String> initialPolyglotKeys;
+        final Value resetBinding;
+        final Value isUnmodified;
+
+        PooledContext(Context context) {
+            this.context = context;
+            this.initialKeys = new HashSet<>(context.getBindings(GraalJSScriptEngine.ID).getMemberKeys());
+            this.initialPolyglotKeys = new HashSet<>(context.getPolyglotBindings().getMemberKeys());
+            Value functions = GraalJSScriptEngine.evalInternal(context, GLOBAL_RESET_SCRIPT);
+            this.resetBinding = functions.getArrayElement(0);
+            this.isUnmodified = functions.getArrayElement(1);
+        }
+    }
+
+    private final Context.Builder contextConfig;
+    private final int maxIdle;
+    private final ArrayDeque<PooledContext> idle = new ArrayDeque<>();
+    private final Map<Context, PooledContext> inUse = new IdentityHashMap<>();
+    private boolean closed;
+
+    GraalJSContextPool(Context.Builder contextConfig, int maxIdle) {
+        this.contextConfig = contextConfig;
+        this.maxIdle = maxIdle;
+    }
+
+    Context acquire() {
+        synchronized (this) {
+            PooledContext pooled = idle.pollFirst();
+            if (pooled != null) {
+                inUse.put(pooled.context, pooled);
+                return pooled.context;
+            }
+        }
+        Context context;
+        synchronized (contextConfig) {
+            context = GraalJSScriptEngine.createDefaultContext(contextConfig);
+        }
+        PooledContext pooled = new PooledContext(context);
+        synchronized (this) {
+            inUse.put(context, pooled);
+        }
+        return context;
+    }
+
+    void release(Context context) {
+        PooledContext pooled;
+        synchronized (this) {
+            pooled = inUse.remove(context);
+            if (closed || idle.size() >= maxIdle) {
+                pooled = null;
+            }
+        }
+        if (pooled != null && reset(pooled)) {
+            synchronized (this) {
+                if (!closed && idle.size() < maxIdle) {
+                    idle.addFirst(pooled);
+                    return;
+                }
+            }
+        }
+        context.close();
+    }
+
+    private static boolean reset(PooledContext pooled) {
+        try {
+            Value bindings = pooled.context.getBindings(GraalJSScriptEngine.ID);
+            for (String key : new HashSet<>(bindings.getMemberKeys())) {
+                if (!pooled.initialKeys.contains(key) && !pooled.resetBinding.execute(key).asBoolean()) {
+                    return false;
+                }
+            }
+            Value polyglotBindings = pooled.context.getPolyglotBindings();
+            for (String key : new HashSet<>(polyglotBindings.getMemberKeys())) {
+                if (!pooled.initialPolyglotKeys.contains(key) && !polyglotBindings.removeMember(key)) {
+                    return false;
+                }
+            }
+            return pooled.isUnmodified.execute().asBoolean();
+        } catch (PolyglotException | UnsupportedOperationException | IllegalStateException | ClassCastException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes the idle contexts and the contexts that are currently in use. A context that cannot be
+     * closed now because it is executing on another thread is closed when it is released.
+     */
+    @Override
+    public void close() {
+        Context[] toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new Context[idle.size() + inUse.size()];
+            int i = 0;
+            for (PooledContext pooled : idle) {
+                toClose[i++] = pooled.context;
+            }
+            for (Context context : inUse.keySet()) {
+                toClose[i++] = context;
+            }
+            idle.clear();
+        }
+        for (Context context : toClose) {
+            try {
+                context.close();
+            } catch (IllegalStateException e) {
+                // still in use, closed by release()
+            }
+        }
+    }
+}
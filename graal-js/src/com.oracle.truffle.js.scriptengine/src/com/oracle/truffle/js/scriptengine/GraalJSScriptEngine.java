@@ -82,7 +82,7 @@ import org.graalvm.polyglot.proxy.Proxy;
  */
 public final class GraalJSScriptEngine extends AbstractScriptEngine implements Compilable, Invocable, AutoCloseable {
 
-    private static final String ID = "js";
+    static final String ID = "js";
     private static final String POLYGLOT_CONTEXT = "polyglot.context";
     private static final String OUT_SYMBOL = "$$internal.out$$";
     private static final String IN_SYMBOL = "$$internal.in$$";
@@ -297,14 +297,15 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
 
     private final GraalJSEngineFactory factory;
     private final Context.Builder contextConfig;
+    private final GraalJSContextPool contextPool;
 
     private boolean evalCalled;
 
     GraalJSScriptEngine(GraalJSEngineFactory factory) {
-        this(factory, factory.getPolyglotEngine(), null);
+        this(factory, factory.getPolyglotEngine(), null, 0);
     }
 
-    GraalJSScriptEngine(GraalJSEngineFactory factory, Engine engine, Context.Builder contextConfig) {
+    GraalJSScriptEngine(GraalJSEngineFactory factory, Engine engine, Context.Builder contextConfig, int contextPoolSize) {
         Engine engineToUse = engine;
         if (engineToUse == null) {
             engineToUse = Engine.newBuilder().allowExperimentalOptions(true).build();
@@ -332,6 +333,7 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         }
         this.factory = (factory == null) ? new GraalJSEngineFactory(engineToUse) : factory;
         this.contextConfig = contextConfigToUse.option(JS_SCRIPT_ENGINE_GLOBAL_SCOPE_IMPORT_OPTION, "true").engine(engineToUse);
+        this.contextPool = contextPoolSize > 0 ? new GraalJSContextPool(this.contextConfig, contextPoolSize) : null;
         this.context.setBindings(new GraalJSBindings(this.contextConfig, this.context), ScriptContext.ENGINE_SCOPE);
     }
 
@@ -364,6 +366,9 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     @Override
     public void close() {
         getPolyglotContext().close();
+        if (contextPool != null) {
+            contextPool.close();
+        }
     }
 
     /**
@@ -396,9 +401,14 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         return context.eval(Source.newBuilder(ID, script, "internal-script").internal(true).buildLiteral());
     }
 
+    /**
+     * Creates new bindings backed by a new polyglot context or, if context pooling is enabled (see
+     * {@link #create(Engine, Context.Builder, int)}), by a context taken from the pool. Pooled
+     * contexts are returned to the pool when the bindings are closed.
+     */
     @Override
     public Bindings createBindings() {
-        return new GraalJSBindings(contextConfig, null);
+        return new GraalJSBindings(contextConfig, null, contextPool);
     }
 
     @Override
@@ -467,6 +477,10 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     private Object eval(Source source, ScriptContext scriptContext) throws ScriptException {
+        return eval(source, false, scriptContext);
+    }
+
+    private Object eval(Source source, boolean compiled, ScriptContext scriptContext) throws ScriptException {
         GraalJSBindings engineBindings = getOrCreateGraalJSBindings(scriptContext);
         Context polyglotContext = engineBindings.getContext();
         updateDelegatingIOStreams(polyglotContext, scriptContext);
@@ -475,6 +489,9 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
                 jrunscriptInitWorkaround(source, polyglotContext);
             }
             engineBindings.importGlobalBindings(scriptContext);
+            if (compiled) {
+                return engineBindings.getParsedSource(source).execute().as(Object.class);
+            }
             return polyglotContext.eval(source).as(Object.class);
         } catch (PolyglotException e) {
             throw toScriptException(e);
@@ -636,26 +653,37 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     private CompiledScript compile(Source source) throws ScriptException {
-        checkSyntax(source);
-        return new CompiledScript() {
-            @Override
-            public ScriptEngine getEngine() {
-                return GraalJSScriptEngine.this;
-            }
-
-            @Override
-            public Object eval(ScriptContext ctx) throws ScriptException {
-                return GraalJSScriptEngine.this.eval(source, ctx);
-            }
-        };
-    }
-
-    private void checkSyntax(Source source) throws ScriptException {
         try {
-            getPolyglotContext().parse(source);
+            // check syntax
+            getOrCreateGraalJSBindings(getContext()).getParsedSource(source);
         } catch (PolyglotException pex) {
             throw toScriptException(pex);
         }
+        return new GraalJSCompiledScript(source);
+    }
+
+    /**
+     * Compiled script whose parsed source is kept by the bindings of each polyglot context it is
+     * evaluated in (see {@link GraalJSBindings#getParsedSource}), so that repeated evaluations in
+     * the same context skip the source lookup and parsing.
+     */
+    private final class GraalJSCompiledScript extends CompiledScript {
+
+        private final Source source;
+
+        GraalJSCompiledScript(Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+            return GraalJSScriptEngine.this;
+        }
+
+        @Override
+        public Object eval(ScriptContext ctx) throws ScriptException {
+            return GraalJSScriptEngine.this.eval(source, true, ctx);
+        }
     }
 
     private static class DelegatingInputStream extends InputStream implements Proxy {
@@ -755,7 +783,30 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
      *            context instances.
      */
     public static GraalJSScriptEngine create(Engine engine, Context.Builder newContextConfig) {
-        return new GraalJSScriptEngine(null, engine, newContextConfig);
+        return new GraalJSScriptEngine(null, engine, newContextConfig, 0);
+    }
+
+    /**
+     * Creates a new GraalJS script engine like {@link #create(Engine, Context.Builder)} whose
+     * {@link #createBindings() bindings} are backed by pooled polyglot contexts. When such
+     * bindings are closed, their context is reset (global bindings created by scripts are removed;
+     * top-level {@code var} and {@code function} declarations, which cannot be removed, are set to
+     * {@code undefined}) and kept for reuse, up to {@code contextPoolSize} idle contexts. Contexts
+     * that cannot be reset (e.g., because of top-level lexical declarations) and contexts in which
+     * a script has changed a global binding that existed when the context was created (e.g.,
+     * replaced a built-in constructor) are closed instead. Hence, a script in a pooled context
+     * cannot observe the values of the global bindings of a previous user of the context. Changes
+     * to built-in objects (e.g., a property added to {@code Array.prototype}) and state outside of
+     * the global object, like the {@code Symbol.for} registry or host objects, are not reset, so
+     * pooling should only be used for scripts that do not modify built-ins. Pooling is configured
+     * per script engine, it is disabled for engines obtained through
+     * {@code javax.script.ScriptEngineManager}. Closing the script engine also closes the pooled
+     * contexts that are still in use.
+     *
+     * @param contextPoolSize the maximum number of idle pooled contexts, or 0 to disable pooling.
+     */
+    public static GraalJSScriptEngine create(Engine engine, Context.Builder newContextConfig, int contextPoolSize) {
+        return new GraalJSScriptEngine(null, engine, newContextConfig, contextPoolSize);
     }
 
     private static boolean isInterfaceImplemented(final Class<?> iface, final Value obj) {
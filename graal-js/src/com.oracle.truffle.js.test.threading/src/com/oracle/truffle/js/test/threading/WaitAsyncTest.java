@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.threading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+/**
+ * Stress tests for {@code Atomics.waitAsync} with many pending waiters.
+ */
+public class WaitAsyncTest {
+
+    private static final int WAITERS = 20000;
+
+    private static Context newContext() {
+        return TestUtil.newContextBuilder().option("js.ecmascript-version", "staging").build();
+    }
+
+    @Test
+    public void testNotifyManyWaiters() {
+        try (Context context = newContext()) {
+            context.eval("js", "var ia = new Int32Array(new SharedArrayBuffer(4));" +
+                            "var results = [];" +
+                            "for (var i = 0; i < " + WAITERS + "; i++) {" +
+                            "  Atomics.waitAsync(ia, 0, 0, (i % 2) ? 1e7 : Infinity).value.then(v => results.push(v));" +
+                            "}");
+            assertEquals(WAITERS, context.eval("js", "Atomics.notify(ia, 0)").asInt());
+            assertEquals(WAITERS, context.eval("js", "results.length").asInt());
+            assertTrue(context.eval("js", "results.every(v => v === 'ok')").asBoolean());
+        }
+    }
+
+    @Test
+    public void testManyTimeouts() {
+        try (Context context = newContext()) {
+            context.eval("js", "var ia = new Int32Array(new SharedArrayBuffer(4));" +
+                            "var results = [];" +
+                            "for (var i = 0; i < " + WAITERS + "; i++) {" +
+                            "  Atomics.waitAsync(ia, 0, 0, 1 + (i % 100)).value.then(v => results.push(v));" +
+                            "}");
+            long deadline = System.currentTimeMillis() + 60000;
+            while (context.eval("js", "results.length").asInt() < WAITERS && System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+            assertEquals(WAITERS, context.eval("js", "results.length").asInt());
+            assertTrue(context.eval("js", "results.every(v => v === 'timed-out')").asBoolean());
+            assertEquals(0, context.eval("js", "Atomics.notify(ia, 0)").asInt());
+        }
+    }
+
+    /**
+     * Promise jobs run while waiters are pending, and notified waiters are resolved in the order in
+     * which they started waiting.
+     */
+    @Test
+    public void testMicrotasksWithManyPendingWaiters() {
+        try (Context context = newContext()) {
+            context.eval("js", "var ia = new Int32Array(new SharedArrayBuffer(4));" +
+                            "var log = [];" +
+                            "for (var i = 0; i < " + WAITERS + "; i++) {" +
+                            "  let id = i;" +
+                            "  Atomics.waitAsync(ia, 0, 0, 1e7 + i).value.then(v => log.push(v + id));" +
+                            "}" +
+                            "Promise.resolve().then(() => log.push('m1')).then(() => log.push('m2'));");
+            assertEquals("m1,m2", context.eval("js", "log.join()").asString());
+            assertEquals(1, context.eval("js", "Atomics.notify(ia, 0, 1)").asInt());
+            assertEquals("m1,m2,ok0", context.eval("js", "log.join()").asString());
+            assertEquals(WAITERS - 1, context.eval("js", "Atomics.notify(ia, 0)").asInt());
+            assertEquals(WAITERS + 2, context.eval("js", "log.length").asInt());
+            assertTrue(context.eval("js", "log.slice(2).every((v, i) => v === 'ok' + i)").asBoolean());
+        }
+    }
+}
@@ -134,4 +134,47 @@ public class ArrayPrototypeBuiltins {
         }
     }
 
+    @Test
+    public void testSortDefault() {
+        String src = "var r = [];" +
+                        "r.push([10, 9, -1, 1, 100, -10, 0, 2147483647, -2147483648, 20].sort().join());" +
+                        "r.push(new Int32Array([3, -1, 2, -2147483648, 0]).sort().join());" +
+                        "r.push(new Uint32Array([4294967295, 1, 2147483648, 0]).sort().join());" +
+                        "r.push(new BigUint64Array([2n ** 64n - 1n, 1n, 2n ** 63n]).sort().join());" +
+                        "r.push(new BigInt64Array([1n, -(2n ** 63n), 0n]).sort().join());" +
+                        "r.push(Array.from(new Float64Array([NaN, 1, -0, 0, -Infinity])).map(x => Object.is(x, -0) ? '-0' : String(x)).join());" +
+                        "r.join('|');";
+        try (Context context = JSTest.newContextBuilder().build()) {
+            Value value = context.eval(JavaScriptLanguage.ID, src);
+            assertEquals("-1,-10,-2147483648,0,1,10,100,2147483647,20,9|" +
+                            "-2147483648,-1,0,2,3|" +
+                            "0,1,2147483648,4294967295|" +
+                            "1,9223372036854775808,18446744073709551615|" +
+                            "-9223372036854775808,0,1|" +
+                            "-Infinity,-0,0,1,NaN", value.asString());
+        }
+    }
+
+    @Test
+    public void testSortWithComparator() {
+        String src = "var a = [];" +
+                        "for (var i = 0; i < 100; i++) { a.push(i % 7 === 0 ? undefined : { key: i % 5, index: i }); }" +
+                        "a.sort((x, y) => x.key - y.key);";
+        // stable: ascending keys, ascending original indices per key, undefined last
+        StringBuilder expected = new StringBuilder();
+        for (int key = 0; key < 5; key++) {
+            for (int i = 0; i < 100; i++) {
+                if (i % 7 != 0 && i % 5 == key) {
+                    expected.append(expected.length() == 0 ? "" : ",").append(i);
+                }
+            }
+        }
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(JavaScriptLanguage.ID, src);
+            assertEquals(expected.toString(), context.eval(JavaScriptLanguage.ID, "a.slice(0, 85).map(x => x.index).join()").asString());
+            assertEquals(85, context.eval(JavaScriptLanguage.ID, "a.indexOf(undefined)").asInt());
+            assertEquals(15, context.eval(JavaScriptLanguage.ID, "a.filter(x => x === undefined).length").asInt());
+        }
+    }
+
 }
@@ -83,6 +83,44 @@ public class AtomicsBuiltinsTest {
         }
     }
 
+    @Test
+    public void testComputeContended() {
+        int agentCount = 4;
+        int iterations = 10000;
+        try (Context context = JSTest.newContextBuilder().allowCreateThread(true).option(JSContextOptions.TEST262_MODE_NAME, "true").build()) {
+            String code = "let agentCount = " + agentCount + ";\n" //
+                            + "for (let i = 0; i < agentCount; i++) {\n" //
+                            + "  $262.agent.start(`\n" //
+                            + "    $262.agent.receiveBroadcast(function(sab) {\n" //
+                            + "      const i32a = new Int32Array(sab);\n" //
+                            + "      const u8a = new Uint8Array(sab);\n" //
+                            + "      const i16a = new Int16Array(sab);\n" //
+                            + "      const i64a = new BigInt64Array(sab);\n" //
+                            + "      for (let j = 0; j < " + iterations + "; j++) {\n" //
+                            + "        Atomics.add(i32a, 0, 1);\n" //
+                            + "        Atomics.add(u8a, 5, 1);\n" //
+                            + "        Atomics.sub(i16a, 4, 1);\n" //
+                            + "        Atomics.xor(i64a, 2, 1n);\n" //
+                            + "      }\n" //
+                            + "      $262.agent.report('done');\n" //
+                            + "      $262.agent.leaving();\n" //
+                            + "    });\n" //
+                            + "  `);\n" //
+                            + "}\n" //
+                            + "const sab = new SharedArrayBuffer(32);\n" //
+                            + "$262.agent.broadcast(sab);\n" //
+                            + "let reports = 0;\n" //
+                            + "while (reports < agentCount) {\n" //
+                            + "  if ($262.agent.getReport() !== null) { reports++; }\n" //
+                            + "}\n" //
+                            + "const u8a = new Uint8Array(sab);\n" //
+                            + "[new Int32Array(sab)[0], u8a[4], u8a[5], u8a[6], u8a[7], new Int16Array(sab)[4], new BigInt64Array(sab)[2]].join();"; //
+            Value result = context.eval(JavaScriptLanguage.ID, code);
+            int total = agentCount * iterations;
+            assertEquals(total + ",0," + (total & 0xFF) + ",0,0," + (short) -total + ",0", result.asString());
+        }
+    }
+
     @Test
     public void testInfiniteWaitAsyncNotAwoken() {
         // Atomics.waitAsync() should not freeze when not awoken
@@ -118,6 +156,30 @@ public class AtomicsBuiltinsTest {
         }
     }
 
+    @Test
+    public void testNotifyWithoutWaiters() {
+        Context.Builder builder = JSTest.newContextBuilder();
+        builder.option(JSContextOptions.TEST262_MODE_NAME, "true");
+        builder.option(JSContextOptions.ECMASCRIPT_VERSION_NAME, JSContextOptions.ECMASCRIPT_VERSION_STAGING);
+        try (Context context = builder.build()) {
+            String code = "const sab = new SharedArrayBuffer(Int32Array.BYTES_PER_ELEMENT * 64);\n" //
+                            + "const i32a = new Int32Array(sab);\n" //
+                            + "const counts = [];\n" //
+                            + "for (let i = 0; i < 64; i++) { counts.push(Atomics.notify(i32a, i)); }\n" //
+                            + "for (let i = 0; i < 64; i += 3) { Atomics.waitAsync(i32a, i, 0, 1000); }\n" //
+                            + "for (let i = 0; i < 64; i++) { counts.push(Atomics.notify(i32a, i)); }\n" //
+                            + "counts.join('');"; //
+            StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < 64; i++) {
+                expected.append('0');
+            }
+            for (int i = 0; i < 64; i++) {
+                expected.append(i % 3 == 0 ? '1' : '0');
+            }
+            assertEquals(expected.toString(), context.eval(JavaScriptLanguage.ID, code).asString());
+        }
+    }
+
     @Test
     public void testWaitAsyncSmallPositiveRealTimeout() {
         Context.Builder builder = JSTest.newContextBuilder();
@@ -86,4 +86,36 @@ public class BigIntBuiltinTest {
     public void testLiteral() {
         testIntl("42n", "Missing space after");
     }
+
+    @Test
+    public void testArithmeticAroundLongRange() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(JavaScriptLanguage.ID, "var max = 2n ** 63n - 1n, min = -(2n ** 63n);");
+            assertBigInt(context, "9223372036854775808", "max + 1n");
+            assertBigInt(context, "-9223372036854775809", "min - 1n");
+            assertBigInt(context, "9223372036854775807", "(max + 1n) - 1n");
+            assertBigInt(context, "9223372036854775808", "-min");
+            assertBigInt(context, "9223372036854775807", "(-min) - 1n");
+            assertBigInt(context, "9223372036854775808", "min * -1n");
+            assertBigInt(context, "9223372036854775808", "min / -1n");
+            assertBigInt(context, "0", "min % -1n");
+            assertBigInt(context, "9223372037000250000", "3037000500n * 3037000500n");
+            assertBigInt(context, "9223372030926249001", "3037000499n * 3037000499n");
+            assertBigInt(context, "9223372036854775808", "1n << 63n");
+            assertBigInt(context, "-9223372036854775808", "-1n << 63n");
+            assertBigInt(context, "-1", "min >> 100n");
+            assertBigInt(context, "1", "max >> 62n");
+            assertBigInt(context, "-9223372036854775808", "BigInt.asIntN(64, max + 1n)");
+            assertBigInt(context, "18446744073709551615", "BigInt.asUintN(64, -1n)");
+            context.eval(JavaScriptLanguage.ID, "var sum = 0n; for (var i = 0n; i < 1000n; i++) { sum += i * 100n; }");
+            assertBigInt(context, "49950000", "sum");
+            Assert.assertEquals(2, context.eval(JavaScriptLanguage.ID, "new Set([max + 1n, 2n ** 63n, 5n, 10n / 2n]).size").asInt());
+            Assert.assertTrue(context.eval(JavaScriptLanguage.ID, "(max + 1n) > max").asBoolean());
+            Assert.assertTrue(context.eval(JavaScriptLanguage.ID, "min < max").asBoolean());
+        }
+    }
+
+    private static void assertBigInt(Context context, String expected, String expression) {
+        Assert.assertEquals(expression, expected, context.eval(JavaScriptLanguage.ID, "String(" + expression + ")").asString());
+    }
 }
@@ -71,6 +71,7 @@ import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_CORE_MODUL
 import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_REQUIRE_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.ECMASCRIPT_VERSION_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.GLOBAL_PROPERTY_NAME;
+import static com.oracle.truffle.js.runtime.JSContextOptions.MODULE_RESOLUTION_CACHE_NAME;
 import static org.junit.Assert.assertEquals;
 
 public class CommonJSRequireTest {
@@ -267,6 +268,50 @@ public class CommonJSRequireTest {
         testBasicPackageJsonRequire("'no-package'");
     }
 
+    @Test
+    public void testModuleResolutionCache() {
+        for (String mode : new String[]{"realm", "engine"}) {
+            Path f = getTestRootFolder();
+            Map<String, String> options = new HashMap<>();
+            options.put(COMMONJS_REQUIRE_NAME, "true");
+            options.put(COMMONJS_REQUIRE_CWD_NAME, f.toAbsolutePath().toString());
+            options.put(MODULE_RESOLUTION_CACHE_NAME, mode);
+            try (Context cx = testContext(options)) {
+                for (int i = 0; i < 2; i++) {
+                    Assert.assertEquals(42, cx.eval(ID, "require('with-package').foo;").asInt());
+                    Assert.assertEquals(42, cx.eval(ID, "require('wrong-package').foo;").asInt());
+                    Assert.assertEquals(42, cx.eval(ID, "require('no-package').foo;").asInt());
+                }
+                Value unknown = cx.eval(ID, "try { require('unknown-package'); false; } catch (e) { e instanceof TypeError; }");
+                Assert.assertTrue(unknown.asBoolean());
+            }
+        }
+    }
+
+    @Test
+    public void testModuleResolutionCacheInvalidate() throws IOException {
+        Path f = Files.createTempDirectory("commonjs-cache");
+        Path module = f.resolve("late.js");
+        try {
+            Map<String, String> options = new HashMap<>();
+            options.put(COMMONJS_REQUIRE_NAME, "true");
+            options.put(COMMONJS_REQUIRE_CWD_NAME, f.toAbsolutePath().toString());
+            options.put(MODULE_RESOLUTION_CACHE_NAME, "realm");
+            try (Context cx = testContext(options)) {
+                String require = "try { require('./late.js').foo; } catch (e) { e instanceof TypeError; }";
+                Assert.assertTrue(cx.eval(ID, require).asBoolean());
+                Files.write(module, "exports.foo = 42;".getBytes());
+                // The failed lookup is cached until the cache is invalidated.
+                Assert.assertTrue(cx.eval(ID, require).asBoolean());
+                cx.eval(ID, "Graal.invalidateModuleResolutionCache();");
+                Assert.assertEquals(42, cx.eval(ID, require).asInt());
+            }
+        } finally {
+            Files.deleteIfExists(module);
+            Files.delete(f);
+        }
+    }
+
     @Test
     public void nestedRequire() {
         Path f = getTestRootFolder();
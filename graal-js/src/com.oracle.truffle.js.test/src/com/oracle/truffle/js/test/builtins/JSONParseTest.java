@@ -44,7 +44,13 @@ import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Value;
 import org.junit.Assert;
@@ -84,6 +90,76 @@ public class JSONParseTest {
         parseErrorPosition(4, "[1,2;");
     }
 
+    @Test
+    public void testJSONParseRepeatedLayouts() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String code = "var r = [];" +
+                            "for (var i = 0; i < 3; i++) {" +
+                            "  r.push(JSON.stringify(JSON.parse('{\"a\":1,\"b\":2,\"c\":3}')));" +
+                            "  r.push(JSON.stringify(JSON.parse('{\"a\":1,\"b\":2,\"a\":4}')));" +
+                            "  r.push(JSON.stringify(JSON.parse('{\"b\":1,\"1\":2,\"a\":3,\"0\":4}')));" +
+                            "  r.push(JSON.stringify(JSON.parse('{\"a\":1,\"b\":{\"a\":2.5,\"b\":\"x\"}}')));" +
+                            "}" +
+                            "r.join('|');";
+            String expected = "{\"a\":1,\"b\":2,\"c\":3}|{\"a\":4,\"b\":2}|{\"0\":4,\"1\":2,\"b\":1,\"a\":3}|{\"a\":1,\"b\":{\"a\":2.5,\"b\":\"x\"}}";
+            assertEquals(String.join("|", expected, expected, expected), context.eval(ID, code).asString());
+        }
+    }
+
+    @Test
+    public void testJSONParseStream() {
+        String json = "{\"a\": [1, -0, 2.5e3, \"\u00e4\\u0041\ud83d\ude00\"], \"b\": {\"c\": null, \"d\": true}}";
+        String expected = "{\"a\":[1,0,2500,\"\u00e4A\ud83d\ude00\"],\"b\":{\"c\":null,\"d\":true}}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            Value parse = context.eval(ID, "(source) => JSON.stringify(Graal.parseJSONStream(source))");
+            assertEquals(expected, parse.execute(new ByteArrayInputStream(bytes)).asString());
+            assertEquals(expected, parse.execute(new StringReader(json)).asString());
+            assertEquals(expected, parse.execute(ByteBuffer.wrap(bytes)).asString());
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            assertEquals(expected, parse.execute(direct).asString());
+            String arrayBufferCode = "JSON.stringify(Graal.parseJSONStream(new Uint8Array(Array.from('[1, {\\\"a\\\": 2}]', c => c.charCodeAt(0))).buffer))";
+            assertEquals("[1,{\"a\":2}]", context.eval(ID, arrayBufferCode).asString());
+        }
+    }
+
+    @Test
+    public void testJSONParseStreamElements() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            Value parse = context.eval(ID, "(source, format) => { var r = []; var n = Graal.parseJSONStream(source, (e, i) => r.push(i + ':' + JSON.stringify(e)), format); return n + '|' + r.join(); }");
+            assertEquals("3|0:1,1:{\"a\":[2]},2:\"x\"", parse.execute(new StringReader(" [1, {\"a\": [2]}, \"x\"] "), "json").asString());
+            assertEquals("0|", parse.execute(new StringReader("[ ]"), "json").asString());
+            assertEquals("3|0:1,1:{\"a\":[2]},2:\"x\"", parse.execute(new StringReader("1\n{\"a\": [2]}\r\n\n\"x\"\n"), "ndjson").asString());
+            try {
+                parse.execute(new StringReader("[1, 2,]"), "json");
+                Assert.fail("failure expected");
+            } catch (PolyglotException ex) {
+                assertTrue(ex.isSyntaxError());
+            }
+            try {
+                parse.execute(new StringReader("1 2\n"), "ndjson");
+                Assert.fail("failure expected");
+            } catch (PolyglotException ex) {
+                assertTrue(ex.isSyntaxError());
+            }
+        }
+    }
+
+    @Test
+    public void testJSONParseCachedShapeGeneralization() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String code = "var texts = ['{\"a\":1,\"b\":2,\"c\":3}', '{\"a\":\"s\",\"b\":null,\"c\":[1]}', '{\"a\":1.5,\"b\":{\"a\":1},\"c\":true}'];" +
+                            "var r = [];" +
+                            "for (var i = 0; i < 3; i++) {" +
+                            "  for (var t of texts) { var o = JSON.parse(t); o.a = o.a; r.push(JSON.stringify(o) + Object.keys(o).length); }" +
+                            "}" +
+                            "r.join('|');";
+            String expected = "{\"a\":1,\"b\":2,\"c\":3}3|{\"a\":\"s\",\"b\":null,\"c\":[1]}3|{\"a\":1.5,\"b\":{\"a\":1},\"c\":true}3";
+            assertEquals(String.join("|", expected, expected, expected), context.eval(ID, code).asString());
+        }
+    }
+
     private static void parseErrorPosition(int expectedPosition, String failingCode) {
         try (Context context = JSTest.newContextBuilder().build()) {
             context.eval(ID, "JSON.parse('" + failingCode + "')");
@@ -40,6 +40,7 @@
  */
 package com.oracle.truffle.js.test.builtins;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.graalvm.polyglot.Context;
@@ -81,4 +82,20 @@ public class NumberPrototypeBuiltins {
         }
     }
 
+    @Test
+    public void testNumberToStringShortest() {
+        String[][] cases = {{"0.1", "0.1"}, {"-1.5", "-1.5"}, {"1e21", "1e+21"}, {"123456789012345680000", "123456789012345680000"}, {"0.000001", "0.000001"},
+                        {"-1.234567890123456e-7", "-1.234567890123456e-7"}, {"5e-324", "5e-324"}, {"1.7976931348623157e308", "1.7976931348623157e+308"},
+                        {"-0", "0"}, {"2**31", "2147483648"}, {"1/3", "0.3333333333333333"}};
+        try (Context context = JSTest.newContextBuilder().build()) {
+            for (String[] c : cases) {
+                String value = c[0];
+                String expected = c[1];
+                assertEquals(expected, context.eval(JavaScriptLanguage.ID, "String(" + value + ")").asString());
+                assertEquals("x" + expected, context.eval(JavaScriptLanguage.ID, "'x' + (" + value + ")").asString());
+                assertEquals("[" + expected + "," + expected + "]", context.eval(JavaScriptLanguage.ID, "JSON.stringify([" + value + ", " + value + "])").asString());
+            }
+        }
+    }
+
 }
@@ -41,13 +41,16 @@
 package com.oracle.truffle.js.test.builtins;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.Value;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.util.CompiledRegexCache;
 import com.oracle.truffle.js.test.JSTest;
+import com.oracle.truffle.js.test.TestHelper;
 
 public class RegExpBuiltinTest {
 
@@ -65,4 +68,26 @@ public class RegExpBuiltinTest {
         }
     }
 
+    @Test
+    public void testEngineRegexCache() {
+        String source = "var re = new RegExp('(\\\\d+)-(\\\\w+)', 'g'); re.exec('x 42-abc')[2];";
+        try (Engine engine = JSTest.newEngineBuilder().build()) {
+            CompiledRegexCache cache = null;
+            long misses = 0;
+            for (int i = 0; i < 3; i++) {
+                try (TestHelper testHelper = new TestHelper(JSTest.newContextBuilder().engine(engine))) {
+                    Assert.assertEquals("abc", testHelper.runValue(source).asString());
+                    CompiledRegexCache contextCache = testHelper.getJSContext().getCompiledRegexCache();
+                    Assert.assertTrue(cache == null || cache == contextCache);
+                    cache = contextCache;
+                    if (i == 0) {
+                        misses = cache.getMissCount();
+                    }
+                }
+            }
+            // the regex is compiled by the first context only
+            Assert.assertEquals(misses, cache.getMissCount());
+            Assert.assertTrue(cache.getHitCount() >= 2);
+        }
+    }
 }
@@ -77,6 +77,22 @@ public class StringPrototypeTest {
         assertFalse(testIntl("'abc'.localeCompare('def') === 0;"));
     }
 
+    @Test
+    public void testLocaleCompareCachedCollators() {
+        String code = "var r = []; for (var i = 0; i < 3; i++) { r.push('\u00e4'.localeCompare('z', 'de'), '\u00e4'.localeCompare('z', 'sv'), '\u00e4'.localeCompare('z')); } r.join();";
+        assertEquals("-1,1,-1,-1,1,-1,-1,1,-1", evalWithLocale(code, "en").asString());
+        code = "var r = []; for (var i = 0; i < 3; i++) { r.push('a'.localeCompare('A', undefined, {caseFirst: 'upper'}), 'a'.localeCompare('A')); } r.join();";
+        assertEquals("1,-1,1,-1,1,-1", evalWithLocale(code, "en").asString());
+    }
+
+    @Test
+    public void testLocaleCompareCachedCollatorsCanonicalizedLocale() {
+        String code = "var r = []; for (var l of ['sv-se', 'SV-SE', 'sv-SE', 'de-de', 'DE-de']) { r.push('\u00e4'.localeCompare('z', l)); } r.join();";
+        assertEquals("1,1,1,-1,-1", evalWithLocale(code, "en").asString());
+        code = "try { 'a'.localeCompare('b', 'x-'); false; } catch (e) { e instanceof RangeError; }";
+        assertTrue(evalWithLocale(code, "en").asBoolean());
+    }
+
     @Test
     public void testToLocaleLowerCase() {
         String code = "'I'.toLocaleLowerCase()";
@@ -686,4 +686,19 @@ public class AsyncInteropTest {
             return new String(this.toByteArray(), StandardCharsets.UTF_8);
         }
     }
+    /**
+     * Promise reaction jobs and other promise jobs (e.g., PromiseResolveThenableJob) are executed
+     * in FIFO order.
+     */
+    @Test
+    public void testPromiseJobsOrder() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(ID, "" +
+                            "var log = [];" +
+                            "Promise.resolve().then(() => log.push(1));" +
+                            "Promise.resolve({then(resolve) { log.push(2); resolve(); }}).then(() => log.push(4));" +
+                            "Promise.resolve().then(() => log.push(3)).then(() => log.push(5));");
+            assertEquals("1,2,3,4,5", context.eval(ID, "log.join()").asString());
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.io.FileSystem;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for background prefetching of statically imported ES modules.
+ */
+public class ESModulePrefetchTest {
+
+    /**
+     * The imports of a loaded module are read on a prefetch thread, and the module loader uses the
+     * prefetched parse instead of reading the file again.
+     */
+    @Test
+    public void testPrefetchedModuleIsUsed() throws IOException {
+        Path dir = Files.createTempDirectory("esm-prefetch");
+        try {
+            Path main = Files.write(dir.resolve("main.mjs"), "import {a} from './a.mjs'; globalThis.result = a;".getBytes());
+            Files.write(dir.resolve("a.mjs"), "import {b} from './b.mjs'; export const a = 'a' + b;".getBytes());
+            Files.write(dir.resolve("b.mjs"), "export const b = 'b';".getBytes());
+
+            ReadRecordingFileSystem fs = new ReadRecordingFileSystem();
+            try (Context context = JSTest.newContextBuilder().allowIO(true).allowCreateThread(true).fileSystem(fs).option(JSContextOptions.ESM_PREFETCH_THREADS_NAME, "2").build()) {
+                context.eval(Source.newBuilder(JavaScriptLanguage.ID, main.toFile()).mimeType(JavaScriptLanguage.MODULE_MIME_TYPE).build());
+                assertEquals("ab", context.eval(JavaScriptLanguage.ID, "result").asString());
+            }
+
+            // b.mjs is only imported by a loaded module, so it is read exactly once, in the
+            // background; reading it again on the main thread would mean the prefetch was unused.
+            assertEquals(List.of("b.mjs@graaljs-esm-prefetch"), fs.reads("b.mjs"));
+        } finally {
+            for (String name : new String[]{"main.mjs", "a.mjs", "b.mjs"}) {
+                Files.deleteIfExists(dir.resolve(name));
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static final class ReadRecordingFileSystem implements FileSystem {
+
+        private final FileSystem delegate = FileSystem.newDefaultFileSystem();
+        private final List<String> reads = new CopyOnWriteArrayList<>();
+
+        List<String> reads(String fileName) {
+            return reads.stream().filter(r -> r.startsWith(fileName + "@")).collect(Collectors.toList());
+        }
+
+        @Override
+        public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException {
+            reads.add(path.getFileName() + "@" + Thread.currentThread().getName());
+            return delegate.newByteChannel(path, options, attrs);
+        }
+
+        @Override
+        public Path parsePath(URI uri) {
+            return delegate.parsePath(uri);
+        }
+
+        @Override
+        public Path parsePath(String path) {
+            return delegate.parsePath(path);
+        }
+
+        @Override
+        public void checkAccess(Path path, Set<? extends AccessMode> modes, LinkOption... linkOptions) throws IOException {
+            delegate.checkAccess(path, modes, linkOptions);
+        }
+
+        @Override
+        public void createDirectory(Path dir, FileAttribute<?>... attrs) throws IOException {
+            delegate.createDirectory(dir, attrs);
+        }
+
+        @Override
+        public void delete(Path path) throws IOException {
+            delegate.delete(path);
+        }
+
+        @Override
+        public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter) throws IOException {
+            return delegate.newDirectoryStream(dir, filter);
+        }
+
+        @Override
+        public Path toAbsolutePath(Path path) {
+            return delegate.toAbsolutePath(path);
+        }
+
+        @Override
+        public Path toRealPath(Path path, LinkOption... linkOptions) throws IOException {
+            return delegate.toRealPath(path, linkOptions);
+        }
+
+        @Override
+        public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException {
+            return delegate.readAttributes(path, attributes, options);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for-in loops over objects with an enum cache, including changes during the iteration.
+ */
+public class ForInEnumCacheTest {
+
+    @Test
+    public void testForIn() {
+        String source = "function keys(o, f) { var r = []; for (var k in o) { r.push(k); if (f) f(k, o); } return r.join(','); }\n" +
+                        "var out = [];\n" +
+                        "function P() { this.a = 1; this.b = 2; }\n" +
+                        "Object.defineProperty(P.prototype, 'm', {value: function() {}, enumerable: false});\n" +
+                        "for (var i = 0; i < 3; i++) out.push(keys(new P()));\n" +
+                        "out.push(keys(new P(), function(k, o) { if (k === 'a') delete o.b; }));\n" +
+                        "out.push(keys(new P(), function(k, o) { if (k === 'a') o.c = 3; }));\n" +
+                        "out.push(keys(new P(), function(k, o) { if (k === 'b') P.prototype.z = 1; }));\n" +
+                        "delete P.prototype.z;\n" +
+                        "out.push(keys({x: 1, y: 2}, function(k, o) { if (k === 'x') Object.setPrototypeOf(o, {p: 1, y: 0}); }));\n" +
+                        "var s = Object.create({a: 1, b: 2});\n" +
+                        "Object.defineProperty(s, 'a', {value: 0, enumerable: false});\n" +
+                        "s.c = 3;\n" +
+                        "out.push(keys(s));\n" +
+                        "out.push(keys('ab'), keys(null), keys([5, 6]));\n" +
+                        "Object.prototype.zz = 1;\n" +
+                        "out.push(keys({k: 1}));\n" +
+                        "delete Object.prototype.zz;\n" +
+                        "out.push(keys({k: 1}));\n" +
+                        "var r = [];\n" +
+                        "for (var k in {u: 1, v: 2, w: 3}) { if (k === 'v') continue; if (k === 'w') break; r.push(k); }\n" +
+                        "out.push(r.join(','));\n" +
+                        "out.join('|');";
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertEquals("a,b|a,b|a,b|a|a,b|a,b,z|x,y,p|c,b|0,1||0,1|k,zz|k|u", context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+
+    @Test
+    public void testForEachIn() {
+        String source = "function P() { this.a = 1; this.b = 2; }\n" +
+                        "var r = [];\n" +
+                        "for (var i = 0; i < 2; i++) { for each (var v in new P()) r.push(v); }\n" +
+                        "r.join(',');";
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.SYNTAX_EXTENSIONS_NAME, "true").build()) {
+            assertEquals("1,2,1,2", context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.Strings;
+import com.oracle.truffle.js.runtime.util.JSHashMap;
+import com.oracle.truffle.js.test.JSTest;
+
+public class JSHashMapTest {
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(42);
+        Map<Object, Object> expected = new LinkedHashMap<>();
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 100000; i++) {
+            int n = random.nextInt(5000);
+            Object key;
+            switch (random.nextInt(3)) {
+                case 0:
+                    key = n;
+                    break;
+                case 1:
+                    key = n + 0.5;
+                    break;
+                default:
+                    key = Strings.fromJavaString("k" + n);
+                    break;
+            }
+            int op = random.nextInt(100);
+            if (op < 50) {
+                if (!expected.containsKey(key)) {
+                    expected.put(key, i);
+                } else {
+                    expected.replace(key, i);
+                }
+                map.put(key, i);
+            } else if (op < 85) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.containsKey(key), map.has(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        List<Object> keys = new ArrayList<>();
+        JSHashMap.Cursor cursor = map.getEntries();
+        while (cursor.advance()) {
+            keys.add(cursor.getKey());
+            assertEquals(expected.get(cursor.getKey()), cursor.getValue());
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+    }
+
+    @Test
+    public void testCursorSurvivesCompaction() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        JSHashMap.Cursor cursor = map.getEntries();
+        for (int i = 0; i < 500; i++) {
+            assertTrue(cursor.advance());
+            assertEquals(i, cursor.getKey());
+        }
+        JSHashMap.Cursor copy = cursor.copy();
+        // delete most entries (shrinking the table) and append new ones
+        for (int i = 0; i < 990; i++) {
+            map.remove(i);
+        }
+        for (int i = 1000; i < 1010; i++) {
+            map.put(i, i);
+        }
+        for (JSHashMap.Cursor c : new JSHashMap.Cursor[]{cursor, copy}) {
+            for (int i = 990; i < 1010; i++) {
+                assertTrue(c.advance());
+                assertEquals(i, c.getKey());
+            }
+            assertFalse(c.advance());
+        }
+        // an exhausted cursor stays exhausted
+        map.put(-1, -1);
+        assertFalse(cursor.advance());
+    }
+
+    @Test
+    public void testCursorAfterClear() {
+        JSHashMap map = new JSHashMap();
+        map.put(1, 1);
+        map.put(2, 2);
+        JSHashMap.Cursor cursor = map.getEntries();
+        assertTrue(cursor.advance());
+        map.clear();
+        map.put(3, 3);
+        assertTrue(cursor.advance());
+        assertEquals(3, cursor.getKey());
+        assertFalse(cursor.advance());
+    }
+
+    @Test
+    public void testMapIterationWithMutation() {
+        String source = "var m = new Map(); for (var i = 0; i < 100; i++) m.set(i, i);\n" +
+                        "var seen = [];\n" +
+                        "for (var [k] of m) { seen.push(k); if (k < 50) { m.delete(k + 1); m.set(100 + k, k); } }\n" +
+                        "var s = new Set([NaN, -0, 0, 1.5, 'a']);\n" +
+                        "seen.length + ':' + seen[1] + ':' + seen[seen.length - 1] + ':' + s.size + ':' + s.has(NaN) + s.has(0) + s.has(1.5) + s.has('a');";
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertEquals("100:2:148:4:truetruetruetrue", context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.junit.Test;
+
+import com.oracle.js.parser.ir.FunctionNode;
+import com.oracle.js.parser.ir.LexicalContext;
+import com.oracle.js.parser.ir.Node;
+import com.oracle.js.parser.ir.ReturnNode;
+import com.oracle.js.parser.ir.visitor.NodeVisitor;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.parser.GraalJSParserHelper;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+import com.oracle.truffle.js.test.TestHelper;
+
+/**
+ * Tests that skipping inner function bodies on the first parse does not change semantics.
+ */
+public class LazyParsingTest {
+
+    private static Context.Builder newContextBuilder(boolean lazyParsing) {
+        return JSTest.newContextBuilder().option(JSContextOptions.LAZY_TRANSLATION_NAME, "true").option(JSContextOptions.LAZY_PARSING_NAME, Boolean.toString(lazyParsing));
+    }
+
+    private static String eval(boolean lazyParsing, String source) {
+        try (Context context = newContextBuilder(lazyParsing).build()) {
+            return context.eval(JavaScriptLanguage.ID, source).toString();
+        }
+    }
+
+    private static void assertSameResult(String expected, String source) {
+        assertEquals(expected, eval(false, source));
+        assertEquals(expected, eval(true, source));
+    }
+
+    @Test
+    public void testClosures() {
+        assertSameResult("6,7,13", "" +
+                        "function outer(a) {\n" +
+                        "  var b = 1;\n" +
+                        "  function middle(c) {\n" +
+                        "    function inner() { b++; return a + b + c; }\n" +
+                        "    return inner;\n" +
+                        "  }\n" +
+                        "  return [middle(3), middle(4), function() { return b; }];\n" +
+                        "}\n" +
+                        "var fs = outer(1);\n" +
+                        "var r1 = fs[0]();\n" +
+                        "var r2 = fs[1]();\n" +
+                        "[r1, r2, fs[2]() + 10].join();");
+    }
+
+    @Test
+    public void testArrowFunctions() {
+        assertSameResult("o:x:2", "" +
+                        "var o = {name: 'o', f: function() {\n" +
+                        "  return (() => { return () => { return this.name + ':' + arguments[0] + ':' + arguments.length; }; })()();\n" +
+                        "}};\n" +
+                        "o.f('x', 'y');");
+    }
+
+    @Test
+    public void testGeneratorsAndClasses() {
+        assertSameResult("1,2,3|42", "" +
+                        "function* gen(n) { for (let i = 1; i <= n; i++) { yield (() => i)(); } }\n" +
+                        "class C {\n" +
+                        "  #x = 40;\n" +
+                        "  get x() { return this.#x; }\n" +
+                        "  add(y) { const f = () => { return this.#x + y; }; return f(); }\n" +
+                        "}\n" +
+                        "[...gen(3)].join() + '|' + new C().add(2);");
+    }
+
+    @Test
+    public void testDirectEval() {
+        assertSameResult("11", "" +
+                        "function f() {\n" +
+                        "  var x = 1;\n" +
+                        "  function g() { function h() { return eval('x + 10'); } return h(); }\n" +
+                        "  return g();\n" +
+                        "}\n" +
+                        "String(f());");
+    }
+
+    @Test
+    public void testStrictness() {
+        assertSameResult("undefined,object", "" +
+                        "'use strict';\n" +
+                        "function f() { return function() { return typeof this; }(); }\n" +
+                        "function g() { return (function() { return this; }).call(null); }\n" +
+                        "[f(), typeof {}].join();");
+    }
+
+    @Test
+    public void testToString() {
+        String source = "function f() { return function g(a, b) { return a + b; }; } f().toString();";
+        assertSameResult("function g(a, b) { return a + b; }", source);
+    }
+
+    @Test
+    public void testEarlyErrorsInSkippedBody() {
+        String[] sources = {
+                        "function neverCalled() { function inner() { return 'unterminated; } }",
+                        "function neverCalled() { let a; let a; }",
+                        "function neverCalled() { function inner(a) { let a; } }",
+                        "function neverCalled() { for (;;) { continue missing; } }",
+                        "function neverCalled() { return a b; }",
+        };
+        for (String source : sources) {
+            for (boolean lazyParsing : new boolean[]{false, true}) {
+                try {
+                    // reported when the script is evaluated, although the function is never called
+                    eval(lazyParsing, source);
+                    fail("expected SyntaxError: " + source);
+                } catch (PolyglotException e) {
+                    assertTrue(source, e.isSyntaxError());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBodiesAreSkipped() {
+        String code = "" +
+                        "function outer(a) {\n" +
+                        "  var b = a * 2;\n" +
+                        "  function inner(c) { return [a, b, c].map(x => x / 2).join(); }\n" +
+                        "  return inner(b / 2) + /}/.source + `${b}}`;\n" +
+                        "}\n";
+        Source source = Source.newBuilder(JavaScriptLanguage.ID, code, "lazy.js").build();
+        ParsedNodes eager;
+        try (TestHelper testHelper = new TestHelper(newContextBuilder(false))) {
+            JSContext context = testHelper.getJSContext();
+            eager = ParsedNodes.of(GraalJSParserHelper.parseScript(context, source, context.getParserOptions()));
+        }
+        assertFalse(eager.functions.get("outer").isPreParsed());
+        assertEquals(3, eager.returnNodes);
+
+        try (TestHelper testHelper = new TestHelper(newContextBuilder(true))) {
+            JSContext context = testHelper.getJSContext();
+            ParsedNodes lazy = ParsedNodes.of(GraalJSParserHelper.parseScript(context, source, context.getParserOptions()));
+            FunctionNode outer = lazy.functions.get("outer");
+            assertTrue(outer.isPreParsed());
+            assertEquals(0, lazy.returnNodes);
+            assertTrue(lazy.nodes < eager.nodes);
+
+            // Only the outer function is parsed completely, the inner one is skipped again.
+            ParsedNodes reparsed = ParsedNodes.of(GraalJSParserHelper.reparseLazyFunction(context, outer));
+            assertFalse(reparsed.functions.get("outer").isPreParsed());
+            assertTrue(reparsed.functions.get("inner").isPreParsed());
+            assertEquals(1, reparsed.returnNodes);
+            assertTrue(reparsed.nodes < eager.nodes);
+        }
+    }
+
+    private static final class ParsedNodes extends NodeVisitor<LexicalContext> {
+        final Map<String, FunctionNode> functions = new HashMap<>();
+        int nodes;
+        int returnNodes;
+
+        private ParsedNodes() {
+            super(new LexicalContext());
+        }
+
+        static ParsedNodes of(FunctionNode function) {
+            assertNotNull(function);
+            ParsedNodes parsedNodes = new ParsedNodes();
+            function.accept(parsedNodes);
+            return parsedNodes;
+        }
+
+        @Override
+        protected boolean enterDefault(Node node) {
+            nodes++;
+            if (node instanceof ReturnNode) {
+                returnNodes++;
+            } else if (node instanceof FunctionNode) {
+                functions.put(((FunctionNode) node).getName(), (FunctionNode) node);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests repeatedly evaluated object literals and array literals allocated from template storage.
+ */
+public class LiteralBoilerplateTest {
+
+    @Test
+    public void testLiterals() {
+        String source = "function make(v, w) { return {a: 1, b: v, c: 'x', a2: w, a: 2, m() { return super.toString === Object.prototype.toString; }}; }\n" +
+                        "var out = [];\n" +
+                        "var objs = [];\n" +
+                        "for (var i = 0; i < 5; i++) objs.push(make(i, i * 2));\n" +
+                        "objs.push(make('s', 1.5), make({}, null), make(7, 8));\n" +
+                        "objs[0].b = 100;\n" +
+                        "out.push(objs.map(function(o) { return Object.keys(o).join('') + ':' + o.a + ',' + typeof o.b + ',' + o.a2; }).join(';'));\n" +
+                        "out.push(objs[1].b + '|' + objs[0].b + '|' + objs[7].b + '|' + objs[7].m() + '|' + (objs[2] !== objs[3]));\n" +
+                        "function arr(x, y) { return [1, x, 3.5, y, 'k']; }\n" +
+                        "function ints(x) { return [1, 2, x, 4]; }\n" +
+                        "var as = [];\n" +
+                        "for (var i = 0; i < 4; i++) as.push(arr(i, i + 1), ints(i));\n" +
+                        "as.push(arr('a', {}), ints(0.5), ints('z'), ints(9));\n" +
+                        "as[1][0] = 42;\n" +
+                        "out.push(as.map(function(a) { return a.join(','); }).join(';'));\n" +
+                        "out.join('|');\n";
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertEquals("abca2m:2,number,0;abca2m:2,number,2;abca2m:2,number,4;abca2m:2,number,6;abca2m:2,number,8;abca2m:2,string,1.5;abca2m:2,object,null;abca2m:2,number,8|" +
+                            "1|100|7|true|true|" +
+                            "1,0,3.5,1,k;42,2,0,4;1,1,3.5,2,k;1,2,1,4;1,2,3.5,3,k;1,2,2,4;1,3,3.5,4,k;1,2,3,4;1,a,3.5,[object Object],k;1,2,0.5,4;1,2,z,4;1,2,9,4",
+                            context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests for the megamorphic property lookup cache and the megamorphic site report.
+ */
+public class MegamorphicPropertyCacheTest {
+
+    private static final String SOURCE = "function get(o) { return o.x; }\n" +
+                        "function set(o, v) { o.x = v; }\n" +
+                        "function has(o) { return 'x' in o; }\n" +
+                        "var objs = [];\n" +
+                        "for (var i = 0; i < 20; i++) { var o = {}; o['p' + i] = i; o.x = i; objs.push(o); }\n" +
+                        "var sum = 0;\n" +
+                        "for (var r = 0; r < 3; r++) for (var i = 0; i < objs.length; i++) sum += get(objs[i]);\n" +
+                        "var proto = {x: 'proto'};\n" +
+                        "var inherit = [];\n" +
+                        "for (var i = 0; i < 20; i++) { var o = Object.create(proto); o['q' + i] = i; inherit.push(o); }\n" +
+                        "var s = '';\n" +
+                        "s += get(inherit[3]) + get(inherit[3]);\n" +
+                        "proto.x = 'changed';\n" +
+                        "s += get(inherit[3]);\n" +
+                        "inherit[3].x = 'own';\n" +
+                        "s += get(inherit[3]) + get(inherit[4]);\n" +
+                        "Object.defineProperty(proto, 'x', {get: function() { return 'getter:' + this.q5; }, set: function(v) { this.y = v; }, configurable: true});\n" +
+                        "s += get(inherit[5]) + get(inherit[5]);\n" +
+                        "set(inherit[5], 'v'); set(inherit[5], 'w');\n" +
+                        "s += inherit[5].y + inherit[5].hasOwnProperty('x');\n" +
+                        "for (var i = 0; i < objs.length; i++) set(objs[i], -1);\n" +
+                        "for (var i = 0; i < objs.length; i++) set(objs[i], -2);\n" +
+                        "var frozen = Object.freeze({x: 1, f: 1});\n" +
+                        "set(frozen, 2); set(frozen, 3);\n" +
+                        "s += frozen.x;\n" +
+                        "var h = 0;\n" +
+                        "for (var i = 0; i < 20; i++) { h += has(objs[i]) + has(inherit[i]); }\n" +
+                        "delete proto.x;\n" +
+                        "s += has(inherit[6]) + ',' + has(inherit[3]) + ',' + get(inherit[6]);\n" +
+                        "[sum, objs[7].x, s, h].join('|');\n";
+
+    @Test
+    public void testMegamorphicAccess() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertEquals("570|-2|protoprotochangedownchangedgetter:5getter:5wfalse1false,true,undefined|40", context.eval(JavaScriptLanguage.ID, SOURCE).asString());
+        }
+    }
+
+    @Test
+    public void testAbsentProperties() {
+        String source = "function get(o) { return o.x; }\n" +
+                        "function has(o) { return 'x' in o; }\n" +
+                        "var objs = [];\n" +
+                        "for (var i = 0; i < 20; i++) { var o = Object.create(null); o['p' + i] = i; objs.push(o); }\n" +
+                        "var s = '';\n" +
+                        "for (var i = 0; i < objs.length; i++) { s += get(objs[i]) === undefined && !has(objs[i]); }\n" +
+                        "Object.setPrototypeOf(objs[3], {x: 'proto'});\n" +
+                        "objs[4].x = 'own';\n" +
+                        "var proto = {};\n" +
+                        "var inherit = [];\n" +
+                        "for (var i = 0; i < 20; i++) { var o = Object.create(proto); o['q' + i] = i; inherit.push(o); get(o); get(o); has(o); has(o); }\n" +
+                        "proto.x = 'late';\n" +
+                        "[s.indexOf('false'), get(objs[3]), has(objs[3]), get(objs[4]), get(objs[5]), get(inherit[7]), has(inherit[7])].join();\n";
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertEquals("-1,proto,true,own,,late,true", context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+
+    @Test
+    public void testSiteReport() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.MEGAMORPHIC_SITE_REPORT_NAME, "true").build()) {
+            context.eval(JavaScriptLanguage.ID, SOURCE);
+            String report = context.eval(JavaScriptLanguage.ID, "Graal.megamorphicSiteReport()").asString();
+            assertTrue(report, report.startsWith("Megamorphic property access sites: "));
+            assertTrue(report, report.contains("PropertyGetNode 'x' (cache limit reached"));
+        }
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertEquals("undefined", context.eval(JavaScriptLanguage.ID, "typeof Graal.megamorphicSiteReport").asString());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.util.LongBTreeMap;
+import com.oracle.truffle.js.test.JSTest;
+
+public class SparseArrayTest {
+
+    @Test
+    public void testElementsAndLength() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(JavaScriptLanguage.ID, "var a = [];\n" +
+                            "for (var i = 0; i < 10000; i++) { a[i * 1000] = i; }");
+            assertEquals(9999001, eval(context, "a.length").asInt());
+            assertEquals(5, eval(context, "a[5000]").asInt());
+            assertTrue(eval(context, "a[5001]").isNull());
+            assertFalse(eval(context, "5001 in a").asBoolean());
+            assertEquals(10000, eval(context, "Object.keys(a).length").asInt());
+            assertEquals("9999000", eval(context, "Object.keys(a)[9999]").asString());
+
+            context.eval(JavaScriptLanguage.ID, "delete a[0]; delete a[2000];");
+            assertFalse(eval(context, "0 in a").asBoolean());
+            assertFalse(eval(context, "2000 in a").asBoolean());
+            assertEquals(1, eval(context, "a[1000]").asInt());
+            assertEquals(3000, eval(context, "a.indexOf(3)").asInt());
+            assertEquals(9998000, eval(context, "a.lastIndexOf(9998)").asInt());
+
+            context.eval(JavaScriptLanguage.ID, "a.length = 4500;");
+            assertEquals("1000,3000,4000", eval(context, "Object.keys(a).join()").asString());
+            assertTrue(eval(context, "a[5000]").isNull());
+
+            context.eval(JavaScriptLanguage.ID, "a.unshift('x');");
+            assertEquals("x", eval(context, "a[0]").asString());
+            assertEquals(1, eval(context, "a[1001]").asInt());
+            assertEquals(4, eval(context, "a[4001]").asInt());
+            assertEquals(4501, eval(context, "a.length").asInt());
+
+            assertEquals("x", eval(context, "a.shift()").asString());
+            assertEquals("1000,3000,4000", eval(context, "Object.keys(a).join()").asString());
+            assertEquals(4500, eval(context, "a.length").asInt());
+        }
+    }
+
+    @Test
+    public void testSortDeletesHoles() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(JavaScriptLanguage.ID, "var a = [];\n" +
+                            "for (var i = 0; i < 2000; i++) { a[i * 100] = 2000 - i; }\n" +
+                            "a.sort((x, y) => x - y);");
+            assertEquals(2000, eval(context, "Object.keys(a).length").asInt());
+            assertEquals(1, eval(context, "a[0]").asInt());
+            assertEquals(2000, eval(context, "a[1999]").asInt());
+            assertFalse(eval(context, "2000 in a").asBoolean());
+            assertEquals(199901, eval(context, "a.length").asInt());
+            assertEquals(-1, eval(context, "a.slice(0, 2000).findIndex((x, i) => i > 0 && a[i - 1] >= x)").asInt());
+        }
+    }
+
+    private static Value eval(Context context, String source) {
+        return context.eval(JavaScriptLanguage.ID, source);
+    }
+
+    @Test
+    public void testLongBTreeMap() {
+        Random random = new Random(42);
+        TreeMap<Long, Object> expected = new TreeMap<>();
+        LongBTreeMap map = new LongBTreeMap();
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(20000);
+            int op = random.nextInt(100);
+            if (op < 50) {
+                expected.put(key, i);
+                map.put(key, i);
+            } else if (op < 80) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else if (op < 82) {
+                long end = key + random.nextInt(500);
+                Map<Long, Object> range = expected.subMap(key, end);
+                int count = range.size();
+                range.clear();
+                assertEquals(count, map.removeRange(key, end));
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+                Long higher = expected.higherKey(key);
+                assertEquals(higher == null ? -1 : higher, map.higherKey(key));
+                Long lower = expected.lowerKey(key);
+                assertEquals(lower == null ? -1 : lower, map.lowerKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).toArray(), map.copy().keys());
+
+        map.shiftKeys(10000, 5);
+        map.truncate(15000);
+        long[] keys = map.keys();
+        long[] expectedKeys = expected.headMap(14995L).keySet().stream().mapToLong(k -> k >= 10000 ? k + 5 : k).toArray();
+        assertArrayEquals(expectedKeys, keys);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests the local time zone offsets of {@code Date} across time zone transitions.
+ */
+public class TimeZoneOffsetCacheTest {
+
+    private static final String[] TIME_ZONES = {"Europe/Prague", "America/Sao_Paulo", "Australia/Lord_Howe", "America/New_York"};
+
+    @Test
+    public void testOffsetsAcrossTransitions() {
+        for (String timeZone : TIME_ZONES) {
+            ZoneRules rules = ZoneId.of(timeZone).getRules();
+            try (Context context = JSTest.newContextBuilder().option(JSContextOptions.TIME_ZONE_NAME, timeZone).build()) {
+                // every 7 hours from 1990 to 2030, going forward and back again
+                Value offsets = context.eval(JavaScriptLanguage.ID, "var start = Date.UTC(1990, 0, 1), step = 7 * 3600000, n = 50000, offsets = [];\n" +
+                                "for (var i = 0; i < n; i++) { offsets.push(new Date(start + i * step).getTimezoneOffset()); }\n" +
+                                "for (var i = n - 1; i >= 0; i--) { if (new Date(start + i * step).getTimezoneOffset() !== offsets[i]) throw new Error(i); }\n" +
+                                "offsets;");
+                long start = Instant.parse("1990-01-01T00:00:00Z").toEpochMilli();
+                for (int i = 0; i < offsets.getArraySize(); i++) {
+                    Instant instant = Instant.ofEpochMilli(start + i * 7 * 3600000L);
+                    int expected = -rules.getOffset(instant).getTotalSeconds() / 60;
+                    assertEquals(timeZone + " " + instant, expected, offsets.getArrayElement(i).asInt());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLocalTimeRoundTrip() {
+        for (String timeZone : TIME_ZONES) {
+            try (Context context = JSTest.newContextBuilder().option(JSContextOptions.TIME_ZONE_NAME, timeZone).build()) {
+                Value dates = context.eval(JavaScriptLanguage.ID, "var dates = [];\n" +
+                                "for (var y = 1990; y < 2030; y++) { for (var d = 1; d <= 365; d += 3) {\n" +
+                                "  var date = new Date(y, 0, d, 12, 34, 56);\n" +
+                                "  dates.push([date.getHours(), date.getMinutes(), date.getDate()]);\n" +
+                                "}}\n" +
+                                "dates;");
+                int i = 0;
+                for (int y = 1990; y < 2030; y++) {
+                    for (int d = 1; d <= 365; d += 3) {
+                        String message = timeZone + " " + LocalDate.ofYearDay(y, d);
+                        Value date = dates.getArrayElement(i++);
+                        assertEquals(message, 12, date.getArrayElement(0).asInt());
+                        assertEquals(message, 34, date.getArrayElement(1).asInt());
+                        assertEquals(message, LocalDate.ofYearDay(y, d).getDayOfMonth(), date.getArrayElement(2).asInt());
+                    }
+                }
+            }
+        }
+    }
+}
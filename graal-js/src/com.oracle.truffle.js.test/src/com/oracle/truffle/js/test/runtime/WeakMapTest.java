@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.ref.WeakReference;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.util.WeakMap;
+import com.oracle.truffle.js.test.JSTest;
+
+public class WeakMapTest extends JSTest {
+
+    @Test
+    public void testKeyInManyMaps() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(JavaScriptLanguage.ID, "var key = {};\n" +
+                            "var maps = [];\n" +
+                            "for (var i = 0; i < 100; i++) { var m = new WeakMap(); m.set(key, i); maps.push(m); }");
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "maps.findIndex((m, i) => m.get(key) !== i || !m.has(key))").asInt());
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "maps.findIndex((m, i) => i % 2 === 0 && !m.delete(key))").asInt());
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "maps.findIndex((m, i) => i % 2 === 0 && m.delete(key))").asInt());
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "maps.findIndex((m, i) => i % 2 === 0 && (m.has(key) || m.get(key) !== undefined))").asInt());
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "maps.findIndex((m, i) => i % 2 !== 0 && m.get(key) !== i)").asInt());
+            context.eval(JavaScriptLanguage.ID, "for (var i = 0; i < 100; i++) { maps[i].set(key, -i); }");
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "maps.findIndex((m, i) => m.get(key) !== -i)").asInt());
+        }
+    }
+
+    @Test
+    public void testManyKeysInOneMap() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(JavaScriptLanguage.ID, "var map = new WeakMap();\n" +
+                            "var keys = [];\n" +
+                            "for (var i = 0; i < 1000; i++) { var k = {}; keys.push(k); map.set(k, i); }");
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "keys.findIndex((k, i) => map.get(k) !== i)").asInt());
+            context.eval(JavaScriptLanguage.ID, "var other = new WeakMap();\n" +
+                            "keys.forEach((k, i) => other.set(k, -i));\n" +
+                            "keys.forEach((k, i) => { if (i % 3 === 0) map.delete(k); });");
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "keys.findIndex((k, i) => map.has(k) !== (i % 3 !== 0))").asInt());
+            assertEquals(-1, context.eval(JavaScriptLanguage.ID, "keys.findIndex((k, i) => other.get(k) !== -i)").asInt());
+        }
+    }
+
+    /**
+     * Values of collected maps, inline or in the table, are released without a rehash.
+     */
+    @Test
+    public void testEntriesOfCollectedMapsAreExpunged() throws InterruptedException {
+        testHelper.enterContext();
+        try {
+            JSObject key = JSOrdinary.create(testHelper.getJSContext(), testHelper.getRealm());
+            WeakReference<Object> inlineValue = putInCollectableMaps(key);
+            WeakMap live = new WeakMap();
+            live.put(key, 42);
+            for (int i = 0; i < 20 && inlineValue.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+                // expunges the entries of collected maps
+                assertEquals(42, live.get(key));
+            }
+            assertNull(inlineValue.get());
+            assertEquals(42, live.get(key));
+        } finally {
+            testHelper.leaveContext();
+        }
+    }
+
+    private static WeakReference<Object> putInCollectableMaps(JSObject key) {
+        Object inlineValue = new Object();
+        new WeakMap().put(key, inlineValue);
+        for (int i = 0; i < 10; i++) {
+            new WeakMap().put(key, new Object());
+        }
+        return new WeakReference<>(inlineValue);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.tools;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class CodeCacheTest {
+
+    private static final String CODE = "" +
+                    "function fib(n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }" +
+                    "const squares = [1, 2, 3].map(x => x * x);" +
+                    "`${fib(10)}:${squares.join()}`;";
+
+    private static String evalWithCodeCache(Path dir, String code) {
+        return evalWithCodeCache(dir, code, true);
+    }
+
+    private static String evalWithCodeCache(Path dir, String code, boolean allowIO) {
+        try (Context context = JSTest.newContextBuilder().allowIO(allowIO).option(JSContextOptions.CODE_CACHE_DIR_NAME, dir.toString()).build()) {
+            return context.eval(Source.create(JavaScriptLanguage.ID, code)).asString();
+        }
+    }
+
+    private static long countEntries(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.filter(p -> p.toString().endsWith(".bin")).count();
+        }
+    }
+
+    @Test
+    public void testColdAndWarm() throws IOException {
+        Path dir = Files.createTempDirectory("js-code-cache");
+        try {
+            assertEquals("55:1,4,9", evalWithCodeCache(dir, CODE));
+            assertEquals(1, countEntries(dir));
+            assertEquals("55:1,4,9", evalWithCodeCache(dir, CODE));
+            assertEquals(1, countEntries(dir));
+            // different source, different entry
+            assertEquals("55:1,4,9!", evalWithCodeCache(dir, CODE + "+ '!';"));
+            assertEquals(2, countEntries(dir));
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    @Test
+    public void testCorruptEntry() throws IOException {
+        Path dir = Files.createTempDirectory("js-code-cache");
+        try {
+            assertEquals("55:1,4,9", evalWithCodeCache(dir, CODE));
+            try (Stream<Path> entries = Files.list(dir)) {
+                for (Path entry : (Iterable<Path>) entries::iterator) {
+                    Files.write(entry, new byte[]{1, 2, 3});
+                }
+            }
+            assertEquals("55:1,4,9", evalWithCodeCache(dir, CODE));
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    @Test
+    public void testNoIOAccess() throws IOException {
+        Path dir = Files.createTempDirectory("js-code-cache");
+        try {
+            // the cache directory is subject to the context's IO permissions
+            assertEquals("55:1,4,9", evalWithCodeCache(dir, CODE, false));
+            assertEquals(0, countEntries(dir));
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                Files.delete(entry);
+            }
+        }
+        Files.delete(dir);
+    }
+}
@@ -141,6 +141,7 @@ import com.oracle.truffle.js.nodes.array.JSArrayPreviousElementIndexNode;
 import com.oracle.truffle.js.nodes.array.JSArrayToDenseObjectArrayNode;
 import com.oracle.truffle.js.nodes.array.JSGetLengthNode;
 import com.oracle.truffle.js.nodes.array.JSSetLengthNode;
+import com.oracle.truffle.js.nodes.array.SortWithComparatorNode;
 import com.oracle.truffle.js.nodes.array.TestArrayNode;
 import com.oracle.truffle.js.nodes.binary.JSIdenticalNode;
 import com.oracle.truffle.js.nodes.cast.JSToBooleanNode;
@@ -2714,8 +2715,10 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
         private final BranchProfile hasCompareFnBranch = BranchProfile.create();
         private final BranchProfile noCompareFnBranch = BranchProfile.create();
         private final BranchProfile growProfile = BranchProfile.create();
+        private final ConditionProfile primitiveSortProfile = ConditionProfile.createBinaryProfile();
         @Child private InteropLibrary interopNode;
         @Child private ImportValueNode importValueNode;
+        @Child private SortWithComparatorNode sortWithComparatorNode;
 
         public JSArraySortNode(JSContext context, JSBuiltin builtin, boolean isTypedArrayImplementation) {
             super(context, builtin, isTypedArrayImplementation);
@@ -2734,9 +2737,14 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
 
             ScriptArray scriptArray = arrayGetArrayType(thisObj);
+            if (primitiveSortProfile.profile(compare == Undefined.instance && scriptArray instanceof AbstractIntArray &&
+                            ((AbstractIntArray) scriptArray).sortDefault(thisObj, (int) len))) {
+                reportLoopCount(len);
+                return thisObj;
+            }
             Object[] array = arrayToObjectArrayNode.executeObjectArray(thisObj, scriptArray, len);
 
-            sortIntl(getComparator(thisObj, compare), array);
+            sort(thisObj, compare, array);
             reportLoopCount(len); // best effort guess, let's not go for n*log(n)
 
             for (int i = 0; i < array.length; i++) {
@@ -2778,14 +2786,16 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                 return thisJSObj;
             }
 
-            Object[] array = jsobjectToArray(thisJSObj, len);
-
-            Comparator<Object> comparator = getComparator(thisJSObj, comparefn);
             if (isTypedArrayImplementation && comparefn == Undefined.instance) {
-                assert comparator == null;
-                prepareForDefaultComparator(array);
+                // sort the elements as primitives, without boxing
+                JSArrayBufferView.typedArrayGetArrayType(thisJSObj).sortDefault(thisJSObj, (int) len);
+                reportLoopCount(len);
+                return thisJSObj;
             }
-            sortIntl(comparator, array);
+
+            Object[] array = jsobjectToArray(thisJSObj, len);
+
+            sort(thisJSObj, comparefn, array);
             reportLoopCount(len);
 
             for (int i = 0; i < array.length; i++) {
@@ -2814,8 +2824,7 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
 
             Object[] array = foreignArrayToObjectArray(thisObj, (int) len);
 
-            Comparator<Object> comparator = getComparator(thisObj, comparefn);
-            sortIntl(comparator, array);
+            sort(thisObj, comparefn, array);
             reportLoopCount(len);
 
             for (int i = 0; i < array.length; i++) {
@@ -2831,31 +2840,32 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
-        private Comparator<Object> getComparator(Object thisObj, Object compare) {
+        private void sort(Object thisObj, Object compare, Object[] array) {
             if (compare == Undefined.instance) {
                 noCompareFnBranch.enter();
-                return getDefaultComparator(thisObj);
+                sortIntl(getDefaultComparator(thisObj), array);
             } else {
                 assert isCallable(compare);
                 hasCompareFnBranch.enter();
-                return new SortComparator(compare);
+                if (sortWithComparatorNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    sortWithComparatorNode = insert(SortWithComparatorNode.create());
+                }
+                sortWithComparatorNode.execute(array, compare);
             }
         }
 
         private Comparator<Object> getDefaultComparator(Object thisObj) {
-            if (isTypedArrayImplementation) {
-                return null; // use Comparable.compareTo (equivalent to Comparator.naturalOrder())
-            } else {
-                if (JSArray.isJSArray(thisObj)) {
-                    ScriptArray array = arrayGetArrayType((JSDynamicObject) thisObj);
-                    if (array instanceof AbstractIntArray || array instanceof ConstantByteArray || array instanceof ConstantIntArray) {
-                        return JSArray.DEFAULT_JSARRAY_INTEGER_COMPARATOR;
-                    } else if (array instanceof AbstractDoubleArray || array instanceof ConstantDoubleArray) {
-                        return JSArray.DEFAULT_JSARRAY_DOUBLE_COMPARATOR;
-                    }
+            assert !isTypedArrayImplementation;
+            if (JSArray.isJSArray(thisObj)) {
+                ScriptArray array = arrayGetArrayType((JSDynamicObject) thisObj);
+                if (array instanceof AbstractIntArray || array instanceof ConstantByteArray || array instanceof ConstantIntArray) {
+                    return JSArray.DEFAULT_JSARRAY_INTEGER_COMPARATOR;
+                } else if (array instanceof AbstractDoubleArray || array instanceof ConstantDoubleArray) {
+                    return JSArray.DEFAULT_JSARRAY_DOUBLE_COMPARATOR;
                 }
-                return JSArray.DEFAULT_JSARRAY_COMPARATOR;
             }
+            return JSArray.DEFAULT_JSARRAY_COMPARATOR;
         }
 
         /**
@@ -2884,71 +2894,6 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
-        private static void prepareForDefaultComparator(Object[] array) {
-            // Default comparator (based on Comparable.compareTo) cannot be used
-            // for elements of different type (for example, Integer.compareTo()
-            // accepts Integers only, not Doubles).
-            boolean needsConversion = false;
-            Class<?> clazz = array[0].getClass();
-            for (Object element : array) {
-                Class<?> c = element.getClass();
-                if (clazz != c) {
-                    needsConversion = true;
-                    break;
-                }
-            }
-            if (needsConversion) {
-                for (int i = 0; i < array.length; i++) {
-                    array[i] = JSRuntime.toDouble(array[i]);
-                }
-            }
-        }
-
-        private class SortComparator implements Comparator<Object> {
-            private final Object compFnObj;
-            private final boolean isFunction;
-
-            SortComparator(Object compFnObj) {
-                this.compFnObj = compFnObj;
-                this.isFunction = JSFunction.isJSFunction(compFnObj);
-            }
-
-            @Override
-            public int compare(Object arg0, Object arg1) {
-                if (arg0 == Undefined.instance) {
-                    if (arg1 == Undefined.instance) {
-                        return 0;
-                    }
-                    return 1;
-                } else if (arg1 == Undefined.instance) {
-                    return -1;
-                }
-                Object retObj;
-                if (isFunction) {
-                    retObj = JSFunction.call((JSFunctionObject) compFnObj, Undefined.instance, new Object[]{arg0, arg1});
-                } else {
-                    retObj = JSRuntime.call(compFnObj, Undefined.instance, new Object[]{arg0, arg1});
-                }
-                return convertResult(retObj);
-            }
-
-            private int convertResult(Object retObj) {
-                if (retObj instanceof Integer) {
-                    return (int) retObj;
-                } else {
-                    double d = JSRuntime.toDouble(retObj);
-                    if (d < 0) {
-                        return -1;
-                    } else if (d > 0) {
-                        return 1;
-                    } else {
-                        // +/-0 or NaN
-                        return 0;
-                    }
-                }
-            }
-        }
-
         @TruffleBoundary
         private Object[] jsobjectToArray(JSDynamicObject thisObj, long len) {
             SimpleArrayList<Object> list = SimpleArrayList.create(len);
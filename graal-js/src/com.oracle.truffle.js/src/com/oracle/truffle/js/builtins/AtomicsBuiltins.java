@@ -82,6 +82,7 @@ import com.oracle.truffle.js.runtime.JSRealm;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.SafeInteger;
 import com.oracle.truffle.js.runtime.Strings;
+import com.oracle.truffle.js.runtime.array.AtomicReadModifyWrite;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.array.TypedArray.BigInt64Array;
 import com.oracle.truffle.js.runtime.array.TypedArray.BigUint64Array;
@@ -180,17 +181,17 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
             case store:
                 return AtomicsStoreNodeGen.create(context, builtin, args().fixedArgs(3).createArgumentNodes(context));
             case add:
-                return AtomicsComputeNodeGen.create(context, builtin, (a, b) -> a + b, (a, b) -> a.add(b), args().fixedArgs(3).createArgumentNodes(context));
+                return AtomicsComputeNodeGen.create(context, builtin, AtomicReadModifyWrite.ADD, args().fixedArgs(3).createArgumentNodes(context));
             case sub:
-                return AtomicsComputeNodeGen.create(context, builtin, (a, b) -> a - b, (a, b) -> a.subtract(b), args().fixedArgs(3).createArgumentNodes(context));
+                return AtomicsComputeNodeGen.create(context, builtin, AtomicReadModifyWrite.SUB, args().fixedArgs(3).createArgumentNodes(context));
             case and:
-                return AtomicsComputeNodeGen.create(context, builtin, (a, b) -> a & b, (a, b) -> a.and(b), args().fixedArgs(3).createArgumentNodes(context));
+                return AtomicsComputeNodeGen.create(context, builtin, AtomicReadModifyWrite.AND, args().fixedArgs(3).createArgumentNodes(context));
             case or:
-                return AtomicsComputeNodeGen.create(context, builtin, (a, b) -> a | b, (a, b) -> a.or(b), args().fixedArgs(3).createArgumentNodes(context));
+                return AtomicsComputeNodeGen.create(context, builtin, AtomicReadModifyWrite.OR, args().fixedArgs(3).createArgumentNodes(context));
             case xor:
-                return AtomicsComputeNodeGen.create(context, builtin, (a, b) -> a ^ b, (a, b) -> a.xor(b), args().fixedArgs(3).createArgumentNodes(context));
+                return AtomicsComputeNodeGen.create(context, builtin, AtomicReadModifyWrite.XOR, args().fixedArgs(3).createArgumentNodes(context));
             case exchange:
-                return AtomicsComputeNodeGen.create(context, builtin, (a, b) -> b, (a, b) -> b, args().fixedArgs(3).createArgumentNodes(context));
+                return AtomicsComputeNodeGen.create(context, builtin, AtomicReadModifyWrite.EXCHANGE, args().fixedArgs(3).createArgumentNodes(context));
             case notify:
                 return AtomicsNotifyNodeGen.create(context, builtin, args().fixedArgs(3).createArgumentNodes(context));
             case wait:
@@ -878,42 +879,28 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
      */
     public abstract static class AtomicsComputeNode extends AtomicsOperationNode {
 
-        private final AtomicIntBinaryOperator intOperator;
-        private final AtomicBinaryOperator<BigInt> bigIntOperator;
+        private final AtomicReadModifyWrite operation;
 
         @Child private JSToBigIntNode toBigIntNode;
         @Child private JSToInt32Node toIntNode;
 
-        public AtomicsComputeNode(JSContext context, JSBuiltin builtin, AtomicIntBinaryOperator intOperator, AtomicBinaryOperator<BigInt> bigIntOperator) {
+        public AtomicsComputeNode(JSContext context, JSBuiltin builtin, AtomicReadModifyWrite operation) {
             super(context, builtin);
-            this.intOperator = intOperator;
-            this.bigIntOperator = bigIntOperator;
+            this.operation = operation;
         }
 
         private int atomicDoInt(JSTypedArrayObject target, int index, int value, TypedIntArray typedArray) {
-            int initial;
-            int result;
-            do {
-                initial = SharedMemorySync.doVolatileGet(target, index, typedArray);
-                result = intOperator.applyAsInt(initial, value);
-            } while (!SharedMemorySync.compareAndSetInt(target, index, initial, result, typedArray));
-            return initial;
+            return typedArray.getAndUpdateInt(target, index, value, operation);
         }
 
         private BigInt atomicDoBigInt(JSTypedArrayObject target, int index, BigInt value, TypedBigIntArray typedArray) {
-            BigInt initial;
-            BigInt result;
-            do {
-                initial = SharedMemorySync.doVolatileGetBigInt(target, index, typedArray);
-                result = bigIntOperator.apply(initial, value);
-            } while (!SharedMemorySync.compareAndSetBigInt(target, index, initial, result, typedArray));
-            return initial;
+            return typedArray.getAndUpdateBigInt(target, index, value, operation);
         }
 
         @TruffleBoundary
         private int nonAtomicDoInt(JSTypedArrayObject target, int index, int value, TypedIntArray typedArray) {
             int initial = typedArray.getInt(target, index, InteropLibrary.getUncached());
-            int result = intOperator.applyAsInt(initial, value);
+            int result = operation.applyAsInt(initial, value);
             typedArray.setInt(target, index, result, InteropLibrary.getUncached());
             return initial;
         }
@@ -921,8 +908,8 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
         @TruffleBoundary
         private BigInt nonAtomicDoBigInt(JSTypedArrayObject target, int index, BigInt value, TypedBigIntArray typedArray) {
             BigInt initial = typedArray.getBigInt(target, index, InteropLibrary.getUncached());
-            BigInt result = bigIntOperator.apply(initial, value);
-            typedArray.setBigInt(target, index, result, InteropLibrary.getUncached());
+            long result = operation.applyAsLong(initial.longValue(), value.longValue());
+            typedArray.setBigInt(target, index, BigInt.valueOf(result), InteropLibrary.getUncached());
             return initial;
         }
 
@@ -1068,6 +1055,7 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
     }
 
     public abstract static class AtomicsNotifyNode extends AtomicsOperationNode {
+        private final ConditionProfile noWaiterListProfile = ConditionProfile.createBinaryProfile();
 
         public AtomicsNotifyNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
@@ -1094,8 +1082,11 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
                 return 0;
             }
 
-            JSAgentWaiterListEntry wl = SharedMemorySync.getWaiterList(getContext(), target, i);
-
+            JSAgentWaiterListEntry wl = SharedMemorySync.getWaiterListIfPresent(getContext(), target, i);
+            if (noWaiterListProfile.profile(wl == null)) {
+                // no agent has ever waited on this location
+                return 0;
+            }
             return notifyWaiters(wl, c);
         }
 
@@ -1112,9 +1103,7 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
                     if (waiterRecord.getPromiseCapability() == null) {
                         wake = true;
                     } else {
-                        if (Double.isInfinite(waiterRecord.getTimeout())) {
-                            waiterRecord.enqueueInAgent();
-                        }
+                        waiterRecord.enqueueInAgent();
                     }
                 }
                 if (wake) {
@@ -1328,14 +1317,4 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
             return doInt(toInt32Node.executeInt(size));
         }
     }
-
-    @FunctionalInterface
-    public interface AtomicIntBinaryOperator {
-        int applyAsInt(int left, int right);
-    }
-
-    @FunctionalInterface
-    public interface AtomicBinaryOperator<T> {
-        T apply(T t, T u);
-    }
 }
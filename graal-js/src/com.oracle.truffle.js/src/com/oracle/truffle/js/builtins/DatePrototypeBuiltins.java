@@ -43,6 +43,7 @@ package com.oracle.truffle.js.builtins;
 import java.util.EnumSet;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
@@ -98,6 +99,7 @@ import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSDate;
 import com.oracle.truffle.js.runtime.builtins.JSDateObject;
+import com.oracle.truffle.js.runtime.builtins.intl.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.builtins.intl.JSDateTimeFormat;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.Null;
@@ -363,6 +365,25 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             initDateTimeFormatNode.executeInit(dateTimeFormatObj, locales, options);
             return dateTimeFormatObj;
         }
+
+        /**
+         * Formats the time value using a new DateTimeFormat or, for calls without options, a
+         * cached one of the given kind (see {@link IntlFormatterCache}).
+         */
+        @TruffleBoundary
+        protected TruffleString formatDateTime(InitializeDateTimeFormatNode initDateTimeFormatNode, String kind, Object locales, Object options, double t) {
+            IntlFormatterCache cache = getContext().getIntlFormatterCache();
+            if (cache == null || !IntlFormatterCache.isCacheable(locales, options)) {
+                return JSDateTimeFormat.format(createDateTimeFormat(initDateTimeFormatNode, locales, options), t);
+            }
+            String timeZone = getRealm().getLocalTimeZoneId().getId();
+            JSDateTimeFormat.InternalState state = (JSDateTimeFormat.InternalState) cache.get(kind, locales, timeZone);
+            if (state == null) {
+                state = JSDateTimeFormat.getInternalState(createDateTimeFormat(initDateTimeFormatNode, locales, options));
+                cache.put(kind, locales, timeZone, state);
+            }
+            return JSDateTimeFormat.formatShared(state, t);
+        }
     }
 
     public abstract static class JSDateOperationWithToNumberNode extends JSDateOperation {
@@ -424,8 +445,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            JSDynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
-            return JSDateTimeFormat.format(formatter, t);
+            return formatDateTime(initDateTimeFormatNode, IntlFormatterCache.DATE_TIME_FORMAT, locales, options, t);
         }
     }
 
@@ -492,8 +512,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            JSDynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
-            return JSDateTimeFormat.format(formatter, t);
+            return formatDateTime(initDateTimeFormatNode, IntlFormatterCache.DATE_FORMAT, locales, options, t);
         }
     }
 
@@ -528,8 +547,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            JSDynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
-            return JSDateTimeFormat.format(formatter, t);
+            return formatDateTime(initDateTimeFormatNode, IntlFormatterCache.TIME_FORMAT, locales, options, t);
         }
     }
 
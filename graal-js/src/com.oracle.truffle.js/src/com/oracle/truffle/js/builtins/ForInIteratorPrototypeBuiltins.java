@@ -40,43 +40,26 @@
  */
 package com.oracle.truffle.js.builtins;
 
-import java.util.List;
-
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.object.Property;
-import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
-import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.PrimitiveValueProfile;
 import com.oracle.truffle.js.builtins.ForInIteratorPrototypeBuiltinsFactory.ForInIteratorPrototypeNextNodeGen;
-import com.oracle.truffle.js.builtins.helper.ListGetNode;
-import com.oracle.truffle.js.builtins.helper.ListSizeNode;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.access.CreateIterResultObjectNode;
-import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
-import com.oracle.truffle.js.nodes.access.HasOnlyShapePropertiesNode;
-import com.oracle.truffle.js.nodes.access.JSGetOwnPropertyNode;
+import com.oracle.truffle.js.nodes.access.ForInIteratorNextKeyNode;
 import com.oracle.truffle.js.nodes.access.PropertyGetNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.Errors;
-import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Strings;
 import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
-import com.oracle.truffle.js.runtime.builtins.JSClass;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
-import com.oracle.truffle.js.runtime.builtins.JSObjectPrototype;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
-import com.oracle.truffle.js.runtime.objects.JSProperty;
-import com.oracle.truffle.js.runtime.objects.JSShape;
-import com.oracle.truffle.js.runtime.objects.Null;
-import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.ForInIterator;
 
@@ -117,28 +100,14 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
     public abstract static class ForInIteratorPrototypeNextNode extends JSBuiltinNode {
         @Child private CreateIterResultObjectNode createIterResultObjectNode;
         @Child private PropertyGetNode getIteratorNode;
-        @Child private GetPrototypeNode getPrototypeNode;
-        @Child private HasOnlyShapePropertiesNode hasOnlyShapePropertiesNode;
-        @Child private ListGetNode listGet;
-        @Child private ListSizeNode listSize;
-        @Child private JSGetOwnPropertyNode getOwnPropertyNode;
+        @Child private ForInIteratorNextKeyNode nextKeyNode;
         private final BranchProfile errorBranch = BranchProfile.create();
-        private final BranchProfile growProfile = BranchProfile.create();
-        private final ConditionProfile fastOwnKeysProfile = ConditionProfile.createBinaryProfile();
-        private final ConditionProfile sameShapeProfile = ConditionProfile.createBinaryProfile();
-
-        private static final Object DONE = null;
-        private static final int MAX_PROTO_DEPTH = 1000;
 
         public ForInIteratorPrototypeNextNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
             this.createIterResultObjectNode = CreateIterResultObjectNode.create(context);
             this.getIteratorNode = PropertyGetNode.createGetHidden(JSRuntime.FOR_IN_ITERATOR_ID, context);
-            this.getPrototypeNode = GetPrototypeNode.create();
-            this.hasOnlyShapePropertiesNode = HasOnlyShapePropertiesNode.create();
-            this.getOwnPropertyNode = JSGetOwnPropertyNode.create();
-            this.listGet = ListGetNode.create();
-            this.listSize = ListSizeNode.create();
+            this.nextKeyNode = ForInIteratorNextKeyNode.create();
         }
 
         @Specialization
@@ -150,8 +119,8 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
                 throw Errors.createTypeErrorIncompatibleReceiver(target);
             }
             ForInIterator state = (ForInIterator) iteratorValue;
-            Object nextValue = findNext(state);
-            boolean done = nextValue == DONE;
+            Object nextValue = nextKeyNode.execute(state);
+            boolean done = nextValue == ForInIteratorNextKeyNode.DONE;
             if (done) {
                 nextValue = Undefined.instance;
             } else {
@@ -163,124 +132,6 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
             }
             return createIterResultObjectNode.execute(frame, nextValue, done);
         }
-
-        private Object findNext(ForInIterator state) {
-            for (;;) {
-                JSDynamicObject object = state.object;
-                if (!state.objectWasVisited) {
-                    JSClass jsclass = JSObject.getJSClass(object);
-                    Shape objectShape = object.getShape();
-                    boolean fastOwnKeys;
-                    List<?> list;
-                    int size;
-                    if (fastOwnKeysProfile.profile(JSConfig.FastOwnKeys && hasOnlyShapePropertiesNode.execute(object, jsclass))) {
-                        fastOwnKeys = true;
-                        // if the object does not have enumerable properties, no need to enumerate
-                        list = JSShape.getPropertiesIfHasEnumerablePropertyNames(objectShape);
-                        size = list.size();
-                    } else {
-                        fastOwnKeys = false;
-                        list = jsclass.ownPropertyKeys(object);
-                        size = listSize.execute(list);
-                    }
-                    state.objectShape = objectShape;
-                    state.remainingKeys = list;
-                    state.remainingKeysSize = size;
-                    state.remainingKeysIndex = 0;
-                    state.fastOwnKeys = fastOwnKeys;
-                    state.objectWasVisited = true;
-                }
-
-                assert state.remainingKeysSize == state.remainingKeys.size();
-                while (state.remainingKeysIndex < state.remainingKeysSize) {
-                    final Object next = listGet.execute(state.remainingKeys, state.remainingKeysIndex++);
-                    final Object key = getKey(next);
-                    if (!JSGuards.isString(key)) {
-                        continue;
-                    }
-                    if (state.isVisitedKey(key)) {
-                        continue;
-                    }
-
-                    if (fastOwnKeysProfile.profile(state.fastOwnKeys && next instanceof Property)) {
-                        if (sameShapeProfile.profile(state.objectShape == object.getShape())) {
-                            // same shape => can skip GetOwnProperty
-                            if (JSProperty.isEnumerable((Property) next)) {
-                                return key;
-                            } else {
-                                continue;
-                            }
-                        } else {
-                            // shape has changed => must perform GetOwnProperty
-                            addPreviouslyVisitedKeys(state);
-                            state.fastOwnKeys = false;
-                            // fall through
-                        }
-                    }
-
-                    PropertyDescriptor desc = getOwnPropertyNode.execute(object, key);
-                    // desc can be null if obj is a Proxy or the property has been deleted
-                    if (desc != null) {
-                        state.addVisitedKey(key);
-                        if (desc.getEnumerable()) {
-                            return key;
-                        } else {
-                            continue;
-                        }
-                    } else {
-                        continue;
-                    }
-                }
-
-                JSDynamicObject proto = getPrototypeNode.execute(object);
-                if (tryFastForwardImmutablePrototype(proto)) {
-                    proto = Null.instance;
-                }
-                state.object = proto;
-                state.objectWasVisited = false;
-                if (proto == Null.instance) {
-                    return DONE;
-                } else {
-                    if (fastOwnKeysProfile.profile(state.fastOwnKeys)) {
-                        state.addVisitedShape(state.objectShape, growProfile);
-                    } else {
-                        // check for Proxy prototype cycles
-                        if (++state.protoDepth > MAX_PROTO_DEPTH) {
-                            errorBranch.enter();
-                            throw Errors.createRangeErrorStackOverflow();
-                        }
-                    }
-                }
-            }
-        }
-
-        private static Object getKey(final Object next) {
-            return next instanceof Property ? ((Property) next).getKey() : next;
-        }
-
-        @TruffleBoundary
-        private static void addPreviouslyVisitedKeys(ForInIterator state) {
-            for (int i = 0; i < state.remainingKeysIndex - 1; i++) {
-                state.addVisitedKey(getKey(state.remainingKeys.get(i)));
-            }
-        }
-
-        private boolean tryFastForwardImmutablePrototype(JSDynamicObject proto) {
-            if (proto == Null.instance) {
-                return false;
-            }
-            // If none of the remaining prototypes have enumerable properties, we are done.
-            // If the object has an immutable prototype (i.e., Object.prototype, Module Namespace),
-            // its prototype is always null and we can skip [[GetPrototypeOf]]().
-            JSClass jsclass = JSObject.getJSClass(proto);
-            if (jsclass == JSObjectPrototype.INSTANCE && hasOnlyShapePropertiesNode.execute(proto, jsclass) && JSShape.getEnumerablePropertyNames(proto.getShape()).isEmpty()) {
-                assert JSObject.getPrototype(proto) == Null.instance;
-                return true;
-            } else {
-                return false;
-            }
-        }
-
     }
 
 }
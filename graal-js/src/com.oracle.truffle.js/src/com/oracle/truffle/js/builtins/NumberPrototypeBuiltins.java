@@ -76,6 +76,7 @@ import com.oracle.truffle.js.runtime.Strings;
 import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
 import com.oracle.truffle.js.runtime.builtins.JSNumberObject;
+import com.oracle.truffle.js.runtime.builtins.intl.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.builtins.intl.JSNumberFormat;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
@@ -323,30 +324,42 @@ public final class NumberPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @TruffleBoundary
-        private JSDynamicObject createNumberFormat(Object locales, Object options) {
+        private JSNumberFormat.InternalState createNumberFormat(Object locales, Object options) {
+            IntlFormatterCache cache = getContext().getIntlFormatterCache();
+            boolean cacheable = cache != null && IntlFormatterCache.isCacheable(locales, options);
+            if (cacheable) {
+                Object cached = cache.get(IntlFormatterCache.NUMBER_FORMAT, locales, null);
+                if (cached != null) {
+                    return (JSNumberFormat.InternalState) cached;
+                }
+            }
             JSDynamicObject numberFormatObj = JSNumberFormat.create(getContext(), getRealm());
             initNumberFormatNode.executeInit(numberFormatObj, locales, options);
-            return numberFormatObj;
+            JSNumberFormat.InternalState state = JSNumberFormat.getInternalState(numberFormatObj);
+            if (cacheable) {
+                cache.put(IntlFormatterCache.NUMBER_FORMAT, locales, null, state);
+            }
+            return state;
         }
 
         @Specialization(guards = "isJSNumber(thisObj)")
         protected TruffleString jsNumberToLocaleString(JSDynamicObject thisObj, Object locales, Object options) {
-            JSDynamicObject numberFormatObj = createNumberFormat(locales, options);
-            return JSNumberFormat.format(numberFormatObj, getNumberValue(thisObj));
+            JSNumberFormat.InternalState numberFormatState = createNumberFormat(locales, options);
+            return JSNumberFormat.format(numberFormatState, getNumberValue(thisObj));
         }
 
         @Specialization(guards = "isJavaNumber(thisObj)")
         protected TruffleString javaNumberToLocaleString(Object thisObj, Object locales, Object options) {
-            JSDynamicObject numberFormatObj = createNumberFormat(locales, options);
-            return JSNumberFormat.format(numberFormatObj, JSRuntime.doubleValue((Number) thisObj));
+            JSNumberFormat.InternalState numberFormatState = createNumberFormat(locales, options);
+            return JSNumberFormat.format(numberFormatState, JSRuntime.doubleValue((Number) thisObj));
         }
 
         @Specialization(guards = "isForeignObject(thisObj)", limit = "InteropLibraryLimit")
         protected TruffleString toLocaleStringForeignObject(Object thisObj, Object locales, Object options,
                         @CachedLibrary("thisObj") InteropLibrary interop) {
             double doubleValue = getDoubleValue(interop, thisObj);
-            JSDynamicObject numberFormatObj = createNumberFormat(locales, options);
-            return JSNumberFormat.format(numberFormatObj, doubleValue);
+            JSNumberFormat.InternalState numberFormatState = createNumberFormat(locales, options);
+            return JSNumberFormat.format(numberFormatState, doubleValue);
         }
 
         @Fallback
@@ -139,6 +139,7 @@ import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSRegExp;
 import com.oracle.truffle.js.runtime.builtins.JSRegExpObject;
 import com.oracle.truffle.js.runtime.builtins.JSString;
+import com.oracle.truffle.js.runtime.builtins.intl.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.builtins.intl.JSCollator;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.Null;
@@ -2414,10 +2415,22 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @TruffleBoundary
-        private JSDynamicObject createCollator(Object locales, Object options) {
+        private JSCollator.InternalState createCollator(Object locales, Object options) {
+            IntlFormatterCache cache = getContext().getIntlFormatterCache();
+            boolean cacheable = cache != null && IntlFormatterCache.isCacheable(locales, options);
+            if (cacheable) {
+                Object cached = cache.get(IntlFormatterCache.COLLATOR, locales, null);
+                if (cached != null) {
+                    return (JSCollator.InternalState) cached;
+                }
+            }
             JSDynamicObject collatorObj = JSCollator.create(getContext(), getRealm());
             initCollatorNode.executeInit(collatorObj, locales, options);
-            return collatorObj;
+            JSCollator.InternalState state = JSCollator.getInternalState(collatorObj);
+            if (cacheable) {
+                cache.put(IntlFormatterCache.COLLATOR, locales, null, state.freeze());
+            }
+            return state;
         }
 
         @Specialization
@@ -2426,7 +2439,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             requireObjectCoercible(thisObj);
             TruffleString thisStr = toString(thisObj);
             TruffleString thatStr = toString2Node.executeString(thatObj);
-            JSDynamicObject collator = createCollator(locales, options);
+            JSCollator.InternalState collator = createCollator(locales, options);
             return JSCollator.compare(collator, Strings.toJavaString(thisStr), Strings.toJavaString(thatStr));
         }
     }
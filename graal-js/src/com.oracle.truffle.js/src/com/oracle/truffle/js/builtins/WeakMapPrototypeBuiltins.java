@@ -40,10 +40,7 @@
  */
 package com.oracle.truffle.js.builtins;
 
-import java.util.WeakHashMap;
-
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -56,7 +53,6 @@ import com.oracle.truffle.js.builtins.WeakMapPrototypeBuiltinsFactory.JSWeakMapH
 import com.oracle.truffle.js.builtins.WeakMapPrototypeBuiltinsFactory.JSWeakMapSetNodeGen;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
-import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
@@ -65,6 +61,7 @@ import com.oracle.truffle.js.runtime.builtins.JSWeakMap;
 import com.oracle.truffle.js.runtime.builtins.JSWeakMapObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.InvertedWeakMap;
 import com.oracle.truffle.js.runtime.util.WeakMap;
 
 /**
@@ -129,9 +126,8 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
             return library.getOrDefault(key, WeakMap.INVERTED_WEAK_MAP_KEY, null);
         }
 
-        @SuppressWarnings("unchecked")
-        protected static WeakHashMap<WeakMap, Object> castWeakHashMap(Object map) {
-            return CompilerDirectives.castExact(map, WeakHashMap.class);
+        protected static InvertedWeakMap castInvertedMap(Object map) {
+            return CompilerDirectives.castExact(map, InvertedWeakMap.class);
         }
     }
 
@@ -152,8 +148,8 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
             WeakMap map = (WeakMap) JSWeakMap.getInternalWeakMap(thisObj);
             Object inverted = getInvertedMap(key, invertedGetter);
             if (hasInvertedProfile.profile(inverted != null)) {
-                WeakHashMap<WeakMap, Object> invertedMap = castWeakHashMap(inverted);
-                return Boundaries.mapRemove(invertedMap, map) != null;
+                InvertedWeakMap invertedMap = castInvertedMap(inverted);
+                return invertedMap.remove(map) != null;
             }
             return false;
         }
@@ -188,8 +184,8 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
             WeakMap map = (WeakMap) JSWeakMap.getInternalWeakMap(thisObj);
             Object inverted = getInvertedMap(key, invertedGetter);
             if (hasInvertedProfile.profile(inverted != null)) {
-                WeakHashMap<WeakMap, Object> invertedMap = castWeakHashMap(inverted);
-                Object value = mapGet(invertedMap, map);
+                InvertedWeakMap invertedMap = castInvertedMap(inverted);
+                Object value = invertedMap.get(map);
                 if (value != null) {
                     return value;
                 }
@@ -208,11 +204,6 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
         protected static Object notWeakMap(Object thisObj, Object key) {
             throw typeErrorWeakMapExpected();
         }
-
-        @TruffleBoundary(allowInlining = true)
-        private static Object mapGet(WeakHashMap<WeakMap, Object> invertedMap, WeakMap map) {
-            return invertedMap.get(map);
-        }
     }
 
     /**
@@ -233,8 +224,8 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
             WeakMap map = (WeakMap) JSWeakMap.getInternalWeakMap(thisObj);
             Object inverted = getInvertedMap(key, invertedGetter);
             if (hasInvertedProfile.profile(inverted != null)) {
-                WeakHashMap<WeakMap, Object> invertedMap = castWeakHashMap(inverted);
-                mapPut(invertedMap, map, value);
+                InvertedWeakMap invertedMap = castInvertedMap(inverted);
+                invertedMap.put(map, value);
             } else {
                 inverted = map.newInvertedMapWithEntry(key, value);
                 invertedSetter.put(key, WeakMap.INVERTED_WEAK_MAP_KEY, inverted);
@@ -253,11 +244,6 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
         protected static Object notWeakMap(Object thisObj, Object key, Object value) {
             throw typeErrorWeakMapExpected();
         }
-
-        @TruffleBoundary(allowInlining = true)
-        private static Object mapPut(WeakHashMap<WeakMap, Object> invertedMap, WeakMap map, Object value) {
-            return invertedMap.put(map, value);
-        }
     }
 
     /**
@@ -277,17 +263,12 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
             WeakMap map = (WeakMap) JSWeakMap.getInternalWeakMap(thisObj);
             Object inverted = getInvertedMap(key, invertedGetter);
             if (hasInvertedProfile.profile(inverted != null)) {
-                WeakHashMap<WeakMap, Object> invertedMap = castWeakHashMap(inverted);
-                return mapHas(invertedMap, map);
+                InvertedWeakMap invertedMap = castInvertedMap(inverted);
+                return invertedMap.containsKey(map);
             }
             return false;
         }
 
-        @TruffleBoundary(allowInlining = true)
-        private static boolean mapHas(WeakHashMap<WeakMap, Object> invertedMap, WeakMap map) {
-            return invertedMap.containsKey(map);
-        }
-
         @SuppressWarnings("unused")
         @Specialization(guards = {"!isJSObject(key)"})
         protected static boolean hasNonObjectKey(JSWeakMapObject thisObj, Object key) {
@@ -57,12 +57,10 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRealm;
-import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Strings;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionObject;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
-import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 import static com.oracle.truffle.js.runtime.objects.DefaultESModuleLoader.DOT_DOT_SLASH;
@@ -170,7 +168,7 @@ public final class CommonJSResolution {
         return null;
     }
 
-    public static TruffleFile loadIndex(TruffleFile modulePath) {
+    public static TruffleFile loadIndex(JSRealm realm, TruffleFile modulePath) {
         /* @formatter:off
          *
          * LOAD_INDEX(X)
@@ -180,21 +178,22 @@ public final class CommonJSResolution {
          *
          * @formatter:on
          */
+        ModuleResolutionCache cache = realm.getModuleResolutionCache();
         TruffleFile indexJs = joinPaths(modulePath, INDEX_JS);
-        if (fileExists(indexJs)) {
+        if (cache.isRegularFile(indexJs)) {
             return indexJs;
         }
         TruffleFile indexJson = joinPaths(modulePath, INDEX_JSON);
-        if (fileExists(indexJson)) {
+        if (cache.isRegularFile(indexJson)) {
             return indexJson;
-        } else if (fileExists(joinPaths(modulePath, INDEX_NODE))) {
+        } else if (cache.isRegularFile(joinPaths(modulePath, INDEX_NODE))) {
             // Ignore .node files.
             return null;
         }
         return null;
     }
 
-    static TruffleFile loadAsFile(TruffleLanguage.Env env, TruffleFile modulePath) {
+    static TruffleFile loadAsFile(JSRealm realm, TruffleFile modulePath) {
         /* @formatter:off
          *
          * LOAD_AS_FILE(X)
@@ -205,18 +204,20 @@ public final class CommonJSResolution {
          *
          * @formatter:on
          */
-        if (fileExists(modulePath)) {
+        TruffleLanguage.Env env = realm.getEnv();
+        ModuleResolutionCache cache = realm.getModuleResolutionCache();
+        if (cache.isRegularFile(modulePath)) {
             return modulePath;
         }
         TruffleFile moduleJs = env.getPublicTruffleFile(modulePath.toString() + Strings.JS_EXT);
-        if (fileExists(moduleJs)) {
+        if (cache.isRegularFile(moduleJs)) {
             return moduleJs;
         }
         TruffleFile moduleJson = env.getPublicTruffleFile(modulePath.toString() + Strings.JSON_EXT);
-        if (fileExists(moduleJson)) {
+        if (cache.isRegularFile(moduleJson)) {
             return moduleJson;
         }
-        if (fileExists(env.getPublicTruffleFile(modulePath.toString() + Strings.NODE_EXT))) {
+        if (cache.isRegularFile(env.getPublicTruffleFile(modulePath.toString() + Strings.NODE_EXT))) {
             // .node files not supported.
             return null;
         }
@@ -238,7 +239,7 @@ public final class CommonJSResolution {
     }
 
     private static TruffleFile loadAsFileOrDirectory(JSRealm realm, TruffleFile modulePath) {
-        TruffleFile maybeFile = loadAsFile(realm.getEnv(), modulePath);
+        TruffleFile maybeFile = loadAsFile(realm, modulePath);
         if (maybeFile == null) {
             return loadAsDirectory(realm, modulePath);
         } else {
@@ -257,24 +258,24 @@ public final class CommonJSResolution {
     }
 
     private static TruffleFile loadAsDirectory(JSRealm realm, TruffleFile modulePath) {
+        ModuleResolutionCache cache = realm.getModuleResolutionCache();
         TruffleFile packageJson = joinPaths(modulePath, PACKAGE_JSON);
-        if (fileExists(packageJson)) {
-            JSDynamicObject jsonObj = loadJsonObject(packageJson, realm);
-            if (JSDynamicObject.isJSDynamicObject(jsonObj)) {
-                Object main = JSObject.get(jsonObj, Strings.PACKAGE_JSON_MAIN_PROPERTY_NAME);
-                if (!Strings.isTString(main)) {
-                    return loadIndex(modulePath);
+        if (cache.isRegularFile(packageJson)) {
+            ModuleResolutionCache.PackageJson pjson = cache.getPackageJson(packageJson, realm);
+            if (pjson != null) {
+                if (!pjson.hasMainProperty()) {
+                    return loadIndex(realm, modulePath);
                 }
-                TruffleFile module = joinPaths(modulePath, JSRuntime.safeToString(main).toJavaStringUncached());
-                TruffleFile asFile = loadAsFile(realm.getEnv(), module);
+                TruffleFile module = joinPaths(modulePath, pjson.getMainProperty().toJavaStringUncached());
+                TruffleFile asFile = loadAsFile(realm, module);
                 if (asFile != null) {
                     return asFile;
                 } else {
-                    return loadIndex(module);
+                    return loadIndex(realm, module);
                 }
             }
         } else {
-            return loadIndex(modulePath);
+            return loadIndex(realm, modulePath);
         }
         return null;
     }
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.commonjs;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.Strings;
+import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Caches the file system queries of CommonJS and ES module resolution: whether a path is a
+ * regular file or a directory (positive and negative results), the relevant properties of parsed
+ * {@code package.json} files, and canonical paths.
+ *
+ * Depending on {@code js.module-resolution-cache}, an instance is owned by a realm or shared by
+ * all realms of an engine. Files that are created, deleted or modified after they have been
+ * looked up are not noticed until {@link #invalidate()} is called, e.g. via
+ * {@code Graal.invalidateModuleResolutionCache()}.
+ */
+public final class ModuleResolutionCache {
+
+    /**
+     * Pass-through instance used when caching is disabled.
+     */
+    public static final ModuleResolutionCache UNCACHED = new ModuleResolutionCache(false);
+
+    private final Map<String, Boolean> regularFiles;
+    private final Map<String, Boolean> directories;
+    private final Map<String, String> canonicalPaths;
+    private final Map<String, PackageJson> packageJsons;
+
+    private ModuleResolutionCache(boolean enabled) {
+        this.regularFiles = enabled ? new ConcurrentHashMap<>() : null;
+        this.directories = enabled ? new ConcurrentHashMap<>() : null;
+        this.canonicalPaths = enabled ? new ConcurrentHashMap<>() : null;
+        this.packageJsons = enabled ? new ConcurrentHashMap<>() : null;
+    }
+
+    public static ModuleResolutionCache create() {
+        return new ModuleResolutionCache(true);
+    }
+
+    public boolean isEnabled() {
+        return this != UNCACHED;
+    }
+
+    /**
+     * Returns {@code true} if the file exists and is a regular file.
+     */
+    @TruffleBoundary
+    public boolean isRegularFile(TruffleFile file) {
+        if (regularFiles == null) {
+            return file.exists() && file.isRegularFile();
+        }
+        return regularFiles.computeIfAbsent(file.getPath(), k -> file.exists() && file.isRegularFile());
+    }
+
+    /**
+     * Returns {@code true} if the file exists and is a directory.
+     */
+    @TruffleBoundary
+    public boolean isDirectory(TruffleFile file) {
+        if (directories == null) {
+            return file.exists() && file.isDirectory();
+        }
+        return directories.computeIfAbsent(file.getPath(), k -> file.exists() && file.isDirectory());
+    }
+
+    @TruffleBoundary
+    public TruffleFile getCanonicalFile(TruffleFile file) throws IOException {
+        if (canonicalPaths == null) {
+            return file.getCanonicalFile();
+        }
+        String path = file.getPath();
+        String canonicalPath = canonicalPaths.get(path);
+        if (canonicalPath != null) {
+            return file.resolveSibling(canonicalPath);
+        }
+        TruffleFile canonicalFile = file.getCanonicalFile();
+        canonicalPaths.put(path, canonicalFile.getPath());
+        return canonicalFile;
+    }
+
+    /**
+     * Reads the given {@code package.json} file.
+     *
+     * @return the package description, or {@code null} if the file does not exist or does not
+     *         contain a JSON object.
+     */
+    @TruffleBoundary
+    public PackageJson getPackageJson(TruffleFile packageJsonFile, JSRealm realm) {
+        if (packageJsons == null) {
+            return readPackageJson(packageJsonFile, realm);
+        }
+        String path = packageJsonFile.getPath();
+        PackageJson result = packageJsons.get(path);
+        if (result == null) {
+            result = readPackageJson(packageJsonFile, realm);
+            if (result == null) {
+                return null;
+            }
+            packageJsons.put(path, result);
+        }
+        return result;
+    }
+
+    private PackageJson readPackageJson(TruffleFile packageJsonFile, JSRealm realm) {
+        if (!isRegularFile(packageJsonFile)) {
+            return null;
+        }
+        JSDynamicObject jsonObj = CommonJSResolution.loadJsonObject(packageJsonFile, realm);
+        if (!JSObject.isJSObject(jsonObj)) {
+            return null;
+        }
+        return new PackageJson(jsonObj);
+    }
+
+    /**
+     * Drops all cached results, e.g., after files have been added to or removed from a module
+     * directory.
+     */
+    @TruffleBoundary
+    public void invalidate() {
+        if (isEnabled()) {
+            regularFiles.clear();
+            directories.clear();
+            canonicalPaths.clear();
+            packageJsons.clear();
+        }
+    }
+
+    /**
+     * The properties of a {@code package.json} file that are relevant for module resolution.
+     * Independent of the realm that parsed the file.
+     */
+    public static final class PackageJson {
+
+        private final TruffleString name;
+        private final TruffleString main;
+        private final TruffleString type;
+        private final boolean hasExports;
+
+        PackageJson(JSDynamicObject jsonObj) {
+            this.name = getStringProperty(jsonObj, Strings.NAME);
+            this.main = getStringProperty(jsonObj, Strings.PACKAGE_JSON_MAIN_PROPERTY_NAME);
+            this.type = getStringProperty(jsonObj, Strings.TYPE);
+            this.hasExports = hasNonNullProperty(jsonObj, Strings.EXPORTS_PROPERTY_NAME);
+        }
+
+        private static boolean hasNonNullProperty(JSDynamicObject object, TruffleString keyName) {
+            if (JSObject.hasProperty(object, keyName)) {
+                Object value = JSObject.get(object, keyName);
+                return value != Null.instance && value != Undefined.instance;
+            }
+            return false;
+        }
+
+        private static TruffleString getStringProperty(JSDynamicObject object, TruffleString keyName) {
+            if (JSObject.hasProperty(object, keyName)) {
+                Object value = JSObject.get(object, keyName);
+                if (Strings.isTString(value)) {
+                    return (TruffleString) value;
+                }
+            }
+            return null;
+        }
+
+        public boolean hasTypeModule() {
+            return type != null && Strings.equals(Strings.MODULE, type);
+        }
+
+        public boolean hasExportsProperty() {
+            return hasExports;
+        }
+
+        public boolean hasMainProperty() {
+            return main != null;
+        }
+
+        public TruffleString getMainProperty() {
+            assert hasMainProperty();
+            return main;
+        }
+
+        public boolean namePropertyEquals(String packageName) {
+            return name != null && Strings.equals(Strings.fromJavaString(packageName), name);
+        }
+    }
+}
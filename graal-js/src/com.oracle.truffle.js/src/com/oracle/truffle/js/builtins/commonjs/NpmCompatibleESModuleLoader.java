@@ -50,13 +50,7 @@ import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.NODE_MO
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.PACKAGE_JSON;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.hasCoreModuleReplacement;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.joinPaths;
-import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.loadJsonObject;
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
-import static com.oracle.truffle.js.runtime.Strings.EXPORTS_PROPERTY_NAME;
-import static com.oracle.truffle.js.runtime.Strings.MODULE;
-import static com.oracle.truffle.js.runtime.Strings.NAME;
-import static com.oracle.truffle.js.runtime.Strings.PACKAGE_JSON_MAIN_PROPERTY_NAME;
-import static com.oracle.truffle.js.runtime.Strings.TYPE;
 
 import java.io.IOException;
 import java.net.URI;
@@ -70,6 +64,7 @@ import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.api.strings.TruffleStringBuilder;
+import com.oracle.truffle.js.builtins.commonjs.ModuleResolutionCache.PackageJson;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSErrorType;
@@ -83,7 +78,6 @@ import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSModuleData;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
-import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
@@ -417,7 +411,7 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
             currentParentUrl = currentParentUrl.getParent();
             // 11.3 If the folder at packageURL does not exist, then
             TruffleFile maybeFolder = packageUrl != null ? env.getPublicTruffleFile(packageUrl) : null;
-            if (maybeFolder == null || !maybeFolder.exists() || !maybeFolder.isDirectory()) {
+            if (maybeFolder == null || !realm.getModuleResolutionCache().isDirectory(maybeFolder)) {
                 continue;
             }
             // 11.4 Let pjson be the result of READ_PACKAGE_JSON(packageURL).
@@ -512,78 +506,21 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
         ESM
     }
 
-    private static class PackageJson {
-
-        private final JSDynamicObject jsonObj;
-
-        PackageJson(JSDynamicObject jsonObj) {
-            assert jsonObj != null;
-            assert JSObject.isJSObject(jsonObj);
-            this.jsonObj = jsonObj;
-        }
-
-        boolean hasTypeModule() {
-            if (hasNonNullProperty(jsonObj, TYPE)) {
-                Object nameValue = JSObject.get(jsonObj, TYPE);
-                if (Strings.isTString(nameValue)) {
-                    return Strings.equals(MODULE, (TruffleString) nameValue);
-                }
-            }
-            return false;
-        }
-
-        private static boolean hasNonNullProperty(JSDynamicObject object, TruffleString keyName) {
-            if (JSObject.hasProperty(object, keyName)) {
-                Object value = JSObject.get(object, keyName);
-                return value != Null.instance && value != Undefined.instance;
-            }
-            return false;
-        }
-
-        public boolean hasExportsProperty() {
-            return hasNonNullProperty(jsonObj, EXPORTS_PROPERTY_NAME);
-        }
-
-        public boolean hasMainProperty() {
-            if (JSObject.hasProperty(jsonObj, PACKAGE_JSON_MAIN_PROPERTY_NAME)) {
-                Object value = JSObject.get(jsonObj, PACKAGE_JSON_MAIN_PROPERTY_NAME);
-                return Strings.isTString(value);
-            }
-            return false;
-        }
-
-        public TruffleString getMainProperty() {
-            assert hasMainProperty();
-            Object value = JSObject.get(jsonObj, PACKAGE_JSON_MAIN_PROPERTY_NAME);
-            return (TruffleString) value;
-        }
-
-        public boolean namePropertyEquals(String name) {
-            TruffleString packageName = Strings.fromJavaString(name);
-            if (hasNonNullProperty(jsonObj, NAME)) {
-                Object nameValue = JSObject.get(jsonObj, NAME);
-                if (Strings.isTString(nameValue)) {
-                    return Strings.equals(packageName, (TruffleString) nameValue);
-                }
-            }
-            return false;
-        }
-    }
-
     private PackageJson readPackageJson(URI packageUrl, TruffleLanguage.Env env) {
-        URI pjsonUrl = packageUrl.resolve(PACKAGE_JSON);
-        if (!fileExists(pjsonUrl, env)) {
+        TruffleFile pjsonFile = env.getPublicTruffleFile(packageUrl.resolve(PACKAGE_JSON));
+        ModuleResolutionCache cache = realm.getModuleResolutionCache();
+        if (!cache.isRegularFile(pjsonFile)) {
             return null;
         }
-        JSDynamicObject jsonObj = loadJsonObject(env.getPublicTruffleFile(pjsonUrl), realm);
-        if (!JSDynamicObject.isJSDynamicObject(jsonObj)) {
+        PackageJson pjson = cache.getPackageJson(pjsonFile, realm);
+        if (pjson == null) {
             throw failMessage(INVALID_PACKAGE_CONFIGURATION);
         }
-        return new PackageJson(jsonObj);
+        return pjson;
     }
 
-    private static boolean fileExists(URI url, TruffleLanguage.Env env) {
-        return CommonJSResolution.fileExists(env.getPublicTruffleFile(url));
+    private boolean fileExists(URI url, TruffleLanguage.Env env) {
+        return realm.getModuleResolutionCache().isRegularFile(env.getPublicTruffleFile(url));
     }
 
     private static boolean isFileURI(URI maybe) {
@@ -618,8 +555,8 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
         return Format.CommonJS;
     }
 
-    private static boolean isDirectory(URI resolved, TruffleLanguage.Env env) {
-        return env.getPublicTruffleFile(resolved).isDirectory();
+    private boolean isDirectory(URI resolved, TruffleLanguage.Env env) {
+        return realm.getModuleResolutionCache().isDirectory(env.getPublicTruffleFile(resolved));
     }
 
     private static URI resolveRelativeToParent(String specifier, URI parentURL) {
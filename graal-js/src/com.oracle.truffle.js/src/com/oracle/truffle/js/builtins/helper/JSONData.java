@@ -44,6 +44,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.js.runtime.doubleconv.DoubleConversion;
+import com.oracle.truffle.js.runtime.doubleconv.DtoaBuffer;
 
 public class JSONData {
 
@@ -52,6 +54,8 @@ public class JSONData {
     private final TruffleString gap;
     private final List<Object> propertyList;
     private final Object replacerFnObj;
+    private DtoaBuffer dtoaBuffer;
+    private char[] dtoaChars;
 
     private static final int MAX_STACK_SIZE = 1000;
 
@@ -92,4 +96,24 @@ public class JSONData {
     public void popStack() {
         stack.remove(stack.size() - 1);
     }
+
+    /**
+     * Digit buffer reused for all numbers serialized by this {@code JSON.stringify} call.
+     */
+    public DtoaBuffer getDtoaBuffer() {
+        if (dtoaBuffer == null) {
+            dtoaBuffer = new DtoaBuffer(DtoaBuffer.kFastDtoaMaximalLength);
+        }
+        return dtoaBuffer;
+    }
+
+    /**
+     * Character buffer reused for all numbers serialized by this {@code JSON.stringify} call.
+     */
+    public char[] getDtoaChars() {
+        if (dtoaChars == null) {
+            dtoaChars = new char[DoubleConversion.kMaxShortestLength];
+        }
+        return dtoaChars;
+    }
 }
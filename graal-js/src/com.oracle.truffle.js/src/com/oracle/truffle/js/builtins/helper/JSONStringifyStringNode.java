@@ -133,7 +133,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         } else if (Strings.isTString(value)) {
             jsonQuote(builder, (TruffleString) value);
         } else if (JSRuntime.isNumber(value)) {
-            appendNumber(builder, (Number) value);
+            appendNumber(builder, data, (Number) value);
         } else if (JSRuntime.isBigInt(value)) {
             throw Errors.createTypeError("Do not know how to serialize a BigInt");
         } else if (JSDynamicObject.isJSDynamicObject(value) && !JSRuntime.isCallableIsJSObject((JSDynamicObject) value)) {
@@ -169,7 +169,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         }
     }
 
-    private void appendNumber(TruffleStringBuilder builder, Number n) {
+    private void appendNumber(TruffleStringBuilder builder, JSONData data, Number n) {
         double d = JSRuntime.doubleValue(n);
         if (Double.isNaN(d) || Double.isInfinite(d)) {
             append(builder, Null.NAME);
@@ -177,8 +177,17 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             append(builder, ((Integer) n).intValue());
         } else if (n instanceof Long) {
             append(builder, ((Long) n).longValue());
+        } else if (d == 0) {
+            append(builder, '0');
+        } else if (JSRuntime.doubleIsRepresentableAsInt(d)) {
+            append(builder, (int) d);
         } else {
-            append(builder, JSRuntime.doubleToString(d));
+            // format directly into the reused buffers of this stringify call
+            char[] chars = data.getDtoaChars();
+            int length = JSRuntime.formatDtoA(d, data.getDtoaBuffer(), chars);
+            for (int i = 0; i < length; i++) {
+                append(builder, chars[i]);
+            }
         }
     }
 
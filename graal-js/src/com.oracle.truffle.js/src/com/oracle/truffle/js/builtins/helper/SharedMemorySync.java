@@ -69,6 +69,8 @@ import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
  */
 public final class SharedMemorySync {
 
+    private static final WaiterRecord[] EMPTY_WAITERS = new WaiterRecord[0];
+
     private SharedMemorySync() {
         // should not be constructed
     }
@@ -98,24 +100,28 @@ public final class SharedMemorySync {
         VarHandle.fullFence();
     }
 
-    // ##### Atomic CAS primitives
-    public static boolean compareAndSetInt(JSTypedArrayObject target, int intArrayOffset, int expected, int replacement, TypedIntArray typedArray) {
-        return typedArray.compareExchangeInt(target, intArrayOffset, expected, replacement) == expected;
-    }
-
-    public static boolean compareAndSetBigInt(JSTypedArrayObject target, int intArrayOffset, BigInt expected, BigInt replacement, TypedBigIntArray typedArray) {
-        long expectedAsLong = expected.longValue();
-        return typedArray.compareExchangeLong(target, intArrayOffset, expectedAsLong, replacement.longValue()) == expectedAsLong;
-    }
-
     // ##### Thread Wake/Park primitives
 
     public static JSAgentWaiterListEntry getWaiterList(JSContext context, JSDynamicObject target, int indexPos) {
         JSDynamicObject arrayBuffer = JSArrayBufferView.getArrayBuffer(target);
         JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
+        return waiterList.getListForIndex(getWaiterListIndex(context, target, indexPos));
+    }
+
+    /**
+     * Like {@link #getWaiterList}, but returns {@code null} instead of creating the list if no
+     * agent has waited on this location yet.
+     */
+    public static JSAgentWaiterListEntry getWaiterListIfPresent(JSContext context, JSDynamicObject target, int indexPos) {
+        JSDynamicObject arrayBuffer = JSArrayBufferView.getArrayBuffer(target);
+        JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
+        return waiterList.getListForIndexIfPresent(getWaiterListIndex(context, target, indexPos));
+    }
+
+    private static int getWaiterListIndex(JSContext context, JSDynamicObject target, int indexPos) {
         int offset = JSArrayBufferView.getByteOffset(target, context);
         int bytesPerElement = JSArrayBufferView.typedArrayGetArrayType(target).bytesPerElement();
-        return waiterList.getListForIndex(indexPos * bytesPerElement + offset);
+        return indexPos * bytesPerElement + offset;
     }
 
     @TruffleBoundary
@@ -184,6 +190,9 @@ public final class SharedMemorySync {
     @TruffleBoundary
     public static WaiterRecord[] removeWaiters(JSAgentWaiterListEntry wl, int count) {
         assert wl.inCriticalSection();
+        if (wl.isEmpty() || count == 0) {
+            return EMPTY_WAITERS;
+        }
         int c = 0;
         Iterator<WaiterRecord> iter = wl.iterator();
         List<WaiterRecord> list = new LinkedList<>();
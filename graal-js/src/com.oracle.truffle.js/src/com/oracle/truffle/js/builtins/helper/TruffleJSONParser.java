@@ -55,8 +55,11 @@ import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayObject;
 import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.util.JSONObjectLayoutCache;
 
 public class TruffleJSONParser {
 
@@ -162,14 +165,45 @@ public class TruffleJSONParser {
     }
 
     private void parseJSONMemberList(JSObject object, JSRealm realm) {
+        JSONObjectLayoutCache layoutCache = getLayoutCache(context);
+        JSONObjectLayoutCache.Node layout = layoutCache == null ? null : layoutCache.getRoot();
         Member member = parseJSONMember(realm);
-        JSRuntime.createDataProperty(object, member.getKey(), member.getValue());
+        layout = addMember(context, object, member.getKey(), member.getValue(), layout, layoutCache);
         while (get() == ',') {
             skipChar(',');
             skipWhitespace();
             member = parseJSONMember(realm);
-            JSRuntime.createDataProperty(object, member.getKey(), member.getValue());
+            layout = addMember(context, object, member.getKey(), member.getValue(), layout, layoutCache);
+        }
+    }
+
+    /**
+     * Adds a member to a freshly created object. As long as the keys seen so far follow a path in
+     * the layout cache, the key is known to be absent and the property is added directly;
+     * otherwise, e.g. for duplicate keys, we fall back to CreateDataProperty.
+     *
+     * @return the layout node of the object after adding the member, or {@code null} if the object
+     *         is no longer on a cached layout path.
+     */
+    static JSONObjectLayoutCache.Node addMember(JSContext context, JSObject object, TruffleString key, Object value, JSONObjectLayoutCache.Node layout,
+                    JSONObjectLayoutCache layoutCache) {
+        if (layout != null) {
+            JSONObjectLayoutCache.Node next = layout.getChild(key);
+            if (next == null && !layout.containsKey(key)) {
+                next = layoutCache.addChild(layout, key);
+            }
+            if (next != null) {
+                // use the interned key of the layout, shared by all objects of this layout
+                JSObjectUtil.defineDataProperty(context, object, next.getKey(), value, JSAttributes.getDefault());
+                return next;
+            }
         }
+        JSRuntime.createDataProperty(object, key, value);
+        return null;
+    }
+
+    static JSONObjectLayoutCache getLayoutCache(JSContext context) {
+        return context.getContextOptions().isJSONParseLayoutCache() ? context.getJSONObjectLayoutCache() : null;
     }
 
     private Member parseJSONMember(JSRealm realm) {
@@ -206,7 +240,11 @@ public class TruffleJSONParser {
     }
 
     protected static void throwStackError() {
-        throw Errors.createRangeError("Cannot parse JSON constructs nested that deep");
+        throw createStackError();
+    }
+
+    static JSException createStackError() {
+        return Errors.createRangeError("Cannot parse JSON constructs nested that deep");
     }
 
     protected static void throwSyntaxError(String msg) {
@@ -0,0 +1,734 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSException;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.Strings;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
+import com.oracle.truffle.js.runtime.builtins.JSArrayObject;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.JSONObjectLayoutCache;
+
+/**
+ * JSON parser that consumes its input incrementally from a {@link Reader}, or from UTF-8 encoded
+ * bytes provided by an {@link InputStream}, a {@link ByteBuffer} or an {@code ArrayBuffer}. Unlike
+ * {@link TruffleJSONParser}, the document is never materialized as a string, so the memory needed
+ * is that of the result (plus a small buffer). Besides parsing a single value, the elements of a
+ * top-level array, or the values of newline-delimited JSON (NDJSON), can be retrieved one at a
+ * time using {@link #hasNextElement()} and {@link #nextElement()}.
+ */
+public final class TruffleJSONStreamParser {
+
+    public enum Format {
+        /** A single JSON value; in element mode, the elements of a top-level array. */
+        JSON,
+        /** Newline-delimited JSON values. */
+        NDJSON
+    }
+
+    static final int EOF = -1;
+    static final int BUFFER_SIZE = 8192;
+
+    private static final int STATE_INITIAL = 0;
+    private static final int STATE_ELEMENTS = 1;
+    private static final int STATE_DONE = 2;
+
+    private static final String MALFORMED_NUMBER = "malformed number";
+
+    private final JSContext context;
+    private final JSRealm realm;
+    private final Input input;
+    private final Format format;
+    private final JSONObjectLayoutCache layoutCache;
+
+    /** The current UTF-16 code unit, or {@link #EOF}. */
+    private int current;
+    /** Position of the current code unit in the input, for error messages. */
+    private long position = -1;
+    private int parseDepth;
+    private int state = STATE_INITIAL;
+    private char[] scratch = new char[64];
+
+    public TruffleJSONStreamParser(JSContext context, JSRealm realm, Input input, Format format) {
+        this.context = context;
+        this.realm = realm;
+        this.input = input;
+        this.format = format;
+        this.layoutCache = TruffleJSONParser.getLayoutCache(context);
+    }
+
+    /**
+     * Parses the whole input as a single JSON value.
+     */
+    @TruffleBoundary
+    public Object parse() {
+        assert format == Format.JSON && state == STATE_INITIAL;
+        try {
+            advance();
+            skipWhitespace();
+            Object result = parseJSONValue();
+            finish();
+            return result;
+        } catch (StackOverflowError ex) {
+            throw TruffleJSONParser.createStackError();
+        } catch (IOException ex) {
+            throw Errors.createError(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Returns {@code true} if there is another top-level array element or NDJSON value.
+     */
+    @TruffleBoundary
+    public boolean hasNextElement() {
+        try {
+            if (state == STATE_INITIAL) {
+                startElements();
+            }
+        } catch (IOException ex) {
+            throw Errors.createError(ex.getMessage(), ex);
+        }
+        return state == STATE_ELEMENTS;
+    }
+
+    /**
+     * Parses and returns the next top-level array element or NDJSON value.
+     */
+    @TruffleBoundary
+    public Object nextElement() {
+        if (!hasNextElement()) {
+            throw Errors.createError("No more JSON elements");
+        }
+        try {
+            Object value = parseJSONValue();
+            if (format == Format.JSON) {
+                skipWhitespace();
+                if (current == ',') {
+                    advance();
+                    skipWhitespace();
+                } else if (current == ']') {
+                    advance();
+                    finish();
+                } else {
+                    error("closing quote ] expected");
+                }
+            } else {
+                while (current == ' ' || current == '\t' || current == '\r') {
+                    advance();
+                }
+                if (current == '\n') {
+                    skipWhitespace();
+                    if (current == EOF) {
+                        state = STATE_DONE;
+                    }
+                } else if (current == EOF) {
+                    state = STATE_DONE;
+                } else {
+                    unexpectedToken();
+                }
+            }
+            return value;
+        } catch (StackOverflowError ex) {
+            throw TruffleJSONParser.createStackError();
+        } catch (IOException ex) {
+            throw Errors.createError(ex.getMessage(), ex);
+        }
+    }
+
+    private void startElements() throws IOException {
+        advance();
+        skipWhitespace();
+        if (format == Format.JSON) {
+            if (current != '[') {
+                unexpectedToken();
+            }
+            advance();
+            skipWhitespace();
+            if (current == ']') {
+                advance();
+                finish();
+            } else {
+                state = STATE_ELEMENTS;
+            }
+        } else {
+            state = current == EOF ? STATE_DONE : STATE_ELEMENTS;
+        }
+    }
+
+    private void finish() throws IOException {
+        skipWhitespace();
+        if (current != EOF) {
+            error("JSON cannot be fully parsed");
+        }
+        state = STATE_DONE;
+    }
+
+    private Object parseJSONValue() throws IOException {
+        switch (current) {
+            case '"':
+                return parseJSONString();
+            case '{':
+                return parseJSONObject();
+            case '[':
+                return parseJSONArray();
+            case 'n':
+                expectLiteral("null");
+                return Null.instance;
+            case 't':
+                expectLiteral("true");
+                return true;
+            case 'f':
+                expectLiteral("false");
+                return false;
+            default:
+                if (current == '-' || isAsciiDigit(current)) {
+                    return parseJSONNumber();
+                }
+                return unexpectedToken();
+        }
+    }
+
+    private Object parseJSONObject() throws IOException {
+        assert current == '{';
+        incDepth();
+        advance();
+        skipWhitespace();
+        JSObject object = JSOrdinary.create(context, realm);
+        if (current != '}') {
+            JSONObjectLayoutCache.Node layout = layoutCache == null ? null : layoutCache.getRoot();
+            while (true) {
+                if (current != '"') {
+                    if (isAsciiDigit(current)) {
+                        error("Unexpected number in JSON");
+                    }
+                    unexpectedToken();
+                }
+                TruffleString key = parseJSONString();
+                skipWhitespace();
+                expectChar(':');
+                skipWhitespace();
+                Object value = parseJSONValue();
+                layout = TruffleJSONParser.addMember(context, object, key, value, layout, layoutCache);
+                skipWhitespace();
+                if (current == ',') {
+                    advance();
+                    skipWhitespace();
+                } else if (current == '}') {
+                    break;
+                } else if (current == '"') {
+                    error("Unexpected string in JSON");
+                } else {
+                    unexpectedToken();
+                }
+            }
+        }
+        advance();
+        decDepth();
+        return object;
+    }
+
+    private Object parseJSONArray() throws IOException {
+        assert current == '[';
+        incDepth();
+        advance();
+        skipWhitespace();
+        JSArrayObject array = JSArray.createEmptyZeroLength(context, realm);
+        if (current != ']') {
+            ScriptArray scriptArray = JSAbstractArray.arrayGetArrayType(array);
+            int index = 0;
+            while (true) {
+                scriptArray = scriptArray.setElement(array, index++, parseJSONValue(), false);
+                skipWhitespace();
+                if (current == ',') {
+                    advance();
+                    skipWhitespace();
+                } else if (current == ']') {
+                    break;
+                } else {
+                    error("closing quote ] expected");
+                }
+            }
+            JSAbstractArray.arraySetArrayType(array, scriptArray);
+        }
+        advance();
+        decDepth();
+        return array;
+    }
+
+    private TruffleString parseJSONString() throws IOException {
+        assert current == '"';
+        advance();
+        int length = 0;
+        while (current != '"') {
+            int c = current;
+            if (c == EOF) {
+                throw unexpectedEndOfInput();
+            } else if (c < ' ') {
+                error("invalid string");
+            } else if (c == '\\') {
+                advance();
+                c = parseEscape();
+            }
+            if (length == scratch.length) {
+                if (length >= context.getStringLengthLimit()) {
+                    throw Errors.createRangeErrorInvalidStringLength();
+                }
+                scratch = Arrays.copyOf(scratch, (int) Math.min((long) length * 2, context.getStringLengthLimit()));
+            }
+            scratch[length++] = (char) c;
+            advance();
+        }
+        advance();
+        return Strings.fromCharArray(scratch, 0, length);
+    }
+
+    /**
+     * Parses the escape sequence whose backslash has just been consumed, leaving the last
+     * character of the sequence as the current one.
+     */
+    private int parseEscape() throws IOException {
+        switch (current) {
+            case '"':
+            case '\\':
+            case '/':
+                return current;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    advance();
+                    int digit = current == EOF ? -1 : JSRuntime.valueInHex((char) current);
+                    if (digit < 0) {
+                        error("invalid string");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return value;
+            default:
+                if (current == EOF) {
+                    throw unexpectedEndOfInput();
+                }
+                error("wrong escape sequence");
+                return -1;
+        }
+    }
+
+    private Number parseJSONNumber() throws IOException {
+        int length = 0;
+        boolean negative = false;
+        if (current == '-') {
+            negative = true;
+            advance();
+        }
+        int integralStart = length;
+        if (current == '0') {
+            length = appendAndAdvance(length);
+            if (current == 'x' || current == 'X' || isAsciiDigit(current)) {
+                error("octal and hexadecimal not allowed");
+            }
+        } else if (isAsciiDigit(current)) {
+            while (isAsciiDigit(current)) {
+                length = appendAndAdvance(length);
+            }
+        } else if (current == EOF) {
+            error(MALFORMED_NUMBER);
+        } else {
+            unexpectedToken();
+        }
+        int integralLength = length - integralStart;
+        boolean isInteger = true;
+        if (current == '.') {
+            isInteger = false;
+            length = appendAndAdvance(length);
+            if (!isAsciiDigit(current)) {
+                error(MALFORMED_NUMBER);
+            }
+            while (isAsciiDigit(current)) {
+                length = appendAndAdvance(length);
+            }
+        }
+        if (current == 'e' || current == 'E') {
+            isInteger = false;
+            length = appendAndAdvance(length);
+            if (current == '+' || current == '-') {
+                length = appendAndAdvance(length);
+            }
+            if (current == EOF) {
+                error(MALFORMED_NUMBER);
+            } else if (!isAsciiDigit(current)) {
+                error("Expected number but found ident");
+            }
+            while (isAsciiDigit(current)) {
+                length = appendAndAdvance(length);
+            }
+        }
+        if (isInteger && integralLength <= JSRuntime.MAX_SAFE_INTEGER_DIGITS) {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value = value * 10 + (scratch[i] - '0');
+            }
+            if (value == 0) {
+                if (negative) {
+                    return -0.0;
+                }
+                return 0;
+            }
+            value = negative ? -value : value;
+            if (JSRuntime.longIsRepresentableAsInt(value)) {
+                return (int) value;
+            } else {
+                return (double) value;
+            }
+        }
+        double value = Double.parseDouble(new String(scratch, 0, length));
+        return negative ? -value : value;
+    }
+
+    private int appendAndAdvance(int length) throws IOException {
+        if (length == scratch.length) {
+            scratch = Arrays.copyOf(scratch, length * 2);
+        }
+        scratch[length] = (char) current;
+        advance();
+        return length + 1;
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (current != literal.charAt(i)) {
+                unexpectedToken();
+            }
+            advance();
+        }
+    }
+
+    private void expectChar(char expected) throws IOException {
+        if (current != expected) {
+            if (current == EOF) {
+                throw unexpectedEndOfInput();
+            }
+            error(expected + " expected");
+        }
+        advance();
+    }
+
+    private void incDepth() {
+        if (++parseDepth > TruffleJSONParser.MAX_PARSE_DEPTH) {
+            throw TruffleJSONParser.createStackError();
+        }
+    }
+
+    private void decDepth() {
+        parseDepth--;
+    }
+
+    private void advance() throws IOException {
+        current = input.read();
+        position++;
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (current == ' ' || current == '\n' || current == '\r' || current == '\t') {
+            advance();
+        }
+    }
+
+    private static boolean isAsciiDigit(int c) {
+        return '0' <= c && c <= '9';
+    }
+
+    private Object unexpectedToken() {
+        if (current == EOF) {
+            throw unexpectedEndOfInput();
+        }
+        error("Unexpected token " + (char) current + " in JSON");
+        return null;
+    }
+
+    private JSException unexpectedEndOfInput() {
+        return Errors.createSyntaxError(context.isOptionNashornCompatibilityMode() ? "Unexpected end of input" : "Unexpected end of JSON input");
+    }
+
+    private void error(String message) {
+        throw Errors.createSyntaxError(message + " at position " + position);
+    }
+
+    /**
+     * Parses JSON from {@code source} (see {@link #createInput}). If {@code callback} is callable,
+     * it is invoked with each element and its index (see {@link #nextElement()}) and the number of
+     * elements is returned. Otherwise, the parsed value (or, for NDJSON, an array of all values)
+     * is returned.
+     */
+    @TruffleBoundary
+    public static Object parseStream(JSContext context, JSRealm realm, Object source, Object callback, Format format) {
+        TruffleJSONStreamParser parser = new TruffleJSONStreamParser(context, realm, createInput(realm, source), format);
+        if (JSRuntime.isCallable(callback)) {
+            int index = 0;
+            while (parser.hasNextElement()) {
+                Object element = parser.nextElement();
+                JSRuntime.call(callback, Undefined.instance, new Object[]{element, index});
+                index++;
+            }
+            return index;
+        } else if (format == Format.NDJSON) {
+            List<Object> values = new ArrayList<>();
+            while (parser.hasNextElement()) {
+                values.add(parser.nextElement());
+            }
+            return JSArray.createConstantObjectArray(context, realm, values.toArray());
+        } else {
+            return parser.parse();
+        }
+    }
+
+    /**
+     * Creates an input for a host {@link Reader}, {@link InputStream} or {@link ByteBuffer}, or for
+     * an {@code ArrayBuffer}. Byte sources are decoded as UTF-8.
+     */
+    public static Input createInput(JSRealm realm, Object source) {
+        if (JSArrayBuffer.isJSHeapArrayBuffer(source) || JSArrayBuffer.isJSDirectArrayBuffer(source)) {
+            if (JSArrayBuffer.isDetachedBuffer(source)) {
+                throw Errors.createTypeErrorDetachedBuffer();
+            }
+            if (JSArrayBuffer.isJSHeapArrayBuffer(source)) {
+                byte[] bytes = JSArrayBuffer.getByteArray(source);
+                return new UTF8Input(bytes, 0, bytes.length, null, null);
+            } else {
+                return UTF8Input.fromByteBuffer(JSArrayBuffer.getDirectByteBuffer(source));
+            }
+        }
+        Env env = realm.getEnv();
+        if (env.isHostObject(source)) {
+            Object hostObject = env.asHostObject(source);
+            if (hostObject instanceof Reader) {
+                return new ReaderInput((Reader) hostObject);
+            } else if (hostObject instanceof InputStream) {
+                return new UTF8Input(new byte[BUFFER_SIZE], 0, 0, (InputStream) hostObject, null);
+            } else if (hostObject instanceof ByteBuffer) {
+                return UTF8Input.fromByteBuffer((ByteBuffer) hostObject);
+            }
+        }
+        throw Errors.createTypeError("Reader, InputStream, ByteBuffer or ArrayBuffer expected");
+    }
+
+    public abstract static class Input {
+        /**
+         * Returns the next UTF-16 code unit of the input, or {@link TruffleJSONStreamParser#EOF}.
+         */
+        abstract int read() throws IOException;
+    }
+
+    static final class ReaderInput extends Input {
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int pos;
+        private int limit;
+
+        ReaderInput(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        int read() throws IOException {
+            if (pos == limit) {
+                int count = reader.read(buffer, 0, buffer.length);
+                if (count <= 0) {
+                    return EOF;
+                }
+                pos = 0;
+                limit = count;
+            }
+            return buffer[pos++];
+        }
+    }
+
+    /**
+     * Decodes UTF-8 bytes from a byte array that is refilled from an {@link InputStream} or a
+     * {@link ByteBuffer}, if any. Malformed sequences are replaced with U+FFFD, a leading byte
+     * order mark is skipped.
+     */
+    static final class UTF8Input extends Input {
+        private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+        private final byte[] buffer;
+        private int pos;
+        private int limit;
+        private final InputStream stream;
+        private final ByteBuffer byteBuffer;
+        private int pendingLowSurrogate = -1;
+        private boolean started;
+
+        UTF8Input(byte[] buffer, int pos, int limit, InputStream stream, ByteBuffer byteBuffer) {
+            this.buffer = buffer;
+            this.pos = pos;
+            this.limit = limit;
+            this.stream = stream;
+            this.byteBuffer = byteBuffer;
+        }
+
+        static UTF8Input fromByteBuffer(ByteBuffer source) {
+            if (source.hasArray()) {
+                // no copying needed
+                int offset = source.arrayOffset();
+                return new UTF8Input(source.array(), offset + source.position(), offset + source.limit(), null, null);
+            }
+            return new UTF8Input(new byte[BUFFER_SIZE], 0, 0, null, source.duplicate());
+        }
+
+        private boolean fill() throws IOException {
+            int count;
+            if (stream != null) {
+                count = stream.read(buffer, 0, buffer.length);
+            } else if (byteBuffer != null && byteBuffer.hasRemaining()) {
+                count = Math.min(byteBuffer.remaining(), buffer.length);
+                byteBuffer.get(buffer, 0, count);
+            } else {
+                count = -1;
+            }
+            if (count <= 0) {
+                return false;
+            }
+            pos = 0;
+            limit = count;
+            return true;
+        }
+
+        private int peekByte() throws IOException {
+            if (pos == limit && !fill()) {
+                return EOF;
+            }
+            return buffer[pos] & 0xFF;
+        }
+
+        @Override
+        int read() throws IOException {
+            if (pendingLowSurrogate >= 0) {
+                int c = pendingLowSurrogate;
+                pendingLowSurrogate = -1;
+                return c;
+            }
+            int c = readCodePoint();
+            if (!started) {
+                started = true;
+                if (c == 0xFEFF) {
+                    c = readCodePoint();
+                }
+            }
+            if (c > 0xFFFF) {
+                pendingLowSurrogate = Character.lowSurrogate(c);
+                return Character.highSurrogate(c);
+            }
+            return c;
+        }
+
+        private int readCodePoint() throws IOException {
+            int b = peekByte();
+            if (b == EOF) {
+                return EOF;
+            }
+            pos++;
+            if (b < 0x80) {
+                return b;
+            }
+            int codePoint;
+            int continuationBytes;
+            int minValue;
+            if ((b & 0xE0) == 0xC0) {
+                codePoint = b & 0x1F;
+                continuationBytes = 1;
+                minValue = 0x80;
+            } else if ((b & 0xF0) == 0xE0) {
+                codePoint = b & 0x0F;
+                continuationBytes = 2;
+                minValue = 0x800;
+            } else if ((b & 0xF8) == 0xF0) {
+                codePoint = b & 0x07;
+                continuationBytes = 3;
+                minValue = 0x10000;
+            } else {
+                return REPLACEMENT_CHARACTER;
+            }
+            for (int i = 0; i < continuationBytes; i++) {
+                int next = peekByte();
+                if (next == EOF || (next & 0xC0) != 0x80) {
+                    // leave the unexpected byte for the next read
+                    return REPLACEMENT_CHARACTER;
+                }
+                pos++;
+                codePoint = (codePoint << 6) | (next & 0x3F);
+            }
+            if (codePoint < minValue || codePoint > Character.MAX_CODE_POINT) {
+                return REPLACEMENT_CHARACTER;
+            }
+            return codePoint;
+        }
+    }
+}
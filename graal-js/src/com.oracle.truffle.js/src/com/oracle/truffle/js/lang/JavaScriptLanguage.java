@@ -190,6 +190,8 @@ public final class JavaScriptLanguage extends TruffleLanguage<JSRealm> {
     protected void finalizeContext(JSRealm realm) {
         // Terminate spawned agent threads
         realm.getAgent().terminate();
+        // Terminate module prefetching threads
+        realm.terminateModuleLoader();
     }
 
     @TruffleBoundary
@@ -71,6 +71,7 @@ import com.oracle.truffle.js.nodes.access.DeclareGlobalLexicalVariableNode;
 import com.oracle.truffle.js.nodes.access.DeclareGlobalNode;
 import com.oracle.truffle.js.nodes.access.DeclareGlobalVariableNode;
 import com.oracle.truffle.js.nodes.access.EnumerateNode;
+import com.oracle.truffle.js.nodes.access.ForInNextKeyNode;
 import com.oracle.truffle.js.nodes.access.GetIteratorNode;
 import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
 import com.oracle.truffle.js.nodes.access.GetTemplateObjectNode;
@@ -114,6 +115,7 @@ import com.oracle.truffle.js.nodes.access.SuperPropertyReferenceNode;
 import com.oracle.truffle.js.nodes.access.WithTargetNode;
 import com.oracle.truffle.js.nodes.access.WithVarWrapperNode;
 import com.oracle.truffle.js.nodes.access.WriteElementNode;
+import com.oracle.truffle.js.nodes.access.WriteNode;
 import com.oracle.truffle.js.nodes.access.WritePropertyNode;
 import com.oracle.truffle.js.nodes.arguments.AccessArgumentsArrayDirectlyNode;
 import com.oracle.truffle.js.nodes.arguments.AccessDerivedConstructorThisNode;
@@ -1072,6 +1074,14 @@ public class NodeFactory {
         return EnumerateNode.create(context, iteratedObject, values);
     }
 
+    public JavaScriptNode createEnumerateForInState(JSContext context, JavaScriptNode iteratedObject) {
+        return EnumerateNode.createForInState(context, iteratedObject);
+    }
+
+    public JavaScriptNode createForInNextKey(JSContext context, JavaScriptNode iterator, WriteNode writeKey) {
+        return ForInNextKeyNode.create(context, iterator, writeKey);
+    }
+
     public JavaScriptNode createIteratorNext(JavaScriptNode iterator) {
         return IteratorNextUnaryNode.create(iterator);
     }
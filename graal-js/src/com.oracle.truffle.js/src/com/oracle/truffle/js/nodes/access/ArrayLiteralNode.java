@@ -63,6 +63,7 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractConstantArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantByteArray;
@@ -267,6 +268,12 @@ public abstract class ArrayLiteralNode extends JavaScriptNode {
         protected static final byte DOUBLE_ARRAY = 2;
         protected static final byte OBJECT_ARRAY = 3;
         @CompilationFinal protected boolean seenUnexpectedInteger;
+        /**
+         * Storage of the current array type with the values of the constant elements filled in, or
+         * {@code null} if there are no constant elements. Copied instead of allocating a new array,
+         * so that only the non-constant elements need to be evaluated.
+         */
+        @CompilationFinal protected Object template;
 
         DefaultArrayLiteralBaseNode(JSContext context) {
             super(context);
@@ -276,24 +283,50 @@ public abstract class ArrayLiteralNode extends JavaScriptNode {
 
         protected abstract JavaScriptNode getElement(int index);
 
+        protected final boolean isConstantElement(int index) {
+            return template != null && getElement(index) instanceof JSConstantNode;
+        }
+
         protected final JSArrayObject executeAndSpecialize(Object[] values) {
             CompilerAsserts.neverPartOfCompilation();
             Object primitive = createPrimitiveArray(values, false);
             JSRealm realm = getRealm();
             if (primitive instanceof int[]) {
                 state = INT_ARRAY;
+                template = createTemplate(new int[values.length]);
                 return JSArray.createZeroBasedIntArray(context, realm, (int[]) primitive);
             } else if (primitive instanceof double[]) {
                 state = DOUBLE_ARRAY;
+                template = createTemplate(new double[values.length]);
                 return JSArray.createZeroBasedDoubleArray(context, realm, (double[]) primitive);
             } else if (primitive instanceof Object[]) {
                 state = OBJECT_ARRAY;
+                template = createTemplate(new Object[values.length]);
                 return JSArray.createZeroBasedObjectArray(context, realm, values);
             } else {
                 throw Errors.shouldNotReachHere();
             }
         }
 
+        private Object createTemplate(Object array) {
+            boolean hasConstants = false;
+            for (int i = 0; i < getLength(); i++) {
+                JavaScriptNode element = getElement(i);
+                if (element instanceof JSConstantNode) {
+                    Object value = ((JSConstantNode) element).getValue();
+                    if (array instanceof int[]) {
+                        ((int[]) array)[i] = (int) value;
+                    } else if (array instanceof double[]) {
+                        ((double[]) array)[i] = JSRuntime.doubleValue((Number) value);
+                    } else {
+                        ((Object[]) array)[i] = value;
+                    }
+                    hasConstants = true;
+                }
+            }
+            return hasConstants ? array : null;
+        }
+
         @Override
         public JSArrayObject execute(VirtualFrame frame) {
             if (state == 0) {
@@ -317,8 +350,11 @@ public abstract class ArrayLiteralNode extends JavaScriptNode {
 
         @ExplodeLoop
         private JSArrayObject executeZeroBasedIntArray(VirtualFrame frame) {
-            int[] primitiveArray = new int[getLength()];
+            int[] primitiveArray = template == null ? new int[getLength()] : ((int[]) template).clone();
             for (int i = 0; i < getLength(); i++) {
+                if (isConstantElement(i)) {
+                    continue;
+                }
                 try {
                     primitiveArray[i] = getElement(i).executeInt(frame);
                 } catch (UnexpectedResultException e) {
@@ -340,8 +376,11 @@ public abstract class ArrayLiteralNode extends JavaScriptNode {
 
         @ExplodeLoop
         private JSArrayObject executeZeroBasedDoubleArray(VirtualFrame frame) {
-            double[] primitiveArray = new double[getLength()];
+            double[] primitiveArray = template == null ? new double[getLength()] : ((double[]) template).clone();
             for (int i = 0; i < getLength(); i++) {
+                if (isConstantElement(i)) {
+                    continue;
+                }
                 try {
                     double doubleValue;
                     if (seenUnexpectedInteger) {
@@ -382,8 +421,11 @@ public abstract class ArrayLiteralNode extends JavaScriptNode {
 
         @ExplodeLoop
         private JSArrayObject executeZeroBasedObjectArray(VirtualFrame frame) {
-            Object[] primitiveArray = new Object[getLength()];
+            Object[] primitiveArray = template == null ? new Object[getLength()] : ((Object[]) template).clone();
             for (int i = 0; i < getLength(); i++) {
+                if (isConstantElement(i)) {
+                    continue;
+                }
                 primitiveArray[i] = getElement(i).execute(frame);
             }
             return JSArray.createZeroBasedObjectArray(context, getRealm(), primitiveArray);
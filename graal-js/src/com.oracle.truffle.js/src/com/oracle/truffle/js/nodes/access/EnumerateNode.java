@@ -76,6 +76,9 @@ import com.oracle.truffle.js.runtime.util.ForInIterator;
 
 /**
  * Returns an Iterator object iterating over the enumerable properties of an object.
+ *
+ * For for-in loops over JS objects, the {@link ForInIterator} state may be returned directly
+ * instead, see {@link ForInNextKeyNode}.
  */
 @ImportStatic({JSConfig.class})
 public abstract class EnumerateNode extends JavaScriptNode {
@@ -83,42 +86,53 @@ public abstract class EnumerateNode extends JavaScriptNode {
     private final boolean values;
     /** If true, throw a TypeError for foreign objects that do not have elements or members. */
     private final boolean requireIterable;
+    /** Return the {@link ForInIterator} itself instead of an iterator object, where possible. */
+    private final boolean forInState;
     protected final JSContext context;
     @Child @Executed protected JavaScriptNode targetNode;
     @Child private PropertySetNode setEnumerateIteratorNode;
     @Child private PropertySetNode setForInIteratorNode;
 
-    protected EnumerateNode(JSContext context, boolean values, boolean requireIterable, JavaScriptNode targetNode) {
+    protected EnumerateNode(JSContext context, boolean values, boolean requireIterable, boolean forInState, JavaScriptNode targetNode) {
         this.context = context;
         this.values = values;
         this.requireIterable = requireIterable;
+        this.forInState = forInState;
         this.targetNode = targetNode;
     }
 
     public static EnumerateNode create(JSContext context, JavaScriptNode target, boolean values) {
-        return EnumerateNodeGen.create(context, values, false, target);
+        return EnumerateNodeGen.create(context, values, false, false, target);
     }
 
     public static EnumerateNode create(JSContext context, boolean values, boolean requireIterable) {
-        return EnumerateNodeGen.create(context, values, requireIterable, null);
+        return EnumerateNodeGen.create(context, values, requireIterable, false, null);
+    }
+
+    /**
+     * Creates a node that returns the {@link ForInIterator} for JS objects and an iterator object
+     * for anything else, to be consumed by {@link ForInNextKeyNode}.
+     */
+    public static EnumerateNode createForInState(JSContext context, JavaScriptNode target) {
+        return EnumerateNodeGen.create(context, false, false, true, target);
     }
 
     EnumerateNode copyRecursive() {
-        return create(context, values, requireIterable);
+        return EnumerateNodeGen.create(context, values, requireIterable, forInState, null);
     }
 
     @Override
-    public abstract JSDynamicObject execute(VirtualFrame frame);
+    public abstract Object execute(VirtualFrame frame);
 
-    public abstract JSDynamicObject execute(Object iteratedObject);
+    public abstract Object execute(Object iteratedObject);
 
     @Override
     protected JavaScriptNode copyUninitialized(Set<Class<? extends Tag>> materializedTags) {
-        return EnumerateNodeGen.create(context, values, requireIterable, cloneUninitialized(targetNode, materializedTags));
+        return EnumerateNodeGen.create(context, values, requireIterable, forInState, cloneUninitialized(targetNode, materializedTags));
     }
 
     @Specialization(guards = {"isJSDynamicObject(iteratedObject)", "!isJSAdapter(iteratedObject)"})
-    protected JSDynamicObject doEnumerateObject(JSDynamicObject iteratedObject,
+    protected Object doEnumerateObject(JSDynamicObject iteratedObject,
                     @Cached("createBinaryProfile()") ConditionProfile isObject) {
         if (isObject.profile(JSRuntime.isObject(iteratedObject))) {
             return newForInIterator(iteratedObject);
@@ -129,7 +143,7 @@ public abstract class EnumerateNode extends JavaScriptNode {
     }
 
     @Specialization(guards = "isJSAdapter(iteratedObject)")
-    protected JSDynamicObject doEnumerateJSAdapter(JSDynamicObject iteratedObject,
+    protected Object doEnumerateJSAdapter(JSDynamicObject iteratedObject,
                     @Cached("createValues()") EnumerateNode enumerateCallbackResultNode) {
         JSDynamicObject adaptee = JSAdapter.getAdaptee(iteratedObject);
         assert JSRuntime.isObject(adaptee);
@@ -149,7 +163,7 @@ public abstract class EnumerateNode extends JavaScriptNode {
     }
 
     @Specialization(guards = {"isForeignObject(iteratedObject)"}, limit = "InteropLibraryLimit")
-    protected JSDynamicObject doEnumerateTruffleObject(Object iteratedObject,
+    protected Object doEnumerateTruffleObject(Object iteratedObject,
                     @CachedLibrary("iteratedObject") InteropLibrary interop,
                     @CachedLibrary(limit = "InteropLibraryLimit") InteropLibrary keysInterop,
                     @Cached BranchProfile notIterable) {
@@ -195,7 +209,7 @@ public abstract class EnumerateNode extends JavaScriptNode {
         return newEmptyIterator();
     }
 
-    private JSDynamicObject enumerateString(TruffleString string) {
+    private Object enumerateString(TruffleString string) {
         return newForInIterator(JSString.create(context, getRealm(), string));
     }
 
@@ -213,7 +227,10 @@ public abstract class EnumerateNode extends JavaScriptNode {
         return obj;
     }
 
-    private JSDynamicObject newForInIterator(JSDynamicObject obj) {
+    private Object newForInIterator(JSDynamicObject obj) {
+        if (forInState) {
+            return new ForInIterator(obj, values);
+        }
         if (setForInIteratorNode == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             setForInIteratorNode = insert(PropertySetNode.createSetHidden(JSRuntime.FOR_IN_ITERATOR_ID, context));
@@ -224,7 +241,7 @@ public abstract class EnumerateNode extends JavaScriptNode {
     }
 
     @Specialization(guards = {"!isJSObject(iteratedObject)", "!isForeignObject(iteratedObject)"})
-    protected JSDynamicObject doNonObject(Object iteratedObject,
+    protected Object doNonObject(Object iteratedObject,
                     @Cached("createToObjectNoCheck(context)") JSToObjectNode toObjectNode,
                     @Cached("copyRecursive()") EnumerateNode enumerateNode) {
         return enumerateNode.execute(toObjectNode.execute(iteratedObject));
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.access;
+
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.js.builtins.helper.ListGetNode;
+import com.oracle.truffle.js.builtins.helper.ListSizeNode;
+import com.oracle.truffle.js.nodes.JSGuards;
+import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSConfig;
+import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.builtins.JSObjectPrototype;
+import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.JSShapeData;
+import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
+import com.oracle.truffle.js.runtime.util.ForInIterator;
+
+/**
+ * Advances a {@link ForInIterator} and returns the next key, or {@code null} if done.
+ *
+ * If the receiver has an enum cache (i.e., its prototype chain is pristine), its keys are returned
+ * straight from the cached array as long as the receiver's shape does not change.
+ */
+public final class ForInIteratorNextKeyNode extends JavaScriptBaseNode {
+    @Child private GetPrototypeNode getPrototypeNode;
+    @Child private HasOnlyShapePropertiesNode hasOnlyShapePropertiesNode;
+    @Child private ListGetNode listGet;
+    @Child private ListSizeNode listSize;
+    @Child private JSGetOwnPropertyNode getOwnPropertyNode;
+    private final BranchProfile errorBranch = BranchProfile.create();
+    private final BranchProfile growProfile = BranchProfile.create();
+    private final ConditionProfile enumCacheProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile enumCacheHitProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile fastOwnKeysProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile sameShapeProfile = ConditionProfile.createBinaryProfile();
+
+    public static final Object DONE = null;
+    private static final int MAX_PROTO_DEPTH = 1000;
+
+    private ForInIteratorNextKeyNode() {
+        this.getPrototypeNode = GetPrototypeNode.create();
+        this.hasOnlyShapePropertiesNode = HasOnlyShapePropertiesNode.create();
+        this.getOwnPropertyNode = JSGetOwnPropertyNode.create();
+        this.listGet = ListGetNode.create();
+        this.listSize = ListSizeNode.create();
+    }
+
+    public static ForInIteratorNextKeyNode create() {
+        return new ForInIteratorNextKeyNode();
+    }
+
+    public Object execute(ForInIterator state) {
+        JSShapeData.EnumCache enumCache = state.enumCache;
+        if (enumCacheProfile.profile(enumCache != null)) {
+            TruffleString[] keys = enumCache.getKeys();
+            int index = state.remainingKeysIndex;
+            if (enumCacheHitProfile.profile(index < keys.length && state.object.getShape() == state.objectShape)) {
+                state.remainingKeysIndex = index + 1;
+                return keys[index];
+            }
+            if (index >= keys.length && enumCache.isValidFor(state.object)) {
+                // the prototypes still do not have any enumerable properties
+                return DONE;
+            }
+            leaveEnumCache(state);
+        }
+        return findNext(state);
+    }
+
+    private Object findNext(ForInIterator state) {
+        for (;;) {
+            JSDynamicObject object = state.object;
+            if (!state.objectWasVisited) {
+                JSClass jsclass = JSObject.getJSClass(object);
+                Shape objectShape = object.getShape();
+                boolean fastOwnKeys;
+                List<?> list;
+                int size;
+                if (fastOwnKeysProfile.profile(JSConfig.FastOwnKeys && hasOnlyShapePropertiesNode.execute(object, jsclass))) {
+                    if (state.isVisitingReceiver()) {
+                        JSShapeData.EnumCache enumCache = JSShape.getEnumCache(object);
+                        if (enumCache != null) {
+                            TruffleString[] keys = enumCache.getKeys();
+                            state.objectShape = objectShape;
+                            state.enumCache = enumCache;
+                            state.fastOwnKeys = true;
+                            state.objectWasVisited = true;
+                            if (keys.length == 0) {
+                                return DONE;
+                            }
+                            state.remainingKeysIndex = 1;
+                            return keys[0];
+                        }
+                    }
+                    fastOwnKeys = true;
+                    // if the object does not have enumerable properties, no need to enumerate
+                    list = JSShape.getPropertiesIfHasEnumerablePropertyNames(objectShape);
+                    size = list.size();
+                } else {
+                    fastOwnKeys = false;
+                    list = jsclass.ownPropertyKeys(object);
+                    size = listSize.execute(list);
+                }
+                state.objectShape = objectShape;
+                state.remainingKeys = list;
+                state.remainingKeysSize = size;
+                state.remainingKeysIndex = 0;
+                state.fastOwnKeys = fastOwnKeys;
+                state.objectWasVisited = true;
+            }
+
+            assert state.remainingKeysSize == state.remainingKeys.size();
+            while (state.remainingKeysIndex < state.remainingKeysSize) {
+                final Object next = listGet.execute(state.remainingKeys, state.remainingKeysIndex++);
+                final Object key = getKey(next);
+                if (!JSGuards.isString(key)) {
+                    continue;
+                }
+                if (state.isVisitedKey(key)) {
+                    continue;
+                }
+
+                if (fastOwnKeysProfile.profile(state.fastOwnKeys && next instanceof Property)) {
+                    if (sameShapeProfile.profile(state.objectShape == object.getShape())) {
+                        // same shape => can skip GetOwnProperty
+                        if (JSProperty.isEnumerable((Property) next)) {
+                            return key;
+                        } else {
+                            continue;
+                        }
+                    } else {
+                        // shape has changed => must perform GetOwnProperty
+                        addPreviouslyVisitedKeys(state);
+                        state.fastOwnKeys = false;
+                        // fall through
+                    }
+                }
+
+                PropertyDescriptor desc = getOwnPropertyNode.execute(object, key);
+                // desc can be null if obj is a Proxy or the property has been deleted
+                if (desc != null) {
+                    state.addVisitedKey(key);
+                    if (desc.getEnumerable()) {
+                        return key;
+                    } else {
+                        continue;
+                    }
+                } else {
+                    continue;
+                }
+            }
+
+            JSDynamicObject proto = getPrototypeNode.execute(object);
+            if (tryFastForwardImmutablePrototype(proto)) {
+                proto = Null.instance;
+            }
+            state.object = proto;
+            state.objectWasVisited = false;
+            if (proto == Null.instance) {
+                return DONE;
+            } else {
+                if (fastOwnKeysProfile.profile(state.fastOwnKeys)) {
+                    state.addVisitedShape(state.objectShape, growProfile);
+                } else {
+                    // check for Proxy prototype cycles
+                    if (++state.protoDepth > MAX_PROTO_DEPTH) {
+                        errorBranch.enter();
+                        throw Errors.createRangeErrorStackOverflow();
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object getKey(final Object next) {
+        return next instanceof Property ? ((Property) next).getKey() : next;
+    }
+
+    @TruffleBoundary
+    private static void addPreviouslyVisitedKeys(ForInIterator state) {
+        for (int i = 0; i < state.remainingKeysIndex - 1; i++) {
+            state.addVisitedKey(getKey(state.remainingKeys.get(i)));
+        }
+    }
+
+    /**
+     * Continues with the regular iteration of the receiver's properties, right after the last key
+     * returned from the enum cache, e.g. because the receiver's shape has changed.
+     */
+    @TruffleBoundary
+    private static void leaveEnumCache(ForInIterator state) {
+        TruffleString[] keys = state.enumCache.getKeys();
+        List<Property> properties = JSShape.getPropertiesIfHasEnumerablePropertyNames(state.objectShape);
+        int index = 0;
+        if (state.remainingKeysIndex > 0) {
+            Object lastKey = keys[state.remainingKeysIndex - 1];
+            while (!properties.get(index).getKey().equals(lastKey)) {
+                index++;
+            }
+            index++;
+        }
+        state.remainingKeys = properties;
+        state.remainingKeysSize = properties.size();
+        state.remainingKeysIndex = index;
+        state.enumCache = null;
+    }
+
+    private boolean tryFastForwardImmutablePrototype(JSDynamicObject proto) {
+        if (proto == Null.instance) {
+            return false;
+        }
+        // If none of the remaining prototypes have enumerable properties, we are done.
+        // If the object has an immutable prototype (i.e., Object.prototype, Module Namespace),
+        // its prototype is always null and we can skip [[GetPrototypeOf]]().
+        JSClass jsclass = JSObject.getJSClass(proto);
+        if (jsclass == JSObjectPrototype.INSTANCE && hasOnlyShapePropertiesNode.execute(proto, jsclass) && JSShape.getEnumerablePropertyNames(proto.getShape()).isEmpty()) {
+            assert JSObject.getPrototype(proto) == Null.instance;
+            return true;
+        } else {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.access;
+
+import java.util.Set;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.Tag;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.nodes.JavaScriptNode;
+import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.Strings;
+import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.util.ForInIterator;
+
+/**
+ * Loop condition of a for-in loop: advances the iteration state produced by
+ * {@link EnumerateNode#createForInState}, writes the next key, and returns false when done.
+ *
+ * Unlike the desugared iterator protocol, a {@link ForInIterator} is advanced directly, without
+ * looking up the iterator state or allocating iterator result objects. Other iterators (e.g., for
+ * foreign objects) are stepped using their {@code next} method.
+ */
+public final class ForInNextKeyNode extends JavaScriptNode {
+    @Child private JavaScriptNode iteratorNode;
+    @Child private WriteNode writeKeyNode;
+    @Child private ForInIteratorNextKeyNode nextKeyNode;
+    @Child private IteratorStepValueNode iteratorStepValueNode;
+    private final JSContext context;
+    private final ConditionProfile forInStateProfile = ConditionProfile.createBinaryProfile();
+
+    private ForInNextKeyNode(JSContext context, JavaScriptNode iteratorNode, WriteNode writeKeyNode) {
+        this.context = context;
+        this.iteratorNode = iteratorNode;
+        this.writeKeyNode = writeKeyNode;
+        this.nextKeyNode = ForInIteratorNextKeyNode.create();
+    }
+
+    public static JavaScriptNode create(JSContext context, JavaScriptNode iteratorNode, WriteNode writeKeyNode) {
+        return new ForInNextKeyNode(context, iteratorNode, writeKeyNode);
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        return executeBoolean(frame);
+    }
+
+    @Override
+    public boolean executeBoolean(VirtualFrame frame) {
+        Object iterator = iteratorNode.execute(frame);
+        Object key;
+        if (forInStateProfile.profile(iterator instanceof ForInIterator)) {
+            key = nextKeyNode.execute((ForInIterator) iterator);
+        } else {
+            key = getIteratorStepValueNode().execute((JSDynamicObject) iterator);
+        }
+        if (key == ForInIteratorNextKeyNode.DONE) {
+            return false;
+        }
+        writeKeyNode.executeWrite(frame, key);
+        return true;
+    }
+
+    private IteratorStepValueNode getIteratorStepValueNode() {
+        if (iteratorStepValueNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            iteratorStepValueNode = insert(new IteratorStepValueNode(context));
+        }
+        return iteratorStepValueNode;
+    }
+
+    @Override
+    public boolean isResultAlwaysOfType(Class<?> clazz) {
+        return clazz == boolean.class;
+    }
+
+    @Override
+    protected JavaScriptNode copyUninitialized(Set<Class<? extends Tag>> materializedTags) {
+        return create(context, cloneUninitialized(iteratorNode, materializedTags), (WriteNode) cloneUninitialized((JavaScriptNode) writeKeyNode, materializedTags));
+    }
+
+    /**
+     * Calls the {@code next} method of an iterator object and returns the value, or
+     * {@link ForInIteratorNextKeyNode#DONE} if the iterator is done.
+     */
+    static final class IteratorStepValueNode extends JavaScriptBaseNode {
+        @Child private PropertyGetNode getNextMethodNode;
+        @Child private JSFunctionCallNode methodCallNode;
+        @Child private IsJSObjectNode isObjectNode;
+        @Child private IteratorCompleteNode iteratorCompleteNode;
+        @Child private IteratorValueNode iteratorValueNode;
+
+        IteratorStepValueNode(JSContext context) {
+            this.getNextMethodNode = PropertyGetNode.create(Strings.NEXT, false, context);
+            this.methodCallNode = JSFunctionCallNode.createCall();
+            this.isObjectNode = IsJSObjectNode.create();
+            this.iteratorCompleteNode = IteratorCompleteNode.create(context);
+            this.iteratorValueNode = IteratorValueNode.create();
+        }
+
+        Object execute(JSDynamicObject iterator) {
+            Object next = getNextMethodNode.getValue(iterator);
+            Object result = methodCallNode.executeCall(JSArguments.createZeroArg(iterator, next));
+            if (!isObjectNode.executeBoolean(result)) {
+                throw Errors.createTypeErrorIterResultNotAnObject(result, this);
+            }
+            if (iteratorCompleteNode.execute(result)) {
+                return ForInIteratorNextKeyNode.DONE;
+            }
+            return iteratorValueNode.execute(result);
+        }
+    }
+}
@@ -60,6 +60,7 @@ import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 
 /**
@@ -251,19 +252,31 @@ public class HasPropertyCacheNode extends PropertyCacheNode<HasPropertyCacheNode
         @Child private InteropLibrary interop;
         private final JSClassProfile jsclassProfile = JSClassProfile.create();
 
-        public GenericHasPropertyCacheNode() {
+        private final MegamorphicPropertyCache stubCache;
+        private final int keyHash;
+
+        public GenericHasPropertyCacheNode(JSContext context, Object key) {
             super(null);
             this.interop = InteropLibrary.getFactory().createDispatched(JSConfig.InteropLibraryLimit);
+            this.stubCache = MegamorphicPropertyCache.isCacheableKey(key) ? context.getMegamorphicPropertyCache() : null;
+            this.keyHash = stubCache == null ? 0 : MegamorphicPropertyCache.keyHash(key);
         }
 
         @Override
         protected boolean hasProperty(Object thisObj, HasPropertyCacheNode root) {
             if (JSDynamicObject.isJSDynamicObject(thisObj)) {
+                JSDynamicObject object = (JSDynamicObject) thisObj;
                 Object key = root.getKey();
+                if (stubCache != null) {
+                    int cached = stubCache.has(object, key, keyHash, root.isOwnProperty());
+                    if (cached != MegamorphicPropertyCache.UNKNOWN) {
+                        return cached == MegamorphicPropertyCache.PRESENT;
+                    }
+                }
                 if (root.isOwnProperty()) {
-                    return JSObject.hasOwnProperty((JSDynamicObject) thisObj, key, jsclassProfile);
+                    return JSObject.hasOwnProperty(object, key, jsclassProfile);
                 } else {
-                    return JSObject.hasProperty((JSDynamicObject) thisObj, key, jsclassProfile);
+                    return JSObject.hasProperty(object, key, jsclassProfile);
                 }
             } else {
                 assert JSRuntime.isForeignObject(thisObj);
@@ -354,7 +367,7 @@ public class HasPropertyCacheNode extends PropertyCacheNode<HasPropertyCacheNode
      */
     @Override
     protected HasCacheNode createGenericPropertyNode() {
-        return new GenericHasPropertyCacheNode();
+        return new GenericHasPropertyCacheNode(context, key);
     }
 
     @Override
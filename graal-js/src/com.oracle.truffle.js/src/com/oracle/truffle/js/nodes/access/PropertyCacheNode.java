@@ -84,6 +84,7 @@ import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DebugCounter;
+import com.oracle.truffle.js.runtime.util.MegamorphicSiteReport;
 
 /**
  * Common base class for property cache nodes. Unifies the cache handling and receiver checks.
@@ -1150,6 +1151,10 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
         if (JSConfig.TraceMegamorphicPropertyAccess) {
             System.out.printf("MEGAMORPHIC PROPERTY ACCESS key='%s' %s\n%s\n---\n", key, getEncapsulatingSourceSection(), currentHead.debugString());
         }
+        MegamorphicSiteReport siteReport = context.getMegamorphicSiteReport();
+        if (siteReport != null) {
+            siteReport.record(getEncapsulatingSourceSection(), getClass().getSimpleName(), key, reason, cachedCount);
+        }
         return newNode;
     }
 
@@ -113,6 +113,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
@@ -1357,9 +1358,13 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         private final ConditionProfile isForeignObject = ConditionProfile.createBinaryProfile();
         private final BranchProfile notAJSObjectBranch = BranchProfile.create();
         private final BranchProfile fallbackBranch = BranchProfile.create();
+        private final MegamorphicPropertyCache stubCache;
+        private final int keyHash;
 
-        public GenericPropertyGetNode() {
+        public GenericPropertyGetNode(JSContext context, Object key) {
             super(null);
+            this.stubCache = MegamorphicPropertyCache.isCacheableKey(key) ? context.getMegamorphicPropertyCache() : null;
+            this.keyHash = stubCache == null ? 0 : MegamorphicPropertyCache.keyHash(key);
         }
 
         @Override
@@ -1396,6 +1401,15 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
                     return getFallback(defaultValue, root);
                 }
             } else {
+                if (stubCache != null) {
+                    Object value = stubCache.get(thisObj, root.getKey(), keyHash, receiver, this);
+                    if (value == MegamorphicPropertyCache.ABSENT) {
+                        fallbackBranch.enter();
+                        return getFallback(defaultValue, root);
+                    } else if (value != null) {
+                        return value;
+                    }
+                }
                 if (getFromJSObjectNode == null) {
                     CompilerDirectives.transferToInterpreterAndInvalidate();
                     getFromJSObjectNode = insert(GetPropertyFromJSObjectNode.create(root));
@@ -2085,7 +2099,7 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
      */
     @Override
     protected GetCacheNode createGenericPropertyNode() {
-        return new GenericPropertyGetNode();
+        return new GenericPropertyGetNode(context, key);
     }
 
     protected final boolean isRequired() {
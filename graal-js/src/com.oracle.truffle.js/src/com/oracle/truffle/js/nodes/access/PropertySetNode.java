@@ -86,6 +86,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
@@ -781,9 +782,14 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
         private final ConditionProfile isStrictSymbol = ConditionProfile.createBinaryProfile();
         private final ConditionProfile isForeignObject = ConditionProfile.createBinaryProfile();
 
-        public GenericPropertySetNode(JSContext context) {
+        private final MegamorphicPropertyCache stubCache;
+        private final int keyHash;
+
+        public GenericPropertySetNode(JSContext context, Object key) {
             super(null);
             this.toObjectNode = JSToObjectNode.createToObjectNoCheck(context);
+            this.stubCache = MegamorphicPropertyCache.isCacheableKey(key) ? context.getMegamorphicPropertyCache() : null;
+            this.keyHash = stubCache == null ? 0 : MegamorphicPropertyCache.keyHash(key);
         }
 
         @Override
@@ -816,7 +822,7 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
                 } else {
                     JSObject.defineOwnProperty(thisJSObj, key, PropertyDescriptor.createData(value, root.getAttributeFlags()), root.isStrict());
                 }
-            } else {
+            } else if (stubCache == null || !stubCache.set(thisJSObj, key, keyHash, value, receiver, root.isStrict(), root)) {
                 JSObject.setWithReceiver(thisJSObj, key, value, receiver, root.isStrict(), jsclassProfile, root);
             }
         }
@@ -1152,7 +1158,7 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
 
     @Override
     protected SetCacheNode createGenericPropertyNode() {
-        return new GenericPropertySetNode(context);
+        return new GenericPropertySetNode(context, key);
     }
 
     @Override
@@ -48,6 +48,8 @@ import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.nodes.control.DeletePropertyNode;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.array.SparseArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 
 /**
@@ -80,6 +82,12 @@ public abstract class JSArrayDeleteRangeNode extends JavaScriptBaseNode {
         }
     }
 
+    @Specialization(guards = {"cachedArrayType.isInstance(arrayType)", "isBulkDeletable(array, cachedArrayType)"}, limit = "5")
+    protected static void sparseArrayBulk(JSDynamicObject array, @SuppressWarnings("unused") ScriptArray arrayType, long start, long end,
+                    @Cached("arrayType") ScriptArray cachedArrayType) {
+        ((SparseArray) cachedArrayType).deleteElementRange(array, start, end);
+    }
+
     @Specialization(guards = {"cachedArrayType.isInstance(arrayType)", "cachedArrayType.isHolesType()"}, limit = "5")
     protected void sparseArray(JSDynamicObject array, @SuppressWarnings("unused") ScriptArray arrayType, long start, long end,
                     @Cached("arrayType") @SuppressWarnings("unused") ScriptArray cachedArrayType,
@@ -92,14 +100,24 @@ public abstract class JSArrayDeleteRangeNode extends JavaScriptBaseNode {
         }
     }
 
-    @Specialization(replaces = {"denseArray", "sparseArray"})
+    @Specialization(replaces = {"denseArray", "sparseArrayBulk", "sparseArray"})
     protected void doUncached(JSDynamicObject array, ScriptArray arrayType, long start, long end,
                     @Cached("create(orThrow, context)") DeletePropertyNode deletePropertyNode,
                     @Cached("create(context)") JSArrayNextElementIndexNode nextElementIndexNode) {
-        if (arrayType.isHolesType()) {
+        if (isBulkDeletable(array, arrayType)) {
+            sparseArrayBulk(array, arrayType, start, end, arrayType);
+        } else if (arrayType.isHolesType()) {
             sparseArray(array, arrayType, start, end, arrayType, deletePropertyNode, nextElementIndexNode);
         } else {
             denseArray(array, arrayType, start, end, arrayType, deletePropertyNode);
         }
     }
+
+    /**
+     * Elements of a sparse fast array are plain data properties, so unless the array is sealed,
+     * they can be removed from the element storage at once.
+     */
+    protected static boolean isBulkDeletable(JSDynamicObject array, ScriptArray arrayType) {
+        return arrayType instanceof SparseArray && !arrayType.isSealed() && JSArray.isJSFastArray(array);
+    }
 }
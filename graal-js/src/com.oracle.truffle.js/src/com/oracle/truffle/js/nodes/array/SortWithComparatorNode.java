@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.array;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.nodes.cast.JSToDoubleNode;
+import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Sorts an Object[] using a user-provided comparison function (SortCompare with comparefn).
+ *
+ * Implemented as a stable, non-recursive merge sort (with insertion sort for short runs) within
+ * the node itself, so that the comparison function is invoked through a call node and can be
+ * inlined, instead of going through a {@link java.util.Comparator} behind a boundary.
+ *
+ * Used by {@code Array.prototype.sort} and {@code %TypedArray%.prototype.sort}.
+ */
+public final class SortWithComparatorNode extends JavaScriptBaseNode {
+
+    /** Runs of this length are sorted by insertion sort before merging. */
+    private static final int INSERTION_SORT_RUN_LENGTH = 8;
+
+    @Child private JSFunctionCallNode callNode = JSFunctionCallNode.createCall();
+    @Child private JSToDoubleNode toDoubleNode;
+    private final ConditionProfile intResultProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile undefinedProfile = ConditionProfile.createBinaryProfile();
+
+    private SortWithComparatorNode() {
+    }
+
+    public static SortWithComparatorNode create() {
+        return new SortWithComparatorNode();
+    }
+
+    /**
+     * Sorts {@code array} in place. {@code undefined} values are moved to the end without calling
+     * the comparison function.
+     */
+    public void execute(Object[] array, Object comparefn) {
+        int length = moveUndefinedToEnd(array);
+        if (length < 2) {
+            return;
+        }
+        for (int lo = 0; lo < length; lo += INSERTION_SORT_RUN_LENGTH) {
+            insertionSort(array, lo, Math.min(lo + INSERTION_SORT_RUN_LENGTH, length), comparefn);
+        }
+        if (length > INSERTION_SORT_RUN_LENGTH) {
+            Object[] buffer = new Object[length];
+            for (int width = INSERTION_SORT_RUN_LENGTH; width < length; width *= 2) {
+                for (int lo = 0; lo < length - width; lo += 2 * width) {
+                    int mid = lo + width;
+                    int hi = Math.min(lo + 2 * width, length);
+                    if (compare(comparefn, array[mid - 1], array[mid]) > 0) {
+                        merge(array, buffer, lo, mid, hi, comparefn);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stable partition of {@code undefined} values to the end of the array.
+     *
+     * @return the number of non-undefined values
+     */
+    private int moveUndefinedToEnd(Object[] array) {
+        int count = 0;
+        for (int i = 0; i < array.length; i++) {
+            Object value = array[i];
+            if (undefinedProfile.profile(value != Undefined.instance)) {
+                array[count++] = value;
+            }
+        }
+        for (int i = count; i < array.length; i++) {
+            array[i] = Undefined.instance;
+        }
+        return count;
+    }
+
+    private void insertionSort(Object[] array, int lo, int hi, Object comparefn) {
+        for (int i = lo + 1; i < hi; i++) {
+            Object value = array[i];
+            int j = i - 1;
+            while (j >= lo && compare(comparefn, array[j], value) > 0) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = value;
+        }
+    }
+
+    /**
+     * Merges the sorted ranges [lo, mid) and [mid, hi), preferring the left range for equal
+     * elements to keep the sort stable.
+     */
+    private void merge(Object[] array, Object[] buffer, int lo, int mid, int hi, Object comparefn) {
+        System.arraycopy(array, lo, buffer, lo, mid - lo);
+        int left = lo;
+        int right = mid;
+        int dst = lo;
+        while (left < mid && right < hi) {
+            if (compare(comparefn, buffer[left], array[right]) <= 0) {
+                array[dst++] = buffer[left++];
+            } else {
+                array[dst++] = array[right++];
+            }
+        }
+        while (left < mid) {
+            array[dst++] = buffer[left++];
+        }
+    }
+
+    private int compare(Object comparefn, Object x, Object y) {
+        Object result = callNode.executeCall(JSArguments.create(Undefined.instance, comparefn, x, y));
+        if (intResultProfile.profile(result instanceof Integer)) {
+            return (int) result;
+        }
+        double d = toDouble(result);
+        if (d < 0) {
+            return -1;
+        } else if (d > 0) {
+            return 1;
+        } else {
+            // +/-0 or NaN
+            return 0;
+        }
+    }
+
+    private double toDouble(Object value) {
+        if (toDoubleNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            toDoubleNode = insert(JSToDoubleNode.create());
+        }
+        return toDoubleNode.executeDouble(value);
+    }
+}
@@ -50,10 +50,10 @@ import com.oracle.truffle.js.nodes.access.PropertySetNode;
 import com.oracle.truffle.js.nodes.unary.IsCallableNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
-import com.oracle.truffle.js.runtime.builtins.JSFunctionObject;
 import com.oracle.truffle.js.runtime.builtins.JSPromise;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionJobRecord;
 import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
@@ -99,7 +99,7 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
             ((SimpleArrayList<? super PromiseReactionRecord>) getPromiseRejectReactionsNode.getValue(promise)).add(rejectReaction, growProfile);
         } else if (fulfilledProf.profile(promiseState == JSPromise.FULFILLED)) {
             Object value = getPromiseResult(promise);
-            JSFunctionObject job = getPromiseReactionJob(fulfillReaction, value);
+            PromiseReactionJobRecord job = getPromiseReactionJob(fulfillReaction, value);
             context.promiseEnqueueJob(getRealm(), job);
         } else {
             assert promiseState == JSPromise.REJECTED;
@@ -107,7 +107,7 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
             if (unhandledProf.profile(!getPromiseIsHandled(promise))) {
                 context.notifyPromiseRejectionTracker(promise, JSPromise.REJECTION_TRACKER_OPERATION_HANDLE, Undefined.instance);
             }
-            JSFunctionObject job = getPromiseReactionJob(rejectReaction, reason);
+            PromiseReactionJobRecord job = getPromiseReactionJob(rejectReaction, reason);
             context.promiseEnqueueJob(getRealm(), job);
         }
         setPromiseIsHandledNode.setValueBoolean(promise, true);
@@ -117,7 +117,7 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
         return resultCapability.getPromise();
     }
 
-    private JSFunctionObject getPromiseReactionJob(PromiseReactionRecord reaction, Object value) {
+    private PromiseReactionJobRecord getPromiseReactionJob(PromiseReactionRecord reaction, Object value) {
         if (promiseReactionJobNode == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             promiseReactionJobNode = insert(PromiseReactionJobNode.create(context));
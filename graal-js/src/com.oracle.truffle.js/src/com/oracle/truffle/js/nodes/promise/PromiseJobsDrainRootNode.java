@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.promise;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
+import com.oracle.truffle.js.runtime.JSAgent;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JavaScriptRootNode;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionJobRecord;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Runs the jobs of the PromiseJobs queue of the agent passed as the only argument until the queue
+ * is empty or there are waitAsync jobs to be checked (see {@link JSAgent#processAllPromises}).
+ * PromiseReactionJobs are called directly; other jobs (functions enqueued by embedders or
+ * internally) go through an inline call cache.
+ */
+public final class PromiseJobsDrainRootNode extends JavaScriptRootNode {
+
+    @Child private DirectCallNode callReactionJobNode;
+    @Child private JSFunctionCallNode callJobFunctionNode;
+    private final ConditionProfile reactionJobProfile = ConditionProfile.createBinaryProfile();
+
+    public PromiseJobsDrainRootNode(JSContext context) {
+        super(context.getLanguage(), null, null);
+        this.callReactionJobNode = DirectCallNode.create(PromiseReactionJobNode.getPromiseReactionJobCallTarget(context));
+        this.callJobFunctionNode = JSFunctionCallNode.createCall();
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        JSAgent agent = (JSAgent) frame.getArguments()[0];
+        do {
+            Object job = agent.pollPromiseJob();
+            if (job == null) {
+                break;
+            }
+            if (reactionJobProfile.profile(job instanceof PromiseReactionJobRecord)) {
+                callReactionJobNode.call(PromiseReactionJobNode.createPromiseReactionJobArguments((PromiseReactionJobRecord) job));
+            } else if (JSFunction.isJSFunction(job)) {
+                callJobFunctionNode.executeCall(JSArguments.createZeroArg(Undefined.instance, job));
+            }
+        } while (!agent.hasPendingWaitAsyncJobs());
+        return Undefined.instance;
+    }
+
+    @Override
+    public boolean isInternal() {
+        return true;
+    }
+}
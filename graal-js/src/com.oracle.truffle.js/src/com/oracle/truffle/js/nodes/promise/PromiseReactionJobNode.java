@@ -42,6 +42,7 @@ package com.oracle.truffle.js.nodes.promise;
 
 import java.util.List;
 
+import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.TruffleStackTraceElement;
 import com.oracle.truffle.api.exception.AbstractTruffleException;
@@ -51,53 +52,50 @@ import com.oracle.truffle.api.instrumentation.InstrumentableNode;
 import com.oracle.truffle.api.instrumentation.ProbeNode;
 import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.instrumentation.Tag;
-import com.oracle.truffle.api.object.HiddenKey;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
-import com.oracle.truffle.js.nodes.access.PropertyGetNode;
-import com.oracle.truffle.js.nodes.access.PropertySetNode;
 import com.oracle.truffle.js.nodes.control.AwaitNode;
 import com.oracle.truffle.js.nodes.control.TryCatchNode;
 import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
-import com.oracle.truffle.js.runtime.JSFrameUtil;
 import com.oracle.truffle.js.runtime.JavaScriptRootNode;
 import com.oracle.truffle.js.runtime.PromiseHook;
 import com.oracle.truffle.js.runtime.Strings;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionObject;
-import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionJobRecord;
 import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
+/**
+ * Creates PromiseReactionJobs. A job is represented by a {@link PromiseReactionJobRecord} that is
+ * executed by the PromiseJobs drain loop (see {@link PromiseJobsDrainRootNode}) using the shared
+ * {@link PromiseReactionJobRootNode} call target; the reaction and its argument are passed as
+ * arguments.
+ */
 public class PromiseReactionJobNode extends JavaScriptBaseNode {
-    static final HiddenKey REACTION_KEY = new HiddenKey("Reaction");
-    static final HiddenKey ARGUMENT_KEY = new HiddenKey("Argument");
 
-    private final JSContext context;
-    @Child private PropertySetNode setReaction;
-    @Child private PropertySetNode setArgument;
+    protected PromiseReactionJobNode() {
+    }
+
+    public static PromiseReactionJobNode create(@SuppressWarnings("unused") JSContext context) {
+        return new PromiseReactionJobNode();
+    }
 
-    protected PromiseReactionJobNode(JSContext context) {
-        this.context = context;
-        this.setReaction = PropertySetNode.createSetHidden(REACTION_KEY, context);
-        this.setArgument = PropertySetNode.createSetHidden(ARGUMENT_KEY, context);
+    public PromiseReactionJobRecord execute(Object reaction, Object argument) {
+        return new PromiseReactionJobRecord((PromiseReactionRecord) reaction, argument);
     }
 
-    public static PromiseReactionJobNode create(JSContext context) {
-        return new PromiseReactionJobNode(context);
+    public static CallTarget getPromiseReactionJobCallTarget(JSContext context) {
+        return context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseReactionJob, (c) -> createPromiseReactionJobImpl(c)).getCallTarget();
     }
 
-    public JSFunctionObject execute(Object reaction, Object argument) {
-        JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseReactionJob, (c) -> createPromiseReactionJobImpl(c));
-        JSFunctionObject function = JSFunction.create(getRealm(), functionData);
-        setReaction.setValue(function, reaction);
-        setArgument.setValue(function, argument);
-        return function;
+    public static Object[] createPromiseReactionJobArguments(PromiseReactionJobRecord job) {
+        return JSArguments.create(Undefined.instance, Undefined.instance, job.getReaction(), job.getArgument());
     }
 
     private static JSFunctionData createPromiseReactionJobImpl(JSContext context) {
@@ -106,8 +104,6 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
 
     public static class PromiseReactionJobRootNode extends JavaScriptRootNode implements InstrumentableNode {
         private final JSContext context;
-        @Child private PropertyGetNode getReaction;
-        @Child private PropertyGetNode getArgument;
         @Child private JSFunctionCallNode callResolveNode;
         @Child private JSFunctionCallNode callRejectNode;
         @Child private JSFunctionCallNode callHandlerNode;
@@ -117,15 +113,13 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
         PromiseReactionJobRootNode(JSContext context) {
             super(context.getLanguage(), null, null);
             this.context = context;
-            this.getReaction = PropertyGetNode.createGetHidden(REACTION_KEY, context);
-            this.getArgument = PropertyGetNode.createGetHidden(ARGUMENT_KEY, context);
         }
 
         @Override
         public Object execute(VirtualFrame frame) {
-            JSDynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
-            PromiseReactionRecord reaction = (PromiseReactionRecord) getReaction.getValue(functionObject);
-            Object argument = getArgument.getValue(functionObject);
+            Object[] arguments = frame.getArguments();
+            PromiseReactionRecord reaction = (PromiseReactionRecord) JSArguments.getUserArgument(arguments, 0);
+            Object argument = JSArguments.getUserArgument(arguments, 1);
 
             PromiseCapabilityRecord promiseCapability = reaction.getCapability();
             Object handler = reaction.getHandler();
@@ -214,8 +208,7 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
                 return null;
             }
 
-            JSDynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
-            PromiseReactionRecord reaction = (PromiseReactionRecord) getReaction.getValue(functionObject);
+            PromiseReactionRecord reaction = (PromiseReactionRecord) JSArguments.getUserArgument(frame.getArguments(), 0);
             PromiseCapabilityRecord promiseCapability = reaction.getCapability();
             if (promiseCapability != null) {
                 return AwaitNode.findAsyncStackFramesFromPromise(promiseCapability.getPromise());
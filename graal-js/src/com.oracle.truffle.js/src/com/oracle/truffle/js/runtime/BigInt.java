@@ -61,24 +61,44 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
 
     static final long serialVersionUID = 6019523258212492110L;
 
+    /**
+     * The value if it fits in a {@code long}, i.e., if {@link #value} is {@code null}.
+     */
+    private final long longValue;
+    /**
+     * The value if it does not fit in a {@code long}, otherwise {@code null}. Values are always
+     * normalized, so equal values have the same representation.
+     */
     private final BigInteger value;
 
-    public static final BigInt ZERO = new BigInt(BigInteger.ZERO);
-    public static final BigInt ONE = new BigInt(BigInteger.ONE);
-    public static final BigInt NEGATIVE_ONE = new BigInt(BigInteger.valueOf(-1));
-    public static final BigInt TWO = new BigInt(BigInteger.valueOf(2));
+    public static final BigInt ZERO = new BigInt(0L);
+    public static final BigInt ONE = new BigInt(1L);
+    public static final BigInt NEGATIVE_ONE = new BigInt(-1L);
+    public static final BigInt TWO = new BigInt(2L);
 
-    public static final BigInt MAX_INT = new BigInt(BigInteger.valueOf(Integer.MAX_VALUE));
-    public static final BigInt MIN_INT = new BigInt(BigInteger.valueOf(Integer.MIN_VALUE));
+    public static final BigInt MAX_INT = new BigInt((long) Integer.MAX_VALUE);
+    public static final BigInt MIN_INT = new BigInt((long) Integer.MIN_VALUE);
 
     private static final BigInteger TWO64 = BigInteger.ONE.shiftLeft(64);
 
     public BigInt(String s, int r) {
-        this.value = new BigInteger(s, r);
+        this(new BigInteger(s, r));
     }
 
+    @TruffleBoundary
     public BigInt(BigInteger v) {
-        this.value = v;
+        if (v.bitLength() < Long.SIZE) {
+            this.longValue = v.longValue();
+            this.value = null;
+        } else {
+            this.longValue = 0;
+            this.value = v;
+        }
+    }
+
+    private BigInt(long v) {
+        this.longValue = v;
+        this.value = null;
     }
 
     @TruffleBoundary
@@ -97,20 +117,23 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         return new BigInt(parseBigInteger(s));
     }
 
-    @TruffleBoundary
     public static BigInt valueOf(long i) {
-        return new BigInt(BigInteger.valueOf(i));
+        return new BigInt(i);
     }
 
-    @TruffleBoundary
     public static BigInt valueOfUnsigned(long i) {
         if (i >= 0) {
-            return new BigInt(BigInteger.valueOf(i));
+            return new BigInt(i);
         } else {
-            return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+            return unsignedToBigInt(i);
         }
     }
 
+    @TruffleBoundary
+    private static BigInt unsignedToBigInt(long i) {
+        return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+    }
+
     @TruffleBoundary
     private static BigInteger parseBigInteger(final String valueString) {
 
@@ -142,49 +165,97 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         return new BigInteger(trimmedString, 10);
     }
 
-    @TruffleBoundary
+    /**
+     * Returns {@code true} if the value is stored as a {@code long}, i.e., fits in a {@code long}.
+     */
+    private boolean isLong() {
+        return value == null;
+    }
+
     public int intValue() {
-        return value.intValue();
+        if (isLong()) {
+            return (int) longValue;
+        }
+        return bigIntValue(value);
     }
 
     @TruffleBoundary
+    private static int bigIntValue(BigInteger v) {
+        return v.intValue();
+    }
+
     public double doubleValue() {
-        return value.doubleValue();
+        if (isLong()) {
+            return longValue;
+        }
+        return bigDoubleValue(value);
+    }
+
+    @TruffleBoundary
+    private static double bigDoubleValue(BigInteger v) {
+        return v.doubleValue();
     }
 
     public BigInteger bigIntegerValue() {
+        if (isLong()) {
+            return toBigInteger(longValue);
+        }
         return value;
     }
 
     @TruffleBoundary
+    private static BigInteger toBigInteger(long v) {
+        return BigInteger.valueOf(v);
+    }
+
     public BigInt toBigInt64() {
-        return valueOf(value.longValue());
+        if (isLong()) {
+            return this;
+        }
+        return valueOf(longValue());
     }
 
-    @TruffleBoundary
     public BigInt toBigUint64() {
-        return new BigInt(value.mod(TWO64));
+        if (isLong() && longValue >= 0) {
+            return this;
+        }
+        return bigToBigUint64();
+    }
+
+    @TruffleBoundary
+    private BigInt bigToBigUint64() {
+        return new BigInt(bigIntegerValue().mod(TWO64));
     }
 
     @TruffleBoundary
     public BigInt pow(int e) {
-        return new BigInt(value.pow(e));
+        return new BigInt(bigIntegerValue().pow(e));
     }
 
     @TruffleBoundary
     public BigInt mod(BigInt m) {
-        return new BigInt(value.mod(m.value));
+        return new BigInt(bigIntegerValue().mod(m.bigIntegerValue()));
     }
 
     @Override
-    @TruffleBoundary
     public int compareTo(BigInt b) {
-        return value.compareTo(b.value);
+        if (isLong() && b.isLong()) {
+            return Long.compare(longValue, b.longValue);
+        }
+        return bigCompareTo(b);
     }
 
     @TruffleBoundary
+    private int bigCompareTo(BigInt b) {
+        return bigIntegerValue().compareTo(b.bigIntegerValue());
+    }
+
     public int compareValueTo(long b) {
-        return value.compareTo(BigInteger.valueOf(b));
+        if (isLong()) {
+            return Long.compare(longValue, b);
+        }
+        // values that do not fit in a long are either below or above any long value
+        return value.signum();
     }
 
     @TruffleBoundary
@@ -197,24 +268,51 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         } else if (b == Double.NEGATIVE_INFINITY) {
             return 1;
         } else {
-            BigDecimal thisValue = new BigDecimal(value);
+            BigDecimal thisValue = new BigDecimal(bigIntegerValue());
             BigDecimal theOtherValue = new BigDecimal(b);
             return thisValue.compareTo(theOtherValue);
         }
     }
 
-    @TruffleBoundary
     public BigInt subtract(BigInt b) {
-        return new BigInt(value.subtract(b.value));
+        if (isLong() && b.isLong()) {
+            long x = longValue;
+            long y = b.longValue;
+            long r = x - y;
+            if (((x ^ y) & (x ^ r)) >= 0) {
+                return new BigInt(r);
+            }
+        }
+        return bigSubtract(b);
     }
 
     @TruffleBoundary
+    private BigInt bigSubtract(BigInt b) {
+        return new BigInt(bigIntegerValue().subtract(b.bigIntegerValue()));
+    }
+
     public BigInt add(BigInt b) {
-        return new BigInt(value.add(b.value));
+        if (isLong() && b.isLong()) {
+            long x = longValue;
+            long y = b.longValue;
+            long r = x + y;
+            if (((x ^ r) & (y ^ r)) >= 0) {
+                return new BigInt(r);
+            }
+        }
+        return bigAdd(b);
+    }
+
+    @TruffleBoundary
+    private BigInt bigAdd(BigInt b) {
+        return new BigInt(bigIntegerValue().add(b.bigIntegerValue()));
     }
 
     @TruffleBoundary
     public String toString(int radix) {
+        if (isLong()) {
+            return Long.toString(longValue, radix);
+        }
         return value.toString(radix);
     }
 
@@ -225,40 +323,71 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
 
     @TruffleBoundary
     public TruffleString toTString(int radix) {
-        return Strings.fromJavaString(value.toString(radix));
+        return Strings.fromJavaString(toString(radix));
     }
 
-    @TruffleBoundary
     public boolean testBit(int n) {
-        return value.testBit(n);
+        if (isLong() && n >= 0) {
+            return ((longValue >> Math.min(n, Long.SIZE - 1)) & 1) != 0;
+        }
+        return bigTestBit(n);
+    }
+
+    @TruffleBoundary
+    private boolean bigTestBit(int n) {
+        return bigIntegerValue().testBit(n);
     }
 
-    @TruffleBoundary(allowInlining = true)
     public int signum() {
-        return value.signum();
+        if (isLong()) {
+            return Long.signum(longValue);
+        }
+        return bigSignum(value);
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static int bigSignum(BigInteger v) {
+        return v.signum();
     }
 
-    @TruffleBoundary
     public BigInt negate() {
-        return new BigInt(value.negate());
+        if (isLong() && longValue != Long.MIN_VALUE) {
+            return new BigInt(-longValue);
+        }
+        return bigNegate();
     }
 
     @TruffleBoundary
+    private BigInt bigNegate() {
+        return new BigInt(bigIntegerValue().negate());
+    }
+
     public BigInt not() {
+        if (isLong()) {
+            return new BigInt(~longValue);
+        }
+        return bigNot();
+    }
+
+    @TruffleBoundary
+    private BigInt bigNot() {
         return new BigInt(value.not());
     }
 
     @Override
-    @TruffleBoundary
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((value == null) ? 0 : value.hashCode());
-        return result;
+        if (isLong()) {
+            return Long.hashCode(longValue);
+        }
+        return bigHashCode(value);
     }
 
-    @Override
     @TruffleBoundary
+    private static int bigHashCode(BigInteger v) {
+        return v.hashCode();
+    }
+
+    @Override
     public boolean equals(Object obj) {
         if (this == obj) {
             return true;
@@ -270,75 +399,157 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
             return false;
         }
         BigInt other = (BigInt) obj;
-        if (value == null) {
-            if (other.value != null) {
-                return false;
-            }
-        } else if (!value.equals(other.value)) {
-            return false;
+        if (isLong() || other.isLong()) {
+            return isLong() && other.isLong() && longValue == other.longValue;
         }
-        return true;
+        return bigEquals(value, other.value);
     }
 
     @TruffleBoundary
+    private static boolean bigEquals(BigInteger a, BigInteger b) {
+        return a.equals(b);
+    }
+
     public BigInt and(BigInt b) {
-        return new BigInt(value.and(b.value));
+        if (isLong() && b.isLong()) {
+            return new BigInt(longValue & b.longValue);
+        }
+        return bigAnd(b);
     }
 
     @TruffleBoundary
+    private BigInt bigAnd(BigInt b) {
+        return new BigInt(bigIntegerValue().and(b.bigIntegerValue()));
+    }
+
     public BigInt or(BigInt b) {
-        return new BigInt(value.or(b.value));
+        if (isLong() && b.isLong()) {
+            return new BigInt(longValue | b.longValue);
+        }
+        return bigOr(b);
     }
 
     @TruffleBoundary
+    private BigInt bigOr(BigInt b) {
+        return new BigInt(bigIntegerValue().or(b.bigIntegerValue()));
+    }
+
     public BigInt xor(BigInt b) {
-        return new BigInt(value.xor(b.value));
+        if (isLong() && b.isLong()) {
+            return new BigInt(longValue ^ b.longValue);
+        }
+        return bigXor(b);
     }
 
     @TruffleBoundary
+    private BigInt bigXor(BigInt b) {
+        return new BigInt(bigIntegerValue().xor(b.bigIntegerValue()));
+    }
+
     public BigInt multiply(BigInt b) {
-        return new BigInt(value.multiply(b.value));
+        if (isLong() && b.isLong()) {
+            long x = longValue;
+            long y = b.longValue;
+            long r = x * y;
+            if (Math.multiplyHigh(x, y) == (r >> (Long.SIZE - 1))) {
+                return new BigInt(r);
+            }
+        }
+        return bigMultiply(b);
     }
 
     @TruffleBoundary
+    private BigInt bigMultiply(BigInt b) {
+        return new BigInt(bigIntegerValue().multiply(b.bigIntegerValue()));
+    }
+
     public BigInt divide(BigInt b) {
-        return new BigInt(value.divide(b.value));
+        if (isLong() && b.isLong() && b.longValue != 0 && !(longValue == Long.MIN_VALUE && b.longValue == -1)) {
+            return new BigInt(longValue / b.longValue);
+        }
+        return bigDivide(b);
     }
 
     @TruffleBoundary
+    private BigInt bigDivide(BigInt b) {
+        return new BigInt(bigIntegerValue().divide(b.bigIntegerValue()));
+    }
+
     public BigInt remainder(BigInt b) {
-        return new BigInt(value.remainder(b.value));
+        if (isLong() && b.isLong() && b.longValue != 0) {
+            // Long.MIN_VALUE % -1 == 0
+            return new BigInt(longValue % b.longValue);
+        }
+        return bigRemainder(b);
     }
 
     @TruffleBoundary
+    private BigInt bigRemainder(BigInt b) {
+        return new BigInt(bigIntegerValue().remainder(b.bigIntegerValue()));
+    }
+
     public BigInt shiftLeft(int b) {
-        return new BigInt(value.shiftLeft(b));
+        if (isLong() && b >= 0 && b < Long.SIZE) {
+            long r = longValue << b;
+            if ((r >> b) == longValue) {
+                return new BigInt(r);
+            }
+        }
+        return bigShiftLeft(b);
     }
 
     @TruffleBoundary
+    private BigInt bigShiftLeft(int b) {
+        return new BigInt(bigIntegerValue().shiftLeft(b));
+    }
+
     public BigInt shiftRight(int b) {
-        return new BigInt(value.shiftRight(b));
+        if (isLong() && b >= 0) {
+            return new BigInt(longValue >> Math.min(b, Long.SIZE - 1));
+        }
+        return bigShiftRight(b);
     }
 
     @TruffleBoundary
+    private BigInt bigShiftRight(int b) {
+        return new BigInt(bigIntegerValue().shiftRight(b));
+    }
+
     public BigInt abs() {
-        return new BigInt(value.abs());
+        if (isLong() && longValue != Long.MIN_VALUE) {
+            return longValue < 0 ? new BigInt(-longValue) : this;
+        }
+        return bigAbs();
     }
 
     @TruffleBoundary
+    private BigInt bigAbs() {
+        return new BigInt(bigIntegerValue().abs());
+    }
+
     public long longValueExact() {
-        return value.longValueExact();
+        if (isLong()) {
+            return longValue;
+        }
+        throw new ArithmeticException("BigInteger out of long range");
     }
 
-    @TruffleBoundary
     public long longValue() {
-        return value.longValue();
+        if (isLong()) {
+            return longValue;
+        }
+        return bigLongValue(value);
+    }
+
+    @TruffleBoundary
+    private static long bigLongValue(BigInteger v) {
+        return v.longValue();
     }
 
     @Override
     @TruffleBoundary
     public String toString() {
-        return value.toString(10);
+        return toString(10);
     }
 
     @ExportMessage
@@ -347,93 +558,85 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInByte() {
-        return value.bitLength() < Byte.SIZE;
+        return isLong() && (byte) longValue == longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInShort() {
-        return value.bitLength() < Short.SIZE;
+        return isLong() && (short) longValue == longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInInt() {
-        return value.bitLength() < Integer.SIZE;
+        return isLong() && (int) longValue == longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     public boolean fitsInLong() {
-        return value.bitLength() < Long.SIZE;
+        return isLong();
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInDouble() {
-        if (value.bitLength() <= 53) { // 53 = size of double mantissa + 1
-            return true;
-        } else {
-            double doubleValue = value.doubleValue();
-            if (!Double.isFinite(doubleValue)) {
-                return false;
-            }
-            return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
+        if (isLong()) {
+            double doubleValue = longValue;
+            return doubleValue != 0x1p63 && (long) doubleValue == longValue;
+        }
+        double doubleValue = value.doubleValue();
+        if (!Double.isFinite(doubleValue)) {
+            return false;
         }
+        return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInFloat() {
-        if (value.bitLength() <= 24) { // 24 = size of float mantissa + 1
-            return true;
-        } else {
-            float floatValue = value.floatValue();
-            if (!Float.isFinite(floatValue)) {
-                return false;
-            }
-            return new BigDecimal(floatValue).toBigIntegerExact().equals(value);
+        if (isLong()) {
+            float floatValue = longValue;
+            return floatValue != 0x1p63f && (long) floatValue == longValue;
+        }
+        float floatValue = value.floatValue();
+        if (!Float.isFinite(floatValue)) {
+            return false;
         }
+        return new BigDecimal(floatValue).toBigIntegerExact().equals(value);
     }
 
     @ExportMessage
-    @TruffleBoundary
     byte asByte() throws UnsupportedMessageException {
-        try {
-            return value.byteValueExact();
-        } catch (ArithmeticException e) {
+        if (fitsInByte()) {
+            return (byte) longValue;
+        } else {
             throw UnsupportedMessageException.create();
         }
     }
 
     @ExportMessage
-    @TruffleBoundary
     short asShort() throws UnsupportedMessageException {
-        try {
-            return value.shortValueExact();
-        } catch (ArithmeticException e) {
+        if (fitsInShort()) {
+            return (short) longValue;
+        } else {
             throw UnsupportedMessageException.create();
         }
     }
 
     @ExportMessage
-    @TruffleBoundary
     int asInt() throws UnsupportedMessageException {
-        try {
-            return value.intValueExact();
-        } catch (ArithmeticException e) {
+        if (fitsInInt()) {
+            return (int) longValue;
+        } else {
             throw UnsupportedMessageException.create();
         }
     }
 
     @ExportMessage
-    @TruffleBoundary
     long asLong() throws UnsupportedMessageException {
-        try {
-            return longValueExact();
-        } catch (ArithmeticException e) {
+        if (fitsInLong()) {
+            return longValue;
+        } else {
             throw UnsupportedMessageException.create();
         }
     }
@@ -442,7 +645,7 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     @TruffleBoundary
     float asFloat() throws UnsupportedMessageException {
         if (fitsInFloat()) {
-            return value.floatValue();
+            return isLong() ? longValue : value.floatValue();
         } else {
             throw UnsupportedMessageException.create();
         }
@@ -452,7 +655,7 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     @TruffleBoundary
     double asDouble() throws UnsupportedMessageException {
         if (fitsInDouble()) {
-            return value.doubleValue();
+            return doubleValue();
         } else {
             throw UnsupportedMessageException.create();
         }
@@ -42,7 +42,9 @@ package com.oracle.truffle.js.runtime;
 
 import java.util.List;
 
+import com.oracle.js.parser.Lexer.RegexToken;
 import com.oracle.js.parser.ir.Expression;
+import com.oracle.js.parser.ir.FunctionNode;
 import com.oracle.js.parser.ir.Module;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.nodes.Node;
@@ -101,6 +103,21 @@ public interface Evaluator {
      */
     JSModuleData envParseModule(JSRealm realm, Source source);
 
+    /**
+     * Parses a module source to the intermediate AST without translating it. Does not touch any
+     * realm state, so it may be called from a background thread. Regular expression literals are
+     * not validated but collected into {@code regexLiterals}.
+     *
+     * @return the parsed module, or {@code null} if the source has syntax errors
+     */
+    FunctionNode preparseModule(JSContext context, Source source, List<RegexToken> regexLiterals);
+
+    /**
+     * Like {@link #parseModule(JSContext, Source)}, but translates an AST previously obtained from
+     * {@link #preparseModule(JSContext, Source, List)}.
+     */
+    JSModuleData parseModule(JSContext context, Source source, FunctionNode preparsedModule, List<RegexToken> regexLiterals);
+
     JSModuleRecord parseJSONModule(JSRealm realm, Source source);
 
     JSModuleRecord hostResolveImportedModule(JSContext context, ScriptOrModule referencingScriptOrModule, Module.ModuleRequest moduleRequest);
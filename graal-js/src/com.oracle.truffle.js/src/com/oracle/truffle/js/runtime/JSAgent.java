@@ -43,14 +43,18 @@ package com.oracle.truffle.js.runtime;
 import java.lang.ref.WeakReference;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.graalvm.collections.EconomicSet;
 import org.graalvm.collections.Equivalence;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.WaiterRecord;
 import com.oracle.truffle.js.runtime.builtins.JSFinalizationRegistry;
@@ -58,6 +62,7 @@ import com.oracle.truffle.js.runtime.builtins.JSFinalizationRegistryObject;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionObject;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionJobRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
@@ -72,9 +77,10 @@ public abstract class JSAgent {
     private boolean canBlock;
 
     /**
-     * ECMA 8.4 "PromiseJobs" job queue.
+     * ECMA 8.4 "PromiseJobs" job queue. Contains {@link JSFunctionObject job functions} and
+     * {@link PromiseReactionJobRecord PromiseReactionJobs}.
      */
-    private final Deque<JSFunctionObject> promiseJobsQueue;
+    private final Deque<Object> promiseJobsQueue;
 
     /**
      * According to ECMA2017 8.4 the queue of pending jobs (promises reactions) must be processed
@@ -93,7 +99,16 @@ public abstract class JSAgent {
 
     private final Deque<WeakReference<JSFinalizationRegistryObject>> finalizationRegistryQueue;
 
-    private final Deque<WaiterRecord> waitAsyncJobsQueue;
+    /**
+     * Pending {@code Atomics.waitAsync} waiters with a finite timeout, indexed by deadline.
+     */
+    private final WaitAsyncTimerWheel waitAsyncTimerWheel;
+
+    /**
+     * {@code Atomics.waitAsync} waiters that have been notified (possibly by other agents) but not
+     * resolved yet.
+     */
+    private final Queue<WaiterRecord> notifiedWaitAsyncJobsQueue;
 
     private final PromiseRejectionTracker promiseRejectionTracker;
 
@@ -106,7 +121,8 @@ public abstract class JSAgent {
         this.signifier = signifierGenerator.incrementAndGet();
         this.canBlock = canBlock;
         this.promiseJobsQueue = new ArrayDeque<>();
-        this.waitAsyncJobsQueue = new ConcurrentLinkedDeque<>();
+        this.waitAsyncTimerWheel = new WaitAsyncTimerWheel();
+        this.notifiedWaitAsyncJobsQueue = new ConcurrentLinkedQueue<>();
         this.finalizationRegistryQueue = new ArrayDeque<>(4);
     }
 
@@ -125,37 +141,77 @@ public abstract class JSAgent {
         promiseJobsQueue.push(job);
     }
 
+    @TruffleBoundary
+    public final void enqueuePromiseJob(PromiseReactionJobRecord job) {
+        promiseJobsQueue.push(job);
+    }
+
+    /**
+     * Removes the next job from the PromiseJobs queue.
+     *
+     * @return a {@link JSFunctionObject} or a {@link PromiseReactionJobRecord}, or {@code null} if
+     *         the queue is empty.
+     */
+    @TruffleBoundary
+    public final Object pollPromiseJob() {
+        return promiseJobsQueue.pollLast();
+    }
+
+    /**
+     * Returns {@code true} if there are {@code Atomics.waitAsync} waiters that have been notified
+     * or may have timed out.
+     */
+    @TruffleBoundary
+    public final boolean hasPendingWaitAsyncJobs() {
+        return !notifiedWaitAsyncJobsQueue.isEmpty() || (!waitAsyncTimerWheel.isEmpty() && waitAsyncTimerWheel.isDue(currentTimeMillis()));
+    }
+
+    /**
+     * Registers the timeout of an {@code Atomics.waitAsync} waiter of this agent.
+     */
     @TruffleBoundary
     public void enqueueWaitAsyncPromiseJob(WaiterRecord waiter) {
-        waitAsyncJobsQueue.push(waiter);
+        assert waiter.getAgent() == this && Double.isFinite(waiter.getTimeout());
+        waitAsyncTimerWheel.add(waiter, currentTimeMillis());
+    }
+
+    /**
+     * Enqueues a notified {@code Atomics.waitAsync} waiter of this agent. May be called by any
+     * agent.
+     */
+    @TruffleBoundary
+    public void enqueueNotifiedWaitAsyncPromiseJob(WaiterRecord waiter) {
+        assert waiter.getAgent() == this;
+        notifiedWaitAsyncJobsQueue.add(waiter);
         // Wake up agent to process waitAsync and promise queue now.
-        if (waiter.isReadyToResolve()) {
-            waiter.getAgent().wake();
-        }
+        wake();
+    }
+
+    private static long currentTimeMillis() {
+        return System.nanoTime() / JSRealm.NANOSECONDS_PER_MILLISECOND;
     }
 
     @TruffleBoundary
     public final void processAllPromises(boolean processWeakRefs) {
         try {
             interopBoundaryEnter();
-            boolean checkWaiterRecords = !waitAsyncJobsQueue.isEmpty();
+            boolean checkWaiterRecords = hasPendingWaitAsyncJobs();
             while (!promiseJobsQueue.isEmpty() || checkWaiterRecords) {
                 if (checkWaiterRecords) {
                     checkWaiterRecords = processWaitAsyncJobs();
                 }
                 if (!promiseJobsQueue.isEmpty()) {
-                    JSFunctionObject nextJob = promiseJobsQueue.pollLast();
-                    if (JSFunction.isJSFunction(nextJob)) {
-                        checkWaiterRecords = true;
-                        JSFunction.call(nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
-                    }
+                    checkWaiterRecords = true;
+                    // runs jobs until the queue is empty or waitAsync jobs are pending
+                    JavaScriptLanguage.getCurrentLanguage().getJSContext().getPromiseJobsDrainCallTarget().call(this);
                 }
             }
         } catch (Throwable t) {
             // Ensure that there are no leftovers when the processing
             // is terminated by an exception (like ExitException).
             promiseJobsQueue.clear();
-            waitAsyncJobsQueue.clear();
+            notifiedWaitAsyncJobsQueue.clear();
+            waitAsyncTimerWheel.clear();
             throw t;
         } finally {
             interopBoundaryExit();
@@ -171,34 +227,50 @@ public abstract class JSAgent {
         }
     }
 
+    /**
+     * Resolves the promises of notified and timed out {@code Atomics.waitAsync} waiters.
+     *
+     * @return {@code true} if any promise has been resolved.
+     */
     private boolean processWaitAsyncJobs() {
-        boolean checkWaiterRecords = false;
-        Iterator<WaiterRecord> iter = waitAsyncJobsQueue.descendingIterator();
-        while (iter.hasNext()) {
-            WaiterRecord wr = iter.next();
-            JSAgentWaiterListEntry wl = wr.getWaiterListEntry();
-            wl.enterCriticalSection();
-            boolean isReadyToResolve = wr.isReadyToResolve();
-            try {
-                if (isReadyToResolve) {
-                    iter.remove();
-                    checkWaiterRecords = true;
-                    if (wl.contains(wr)) {
+        boolean resolved = false;
+        WaiterRecord notified;
+        while ((notified = notifiedWaitAsyncJobsQueue.poll()) != null) {
+            waitAsyncTimerWheel.remove(notified);
+            resolveWaitAsyncPromise(notified);
+            resolved = true;
+        }
+        if (!waitAsyncTimerWheel.isEmpty()) {
+            List<WaiterRecord> expired = new ArrayList<>();
+            waitAsyncTimerWheel.advance(currentTimeMillis(), expired);
+            for (WaiterRecord wr : expired) {
+                JSAgentWaiterListEntry wl = wr.getWaiterListEntry();
+                boolean timedOut;
+                wl.enterCriticalSection();
+                try {
+                    // a waiter notified in the meantime is resolved via the notified queue
+                    timedOut = !wr.isNotified();
+                    if (timedOut) {
                         wr.setResult(Strings.TIMED_OUT);
                         wl.remove(wr);
                     }
+                } finally {
+                    wl.leaveCriticalSection();
+                }
+                if (timedOut) {
+                    resolveWaitAsyncPromise(wr);
+                    resolved = true;
                 }
-            } finally {
-                wl.leaveCriticalSection();
-            }
-            if (isReadyToResolve) {
-                JSDynamicObject resolve = (JSDynamicObject) wr.getPromiseCapability().getResolve();
-                assert JSFunction.isJSFunction(resolve);
-                Object result = wr.getResult();
-                JSFunction.call(JSArguments.createOneArg(Undefined.instance, resolve, result));
             }
         }
-        return checkWaiterRecords;
+        return resolved;
+    }
+
+    private static void resolveWaitAsyncPromise(WaiterRecord wr) {
+        JSDynamicObject resolve = (JSDynamicObject) wr.getPromiseCapability().getResolve();
+        assert JSFunction.isJSFunction(resolve);
+        Object result = wr.getResult();
+        JSFunction.call(JSArguments.createOneArg(Undefined.instance, resolve, result));
     }
 
     /**
@@ -240,20 +312,23 @@ public abstract class JSAgent {
 
     @TruffleBoundary
     public int getAsyncWaitersToBeResolved(JSAgentWaiterListEntry wl) {
-        int result = 0;
-        for (WaiterRecord wr : waitAsyncJobsQueue) {
-            if (wr.getWaiterListEntry() == wl) {
-                wl.enterCriticalSection();
-                try {
-                    if (wr.isReadyToResolve()) {
-                        result++;
-                    }
-                } finally {
-                    wl.leaveCriticalSection();
+        int[] result = new int[1];
+        wl.enterCriticalSection();
+        try {
+            for (WaiterRecord wr : notifiedWaitAsyncJobsQueue) {
+                if (wr.getWaiterListEntry() == wl) {
+                    result[0]++;
                 }
             }
+            waitAsyncTimerWheel.forEach(wr -> {
+                if (wr.getWaiterListEntry() == wl && !wr.isNotified() && wr.isReadyToResolve()) {
+                    result[0]++;
+                }
+            });
+        } finally {
+            wl.leaveCriticalSection();
         }
-        return result;
+        return result[0];
     }
 
     // Used by TestV8 only
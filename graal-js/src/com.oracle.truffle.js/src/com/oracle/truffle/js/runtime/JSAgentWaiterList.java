@@ -40,8 +40,8 @@
  */
 package com.oracle.truffle.js.runtime;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -55,24 +55,103 @@ import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
  */
 public class JSAgentWaiterList {
 
-    private final Map<Integer, JSAgentWaiterListEntry> waiters;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(JSAgentWaiterListEntry[].class);
+
+    /**
+     * Open-addressed hash table of waiter lists, keyed by byte index. Lists are created on first
+     * use by a waiter and never removed, so lookups can probe without locking; insertions and
+     * resizing are synchronized. Slots are published with volatile semantics.
+     */
+    private volatile JSAgentWaiterListEntry[] entries;
+    private int entryCount;
 
     private final ReentrantLock atomicSection;
 
     @TruffleBoundary
     public JSAgentWaiterList() {
-        this.waiters = new ConcurrentHashMap<>();
         this.atomicSection = new ReentrantLock();
     }
 
+    /**
+     * Returns the waiter list for the given byte index, creating it if necessary.
+     */
     @TruffleBoundary
     public JSAgentWaiterListEntry getListForIndex(int indexPos) {
-        JSAgentWaiterListEntry list = Boundaries.mapPutIfAbsent(waiters, indexPos, new JSAgentWaiterListEntry());
-        if (list == null) {
-            return Boundaries.mapGet(waiters, indexPos);
-        } else {
+        JSAgentWaiterListEntry list = getListForIndexIfPresent(indexPos);
+        if (list != null) {
             return list;
         }
+        return createListForIndex(indexPos);
+    }
+
+    private synchronized JSAgentWaiterListEntry createListForIndex(int indexPos) {
+        JSAgentWaiterListEntry list = getListForIndexIfPresent(indexPos);
+        if (list == null) {
+            list = new JSAgentWaiterListEntry(indexPos);
+            insert(list);
+        }
+        return list;
+    }
+
+    /**
+     * Returns the waiter list for the given byte index, or {@code null} if no agent has ever
+     * waited on it (in which case there is nothing to notify). Does not allocate.
+     */
+    @TruffleBoundary
+    public JSAgentWaiterListEntry getListForIndexIfPresent(int indexPos) {
+        JSAgentWaiterListEntry[] table = entries;
+        while (table != null) {
+            int mask = table.length - 1;
+            for (int i = hash(indexPos) & mask;; i = (i + 1) & mask) {
+                JSAgentWaiterListEntry entry = (JSAgentWaiterListEntry) ENTRIES.getVolatile(table, i);
+                if (entry == null) {
+                    break;
+                } else if (entry.indexPos == indexPos) {
+                    return entry;
+                }
+            }
+            JSAgentWaiterListEntry[] current = entries;
+            if (current == table) {
+                return null;
+            }
+            // resized concurrently, retry with the new table
+            table = current;
+        }
+        return null;
+    }
+
+    private void insert(JSAgentWaiterListEntry list) {
+        assert Thread.holdsLock(this);
+        JSAgentWaiterListEntry[] table = entries;
+        if (table == null) {
+            table = new JSAgentWaiterListEntry[INITIAL_CAPACITY];
+        } else if ((entryCount + 1) * 2 > table.length) {
+            JSAgentWaiterListEntry[] newTable = new JSAgentWaiterListEntry[table.length * 2];
+            for (JSAgentWaiterListEntry entry : table) {
+                if (entry != null) {
+                    putEntry(newTable, entry);
+                }
+            }
+            table = newTable;
+        }
+        putEntry(table, list);
+        entryCount++;
+        entries = table;
+    }
+
+    private static void putEntry(JSAgentWaiterListEntry[] table, JSAgentWaiterListEntry entry) {
+        int mask = table.length - 1;
+        int i = hash(entry.indexPos) & mask;
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        ENTRIES.setVolatile(table, i, entry);
+    }
+
+    private static int hash(int indexPos) {
+        int h = indexPos * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 
     @TruffleBoundary
@@ -95,11 +174,13 @@ public class JSAgentWaiterList {
 
         private static final long serialVersionUID = 2655886588267252886L;
 
+        private final int indexPos;
         private final ReentrantLock criticalSection;
         private final Condition waitCondition;
 
         @TruffleBoundary
-        public JSAgentWaiterListEntry() {
+        JSAgentWaiterListEntry(int indexPos) {
+            this.indexPos = indexPos;
             this.criticalSection = new ReentrantLock();
             this.waitCondition = criticalSection.newCondition();
         }
@@ -138,6 +219,11 @@ public class JSAgentWaiterList {
         private long creationTimestamp;
         private boolean notified;
 
+        // WaitAsyncTimerWheel links, only accessed by the waiting agent
+        int wheelSlot = -1;
+        WaiterRecord wheelPrev;
+        WaiterRecord wheelNext;
+
         private WaiterRecord(int agentSignifier, PromiseCapabilityRecord promiseCapability, double timeout, TruffleString result, JSAgentWaiterListEntry wl, JSAgent agent) {
             this.agentSignifier = agentSignifier;
             this.promiseCapability = promiseCapability;
@@ -185,6 +271,15 @@ public class JSAgentWaiterList {
             return creationTimestamp;
         }
 
+        /**
+         * Time (in milliseconds) at which this waiter times out, consistent with
+         * {@link #isReadyToResolve()}.
+         */
+        public long getDeadline() {
+            double t = Math.ceil(timeout);
+            return t >= Long.MAX_VALUE / 2 ? Long.MAX_VALUE / 2 : creationTimestamp + (long) t;
+        }
+
         public void setNotified() {
             assert wl.inCriticalSection();
             assert !notified;
@@ -209,7 +304,7 @@ public class JSAgentWaiterList {
         }
 
         public void enqueueInAgent() {
-            agent.enqueueWaitAsyncPromiseJob(this);
+            agent.enqueueNotifiedWaitAsyncPromiseJob(this);
         }
 
         public JSAgent getAgent() {
@@ -84,6 +84,10 @@ public final class JSConfig {
     /** Default cache limit for dispatched InteropLibrary. */
     public static final int InteropLibraryLimit = 5;
     public static final int PropertyCacheLimit = 5;
+    /** Use a (shape, key) lookup cache shared by all megamorphic property accesses. */
+    public static final boolean MegamorphicPropertyCache = true;
+    /** Number of entries of the megamorphic property cache; must be a power of 2. */
+    public static final int MegamorphicPropertyCacheSize = 1024;
     public static final int FunctionCacheLimit = 4;
     public static final boolean AssertFinalPropertySpecialization = false;
     /** Try to cache by function object instead of call target. */
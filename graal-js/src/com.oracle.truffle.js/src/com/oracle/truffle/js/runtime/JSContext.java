@@ -74,10 +74,12 @@ import com.oracle.truffle.api.instrumentation.AllocationReporter;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.js.builtins.commonjs.ModuleResolutionCache;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
 import com.oracle.truffle.js.nodes.promise.BuiltinPromiseRejectionTracker;
+import com.oracle.truffle.js.nodes.promise.PromiseJobsDrainRootNode;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.array.TypedArrayFactory;
 import com.oracle.truffle.js.runtime.builtins.Builtin;
@@ -117,6 +119,7 @@ import com.oracle.truffle.js.runtime.builtins.JSWeakMap;
 import com.oracle.truffle.js.runtime.builtins.JSWeakRef;
 import com.oracle.truffle.js.runtime.builtins.JSWeakSet;
 import com.oracle.truffle.js.runtime.builtins.PrototypeSupplier;
+import com.oracle.truffle.js.runtime.builtins.intl.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.builtins.intl.JSCollator;
 import com.oracle.truffle.js.runtime.builtins.intl.JSDateTimeFormat;
 import com.oracle.truffle.js.runtime.builtins.intl.JSDisplayNames;
@@ -149,11 +152,16 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSPrototypeData;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.JSShapeData;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionJobRecord;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.CompilableBiFunction;
+import com.oracle.truffle.js.runtime.util.CompiledRegexCache;
 import com.oracle.truffle.js.runtime.util.DebugJSAgent;
+import com.oracle.truffle.js.runtime.util.JSONObjectLayoutCache;
+import com.oracle.truffle.js.runtime.util.MegamorphicSiteReport;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TimeProfiler;
 
@@ -251,9 +259,11 @@ public class JSContext {
 
     private volatile CallTarget notConstructibleCallTargetCache;
     private volatile CallTarget generatorNotConstructibleCallTargetCache;
+    private volatile CallTarget promiseJobsDrainCallTargetCache;
 
     private static final VarHandle notConstructibleCallTargetVarHandle;
     private static final VarHandle generatorNotConstructibleCallTargetVarHandle;
+    private static final VarHandle promiseJobsDrainCallTargetVarHandle;
 
     // Used to track singleton symbols allocations across aux engine cache runs.
     private Object symbolUsageMarker = new Object();
@@ -335,6 +345,9 @@ public class JSContext {
         FunctionAsyncIterator,
         IsGraalRuntime,
         SetUnhandledPromiseRejectionHandler,
+        ParseJSONStream,
+        MegamorphicSiteReport,
+        InvalidateModuleResolutionCache,
         AsyncModuleExecutionFulfilled,
         AsyncModuleExecutionRejected,
         TopLevelAwaitResolve,
@@ -525,11 +538,42 @@ public class JSContext {
      */
     private final SharedRootNode sharedRootNode;
 
+    /**
+     * Object layouts (property key sequences) produced by JSON.parse.
+     */
+    private final JSONObjectLayoutCache jsonObjectLayoutCache = new JSONObjectLayoutCache();
+
+    /**
+     * Resolved Intl formatters used by toLocaleString and localeCompare (null if disabled).
+     */
+    private final IntlFormatterCache intlFormatterCache;
+
+    /**
+     * Module resolution cache shared by all realms (null unless js.module-resolution-cache=engine).
+     */
+    private final ModuleResolutionCache moduleResolutionCache;
+
+    /**
+     * Compiled regular expressions shared by all realms, or {@code null} if disabled.
+     */
+    private final CompiledRegexCache compiledRegexCache;
+
+    /**
+     * (shape, key) lookups of megamorphic property accesses.
+     */
+    private final MegamorphicPropertyCache megamorphicPropertyCache = JSConfig.MegamorphicPropertyCache ? new MegamorphicPropertyCache() : null;
+
+    /**
+     * Property access sites that went megamorphic, or {@code null} if not enabled.
+     */
+    private final MegamorphicSiteReport megamorphicSiteReport;
+
     static {
         MethodHandles.Lookup lookup = MethodHandles.lookup();
         try {
             notConstructibleCallTargetVarHandle = lookup.findVarHandle(JSContext.class, "notConstructibleCallTargetCache", CallTarget.class);
             generatorNotConstructibleCallTargetVarHandle = lookup.findVarHandle(JSContext.class, "generatorNotConstructibleCallTargetCache", CallTarget.class);
+            promiseJobsDrainCallTargetVarHandle = lookup.findVarHandle(JSContext.class, "promiseJobsDrainCallTargetCache", CallTarget.class);
         } catch (NoSuchFieldException | IllegalAccessException e) {
             throw Errors.shouldNotReachHere(e);
         }
@@ -705,6 +749,13 @@ public class JSContext {
         if (contextOptions.getUnhandledRejectionsMode() != JSContextOptions.UnhandledRejectionsTrackingMode.NONE) {
             setPromiseRejectionTracker(new BuiltinPromiseRejectionTracker(this, contextOptions.getUnhandledRejectionsMode()));
         }
+
+        int intlFormatterCacheSize = contextOptions.getIntlFormatterCacheSize();
+        this.intlFormatterCache = intlFormatterCacheSize > 0 ? new IntlFormatterCache(intlFormatterCacheSize) : null;
+        this.moduleResolutionCache = contextOptions.getModuleResolutionCacheMode() == JSContextOptions.ModuleResolutionCacheMode.ENGINE ? ModuleResolutionCache.create() : null;
+        int engineRegexCacheSize = contextOptions.getEngineRegexCacheSize();
+        this.compiledRegexCache = engineRegexCacheSize > 0 ? new CompiledRegexCache(engineRegexCacheSize) : null;
+        this.megamorphicSiteReport = contextOptions.isMegamorphicSiteReport() ? new MegamorphicSiteReport() : null;
     }
 
     public final Evaluator getEvaluator() {
@@ -855,6 +906,14 @@ public class JSContext {
         realm.getAgent().enqueuePromiseJob(job);
     }
 
+    /**
+     * ECMA 8.4.1 EnqueueJob for a PromiseReactionJob.
+     */
+    public final void promiseEnqueueJob(JSRealm realm, PromiseReactionJobRecord job) {
+        invalidatePromiseQueueNotUsedAssumption();
+        realm.getAgent().enqueuePromiseJob(job);
+    }
+
     public final void signalAsyncWaiterRecordUsage() {
         invalidatePromiseQueueNotUsedAssumption();
     }
@@ -1321,6 +1380,23 @@ public class JSContext {
         }
     }
 
+    /**
+     * CallTarget of the loop running the jobs of the PromiseJobs queue of an agent.
+     */
+    @TruffleBoundary
+    public CallTarget getPromiseJobsDrainCallTarget() {
+        CallTarget result = promiseJobsDrainCallTargetCache;
+        if (result != null) {
+            return result;
+        } else {
+            result = new PromiseJobsDrainRootNode(this).getCallTarget();
+            if (!promiseJobsDrainCallTargetVarHandle.compareAndSet(this, (CallTarget) null, result)) {
+                result = promiseJobsDrainCallTargetCache;
+            }
+            return Objects.requireNonNull(result);
+        }
+    }
+
     private static RootCallTarget createNotConstructibleCallTarget(JavaScriptLanguage lang, boolean generator, JSContext context) {
         return new JavaScriptRootNode(lang, null, null) {
             @Override
@@ -1876,4 +1952,32 @@ public class JSContext {
     public static TruffleString getTypeImportAssertion() {
         return TYPE_IMPORT_ASSERTION;
     }
+
+    public JSONObjectLayoutCache getJSONObjectLayoutCache() {
+        return jsonObjectLayoutCache;
+    }
+
+    /**
+     * Returns the (shape, key) lookup cache of megamorphic property accesses, or {@code null} if
+     * disabled.
+     */
+    public MegamorphicPropertyCache getMegamorphicPropertyCache() {
+        return megamorphicPropertyCache;
+    }
+
+    public MegamorphicSiteReport getMegamorphicSiteReport() {
+        return megamorphicSiteReport;
+    }
+
+    public IntlFormatterCache getIntlFormatterCache() {
+        return intlFormatterCache;
+    }
+
+    public ModuleResolutionCache getEngineModuleResolutionCache() {
+        return moduleResolutionCache;
+    }
+
+    public CompiledRegexCache getCompiledRegexCache() {
+        return compiledRegexCache;
+    }
 }
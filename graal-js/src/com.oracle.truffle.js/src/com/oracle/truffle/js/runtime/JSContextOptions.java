@@ -49,6 +49,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -618,6 +619,61 @@ public final class JSContextOptions {
     public static final OptionKey<Boolean> SCOPE_OPTIMIZATION = new OptionKey<>(true);
     @CompilationFinal private boolean scopeOptimization;
 
+    public static final String JSON_PARSE_LAYOUT_CACHE_NAME = JS_OPTION_PREFIX + "json-parse-layout-cache";
+    @Option(name = JSON_PARSE_LAYOUT_CACHE_NAME, category = OptionCategory.INTERNAL, help = "Cache the object layouts produced by JSON.parse.") //
+    public static final OptionKey<Boolean> JSON_PARSE_LAYOUT_CACHE = new OptionKey<>(true);
+    @CompilationFinal private boolean jsonParseLayoutCache;
+
+    public static final String INTL_FORMATTER_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "intl-formatter-cache-size";
+    @Option(name = INTL_FORMATTER_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, usageSyntax = "<int>", help = "Maximum number of Intl formatters cached for toLocaleString and localeCompare calls without options (0 disables the cache).") //
+    public static final OptionKey<Integer> INTL_FORMATTER_CACHE_SIZE = new OptionKey<>(32);
+    @CompilationFinal private int intlFormatterCacheSize;
+
+    public enum ModuleResolutionCacheMode {
+        NONE,
+        REALM,
+        ENGINE;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    public static final String MODULE_RESOLUTION_CACHE_NAME = JS_OPTION_PREFIX + "module-resolution-cache";
+    @Option(name = MODULE_RESOLUTION_CACHE_NAME, category = OptionCategory.EXPERT, help = "" +
+                    "Cache file lookups, package.json contents and canonical paths of CommonJS and ES module resolution. Accepted values: " +
+                    "'none', no caching. 'realm', one cache per realm. 'engine', one cache shared by all contexts of an engine " +
+                    "(requires that they use the same file system). Changes to the file system are not noticed once cached, " +
+                    "until Graal.invalidateModuleResolutionCache() is called.") //
+    public static final OptionKey<ModuleResolutionCacheMode> MODULE_RESOLUTION_CACHE = new OptionKey<>(ModuleResolutionCacheMode.NONE);
+    @CompilationFinal private ModuleResolutionCacheMode moduleResolutionCacheMode;
+
+    public static final String CODE_CACHE_DIR_NAME = JS_OPTION_PREFIX + "code-cache-dir";
+    @Option(name = CODE_CACHE_DIR_NAME, category = OptionCategory.EXPERT, usageSyntax = "<path>", help = "" +
+                    "Directory in which translated scripts are cached, keyed by source content and options. Disabled if empty.") //
+    public static final OptionKey<String> CODE_CACHE_DIR = new OptionKey<>("");
+
+    public static final String ENGINE_REGEX_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "engine-regex-cache-size";
+    @Option(name = ENGINE_REGEX_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, usageSyntax = "<int>", help = "Maximum number of compiled regular expressions cached for all contexts that share the engine (0 disables the cache).") //
+    public static final OptionKey<Integer> ENGINE_REGEX_CACHE_SIZE = new OptionKey<>(256);
+    @CompilationFinal private int engineRegexCacheSize;
+
+    public static final String LAZY_PARSING_NAME = JS_OPTION_PREFIX + "lazy-parsing";
+    @Option(name = LAZY_PARSING_NAME, category = OptionCategory.INTERNAL, help = "Skip inner function bodies on the first parse and build their AST on first invocation (requires lazy-translation).") //
+    public static final OptionKey<Boolean> LAZY_PARSING = new OptionKey<>(false);
+    @CompilationFinal private boolean lazyParsing;
+
+    public static final String MEGAMORPHIC_SITE_REPORT_NAME = JS_OPTION_PREFIX + "megamorphic-site-report";
+    @Option(name = MEGAMORPHIC_SITE_REPORT_NAME, category = OptionCategory.EXPERT, help = "Record property access sites that become megamorphic; the report is available via Graal.megamorphicSiteReport().") //
+    public static final OptionKey<Boolean> MEGAMORPHIC_SITE_REPORT = new OptionKey<>(false);
+    @CompilationFinal private boolean megamorphicSiteReport;
+
+    public static final String ESM_PREFETCH_THREADS_NAME = JS_OPTION_PREFIX + "esm-prefetch-threads";
+    @Option(name = ESM_PREFETCH_THREADS_NAME, category = OptionCategory.EXPERT, usageSyntax = "<int>", help = "Number of background threads used to read and parse statically imported ES modules ahead of linking (0 disables prefetching).") //
+    public static final OptionKey<Integer> ESM_PREFETCH_THREADS = new OptionKey<>(0);
+    @CompilationFinal private int esmPrefetchThreads;
+
     JSContextOptions(JSParserOptions parserOptions, OptionValues optionValues) {
         this.parserOptions = parserOptions;
         this.optionValues = optionValues;
@@ -724,6 +780,13 @@ public final class JSContextOptions {
         this.propertyCacheLimit = readIntegerOption(PROPERTY_CACHE_LIMIT);
         this.functionCacheLimit = readIntegerOption(FUNCTION_CACHE_LIMIT);
         this.scopeOptimization = readBooleanOption(SCOPE_OPTIMIZATION);
+        this.jsonParseLayoutCache = readBooleanOption(JSON_PARSE_LAYOUT_CACHE);
+        this.intlFormatterCacheSize = readIntegerOption(INTL_FORMATTER_CACHE_SIZE);
+        this.moduleResolutionCacheMode = MODULE_RESOLUTION_CACHE.getValue(optionValues);
+        this.engineRegexCacheSize = readIntegerOption(ENGINE_REGEX_CACHE_SIZE);
+        this.lazyParsing = readBooleanOption(LAZY_PARSING);
+        this.megamorphicSiteReport = readBooleanOption(MEGAMORPHIC_SITE_REPORT);
+        this.esmPrefetchThreads = readIntegerOption(ESM_PREFETCH_THREADS);
     }
 
     private boolean patchBooleanOption(OptionKey<Boolean> key, String name, boolean oldValue, Consumer<String> invalidate) {
@@ -954,6 +1017,11 @@ public final class JSContextOptions {
         return COMMONJS_REQUIRE_CWD.getValue(optionValues);
     }
 
+    public String getCodeCacheDir() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option code-cache-dir was assumed not to be accessed in compiled code.");
+        return CODE_CACHE_DIR.getValue(optionValues);
+    }
+
     public boolean isPerformance() {
         CompilerAsserts.neverPartOfCompilation("Context patchable option performance was assumed not to be accessed in compiled code.");
         return PERFORMANCE.getValue(optionValues) || (!PERFORMANCE.hasBeenSet(optionValues) && isShell());
@@ -1146,6 +1214,51 @@ public final class JSContextOptions {
         return scopeOptimization;
     }
 
+    public boolean isJSONParseLayoutCache() {
+        return jsonParseLayoutCache;
+    }
+
+    public int getIntlFormatterCacheSize() {
+        return intlFormatterCacheSize;
+    }
+
+    public ModuleResolutionCacheMode getModuleResolutionCacheMode() {
+        return moduleResolutionCacheMode;
+    }
+
+    public int getEngineRegexCacheSize() {
+        return engineRegexCacheSize;
+    }
+
+    public boolean isLazyParsing() {
+        return lazyParsing;
+    }
+
+    public boolean isMegamorphicSiteReport() {
+        return megamorphicSiteReport;
+    }
+
+    public int getEsmPrefetchThreads() {
+        return esmPrefetchThreads;
+    }
+
+    /**
+     * Returns a description of the explicitly set options (except {@code js.code-cache-dir}).
+     * Unlike {@link #hashCode()}, it is the same in every run, so it can be part of a persistent
+     * cache key. Options that have not been set are determined by the GraalJS version.
+     */
+    public String getStableOptionsKey() {
+        CompilerAsserts.neverPartOfCompilation();
+        Map<String, String> setOptions = new TreeMap<>();
+        for (OptionDescriptor descriptor : optionValues.getDescriptors()) {
+            OptionKey<?> key = descriptor.getKey();
+            if (key != CODE_CACHE_DIR && key.hasBeenSet(optionValues)) {
+                setOptions.put(descriptor.getName(), String.valueOf(key.getValue(optionValues)));
+            }
+        }
+        return setOptions.toString();
+    }
+
     @Override
     public int hashCode() {
         int hash = 5;
@@ -1212,6 +1325,13 @@ public final class JSContextOptions {
         hash = 53 * hash + (this.esmBareSpecifierRelativeLookup ? 1 : 0);
         hash = 53 * hash + (this.temporal ? 1 : 0);
         hash = 53 * hash + (this.scopeOptimization ? 1 : 0);
+        hash = 53 * hash + (this.jsonParseLayoutCache ? 1 : 0);
+        hash = 53 * hash + this.intlFormatterCacheSize;
+        hash = 53 * hash + this.moduleResolutionCacheMode.ordinal();
+        hash = 53 * hash + this.engineRegexCacheSize;
+        hash = 53 * hash + (this.lazyParsing ? 1 : 0);
+        hash = 53 * hash + (this.megamorphicSiteReport ? 1 : 0);
+        hash = 53 * hash + this.esmPrefetchThreads;
         return hash;
     }
 
@@ -1413,6 +1533,27 @@ public final class JSContextOptions {
         if (this.scopeOptimization != other.scopeOptimization) {
             return false;
         }
+        if (this.jsonParseLayoutCache != other.jsonParseLayoutCache) {
+            return false;
+        }
+        if (this.intlFormatterCacheSize != other.intlFormatterCacheSize) {
+            return false;
+        }
+        if (this.moduleResolutionCacheMode != other.moduleResolutionCacheMode) {
+            return false;
+        }
+        if (this.engineRegexCacheSize != other.engineRegexCacheSize) {
+            return false;
+        }
+        if (this.lazyParsing != other.lazyParsing) {
+            return false;
+        }
+        if (this.megamorphicSiteReport != other.megamorphicSiteReport) {
+            return false;
+        }
+        if (this.esmPrefetchThreads != other.esmPrefetchThreads) {
+            return false;
+        }
         return Objects.equals(this.parserOptions, other.parserOptions);
     }
 }
@@ -110,8 +110,10 @@ import com.oracle.truffle.js.builtins.RegExpStringIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.SetIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.StringIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.commonjs.GlobalCommonJSRequireBuiltins;
+import com.oracle.truffle.js.builtins.commonjs.ModuleResolutionCache;
 import com.oracle.truffle.js.builtins.commonjs.NpmCompatibleESModuleLoader;
 import com.oracle.truffle.js.builtins.foreign.ForeignIterablePrototypeBuiltins;
+import com.oracle.truffle.js.builtins.helper.TruffleJSONStreamParser;
 import com.oracle.truffle.js.builtins.temporal.TemporalNowBuiltins;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
@@ -204,6 +206,7 @@ import com.oracle.truffle.js.runtime.util.PrintWriterWrapper;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TemporalConstants;
+import com.oracle.truffle.js.runtime.util.TimeZoneOffsetCache;
 
 /**
  * Container for JavaScript globals (i.e. an ECMAScript 6 Realm object).
@@ -466,6 +469,10 @@ public class JSRealm {
      */
     private ZoneId localTimeZoneId;
     private TimeZone localTimeZone;
+    /**
+     * Offset cache of the local time zone. Initialized lazily, reset when the time zone changes.
+     */
+    private TimeZoneOffsetCache localTimeZoneOffsetCache;
 
     // local time zone independent formats; initialized once
     @CompilationFinal private DateFormat jsDateFormat;
@@ -490,6 +497,7 @@ public class JSRealm {
 
     private final JSConsoleUtil consoleUtil;
     private JSModuleLoader moduleLoader;
+    private ModuleResolutionCache moduleResolutionCache;
     private long lastAsyncEvaluationOrder;
 
     /**
@@ -1124,6 +1132,7 @@ public class JSRealm {
     public final void dispose() {
         this.globalObject = Undefined.instance;
         this.topScope = TopScopeObject.empty();
+        terminateModuleLoader();
     }
 
     public final JSFunctionObject getObjectConstructor() {
@@ -1993,10 +2002,18 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(context, graalObject, Strings.VERSION_GRAAL_VM, GRAALVM_VERSION, flags);
         JSObjectUtil.putDataProperty(context, graalObject, Strings.VERSION_ECMA_SCRIPT, esVersion, flags);
         JSObjectUtil.putDataProperty(context, graalObject, Strings.IS_GRAAL_RUNTIME, JSFunction.create(this, isGraalRuntimeFunction(context)), flags);
+        JSObjectUtil.putDataProperty(context, graalObject, Strings.PARSE_JSON_STREAM, JSFunction.create(this, parseJSONStreamFunction(context)), flags);
         if (options.getUnhandledRejectionsMode() == JSContextOptions.UnhandledRejectionsTrackingMode.HANDLER) {
             JSFunctionObject registerFunction = JSFunction.create(this, setUnhandledPromiseRejectionHandlerFunction(context));
             JSObjectUtil.putDataProperty(context, graalObject, Strings.SET_UNHANDLED_PROMISE_REJECTION_HANDLER, registerFunction, flags);
         }
+        if (getContext().getMegamorphicSiteReport() != null) {
+            JSObjectUtil.putDataProperty(context, graalObject, Strings.MEGAMORPHIC_SITE_REPORT, JSFunction.create(this, megamorphicSiteReportFunction(context)), flags);
+        }
+        if (options.getModuleResolutionCacheMode() != JSContextOptions.ModuleResolutionCacheMode.NONE) {
+            JSFunctionObject invalidateFunction = JSFunction.create(this, invalidateModuleResolutionCacheFunction(context));
+            JSObjectUtil.putDataProperty(context, graalObject, Strings.INVALIDATE_MODULE_RESOLUTION_CACHE, invalidateFunction, flags);
+        }
         putGlobalProperty(Strings.GRAAL, graalObject);
     }
 
@@ -2022,6 +2039,77 @@ public class JSRealm {
         });
     }
 
+    /**
+     * Graal.parseJSONStream(source, [callback], [format]): parses JSON incrementally from a host
+     * Reader, InputStream or ByteBuffer or from an ArrayBuffer, optionally passing top-level array
+     * elements (or NDJSON values if format is "ndjson") to the callback one at a time.
+     */
+    private static JSFunctionData parseJSONStreamFunction(JSContext context) {
+        return context.getOrCreateBuiltinFunctionData(BuiltinFunctionKey.ParseJSONStream, (c) -> {
+            return JSFunctionData.createCallOnly(c, new JavaScriptRootNode(c.getLanguage(), null, null) {
+                @Override
+                public Object execute(VirtualFrame frame) {
+                    Object[] args = frame.getArguments();
+                    int argCount = JSArguments.getUserArgumentCount(args);
+                    Object source = argCount > 0 ? JSArguments.getUserArgument(args, 0) : Undefined.instance;
+                    Object callback = argCount > 1 ? JSArguments.getUserArgument(args, 1) : Undefined.instance;
+                    Object format = argCount > 2 ? JSArguments.getUserArgument(args, 2) : Undefined.instance;
+                    return TruffleJSONStreamParser.parseStream(c, getRealm(), source, callback, toFormat(format));
+                }
+
+                @TruffleBoundary
+                private TruffleJSONStreamParser.Format toFormat(Object format) {
+                    if (format == Undefined.instance) {
+                        return TruffleJSONStreamParser.Format.JSON;
+                    }
+                    TruffleString formatName = JSRuntime.toString(format);
+                    if (Strings.equals(Strings.JSON, formatName)) {
+                        return TruffleJSONStreamParser.Format.JSON;
+                    } else if (Strings.equals(Strings.NDJSON, formatName)) {
+                        return TruffleJSONStreamParser.Format.NDJSON;
+                    }
+                    throw Errors.createRangeError("Unsupported JSON stream format: " + JSRuntime.safeToString(format));
+                }
+            }.getCallTarget(), 1, Strings.PARSE_JSON_STREAM);
+        });
+    }
+
+    /**
+     * Graal.megamorphicSiteReport(): returns the property access sites that went megamorphic so far
+     * as text, one site per line (only with js.megamorphic-site-report).
+     */
+    private static JSFunctionData megamorphicSiteReportFunction(JSContext context) {
+        return context.getOrCreateBuiltinFunctionData(BuiltinFunctionKey.MegamorphicSiteReport, (c) -> {
+            return JSFunctionData.createCallOnly(c, new JavaScriptRootNode(c.getLanguage(), null, null) {
+                @Override
+                public Object execute(VirtualFrame frame) {
+                    return dump(c);
+                }
+
+                @TruffleBoundary
+                private TruffleString dump(JSContext ctx) {
+                    return Strings.fromJavaString(ctx.getMegamorphicSiteReport().dump());
+                }
+            }.getCallTarget(), 0, Strings.MEGAMORPHIC_SITE_REPORT);
+        });
+    }
+
+    /**
+     * Graal.invalidateModuleResolutionCache(): drops the cached file lookups of module resolution,
+     * e.g., after modules have been added (only with js.module-resolution-cache).
+     */
+    private static JSFunctionData invalidateModuleResolutionCacheFunction(JSContext context) {
+        return context.getOrCreateBuiltinFunctionData(BuiltinFunctionKey.InvalidateModuleResolutionCache, (c) -> {
+            return JSFunctionData.createCallOnly(c, new JavaScriptRootNode(c.getLanguage(), null, null) {
+                @Override
+                public Object execute(VirtualFrame frame) {
+                    getRealm().getModuleResolutionCache().invalidate();
+                    return Undefined.instance;
+                }
+            }.getCallTarget(), 0, Strings.INVALIDATE_MODULE_RESOLUTION_CACHE);
+        });
+    }
+
     private static JSFunctionData isGraalRuntimeFunction(JSContext context) {
         return context.getOrCreateBuiltinFunctionData(BuiltinFunctionKey.IsGraalRuntime, (c) -> {
             return JSFunctionData.createCallOnly(context, new JavaScriptRootNode(context.getLanguage(), null, null) {
@@ -2436,6 +2524,7 @@ public class JSRealm {
         if (localTimeZoneId != null) {
             localTimeZoneId = getTimeZoneFromEnv();
         }
+        localTimeZoneOffsetCache = null;
         initTimeOffsetAndRandom();
 
         // Patch the RegExp constructor's static result properties
@@ -2652,6 +2741,16 @@ public class JSRealm {
         return moduleLoader;
     }
 
+    /**
+     * Stops background work of the module loader, if it has been created.
+     */
+    @TruffleBoundary
+    public synchronized void terminateModuleLoader() {
+        if (moduleLoader instanceof DefaultESModuleLoader) {
+            ((DefaultESModuleLoader) moduleLoader).terminate();
+        }
+    }
+
     @TruffleBoundary
     private synchronized void createModuleLoader() {
         if (moduleLoader == null) {
@@ -2663,6 +2762,34 @@ public class JSRealm {
         }
     }
 
+    /**
+     * Returns the cache for file system lookups of module resolution, which does not cache
+     * anything unless enabled by js.module-resolution-cache.
+     */
+    public ModuleResolutionCache getModuleResolutionCache() {
+        if (moduleResolutionCache == null) {
+            createModuleResolutionCache();
+        }
+        return moduleResolutionCache;
+    }
+
+    @TruffleBoundary
+    private synchronized void createModuleResolutionCache() {
+        if (moduleResolutionCache == null) {
+            switch (context.getContextOptions().getModuleResolutionCacheMode()) {
+                case REALM:
+                    moduleResolutionCache = ModuleResolutionCache.create();
+                    break;
+                case ENGINE:
+                    moduleResolutionCache = context.getEngineModuleResolutionCache();
+                    break;
+                default:
+                    moduleResolutionCache = ModuleResolutionCache.UNCACHED;
+                    break;
+            }
+        }
+    }
+
     public final JSAgent getAgent() {
         assert agent != null;
         return agent;
@@ -2687,6 +2814,21 @@ public class JSRealm {
         return IntlUtil.getICUTimeZone(getLocalTimeZoneId(), getContext());
     }
 
+    public TimeZoneOffsetCache getLocalTimeZoneOffsetCache() {
+        TimeZoneOffsetCache cache = localTimeZoneOffsetCache;
+        if (CompilerDirectives.injectBranchProbability(SLOWPATH_PROBABILITY, cache == null)) {
+            cache = createLocalTimeZoneOffsetCache();
+        }
+        return cache;
+    }
+
+    @TruffleBoundary
+    private TimeZoneOffsetCache createLocalTimeZoneOffsetCache() {
+        TimeZoneOffsetCache cache = new TimeZoneOffsetCache(getLocalTimeZone());
+        localTimeZoneOffsetCache = cache;
+        return cache;
+    }
+
     public ZoneId getLocalTimeZoneId() {
         ZoneId id = localTimeZoneId;
         if (CompilerDirectives.injectBranchProbability(SLOWPATH_PROBABILITY, id == null)) {
@@ -3090,6 +3232,7 @@ public class JSRealm {
         }
         localTimeZoneId = newZoneId;
         localTimeZone = newTimeZone;
+        localTimeZoneOffsetCache = null;
 
         // Clear local time zone dependent date/time formats, so that they are updated on next use.
         jsDateToStringFormat = null;
@@ -87,6 +87,7 @@ import com.oracle.truffle.js.runtime.builtins.JSSet;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.builtins.JSSymbol;
 import com.oracle.truffle.js.runtime.doubleconv.DoubleConversion;
+import com.oracle.truffle.js.runtime.doubleconv.DtoaBuffer;
 import com.oracle.truffle.js.runtime.external.DToA;
 import com.oracle.truffle.js.runtime.interop.InteropFunction;
 import com.oracle.truffle.js.runtime.interop.JSInteropUtil;
@@ -1369,7 +1370,7 @@ public final class JSRuntime {
             return Strings.fromInt((int) d);
         }
 
-        return Strings.fromJavaString(formatDtoA(d));
+        return formatDtoAShortest(d);
     }
 
     @TruffleBoundary
@@ -1377,6 +1378,29 @@ public final class JSRuntime {
         return DoubleConversion.toShortest(value);
     }
 
+    /**
+     * Converts a finite double to its shortest string representation, without going through an
+     * intermediate {@link String}.
+     */
+    @TruffleBoundary
+    public static TruffleString formatDtoAShortest(double value) {
+        char[] chars = new char[DoubleConversion.kMaxShortestLength];
+        int length = formatDtoA(value, new DtoaBuffer(DtoaBuffer.kFastDtoaMaximalLength), chars);
+        return Strings.fromCharArray(chars, 0, length);
+    }
+
+    /**
+     * Writes the shortest string representation of a finite double into {@code chars}, reusing
+     * the given digit buffer.
+     *
+     * @param chars destination of at least {@link DoubleConversion#kMaxShortestLength} capacity
+     * @return the number of characters written
+     */
+    @TruffleBoundary
+    public static int formatDtoA(double value, DtoaBuffer buffer, char[] chars) {
+        return DoubleConversion.toShortest(value, buffer, chars);
+    }
+
     @TruffleBoundary
     public static Object formatDtoAPrecision(double value, int precision) {
         return Strings.fromJavaString(DoubleConversion.toPrecision(value, precision));
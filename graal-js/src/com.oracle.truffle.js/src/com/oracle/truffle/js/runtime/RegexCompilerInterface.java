@@ -47,6 +47,7 @@ import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.js.runtime.util.CompiledRegexCache;
 
 public final class RegexCompilerInterface {
     private static final String REPEATED_REG_EXP_FLAG_MSG = "Repeated RegExp flag: %c";
@@ -79,6 +80,15 @@ public final class RegexCompilerInterface {
         if (compiledRegex != null) {
             return compiledRegex;
         }
+        CompiledRegexCache engineCache = context.getCompiledRegexCache();
+        String regexSourceKey = engineCache == null ? null : regexSource.getCharacters().toString();
+        if (engineCache != null) {
+            compiledRegex = engineCache.get(regexSourceKey);
+            if (compiledRegex != null) {
+                realm.putCachedCompiledRegex(regexSource, compiledRegex);
+                return compiledRegex;
+            }
+        }
         // RegexLanguage does its own validation of the flags. This call to validateFlags only
         // serves the purpose of mimicking the error messages of Nashorn and V8.
         validateFlags(flags, context.getEcmaScriptVersion(), context.isOptionNashornCompatibilityMode(), context.isOptionRegexpMatchIndices());
@@ -88,6 +98,9 @@ public final class RegexCompilerInterface {
         } catch (AbstractTruffleException e) {
             throw rethrowAsSyntaxError(e);
         }
+        if (engineCache != null) {
+            engineCache.put(regexSourceKey, compiledRegex);
+        }
         return compiledRegex;
     }
 
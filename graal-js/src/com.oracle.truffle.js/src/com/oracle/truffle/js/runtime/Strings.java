@@ -199,6 +199,7 @@ public final class Strings {
     public static final TruffleString MODULE = constant("module");
     public static final TruffleString NAME = constant("name");
     public static final TruffleString NATIVE = constant("native");
+    public static final TruffleString NDJSON = constant("ndjson");
     public static final TruffleString NEG = constant("neg");
     public static final TruffleString NEXT = constant("next");
     public static final TruffleString NOW = constant("now");
@@ -466,6 +467,9 @@ public final class Strings {
     public static final TruffleString VERSION_ECMA_SCRIPT = constant("versionECMAScript");
     public static final TruffleString IS_GRAAL_RUNTIME = constant("isGraalRuntime");
     public static final TruffleString SET_UNHANDLED_PROMISE_REJECTION_HANDLER = constant("setUnhandledPromiseRejectionHandler");
+    public static final TruffleString PARSE_JSON_STREAM = constant("parseJSONStream");
+    public static final TruffleString MEGAMORPHIC_SITE_REPORT = constant("megamorphicSiteReport");
+    public static final TruffleString INVALIDATE_MODULE_RESOLUTION_CACHE = constant("invalidateModuleResolutionCache");
     public static final TruffleString UC_PACKAGES = constant("Packages");
     public static final TruffleString JAVA = constant("java");
     public static final TruffleString JAVAFX = constant("javafx");
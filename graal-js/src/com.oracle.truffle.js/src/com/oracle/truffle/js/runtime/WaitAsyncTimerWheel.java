@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.oracle.truffle.js.runtime.JSAgentWaiterList.WaiterRecord;
+
+/**
+ * Hierarchical timer wheel indexing the pending {@code Atomics.waitAsync} waiters of an agent by
+ * their deadline (in milliseconds). Level {@code l} has {@value #SLOTS} slots covering
+ * {@code SLOTS^l} ticks each; waiters are moved to lower levels when their slot comes due, so
+ * advancing the wheel only touches the waiters whose deadline has passed. Deadlines beyond the
+ * range of the top level are re-scheduled when that level wraps around. Ticks at which all lower
+ * levels are empty are skipped.
+ *
+ * The waiters are linked through fields of {@link WaiterRecord}, so adding and removing a waiter
+ * does not allocate. Not thread-safe; used only by the agent owning the waiters.
+ */
+final class WaitAsyncTimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /** Heads of the waiter lists of all slots, level by level. */
+    private final WaiterRecord[] slots = new WaiterRecord[LEVELS * SLOTS];
+    /** Number of waiters per level. */
+    private final int[] levelSizes = new int[LEVELS];
+    /** Last tick that has been processed. */
+    private long currentTick;
+    private int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if the wheel contains waiters and has not been advanced to {@code now}
+     * yet, i.e., if some waiters may have timed out.
+     */
+    boolean isDue(long now) {
+        return size != 0 && now > currentTick;
+    }
+
+    void add(WaiterRecord waiter, long now) {
+        assert waiter.wheelSlot < 0;
+        if (size == 0) {
+            currentTick = now;
+        }
+        // slots up to currentTick have been processed already
+        insert(waiter, currentTick + 1);
+        size++;
+    }
+
+    void remove(WaiterRecord waiter) {
+        if (waiter.wheelSlot >= 0) {
+            unlink(waiter);
+            size--;
+        }
+    }
+
+    /**
+     * Advances the wheel to {@code now}, removing the waiters whose deadline has passed.
+     */
+    void advance(long now, List<WaiterRecord> expired) {
+        while (currentTick < now) {
+            if (size == 0) {
+                currentTick = now;
+                return;
+            }
+            int emptyLevels = 0;
+            while (emptyLevels < LEVELS - 1 && levelSizes[emptyLevels] == 0) {
+                emptyLevels++;
+            }
+            if (emptyLevels > 0) {
+                // nothing happens until the next slot of the first non-empty level comes due
+                long lastIdleTick = currentTick | ((1L << (SLOT_BITS * emptyLevels)) - 1);
+                if (lastIdleTick > currentTick) {
+                    currentTick = Math.min(now, lastIdleTick);
+                    continue;
+                }
+            }
+            long tick = ++currentTick;
+            int level = 0;
+            while (level + 1 < LEVELS && (tick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+                level++;
+            }
+            for (int l = level; l > 0; l--) {
+                cascade(l * SLOTS + (int) ((tick >>> (SLOT_BITS * l)) & SLOT_MASK), tick);
+            }
+            int index = (int) (tick & SLOT_MASK);
+            WaiterRecord waiter = slots[index];
+            slots[index] = null;
+            while (waiter != null) {
+                WaiterRecord next = waiter.wheelNext;
+                assert waiter.getDeadline() <= tick;
+                waiter.wheelSlot = -1;
+                waiter.wheelPrev = null;
+                waiter.wheelNext = null;
+                levelSizes[0]--;
+                size--;
+                expired.add(waiter);
+                waiter = next;
+            }
+        }
+    }
+
+    void forEach(Consumer<WaiterRecord> action) {
+        for (WaiterRecord head : slots) {
+            for (WaiterRecord waiter = head; waiter != null; waiter = waiter.wheelNext) {
+                action.accept(waiter);
+            }
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            WaiterRecord waiter = slots[i];
+            slots[i] = null;
+            while (waiter != null) {
+                WaiterRecord next = waiter.wheelNext;
+                waiter.wheelSlot = -1;
+                waiter.wheelPrev = null;
+                waiter.wheelNext = null;
+                waiter = next;
+            }
+        }
+        Arrays.fill(levelSizes, 0);
+        size = 0;
+    }
+
+    private void cascade(int index, long tick) {
+        WaiterRecord waiter = slots[index];
+        slots[index] = null;
+        while (waiter != null) {
+            WaiterRecord next = waiter.wheelNext;
+            waiter.wheelSlot = -1;
+            waiter.wheelPrev = null;
+            waiter.wheelNext = null;
+            levelSizes[index >> SLOT_BITS]--;
+            insert(waiter, tick);
+            waiter = next;
+        }
+    }
+
+    /**
+     * Links the waiter into the slot for its deadline, which is assumed to be at least
+     * {@code minTick} (the first tick not processed yet).
+     */
+    private void insert(WaiterRecord waiter, long minTick) {
+        long slotTick = Math.max(waiter.getDeadline(), minTick);
+        long delta = slotTick - currentTick;
+        if (delta > MAX_DELTA) {
+            slotTick = currentTick + MAX_DELTA;
+            delta = MAX_DELTA;
+        }
+        int level = 0;
+        while (delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = level * SLOTS + (int) ((slotTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        WaiterRecord head = slots[index];
+        waiter.wheelSlot = index;
+        waiter.wheelPrev = null;
+        waiter.wheelNext = head;
+        if (head != null) {
+            head.wheelPrev = waiter;
+        }
+        slots[index] = waiter;
+        levelSizes[level]++;
+    }
+
+    private void unlink(WaiterRecord waiter) {
+        WaiterRecord prev = waiter.wheelPrev;
+        WaiterRecord next = waiter.wheelNext;
+        if (prev == null) {
+            slots[waiter.wheelSlot] = next;
+        } else {
+            prev.wheelNext = next;
+        }
+        if (next != null) {
+            next.wheelPrev = prev;
+        }
+        levelSizes[waiter.wheelSlot >> SLOT_BITS]--;
+        waiter.wheelSlot = -1;
+        waiter.wheelPrev = null;
+        waiter.wheelNext = null;
+    }
+}
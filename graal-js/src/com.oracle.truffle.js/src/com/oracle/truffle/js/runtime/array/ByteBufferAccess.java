@@ -44,6 +44,8 @@ import java.lang.invoke.VarHandle;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
+import com.oracle.truffle.js.runtime.Errors;
+
 public abstract class ByteBufferAccess {
 
     @SuppressWarnings("static-method")
@@ -88,6 +90,26 @@ public abstract class ByteBufferAccess {
 
     public abstract long compareExchangeInt64(ByteBuffer buffer, int index, long expectedValue, long newValue);
 
+    public abstract int getAndAddInt32(ByteBuffer buffer, int index, int value);
+
+    public abstract int getAndBitwiseAndInt32(ByteBuffer buffer, int index, int value);
+
+    public abstract int getAndBitwiseOrInt32(ByteBuffer buffer, int index, int value);
+
+    public abstract int getAndBitwiseXorInt32(ByteBuffer buffer, int index, int value);
+
+    public abstract int getAndSetInt32(ByteBuffer buffer, int index, int value);
+
+    public abstract long getAndAddInt64(ByteBuffer buffer, int index, long value);
+
+    public abstract long getAndBitwiseAndInt64(ByteBuffer buffer, int index, long value);
+
+    public abstract long getAndBitwiseOrInt64(ByteBuffer buffer, int index, long value);
+
+    public abstract long getAndBitwiseXorInt64(ByteBuffer buffer, int index, long value);
+
+    public abstract long getAndSetInt64(ByteBuffer buffer, int index, long value);
+
     /**
      * Emulate 8-bit CAS using 32-bit CAS. Cannot be used if the buffer length is not a multiple of
      * 4 and too short for the 32-bit access to be fully in bounds.
@@ -143,6 +165,103 @@ public abstract class ByteBufferAccess {
         return expectedValue;
     }
 
+    /**
+     * Atomically applies {@code operation} to the 32-bit value at {@code index}, using the
+     * corresponding native fetch-and-op instruction where available.
+     *
+     * @return the previous value
+     */
+    public final int getAndUpdateInt32(ByteBuffer buffer, int index, int value, AtomicReadModifyWrite operation) {
+        switch (operation) {
+            case ADD:
+                return getAndAddInt32(buffer, index, value);
+            case SUB:
+                return getAndAddInt32(buffer, index, -value);
+            case AND:
+                return getAndBitwiseAndInt32(buffer, index, value);
+            case OR:
+                return getAndBitwiseOrInt32(buffer, index, value);
+            case XOR:
+                return getAndBitwiseXorInt32(buffer, index, value);
+            case EXCHANGE:
+                return getAndSetInt32(buffer, index, value);
+            default:
+                throw Errors.shouldNotReachHere();
+        }
+    }
+
+    /**
+     * Atomically applies {@code operation} to the 64-bit value at {@code index}, using the
+     * corresponding native fetch-and-op instruction where available.
+     *
+     * @return the previous value
+     */
+    public final long getAndUpdateInt64(ByteBuffer buffer, int index, long value, AtomicReadModifyWrite operation) {
+        switch (operation) {
+            case ADD:
+                return getAndAddInt64(buffer, index, value);
+            case SUB:
+                return getAndAddInt64(buffer, index, -value);
+            case AND:
+                return getAndBitwiseAndInt64(buffer, index, value);
+            case OR:
+                return getAndBitwiseOrInt64(buffer, index, value);
+            case XOR:
+                return getAndBitwiseXorInt64(buffer, index, value);
+            case EXCHANGE:
+                return getAndSetInt64(buffer, index, value);
+            default:
+                throw Errors.shouldNotReachHere();
+        }
+    }
+
+    /**
+     * Emulate 8-bit and 16-bit read-modify-write operations using 32-bit atomics on the enclosing
+     * word: bitwise operations map directly to 32-bit fetch-and-op with the other bytes masked
+     * out, the others use a 32-bit CAS loop. Cannot be used if the buffer length is not a multiple
+     * of 4 and too short for the 32-bit access to be fully in bounds.
+     *
+     * @return the previous value, zero-extended
+     */
+    public final int getAndUpdateSubword(ByteBuffer buffer, int index, int bytesPerElement, int value, AtomicReadModifyWrite operation) {
+        assert bytesPerElement == 1 || (bytesPerElement == 2 && (index & 1) == 0) : index;
+        int wordOffset = index & ~3;
+        assert wordOffset <= buffer.capacity() - Integer.BYTES;
+        int shift = (index & 3) << 3;
+        if (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN) {
+            shift = ((Integer.BYTES - bytesPerElement) << 3) - shift;
+        }
+        int elementMask = bytesPerElement == 1 ? 0xFF : 0xFFFF;
+        int mask = elementMask << shift;
+        int shiftedValue = (value & elementMask) << shift;
+        int previousWord;
+        switch (operation) {
+            case AND:
+                previousWord = getAndBitwiseAndInt32(buffer, wordOffset, shiftedValue | ~mask);
+                break;
+            case OR:
+                previousWord = getAndBitwiseOrInt32(buffer, wordOffset, shiftedValue);
+                break;
+            case XOR:
+                previousWord = getAndBitwiseXorInt32(buffer, wordOffset, shiftedValue);
+                break;
+            default:
+                int fullWord = getInt32(buffer, wordOffset);
+                while (true) {
+                    int element = (fullWord & mask) >>> shift;
+                    int newWord = (fullWord & ~mask) | ((operation.applyAsInt(element, value) << shift) & mask);
+                    int exchanged = compareExchangeInt32(buffer, wordOffset, fullWord, newWord);
+                    if (exchanged == fullWord) {
+                        break;
+                    }
+                    fullWord = exchanged;
+                }
+                previousWord = fullWord;
+                break;
+        }
+        return (previousWord & mask) >>> shift;
+    }
+
     public static final ByteBufferAccess littleEndian() {
         return ByteBufferSupport.littleEndian();
     }
@@ -133,6 +133,56 @@ final class NativeVarHandleByteBufferAccess extends ByteBufferAccess {
     public long compareExchangeInt64(ByteBuffer buffer, int index, long expectedValue, long newValue) {
         return (long) INT64.compareAndExchange(buffer, index, expectedValue, newValue);
     }
+
+    @Override
+    public int getAndAddInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndAdd(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseAndInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseAnd(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseOrInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseOr(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseXorInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseXor(buffer, index, value);
+    }
+
+    @Override
+    public int getAndSetInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndSet(buffer, index, value);
+    }
+
+    @Override
+    public long getAndAddInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndAdd(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseAndInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseAnd(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseOrInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseOr(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseXorInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseXor(buffer, index, value);
+    }
+
+    @Override
+    public long getAndSetInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndSet(buffer, index, value);
+    }
 }
 
 final class LittleEndianVarHandleByteBufferAccess extends ByteBufferAccess {
@@ -206,6 +256,56 @@ final class LittleEndianVarHandleByteBufferAccess extends ByteBufferAccess {
     public long compareExchangeInt64(ByteBuffer buffer, int index, long expectedValue, long newValue) {
         return (long) INT64.compareAndExchange(buffer, index, expectedValue, newValue);
     }
+
+    @Override
+    public int getAndAddInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndAdd(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseAndInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseAnd(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseOrInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseOr(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseXorInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseXor(buffer, index, value);
+    }
+
+    @Override
+    public int getAndSetInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndSet(buffer, index, value);
+    }
+
+    @Override
+    public long getAndAddInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndAdd(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseAndInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseAnd(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseOrInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseOr(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseXorInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseXor(buffer, index, value);
+    }
+
+    @Override
+    public long getAndSetInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndSet(buffer, index, value);
+    }
 }
 
 final class BigEndianVarHandleByteBufferAccess extends ByteBufferAccess {
@@ -279,4 +379,54 @@ final class BigEndianVarHandleByteBufferAccess extends ByteBufferAccess {
     public long compareExchangeInt64(ByteBuffer buffer, int index, long expectedValue, long newValue) {
         return (long) INT64.compareAndExchange(buffer, index, expectedValue, newValue);
     }
+
+    @Override
+    public int getAndAddInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndAdd(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseAndInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseAnd(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseOrInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseOr(buffer, index, value);
+    }
+
+    @Override
+    public int getAndBitwiseXorInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndBitwiseXor(buffer, index, value);
+    }
+
+    @Override
+    public int getAndSetInt32(ByteBuffer buffer, int index, int value) {
+        return (int) INT32.getAndSet(buffer, index, value);
+    }
+
+    @Override
+    public long getAndAddInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndAdd(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseAndInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseAnd(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseOrInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseOr(buffer, index, value);
+    }
+
+    @Override
+    public long getAndBitwiseXorInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndBitwiseXor(buffer, index, value);
+    }
+
+    @Override
+    public long getAndSetInt64(ByteBuffer buffer, int index, long value) {
+        return (long) INT64.getAndSet(buffer, index, value);
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.array;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Sorting of primitive element arrays for {@code Array.prototype.sort} and
+ * {@code %TypedArray%.prototype.sort} without a comparison function.
+ */
+public final class PrimitiveArraySort {
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L};
+    private static final int MAX_INT_DIGITS = 10;
+    private static final int DIGIT_COUNT_BITS = 4;
+    private static final long NEGATIVE_KEY_OFFSET = 1L << 40;
+
+    private PrimitiveArraySort() {
+    }
+
+    /**
+     * Sorts the ints in the range [fromIndex, toIndex) in the order of their string representations,
+     * i.e., in the default order of {@code Array.prototype.sort}.
+     *
+     * Every value is mapped to a long key whose numeric order equals the lexicographic order of the
+     * decimal string: the magnitude is scaled to {@value #MAX_INT_DIGITS} digits (so that the
+     * leading digits are aligned) and the number of digits is appended (so that a prefix sorts
+     * before a longer string). Negative values ('-' sorts before all digits) are moved below all
+     * non-negative ones. The mapping is injective, so the sort does not need to be stable and the
+     * values can be restored from the keys.
+     */
+    @TruffleBoundary
+    public static void sortIntsAsStrings(int[] array, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = stringOrderKey(array[fromIndex + i]);
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < length; i++) {
+            array[fromIndex + i] = fromStringOrderKey(keys[i]);
+        }
+    }
+
+    static long stringOrderKey(int value) {
+        long magnitude = Math.abs((long) value);
+        int digits = digitCount(magnitude);
+        long key = ((magnitude * POWERS_OF_TEN[MAX_INT_DIGITS - digits]) << DIGIT_COUNT_BITS) | digits;
+        return value < 0 ? key - NEGATIVE_KEY_OFFSET : key;
+    }
+
+    static int fromStringOrderKey(long key) {
+        boolean negative = key < 0;
+        long unsignedKey = negative ? key + NEGATIVE_KEY_OFFSET : key;
+        int digits = (int) (unsignedKey & ((1 << DIGIT_COUNT_BITS) - 1));
+        long magnitude = (unsignedKey >>> DIGIT_COUNT_BITS) / POWERS_OF_TEN[MAX_INT_DIGITS - digits];
+        return (int) (negative ? -magnitude : magnitude);
+    }
+
+    private static int digitCount(long magnitude) {
+        int digits = 1;
+        while (digits < MAX_INT_DIGITS && magnitude >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Sorts ints interpreted as unsigned 32-bit values.
+     */
+    @TruffleBoundary
+    public static void sortUnsigned(int[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] ^= Integer.MIN_VALUE;
+        }
+        Arrays.sort(array);
+        for (int i = 0; i < array.length; i++) {
+            array[i] ^= Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts longs interpreted as unsigned 64-bit values.
+     */
+    @TruffleBoundary
+    public static void sortUnsigned(long[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(array);
+        for (int i = 0; i < array.length; i++) {
+            array[i] ^= Long.MIN_VALUE;
+        }
+    }
+}
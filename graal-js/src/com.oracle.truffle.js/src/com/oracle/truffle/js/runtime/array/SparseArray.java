@@ -45,23 +45,21 @@ import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arrayGetLen
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetArray;
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetLength;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.TreeMap;
+import java.util.RandomAccess;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
-import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Strings;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.LongBTreeMap;
 
 /**
- * Array that stores its elements in a HashMap-like structure, e.g. in a TreeMap.
+ * Array that stores its elements in an ordered map from element index to value (see
+ * {@link LongBTreeMap}).
  */
 public final class SparseArray extends DynamicArray {
 
@@ -77,7 +75,7 @@ public final class SparseArray extends DynamicArray {
 
     public static SparseArray makeSparseArray(JSDynamicObject object, ScriptArray fromArray) {
         assert !(fromArray instanceof SparseArray);
-        TreeMap<Long, Object> arrayMap = createArrayMap();
+        LongBTreeMap arrayMap = createArrayMap();
         copyArrayToMap(object, fromArray, arrayMap);
         arraySetLength(object, fromArray.length(object));
         arraySetArray(object, arrayMap);
@@ -85,20 +83,20 @@ public final class SparseArray extends DynamicArray {
     }
 
     @TruffleBoundary
-    public static TreeMap<Long, Object> createArrayMap() {
-        return new TreeMap<>();
+    public static LongBTreeMap createArrayMap() {
+        return new LongBTreeMap();
     }
 
-    protected static void copyArrayToMap(JSDynamicObject object, ScriptArray fromArray, Map<Long, Object> toMap) {
+    @TruffleBoundary
+    protected static void copyArrayToMap(JSDynamicObject object, ScriptArray fromArray, LongBTreeMap toMap) {
         for (long index = fromArray.firstElementIndex(object); index <= fromArray.lastElementIndex(object); index = fromArray.nextElementIndex(object, index)) {
             assert fromArray.hasElement(object, index);
-            Boundaries.mapPut(toMap, index, fromArray.getElement(object, index));
+            toMap.put(index, fromArray.getElement(object, index));
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static TreeMap<Long, Object> arrayMap(JSDynamicObject object) {
-        return (TreeMap<Long, Object>) arrayGetArray(object);
+    private static LongBTreeMap arrayMap(JSDynamicObject object) {
+        return (LongBTreeMap) arrayGetArray(object);
     }
 
     @TruffleBoundary
@@ -144,47 +142,40 @@ public final class SparseArray extends DynamicArray {
     @Override
     public SparseArray setLengthImpl(JSDynamicObject object, long len, ProfileHolder profile) {
         arraySetLength(object, len);
-        arrayMap(object).tailMap(len).clear();
+        arrayMap(object).truncate(len);
         return this;
     }
 
     @TruffleBoundary
     @Override
     public long firstElementIndex(JSDynamicObject object) {
-        try {
-            return arrayMap(object).firstKey();
-        } catch (NoSuchElementException ex) {
-            return 0;
-        }
+        long firstIndex = arrayMap(object).firstKey();
+        return firstIndex >= 0 ? firstIndex : 0;
     }
 
     @TruffleBoundary
     @Override
     public long lastElementIndex(JSDynamicObject object) {
-        try {
-            return arrayMap(object).lastKey();
-        } catch (NoSuchElementException ex) {
-            return -1;
-        }
+        return arrayMap(object).lastKey();
     }
 
     @TruffleBoundary
     @Override
     public long nextElementIndex(JSDynamicObject object, long index) {
-        Long nextIndex = arrayMap(object).higherKey(index);
-        return nextIndex != null ? nextIndex.longValue() : JSRuntime.MAX_SAFE_INTEGER_LONG;
+        long nextIndex = arrayMap(object).higherKey(index);
+        return nextIndex >= 0 ? nextIndex : JSRuntime.MAX_SAFE_INTEGER_LONG;
     }
 
     @TruffleBoundary
     @Override
     public long previousElementIndex(JSDynamicObject object, long index) {
-        Long nextIndex = arrayMap(object).lowerKey(index);
-        return nextIndex != null ? nextIndex.longValue() : -1;
+        return arrayMap(object).lowerKey(index);
     }
 
+    @TruffleBoundary
     @Override
     public Object cloneArray(JSDynamicObject object) {
-        return arrayMap(object).clone();
+        return arrayMap(object).copy();
     }
 
     @TruffleBoundary
@@ -194,6 +185,16 @@ public final class SparseArray extends DynamicArray {
         return this;
     }
 
+    /**
+     * Deletes all elements in the range [start..end[ without shifting the remaining elements.
+     * Equivalent to deleting each element separately, provided that the array is not sealed.
+     */
+    @TruffleBoundary
+    public void deleteElementRange(JSDynamicObject object, long start, long end) {
+        assert !isSealed();
+        arrayMap(object).removeRange(start, end);
+    }
+
     @TruffleBoundary
     @Override
     public boolean hasElement(JSDynamicObject object, long index) {
@@ -210,44 +211,31 @@ public final class SparseArray extends DynamicArray {
         return true;
     }
 
+    @TruffleBoundary
     @Override
     public ScriptArray removeRangeImpl(JSDynamicObject object, long start, long end) {
         assert start <= end;
         assert start >= 0;
-        assert end < length(object);
+        assert end <= length(object);
 
-        long delta = end - start + 1;
-        long pos = start;
-        if (!hasElement(object, pos)) {
-            pos = nextElementIndex(object, pos);
-        }
-        // delete the elements in the removed range
-        while (pos <= end) {
-            deleteElementImpl(object, pos, false);
-            pos = nextElementIndex(object, pos);
-        }
-        // move all element higher downwards
-        while (pos < length(object)) {
-            setElement(object, pos - delta, getElement(object, pos), false);
-            deleteElementImpl(object, pos, false);
-            pos = nextElementIndex(object, pos);
-        }
+        LongBTreeMap arrayMap = arrayMap(object);
+        // delete the elements in the removed range and move all elements higher downwards
+        arrayMap.removeRange(start, end);
+        arrayMap.shiftKeys(end, start - end);
         return this;
     }
 
+    @TruffleBoundary
     @Override
     public ScriptArray addRangeImpl(JSDynamicObject object, long offset, int size) {
         assert offset < length(object);
 
-        long pos = length(object);
-        if (!hasElement(object, pos)) {
-            pos = previousElementIndex(object, pos);
-        }
-        // move all element higher upwards
-        while (pos >= offset) {
-            setElement(object, pos + size, getElement(object, pos), false);
-            deleteElementImpl(object, pos, false);
-            pos = previousElementIndex(object, pos);
+        LongBTreeMap arrayMap = arrayMap(object);
+        // move all elements higher upwards
+        arrayMap.shiftKeys(offset, size);
+        long lastIndex = arrayMap.lastKey();
+        if (lastIndex >= length(object)) {
+            arraySetLength(object, lastIndex + 1);
         }
         return this;
     }
@@ -255,16 +243,32 @@ public final class SparseArray extends DynamicArray {
     @TruffleBoundary
     @Override
     public List<Object> ownPropertyKeys(JSDynamicObject object) {
-        Set<Long> keySet = arrayMap(object).keySet();
-        List<Object> list = new ArrayList<>(keySet.size());
-        for (long index : keySet) {
-            list.add(Strings.fromLong(index));
-        }
-        return list;
+        return new IndexKeyList(arrayMap(object).keys());
     }
 
     @Override
     protected DynamicArray withIntegrityLevel(int newIntegrityLevel) {
         return new SparseArray(newIntegrityLevel, cache);
     }
+
+    /**
+     * List of element indices that converts each index to a property key only when requested.
+     */
+    private static final class IndexKeyList extends AbstractList<Object> implements RandomAccess {
+        private final long[] indices;
+
+        IndexKeyList(long[] indices) {
+            this.indices = indices;
+        }
+
+        @Override
+        public Object get(int index) {
+            return Strings.fromLong(indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+    }
 }
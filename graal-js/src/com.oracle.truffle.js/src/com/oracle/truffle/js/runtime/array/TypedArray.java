@@ -45,6 +45,7 @@ import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArra
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -262,6 +263,12 @@ public abstract class TypedArray extends ScriptArray {
         return Errors.createTypeErrorInteropException(buffer, e, "buffer access", null);
     }
 
+    /**
+     * Sorts the first {@code length} elements in ascending numeric order, i.e. in the order of
+     * SortCompare without a comparison function, using a primitive sort on a copy of the elements.
+     */
+    public abstract void sortDefault(JSDynamicObject object, int length);
+
     public abstract static class TypedIntArray extends TypedArray {
         protected TypedIntArray(TypedArrayFactory factory, boolean offset, byte bufferType) {
             super(factory, offset, bufferType);
@@ -302,6 +309,27 @@ public abstract class TypedArray extends ScriptArray {
 
         public abstract void setIntImpl(Object buffer, int offset, int index, int value, InteropLibrary interop);
 
+        @TruffleBoundary
+        @Override
+        public void sortDefault(JSDynamicObject object, int length) {
+            Object buffer = getBufferFromTypedArray(object);
+            int offset = getOffset(object);
+            InteropLibrary interop = InteropLibrary.getUncached();
+            int[] elements = new int[length];
+            for (int i = 0; i < length; i++) {
+                elements[i] = getIntImpl(buffer, offset, i, interop);
+            }
+            sortElements(elements);
+            for (int i = 0; i < length; i++) {
+                setIntImpl(buffer, offset, i, elements[i], interop);
+            }
+        }
+
+        protected void sortElements(int[] elements) {
+            // all values of the smaller types are in the int range, so a signed sort is correct
+            Arrays.sort(elements);
+        }
+
         @Override
         public Object getBufferElement(Object buffer, int index, boolean littleEndian, InteropLibrary interop) {
             return getBufferElementIntImpl(buffer, index, littleEndian, interop);
@@ -325,6 +353,41 @@ public abstract class TypedArray extends ScriptArray {
             return (byteOffset & ~3) <= byteBuffer.limit() - Integer.BYTES;
         }
 
+        /**
+         * Atomically applies {@code operation} to the element at {@code index}.
+         *
+         * @return the previous value of the element
+         */
+        @SuppressWarnings("unused")
+        public int getAndUpdateInt(JSTypedArrayObject typedArray, int index, int value, AtomicReadModifyWrite operation) {
+            throw Errors.shouldNotReachHere();
+        }
+
+        final int getAndUpdateSubword(JSTypedArrayObject typedArrayObject, int index, int bytesPerElement, int value, AtomicReadModifyWrite operation) {
+            ByteBuffer byteBuffer = getDirectByteBuffer(getBufferFromTypedArray(typedArrayObject));
+            int byteOffset = getOffset(typedArrayObject) + index * bytesPerElement;
+            if (isCompareExchangeSupported(byteBuffer, byteOffset)) {
+                return ByteBufferAccess.nativeOrder().getAndUpdateSubword(byteBuffer, byteOffset, bytesPerElement, value, operation);
+            } else {
+                // word access not possible, fall back to locking strategy
+                return lockedGetAndUpdate(typedArrayObject, index, value, operation);
+            }
+        }
+
+        @TruffleBoundary
+        final int lockedGetAndUpdate(JSTypedArrayObject typedArrayObject, int index, int value, AtomicReadModifyWrite operation) {
+            JSArrayBufferObject arrayBuffer = getBufferFromTypedArray(typedArrayObject);
+            JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
+            waiterList.enterAtomicSection();
+            try {
+                int read = SharedMemorySync.doVolatileGet(typedArrayObject, index, this);
+                SharedMemorySync.doVolatilePut(typedArrayObject, index, operation.applyAsInt(read, value), this);
+                return read;
+            } finally {
+                waiterList.leaveAtomicSection();
+            }
+        }
+
         @TruffleBoundary
         final int lockedReadModifyWriteByte(JSTypedArrayObject typedArrayObject, int index, int expectedValue, int newValue) {
             JSArrayBufferObject arrayBuffer = getBufferFromTypedArray(typedArrayObject);
@@ -423,6 +486,11 @@ public abstract class TypedArray extends ScriptArray {
             }
         }
 
+        @Override
+        public int getAndUpdateInt(JSTypedArrayObject typedArrayObject, int index, int value, AtomicReadModifyWrite operation) {
+            return (byte) getAndUpdateSubword(typedArrayObject, index, INT8_BYTES_PER_ELEMENT, value, operation);
+        }
+
     }
 
     public static class InteropInt8Array extends InteropOneByteIntArray {
@@ -542,6 +610,11 @@ public abstract class TypedArray extends ScriptArray {
             }
         }
 
+        @Override
+        public int getAndUpdateInt(JSTypedArrayObject typedArrayObject, int index, int value, AtomicReadModifyWrite operation) {
+            return getAndUpdateSubword(typedArrayObject, index, UINT8_BYTES_PER_ELEMENT, value, operation) & 0xff;
+        }
+
     }
 
     public static final class InteropUint8Array extends InteropOneByteIntArray {
@@ -729,6 +802,11 @@ public abstract class TypedArray extends ScriptArray {
                 return (short) lockedReadModifyWriteShort(typedArrayObject, index, expectedValue, newValue);
             }
         }
+
+        @Override
+        public int getAndUpdateInt(JSTypedArrayObject typedArrayObject, int index, int value, AtomicReadModifyWrite operation) {
+            return (short) getAndUpdateSubword(typedArrayObject, index, INT16_BYTES_PER_ELEMENT, value, operation);
+        }
     }
 
     public static class InteropInt16Array extends InteropTwoByteIntArray {
@@ -847,6 +925,11 @@ public abstract class TypedArray extends ScriptArray {
                 return lockedReadModifyWriteShort(typedArrayObject, index, expectedValue, newValue) & 0xffff;
             }
         }
+
+        @Override
+        public int getAndUpdateInt(JSTypedArrayObject typedArrayObject, int index, int value, AtomicReadModifyWrite operation) {
+            return getAndUpdateSubword(typedArrayObject, index, UINT16_BYTES_PER_ELEMENT, value, operation) & 0xffff;
+        }
     }
 
     public static final class InteropUint16Array extends InteropTwoByteIntArray {
@@ -924,6 +1007,13 @@ public abstract class TypedArray extends ScriptArray {
             int bufferOffset = getOffset(typedArray) + index * INT32_BYTES_PER_ELEMENT;
             return ByteBufferAccess.nativeOrder().compareExchangeInt32(byteBuffer, bufferOffset, expectedValue, newValue);
         }
+
+        @Override
+        public int getAndUpdateInt(JSTypedArrayObject typedArray, int index, int value, AtomicReadModifyWrite operation) {
+            ByteBuffer byteBuffer = getDirectByteBuffer(getBufferFromTypedArray(typedArray));
+            int bufferOffset = getOffset(typedArray) + index * INT32_BYTES_PER_ELEMENT;
+            return ByteBufferAccess.nativeOrder().getAndUpdateInt32(byteBuffer, bufferOffset, value, operation);
+        }
     }
 
     public static final class InteropInt32Array extends TypedIntArray {
@@ -1007,6 +1097,11 @@ public abstract class TypedArray extends ScriptArray {
         public Object getBufferElement(Object buffer, int index, boolean littleEndian, InteropLibrary interop) {
             return toUint32(getBufferElementIntImpl(buffer, index, littleEndian, interop));
         }
+
+        @Override
+        protected void sortElements(int[] elements) {
+            PrimitiveArraySort.sortUnsigned(elements);
+        }
     }
 
     public static final class Uint32Array extends AbstractUint32Array {
@@ -1066,6 +1161,13 @@ public abstract class TypedArray extends ScriptArray {
             int bufferOffset = getOffset(typedArray) + index * UINT32_BYTES_PER_ELEMENT;
             return ByteBufferAccess.nativeOrder().compareExchangeInt32(byteBuffer, bufferOffset, expectedValue, newValue);
         }
+
+        @Override
+        public int getAndUpdateInt(JSTypedArrayObject typedArray, int index, int value, AtomicReadModifyWrite operation) {
+            ByteBuffer byteBuffer = getDirectByteBuffer(getBufferFromTypedArray(typedArray));
+            int bufferOffset = getOffset(typedArray) + index * UINT32_BYTES_PER_ELEMENT;
+            return ByteBufferAccess.nativeOrder().getAndUpdateInt32(byteBuffer, bufferOffset, value, operation);
+        }
     }
 
     public static final class InteropUint32Array extends AbstractUint32Array {
@@ -1138,6 +1240,26 @@ public abstract class TypedArray extends ScriptArray {
 
         public abstract void setLongImpl(Object buffer, int offset, int index, long value, InteropLibrary interop);
 
+        @TruffleBoundary
+        @Override
+        public void sortDefault(JSDynamicObject object, int length) {
+            Object buffer = getBufferFromTypedArray(object);
+            int offset = getOffset(object);
+            InteropLibrary interop = InteropLibrary.getUncached();
+            long[] elements = new long[length];
+            for (int i = 0; i < length; i++) {
+                elements[i] = getLongImpl(buffer, offset, i, interop);
+            }
+            if (getFactory() == TypedArrayFactory.BigUint64Array) {
+                PrimitiveArraySort.sortUnsigned(elements);
+            } else {
+                Arrays.sort(elements);
+            }
+            for (int i = 0; i < length; i++) {
+                setLongImpl(buffer, offset, i, elements[i], interop);
+            }
+        }
+
         @Override
         public Object getBufferElement(Object buffer, int index, boolean littleEndian, InteropLibrary interop) {
             return BigInt.valueOf(getBufferElementLongImpl(buffer, index, littleEndian, interop));
@@ -1161,6 +1283,21 @@ public abstract class TypedArray extends ScriptArray {
         public BigInt compareExchangeBigInt(JSTypedArrayObject typedArray, int index, BigInt expectedValue, BigInt newValue) {
             throw Errors.shouldNotReachHere();
         }
+
+        /**
+         * Atomically applies {@code operation} to the element at {@code index}.
+         *
+         * @return the previous value of the element
+         */
+        @SuppressWarnings("unused")
+        public long getAndUpdateLong(JSTypedArrayObject typedArray, int index, long value, AtomicReadModifyWrite operation) {
+            throw Errors.shouldNotReachHere();
+        }
+
+        @SuppressWarnings("unused")
+        public BigInt getAndUpdateBigInt(JSTypedArrayObject typedArray, int index, BigInt value, AtomicReadModifyWrite operation) {
+            throw Errors.shouldNotReachHere();
+        }
     }
 
     static final int BIGINT64_BYTES_PER_ELEMENT = 8;
@@ -1226,6 +1363,17 @@ public abstract class TypedArray extends ScriptArray {
         public BigInt compareExchangeBigInt(JSTypedArrayObject typedArray, int index, BigInt expectedValue, BigInt newValue) {
             return BigInt.valueOf(compareExchangeLong(typedArray, index, expectedValue.longValue(), newValue.longValue()));
         }
+
+        @Override
+        public long getAndUpdateLong(JSTypedArrayObject typedArray, int index, long value, AtomicReadModifyWrite operation) {
+            return ByteBufferAccess.nativeOrder().getAndUpdateInt64(getDirectByteBuffer(getBufferFromTypedArray(typedArray)),
+                            getOffset(typedArray) + index * BIGINT64_BYTES_PER_ELEMENT, value, operation);
+        }
+
+        @Override
+        public BigInt getAndUpdateBigInt(JSTypedArrayObject typedArray, int index, BigInt value, AtomicReadModifyWrite operation) {
+            return BigInt.valueOf(getAndUpdateLong(typedArray, index, value.longValue(), operation));
+        }
     }
 
     public static class InteropBigInt64Array extends InteropBigIntArray {
@@ -1363,6 +1511,17 @@ public abstract class TypedArray extends ScriptArray {
         public BigInt compareExchangeBigInt(JSTypedArrayObject typedArray, int index, BigInt expectedValue, BigInt newValue) {
             return BigInt.valueOfUnsigned(compareExchangeLong(typedArray, index, expectedValue.longValue(), newValue.longValue()));
         }
+
+        @Override
+        public long getAndUpdateLong(JSTypedArrayObject typedArray, int index, long value, AtomicReadModifyWrite operation) {
+            return ByteBufferAccess.nativeOrder().getAndUpdateInt64(getDirectByteBuffer(getBufferFromTypedArray(typedArray)),
+                            getOffset(typedArray) + index * BIGUINT64_BYTES_PER_ELEMENT, value, operation);
+        }
+
+        @Override
+        public BigInt getAndUpdateBigInt(JSTypedArrayObject typedArray, int index, BigInt value, AtomicReadModifyWrite operation) {
+            return BigInt.valueOfUnsigned(getAndUpdateLong(typedArray, index, value.longValue(), operation));
+        }
     }
 
     public static final class InteropBigUint64Array extends InteropBigIntArray {
@@ -1420,6 +1579,23 @@ public abstract class TypedArray extends ScriptArray {
         public abstract double getDoubleImpl(Object buffer, int offset, int index, InteropLibrary interop);
 
         public abstract void setDoubleImpl(Object buffer, int offset, int index, double value, InteropLibrary interop);
+
+        @TruffleBoundary
+        @Override
+        public void sortDefault(JSDynamicObject object, int length) {
+            Object buffer = getBufferFromTypedArray(object);
+            int offset = getOffset(object);
+            InteropLibrary interop = InteropLibrary.getUncached();
+            double[] elements = new double[length];
+            for (int i = 0; i < length; i++) {
+                elements[i] = getDoubleImpl(buffer, offset, i, interop);
+            }
+            // Arrays.sort orders -0 before +0 and NaN last, as required by SortCompare
+            Arrays.sort(elements);
+            for (int i = 0; i < length; i++) {
+                setDoubleImpl(buffer, offset, i, elements[i], interop);
+            }
+        }
     }
 
     static final int FLOAT32_BYTES_PER_ELEMENT = 4;
@@ -49,6 +49,7 @@ import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetArr
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.js.runtime.JSConfig;
+import com.oracle.truffle.js.runtime.array.PrimitiveArraySort;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 
@@ -113,6 +114,22 @@ public abstract class AbstractIntArray extends AbstractWritableArray {
         }
     }
 
+    /**
+     * Sorts the elements in place in the default order of {@code Array.prototype.sort} (i.e., by
+     * their string representations) if the array is dense, i.e., has no holes and its elements
+     * start at index 0.
+     *
+     * @return {@code false} if the array is not eligible, in which case it is left unchanged.
+     */
+    public final boolean sortDefault(JSDynamicObject object, int length) {
+        if (isHolesType() || isFrozen() || firstElementIndex(object) != 0 || lastElementIndex(object) != length - 1) {
+            return false;
+        }
+        int start = prepareInBoundsFast(object, 0);
+        PrimitiveArraySort.sortIntsAsStrings(getArray(object), start, start + length);
+        return true;
+    }
+
     @Override
     public abstract int getInBoundsFastInt(JSDynamicObject object, int index);
 
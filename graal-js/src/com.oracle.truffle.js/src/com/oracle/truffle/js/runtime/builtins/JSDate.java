@@ -45,10 +45,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
 
-import com.ibm.icu.impl.Grego;
 import com.ibm.icu.text.DateFormat;
-import com.ibm.icu.util.GregorianCalendar;
-import com.ibm.icu.util.TimeZone;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
@@ -394,59 +391,7 @@ public final class JSDate extends JSNonProxy implements JSConstructorFactory.Def
     }
 
     public static long localTZA(double t, boolean isUTC, Node node) {
-        return localTZA(t, isUTC, JSRealm.get(node).getLocalTimeZone());
-    }
-
-    private static int getOffset(TimeZone timeZone, long date, int[] fields) {
-        Grego.timeToFields(date, fields);
-        return timeZone.getOffset(GregorianCalendar.AD, fields[0], fields[1], fields[2], fields[3], fields[5]);
-    }
-
-    private static int getOffset(TimeZone timeZone, long t, boolean isUTC) {
-        int rawOffset = timeZone.getRawOffset();
-        long date = isUTC ? (t + rawOffset) : t; // now in local standard millis
-
-        int[] fields = new int[6];
-        int offset = getOffset(timeZone, date, fields);
-
-        if (isUTC) {
-            return offset;
-        }
-
-        // getOffset() does not match the needs of ECMAScript specification
-        // when local time does not exist (during STD->DST transition) or when
-        // it occurs twice (during DST->STD transition). We have to check
-        // for these corner cases by looking back in time. This apporach
-        // is taken from TimeZone.getOffset() that does similar tricks
-        // (but is not ECMAScript compliant still).
-
-        if (offset != rawOffset) { // dstOffset != 0
-            int dstOffset = offset - rawOffset;
-            // dstOffset != 0 => good, we know how far back in time to look
-            return getOffset(timeZone, date - dstOffset, fields);
-        }
-
-        // dstOffset = 0, look back by standard DST savings
-        int dstSavings = timeZone.getDSTSavings();
-        if (dstSavings == 0) {
-            // getDSTSavings() returns 0 for some time-zones (like America/Sao_Paulo)
-            // that stopped to use DST. Unfortunately, we may have a date that
-            // used DST still => try to use the usual DST savings (1 hour)
-            dstSavings = 3600000;
-        }
-        offset = getOffset(timeZone, date - dstSavings, fields);
-        int dstOffset = offset - rawOffset;
-        if (dstOffset != 0 && dstOffset != dstSavings) {
-            // unexpected irregular (historical) DST => have to correct how far
-            // back in time we look
-            offset = getOffset(timeZone, date - dstOffset, fields);
-        }
-        return offset;
-    }
-
-    @TruffleBoundary
-    public static int localTZA(double t, boolean isUTC, TimeZone timeZone) {
-        return getOffset(timeZone, (long) t, isUTC);
+        return JSRealm.get(node).getLocalTimeZoneOffsetCache().localTZA((long) t, isUTC);
     }
 
     // 15.9.1.10
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.builtins.intl;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.js.runtime.JSException;
+import com.oracle.truffle.js.runtime.Strings;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlUtil;
+import com.oracle.truffle.js.runtime.util.LRUCache;
+import com.oracle.truffle.js.runtime.util.Triple;
+
+/**
+ * Bounded cache of resolved Intl object states (including their ICU formatters), shared by all
+ * realms of a context.
+ *
+ * Used by the locale-sensitive methods of String, Number and Date that would otherwise create and
+ * initialize a new Intl object on every call. Only calls without options and with undefined or
+ * string locales are cached: resolving those has no observable side effects and depends only on
+ * the requested locale, the default locale of the context and, for dates, the default time zone.
+ *
+ * Cached states may be used by several threads at once and must therefore be immutable or
+ * synchronized by their users.
+ */
+public final class IntlFormatterCache {
+
+    public static final String COLLATOR = "Collator";
+    public static final String NUMBER_FORMAT = "NumberFormat";
+    public static final String DATE_TIME_FORMAT = "DateTimeFormat";
+    public static final String DATE_FORMAT = "DateFormat";
+    public static final String TIME_FORMAT = "TimeFormat";
+
+    private final LRUCache<Triple<String, String, String>, Object> cache;
+
+    public IntlFormatterCache(int maxSize) {
+        this.cache = new LRUCache<>(maxSize);
+    }
+
+    public static boolean isCacheable(Object locales, Object options) {
+        return options == Undefined.instance && (locales == Undefined.instance || locales instanceof TruffleString);
+    }
+
+    /**
+     * Returns the cached state for the given kind of Intl object, (cacheable) locales, and time
+     * zone (or {@code null} if the state does not depend on it), or {@code null} if not cached.
+     */
+    @TruffleBoundary
+    public Object get(String kind, Object locales, String timeZone) {
+        Triple<String, String, String> key = createKey(kind, locales, timeZone);
+        if (key == null) {
+            return null;
+        }
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    @TruffleBoundary
+    public void put(String kind, Object locales, String timeZone, Object state) {
+        Triple<String, String, String> key = createKey(kind, locales, timeZone);
+        if (key == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, state);
+        }
+    }
+
+    /**
+     * Creates the cache key, using the canonicalized language tag so that differently spelled tags
+     * of the same locale share an entry. Returns {@code null} for an invalid language tag, which
+     * is left to the regular initialization to report.
+     */
+    private static Triple<String, String, String> createKey(String kind, Object locales, String timeZone) {
+        assert locales == Undefined.instance || locales instanceof TruffleString : locales;
+        String localesKey = null;
+        if (locales != Undefined.instance) {
+            try {
+                localesKey = IntlUtil.validateAndCanonicalizeLanguageTag(Strings.toJavaString((TruffleString) locales));
+            } catch (JSException e) {
+                return null;
+            }
+        }
+        return new Triple<>(kind, localesKey, timeZone);
+    }
+}
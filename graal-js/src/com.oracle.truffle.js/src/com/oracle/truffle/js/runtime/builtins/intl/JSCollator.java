@@ -242,8 +242,12 @@ public final class JSCollator extends JSNonProxy implements JSConstructorFactory
 
     @TruffleBoundary
     public static int compare(JSDynamicObject collatorObj, String one, String two) {
-        Collator collator = getCollatorProperty(collatorObj);
-        return collator.compare(normalize(one), normalize(two));
+        return compare(getInternalState(collatorObj), one, two);
+    }
+
+    @TruffleBoundary
+    public static int compare(InternalState state, String one, String two) {
+        return state.collator.compare(normalize(one), normalize(two));
     }
 
     private static String normalize(String s) {
@@ -265,6 +269,15 @@ public final class JSCollator extends JSNonProxy implements JSConstructorFactory
         private boolean numeric = false;
         private String caseFirst = IntlUtil.FALSE;
 
+        /**
+         * Makes the collator immutable so that this state can be shared by multiple threads.
+         */
+        @TruffleBoundary
+        public InternalState freeze() {
+            collator.freeze();
+            return this;
+        }
+
         JSObject toResolvedOptionsObject(JSContext context, JSRealm realm) {
             JSObject result = JSOrdinary.create(context, realm);
             JSObjectUtil.defineDataProperty(context, result, IntlUtil.KEY_LOCALE, Strings.fromJavaString(locale), JSAttributes.getDefault());
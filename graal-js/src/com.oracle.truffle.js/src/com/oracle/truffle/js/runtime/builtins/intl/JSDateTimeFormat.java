@@ -695,6 +695,21 @@ public final class JSDateTimeFormat extends JSNonProxy implements JSConstructorF
         return Strings.fromJavaString(dateFormat.format(timeClip(n)));
     }
 
+    /**
+     * Formats using a state that may be shared by multiple threads ({@link DateFormat} is not
+     * thread-safe).
+     */
+    @TruffleBoundary
+    public static TruffleString formatShared(InternalState state, Object n) {
+        double x = timeClip(n);
+        DateFormat dateFormat = state.dateFormat;
+        String result;
+        synchronized (dateFormat) {
+            result = dateFormat.format(x);
+        }
+        return Strings.fromJavaString(result);
+    }
+
     private static double timeClip(Object n) {
         double x;
         if (n == Undefined.instance) {
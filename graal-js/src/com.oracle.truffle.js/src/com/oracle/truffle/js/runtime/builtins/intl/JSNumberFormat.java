@@ -492,7 +492,11 @@ public final class JSNumberFormat extends JSNonProxy implements JSConstructorFac
 
     @TruffleBoundary
     public static TruffleString format(JSDynamicObject numberFormatObj, Object n) {
-        InternalState state = getInternalState(numberFormatObj);
+        return format(getInternalState(numberFormatObj), n);
+    }
+
+    @TruffleBoundary
+    public static TruffleString format(InternalState state, Object n) {
         Number x = toInternalNumberRepresentation(JSRuntime.toNumeric(n));
         return Strings.fromJavaString(formattedValue(state, x).toString());
     }
@@ -73,6 +73,7 @@ public class DefaultESModuleLoader implements JSModuleLoader {
 
     protected final JSRealm realm;
     protected final Map<String, JSModuleRecord> moduleMap = new HashMap<>();
+    private final ESModulePrefetcher prefetcher;
 
     public static DefaultESModuleLoader create(JSRealm realm) {
         return new DefaultESModuleLoader(realm);
@@ -80,6 +81,26 @@ public class DefaultESModuleLoader implements JSModuleLoader {
 
     protected DefaultESModuleLoader(JSRealm realm) {
         this.realm = realm;
+        this.prefetcher = createPrefetcher(realm);
+    }
+
+    private static ESModulePrefetcher createPrefetcher(JSRealm realm) {
+        JSContext context = realm.getContext();
+        int threadCount = context.getContextOptions().getEsmPrefetchThreads();
+        // custom ESM path mappings are resolved by calling into JS, which cannot be done ahead
+        if (threadCount <= 0 || context.isOptionMleBuiltin() || !realm.getEnv().isCreateThreadAllowed()) {
+            return null;
+        }
+        return new ESModulePrefetcher(context, threadCount);
+    }
+
+    /**
+     * Stops any background work of this loader; called when the context is finalized.
+     */
+    public void terminate() {
+        if (prefetcher != null) {
+            prefetcher.terminate();
+        }
     }
 
     protected URI asURI(String specifier) {
@@ -108,7 +129,7 @@ public class DefaultESModuleLoader implements JSModuleLoader {
             TruffleString maybeCustomPath = realm.getCustomEsmPathMapping(Strings.fromJavaString(refPath), specifierTS);
             if (maybeCustomPath != null) {
                 canonicalPath = maybeCustomPath.toJavaStringUncached();
-                moduleFile = realm.getEnv().getPublicTruffleFile(canonicalPath).getCanonicalFile();
+                moduleFile = realm.getModuleResolutionCache().getCanonicalFile(realm.getEnv().getPublicTruffleFile(canonicalPath));
             } else {
                 if (refPath == null) {
                     if (maybeUri != null) {
@@ -119,7 +140,7 @@ public class DefaultESModuleLoader implements JSModuleLoader {
                 } else {
                     TruffleFile refFile = realm.getEnv().getPublicTruffleFile(refPath);
                     if (maybeUri != null) {
-                        String uriFile = realm.getEnv().getPublicTruffleFile(maybeUri).getCanonicalFile().getPath();
+                        String uriFile = realm.getModuleResolutionCache().getCanonicalFile(realm.getEnv().getPublicTruffleFile(maybeUri)).getPath();
                         moduleFile = refFile.resolveSibling(uriFile);
                     } else {
                         if (bareSpecifierDirectLookup(specifier)) {
@@ -174,7 +195,7 @@ public class DefaultESModuleLoader implements JSModuleLoader {
                     return existingModule;
                 }
             }
-            moduleFile = maybeModuleFile.getCanonicalFile();
+            moduleFile = realm.getModuleResolutionCache().getCanonicalFile(maybeModuleFile);
             canonicalPath = moduleFile.getPath();
         } else {
             moduleFile = maybeModuleFile;
@@ -186,7 +207,15 @@ public class DefaultESModuleLoader implements JSModuleLoader {
             return existingModule;
         }
 
-        Source source = Source.newBuilder(JavaScriptLanguage.ID, moduleFile).name(Strings.toJavaString(moduleRequest.getSpecifier())).mimeType(JavaScriptLanguage.MODULE_MIME_TYPE).build();
+        ESModulePrefetcher.Prefetched prefetched = prefetcher == null ? null : prefetcher.take(maybeModuleFile);
+        Source source;
+        String sourceName = Strings.toJavaString(moduleRequest.getSpecifier());
+        if (prefetched != null && sourceName.equals(prefetched.source.getName()) && canonicalPath.equals(prefetched.source.getPath())) {
+            source = prefetched.source;
+        } else {
+            prefetched = null;
+            source = Source.newBuilder(JavaScriptLanguage.ID, moduleFile).name(sourceName).mimeType(JavaScriptLanguage.MODULE_MIME_TYPE).build();
+        }
         Map<TruffleString, TruffleString> assertions = moduleRequest.getAssertions();
         int moduleType = getModuleType(moduleFile.getName());
         TruffleString assertedType = assertions.get(JSContext.getTypeImportAssertion());
@@ -197,8 +226,16 @@ public class DefaultESModuleLoader implements JSModuleLoader {
         if (isModuleType(moduleType, JSON_MODULE_TYPE)) {
             newModule = realm.getContext().getEvaluator().parseJSONModule(realm, source);
         } else {
-            JSModuleData parsedModule = realm.getContext().getEvaluator().envParseModule(realm, source);
+            JSModuleData parsedModule;
+            if (prefetched != null) {
+                parsedModule = realm.getContext().getEvaluator().parseModule(realm.getContext(), source, prefetched.ast, prefetched.regexLiterals);
+            } else {
+                parsedModule = realm.getContext().getEvaluator().envParseModule(realm, source);
+            }
             newModule = new JSModuleRecord(parsedModule, this);
+            if (prefetcher != null) {
+                prefetcher.prefetchImports(moduleFile, parsedModule.getModule());
+            }
         }
         moduleMap.put(canonicalPath, newModule);
 
@@ -232,6 +269,14 @@ public class DefaultESModuleLoader implements JSModuleLoader {
     @Override
     public JSModuleRecord loadModule(Source source, JSModuleData moduleData) {
         String canonicalPath = getCanonicalPath(source);
+        if (prefetcher != null && source.getPath() != null && !moduleMap.containsKey(canonicalPath)) {
+            try {
+                // use the path the imports will be resolved against
+                prefetcher.prefetchImports(realm.getEnv().getPublicTruffleFile(source.getPath()), moduleData.getModule());
+            } catch (InvalidPathException | SecurityException | UnsupportedOperationException e) {
+                // only an optimization
+            }
+        }
         return moduleMap.computeIfAbsent(canonicalPath, (key) -> new JSModuleRecord(moduleData, this));
     }
 
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.objects;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.oracle.js.parser.Lexer.RegexToken;
+import com.oracle.js.parser.ir.FunctionNode;
+import com.oracle.js.parser.ir.Module;
+import com.oracle.js.parser.ir.Module.ModuleRequest;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.Strings;
+
+/**
+ * Reads and parses statically imported modules on a bounded pool of background threads, so that
+ * the module graph is (mostly) parsed by the time module linking asks for it.
+ *
+ * Only file system access and parsing to the intermediate AST happen in the background. Module
+ * resolution, translation, linking and evaluation stay on the thread that owns the realm and
+ * happen in the usual order; a module that has not been prefetched, or whose prefetching failed
+ * for any reason, is simply loaded as before.
+ */
+final class ESModulePrefetcher {
+
+    static final String THREAD_NAME = "graaljs-esm-prefetch";
+    private static final long KEEP_ALIVE_SECONDS = 1;
+    /** Maximum time to wait for a prefetch in progress before loading the module directly. */
+    private static final long TAKE_TIMEOUT_SECONDS = 5;
+
+    private final JSContext context;
+    private final ThreadPoolExecutor executor;
+    /** Normalized paths of all files that have been submitted. */
+    private final Set<String> submitted = ConcurrentHashMap.newKeySet();
+    /** Pending and completed prefetches not yet taken by the module loader. */
+    private final Map<String, Future<Prefetched>> prefetched = new ConcurrentHashMap<>();
+
+    static final class Prefetched {
+        final Source source;
+        final FunctionNode ast;
+        final List<RegexToken> regexLiterals;
+
+        Prefetched(Source source, FunctionNode ast, List<RegexToken> regexLiterals) {
+            this.source = source;
+            this.ast = ast;
+            this.regexLiterals = regexLiterals;
+        }
+    }
+
+    ESModulePrefetcher(JSContext context, int threadCount) {
+        this.context = context;
+        // The workers only read files and run the parser, which does not need the context to be
+        // entered; JavaScript does not allow a second thread to enter the same context anyway.
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Schedules the static imports of a module for prefetching.
+     *
+     * @param moduleFile the (canonical) file the module was loaded from
+     */
+    void prefetchImports(TruffleFile moduleFile, Module module) {
+        for (ModuleRequest request : module.getRequestedModules()) {
+            if (!request.getAssertions().isEmpty()) {
+                continue;
+            }
+            String specifier = Strings.toJavaString(request.getSpecifier());
+            if (!(specifier.startsWith(DefaultESModuleLoader.SLASH) || specifier.startsWith(DefaultESModuleLoader.DOT_SLASH) ||
+                            specifier.startsWith(DefaultESModuleLoader.DOT_DOT_SLASH)) || specifier.endsWith(JavaScriptLanguage.JSON_SOURCE_NAME_SUFFIX)) {
+                continue;
+            }
+            TruffleFile file;
+            String key;
+            try {
+                file = moduleFile.resolveSibling(specifier);
+                key = getKey(file);
+            } catch (InvalidPathException | SecurityException | UnsupportedOperationException e) {
+                continue;
+            }
+            if (submitted.add(key)) {
+                try {
+                    prefetched.put(key, executor.submit(() -> load(file, specifier)));
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the prefetched module for the given file, waiting a bounded time for it if it is
+     * still in progress. Returns {@code null} if the file has not been prefetched, could not be
+     * parsed, or is not ready in time, in which case the caller loads it directly.
+     */
+    Prefetched take(TruffleFile file) {
+        Future<Prefetched> future;
+        try {
+            future = prefetched.remove(getKey(file));
+        } catch (InvalidPathException | SecurityException | UnsupportedOperationException e) {
+            return null;
+        }
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(TAKE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Stops prefetching and waits for the worker threads to finish, so that no files are read on
+     * behalf of the context after it has been closed.
+     */
+    void terminate() {
+        executor.shutdownNow();
+        try {
+            while (!executor.awaitTermination(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS)) {
+                // a parse in progress is not interruptible, wait for it to complete
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Future<Prefetched> future : prefetched.values()) {
+            future.cancel(false);
+        }
+        prefetched.clear();
+        submitted.clear();
+    }
+
+    private static String getKey(TruffleFile file) {
+        return file.normalize().getPath();
+    }
+
+    private Prefetched load(TruffleFile file, String specifier) {
+        try {
+            TruffleFile moduleFile = file.getCanonicalFile();
+            Source source = Source.newBuilder(JavaScriptLanguage.ID, moduleFile).name(specifier).mimeType(JavaScriptLanguage.MODULE_MIME_TYPE).build();
+            List<RegexToken> regexLiterals = new ArrayList<>();
+            FunctionNode ast = context.getEvaluator().preparseModule(context, source, regexLiterals);
+            if (ast == null) {
+                return null;
+            }
+            prefetchImports(moduleFile, ast.getModule());
+            return new Prefetched(source, ast, regexLiterals);
+        } catch (IOException | InvalidPathException | SecurityException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
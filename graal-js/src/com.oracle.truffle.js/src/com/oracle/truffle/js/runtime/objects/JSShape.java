@@ -172,6 +172,15 @@ public final class JSShape {
         return JSShapeData.getPropertiesIfHasEnumerablePropertyNames(shape);
     }
 
+    /**
+     * Returns the for-in enum cache of an object that has only shape properties, or {@code null}
+     * if its prototype chain may contribute keys.
+     */
+    public static JSShapeData.EnumCache getEnumCache(JSDynamicObject object) {
+        assert JSConfig.FastOwnKeys;
+        return JSShapeData.getEnumCache(object);
+    }
+
     /**
      * Internal constructor for null and undefined shapes.
      */
@@ -74,6 +74,8 @@ public final class JSShapeData {
     private Property[] propertyArray;
     /** Only enumerable properties with string keys (no symbols). */
     private TruffleString[] enumerablePropertyNames;
+    /** For-in keys of objects with this shape, for the most recently seen prototype chain. */
+    private EnumCache enumCache;
 
     private JSShapeData() {
     }
@@ -223,10 +225,84 @@ public final class JSShapeData {
         return UnmodifiablePropertyKeyList.create(propertyArray, start, end);
     }
 
+    /**
+     * Returns the enum cache for the object if its prototype chain is pristine, i.e. consists
+     * only of objects without enumerable or non-shape properties, or {@code null} otherwise. The
+     * object itself must only have shape properties.
+     */
+    @TruffleBoundary
+    static EnumCache getEnumCache(JSDynamicObject object) {
+        Shape shape = object.getShape();
+        JSShapeData shapeData = getShapeData(shape);
+        EnumCache enumCache = shapeData.enumCache;
+        if (enumCache != null && enumCache.isValidFor(object)) {
+            return enumCache;
+        }
+        enumCache = createEnumCache(object, shapeData, shape);
+        if (enumCache != null) {
+            shapeData.enumCache = enumCache;
+        }
+        return enumCache;
+    }
+
+    private static EnumCache createEnumCache(JSDynamicObject object, JSShapeData shapeData, Shape shape) {
+        CompilerAsserts.neverPartOfCompilation();
+        List<Shape> prototypeShapes = new ArrayList<>();
+        JSDynamicObject proto = JSObject.getPrototype(object);
+        while (proto != Null.instance) {
+            Shape protoShape = proto.getShape();
+            if (!JSShape.getJSClass(protoShape).hasOnlyShapeProperties(proto) ||
+                            (protoShape.getPropertyCount() != 0 && getEnumerablePropertyNamesArray(getShapeData(protoShape), protoShape).length != 0)) {
+                return null;
+            }
+            prototypeShapes.add(protoShape);
+            proto = JSObject.getPrototype(proto);
+        }
+        TruffleString[] keys = shape.getPropertyCount() == 0 ? EMPTY_STRING_ARRAY : getEnumerablePropertyNamesArray(shapeData, shape);
+        enumCacheAllocCount.inc();
+        return new EnumCache(keys, prototypeShapes.toArray(new Shape[prototypeShapes.size()]));
+    }
+
     private static <T> UnmodifiableArrayList<T> asUnmodifiableList(T[] array) {
         return new UnmodifiableArrayList<>(array);
     }
 
+    /**
+     * The complete list of for-in keys of an object, which are just its own enumerable string keys
+     * as long as the prototype chain consists of objects with the recorded shapes.
+     */
+    public static final class EnumCache {
+        private final TruffleString[] keys;
+        private final Shape[] prototypeShapes;
+
+        EnumCache(TruffleString[] keys, Shape[] prototypeShapes) {
+            this.keys = keys;
+            this.prototypeShapes = prototypeShapes;
+        }
+
+        public TruffleString[] getKeys() {
+            return keys;
+        }
+
+        /**
+         * Checks that the prototype chain of the object still has the shapes this cache was
+         * created for, so that none of the prototypes contribute any keys.
+         */
+        @TruffleBoundary
+        public boolean isValidFor(JSDynamicObject object) {
+            JSDynamicObject current = object;
+            for (Shape prototypeShape : prototypeShapes) {
+                JSDynamicObject proto = JSObject.getPrototype(current);
+                if (proto == Null.instance || proto.getShape() != prototypeShape || !JSShape.getJSClass(prototypeShape).hasOnlyShapeProperties(proto)) {
+                    return false;
+                }
+                current = proto;
+            }
+            return JSObject.getPrototype(current) == Null.instance;
+        }
+    }
+
+    private static final DebugCounter enumCacheAllocCount = DebugCounter.create("Enum caches allocated");
     private static final DebugCounter enumerablePropertyListAllocCount = DebugCounter.create("Enumerable property lists allocated");
     private static final DebugCounter propertyListAllocCount = DebugCounter.create("Property lists allocated");
 }
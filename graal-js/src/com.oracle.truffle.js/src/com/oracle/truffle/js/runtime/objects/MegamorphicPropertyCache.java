@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.objects;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.JSConfig;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.Strings;
+import com.oracle.truffle.js.runtime.Symbol;
+
+/**
+ * Fixed-size (shape, key) to property lookup cache, shared by all megamorphic property accesses of
+ * a {@link com.oracle.truffle.js.runtime.JSContext}.
+ *
+ * An entry records the shapes of the receiver and of each prototype up to the object that holds
+ * the property, or up to the end of the prototype chain if no object has the property. Comparing
+ * these shapes is enough to validate a hit, since equal shapes have the same properties. Only
+ * objects that keep all their properties in the shape are cached, and proxy properties are never
+ * cached. A miss is resolved and cached by the lookup itself. Entries are immutable and simply
+ * overwritten on collision.
+ */
+public final class MegamorphicPropertyCache {
+    private static final int MAX_DEPTH = 8;
+
+    /** Result of {@link #get} if the property is known to be absent. */
+    public static final Object ABSENT = new Object();
+
+    /** Results of {@link #has}. */
+    public static final int UNKNOWN = 0;
+    public static final int PRESENT = 1;
+    public static final int NOT_PRESENT = 2;
+
+    private final Entry[] entries;
+
+    public MegamorphicPropertyCache() {
+        assert Integer.bitCount(JSConfig.MegamorphicPropertyCacheSize) == 1;
+        this.entries = new Entry[JSConfig.MegamorphicPropertyCacheSize];
+    }
+
+    private static final class Entry {
+        /** Shapes of the receiver (at index 0) and its prototypes, up to the holder. */
+        final Shape[] shapes;
+        final Object key;
+        /** The property, or {@code null} if no object of the prototype chain has it. */
+        final Property property;
+
+        Entry(Shape[] shapes, Object key, Property property) {
+            this.shapes = shapes;
+            this.key = key;
+            this.property = property;
+        }
+
+        /**
+         * Returns the holder of the property (the last prototype if the property is absent), or
+         * {@code null} if the entry does not apply to the object.
+         */
+        JSDynamicObject findHolder(JSDynamicObject object, Object otherKey) {
+            if (shapes[0] != object.getShape() || !(key == otherKey || key.equals(otherKey))) {
+                return null;
+            }
+            JSDynamicObject current = object;
+            for (int i = 1; i < shapes.length; i++) {
+                current = JSObject.getPrototype(current);
+                if (current.getShape() != shapes[i]) {
+                    return null;
+                }
+            }
+            if (property == null && JSObject.getPrototype(current) != Null.instance) {
+                return null;
+            }
+            return current;
+        }
+
+        boolean isAbsent() {
+            return property == null;
+        }
+
+        int depth() {
+            return shapes.length - 1;
+        }
+    }
+
+    /**
+     * Checks whether lookups of the property key can be cached at all.
+     */
+    public static boolean isCacheableKey(Object key) {
+        return key instanceof Symbol || (Strings.isTString(key) && !JSRuntime.isArrayIndex(key));
+    }
+
+    /**
+     * Computes the hash of a property key, to be passed to the lookup methods.
+     */
+    public static int keyHash(Object key) {
+        return key.hashCode();
+    }
+
+    private int index(Shape shape, int keyHash) {
+        int h = System.identityHashCode(shape) * 31 + keyHash;
+        return (h ^ (h >>> 16)) & (entries.length - 1);
+    }
+
+    /**
+     * Resolves and caches a lookup that missed, so that the caller does not have to insert it
+     * after its own (generic) lookup.
+     *
+     * @return the new entry, or {@code null} if the lookup cannot be cached
+     */
+    private Entry miss(JSDynamicObject object, Object key, int index) {
+        Entry entry = resolve(object, key);
+        if (entry != null) {
+            entries[index] = entry;
+        }
+        return entry;
+    }
+
+    private static Entry resolve(JSDynamicObject object, Object key) {
+        assert isCacheableKey(key);
+        // Find the holder first, so that nothing is allocated for lookups that cannot be cached.
+        JSDynamicObject current = object;
+        Property property;
+        int depth = 0;
+        while (true) {
+            Shape shape = current.getShape();
+            if (!JSShape.getJSClass(shape).hasOnlyShapeProperties(current)) {
+                return null;
+            }
+            property = shape.getProperty(key);
+            if (property != null) {
+                if (JSProperty.isProxy(property)) {
+                    return null;
+                }
+                break;
+            }
+            JSDynamicObject prototype = JSObject.getPrototype(current);
+            if (prototype == Null.instance) {
+                break;
+            } else if (depth == MAX_DEPTH) {
+                return null;
+            }
+            current = prototype;
+            depth++;
+        }
+        Shape[] shapes = new Shape[depth + 1];
+        current = object;
+        for (int i = 0; i <= depth; i++) {
+            if (i != 0) {
+                current = JSObject.getPrototype(current);
+            }
+            shapes[i] = current.getShape();
+        }
+        return new Entry(shapes, key, property);
+    }
+
+    /**
+     * Returns the value of the property, {@link #ABSENT} if no object of the prototype chain has
+     * the property, or {@code null} if the lookup is not cacheable.
+     */
+    @TruffleBoundary
+    public Object get(JSDynamicObject object, Object key, int keyHash, Object receiver, Node encapsulatingNode) {
+        int index = index(object.getShape(), keyHash);
+        Entry entry = entries[index];
+        JSDynamicObject holder = entry == null ? null : entry.findHolder(object, key);
+        if (holder == null) {
+            entry = miss(object, key, index);
+            if (entry == null) {
+                return null;
+            }
+            holder = entry.findHolder(object, key);
+        }
+        if (entry.isAbsent()) {
+            return ABSENT;
+        }
+        return JSProperty.getValue(entry.property, holder, receiver, encapsulatingNode);
+    }
+
+    /**
+     * Sets an existing own writable data property or calls an accessor's setter.
+     *
+     * @return {@code false} if the assignment was not performed because the property is absent,
+     *         not writable, or the lookup is not cacheable
+     */
+    @TruffleBoundary
+    public boolean set(JSDynamicObject object, Object key, int keyHash, Object value, Object receiver, boolean isStrict, Node encapsulatingNode) {
+        if (receiver != object) {
+            return false;
+        }
+        int index = index(object.getShape(), keyHash);
+        Entry entry = entries[index];
+        JSDynamicObject holder = entry == null ? null : entry.findHolder(object, key);
+        if (holder == null) {
+            entry = miss(object, key, index);
+            if (entry == null) {
+                return false;
+            }
+            holder = entry.findHolder(object, key);
+        }
+        if (entry.isAbsent()) {
+            return false;
+        }
+        Property property = entry.property;
+        if (JSProperty.isAccessor(property) || (entry.depth() == 0 && JSProperty.isWritable(property) && !JSProperty.isConst(property))) {
+            JSProperty.setValue(property, holder, receiver, value, isStrict, encapsulatingNode);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@link #PRESENT} or {@link #NOT_PRESENT} if it is known whether the object (or, if
+     * not {@code isOwnProperty}, its prototype chain) has the property, or {@link #UNKNOWN} if the
+     * lookup is not cacheable.
+     */
+    @TruffleBoundary
+    public int has(JSDynamicObject object, Object key, int keyHash, boolean isOwnProperty) {
+        int index = index(object.getShape(), keyHash);
+        Entry entry = entries[index];
+        if (entry == null || entry.findHolder(object, key) == null) {
+            entry = miss(object, key, index);
+            if (entry == null) {
+                return UNKNOWN;
+            }
+        }
+        return !entry.isAbsent() && (!isOwnProperty || entry.depth() == 0) ? PRESENT : NOT_PRESENT;
+    }
+}
@@ -50,6 +50,7 @@ import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.objects.JSShapeData;
 
 public class ForInIterator {
     public JSDynamicObject object;
@@ -63,6 +64,8 @@ public class ForInIterator {
     public int visitedShapesSize;
     public boolean fastOwnKeys;
     public int protoDepth;
+    /** Enum cache of the receiver while its keys are being iterated, otherwise null. */
+    public JSShapeData.EnumCache enumCache;
     public final boolean iterateValues;
 
     public ForInIterator(JSDynamicObject obj, boolean iterateValues) {
@@ -71,6 +74,13 @@ public class ForInIterator {
         this.visitedShapes = new Shape[4];
     }
 
+    /**
+     * Returns true if the current object is the receiver, i.e. no prototype has been visited yet.
+     */
+    public boolean isVisitingReceiver() {
+        return visitedShapesSize == 0 && protoDepth == 0;
+    }
+
     public void addVisitedShape(Shape shape, BranchProfile growBranch) {
         if (visitedShapesSize >= visitedShapes.length) {
             growBranch.enter();
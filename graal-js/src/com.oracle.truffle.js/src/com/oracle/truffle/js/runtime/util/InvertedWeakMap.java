@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The entries of all {@link WeakMap}s containing a certain key object, stored in a hidden property
+ * of that key. Values are strongly reachable from the key only, while the maps are referenced
+ * weakly, which emulates ephemeron semantics.
+ *
+ * The table is per key rather than shared by all keys on purpose: Java has no ephemerons, so a
+ * table holding keys weakly and values strongly would keep every key reachable from its own value
+ * alive forever. Storing the entries in the key makes a value unreachable as soon as its key is.
+ *
+ * Most keys are contained in a single map, so the first entry is stored inline. Further entries go
+ * to an open-addressed table (linear probing) of interleaved map references and values. All entries
+ * of a map share the map's {@link WeakMap.Ref} instead of allocating a weak reference each. When
+ * maps have been garbage collected (observed via the reference queue of {@link WeakMap.Ref}), their
+ * entries, including the inline one, are expunged by the next operation on this table that is not
+ * a lookup of the inline entry.
+ */
+public final class InvertedWeakMap {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** Map of the inline entry, or {@code null}. */
+    private WeakMap.Ref singleMap;
+    /** Value of the inline entry, or {@code null}. */
+    private Object singleValue;
+    /** Interleaved map references and values, or {@code null}. */
+    private Object[] table;
+    /** Number of occupied table entries, including entries of collected maps. */
+    private int used;
+    /** Collected maps epoch at the last expunge, see {@link WeakMap#pollCollectedMapsEpoch()}. */
+    private int epoch;
+
+    InvertedWeakMap(WeakMap.Ref map, Object value) {
+        this.singleMap = map;
+        this.singleValue = value;
+        this.epoch = WeakMap.pollCollectedMapsEpoch();
+    }
+
+    public Object get(WeakMap map) {
+        WeakMap.Ref ref = map.getRef();
+        if (singleMap == ref) {
+            return singleValue;
+        }
+        return getSlowPath(ref);
+    }
+
+    public boolean containsKey(WeakMap map) {
+        return get(map) != null;
+    }
+
+    public Object put(WeakMap map, Object value) {
+        assert value != null;
+        WeakMap.Ref ref = map.getRef();
+        if (singleMap == ref) {
+            Object oldValue = singleValue;
+            singleValue = value;
+            return oldValue;
+        } else if (table == null && singleMap == null) {
+            singleMap = ref;
+            singleValue = value;
+            return null;
+        }
+        return putSlowPath(ref, value);
+    }
+
+    public Object remove(WeakMap map) {
+        WeakMap.Ref ref = map.getRef();
+        if (singleMap == ref) {
+            Object oldValue = singleValue;
+            singleMap = null;
+            singleValue = null;
+            return oldValue;
+        }
+        return removeSlowPath(ref);
+    }
+
+    private int capacity() {
+        return table.length >> 1;
+    }
+
+    private int find(WeakMap.Ref ref) {
+        int mask = capacity() - 1;
+        int i = ref.hash & mask;
+        while (true) {
+            Object key = table[i << 1];
+            if (key == null) {
+                return -1;
+            } else if (key == ref) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    @TruffleBoundary
+    private Object getSlowPath(WeakMap.Ref ref) {
+        expungeCollectedMaps();
+        if (table == null) {
+            return null;
+        }
+        int i = find(ref);
+        return i < 0 ? null : table[(i << 1) + 1];
+    }
+
+    @TruffleBoundary
+    private Object putSlowPath(WeakMap.Ref ref, Object value) {
+        expungeCollectedMaps();
+        if (table != null) {
+            int i = find(ref);
+            if (i >= 0) {
+                Object oldValue = table[(i << 1) + 1];
+                table[(i << 1) + 1] = value;
+                return oldValue;
+            }
+        }
+        if (singleMap == null) {
+            singleMap = ref;
+            singleValue = value;
+        } else {
+            tableInsert(ref, value);
+        }
+        return null;
+    }
+
+    private void tableInsert(WeakMap.Ref ref, Object value) {
+        if (table == null) {
+            table = new Object[INITIAL_CAPACITY << 1];
+        } else if ((used + 1) * 4 > capacity() * 3) {
+            rehash();
+        }
+        insertNew(table, ref, value);
+        used++;
+    }
+
+    private static void insertNew(Object[] entries, WeakMap.Ref ref, Object value) {
+        int mask = (entries.length >> 1) - 1;
+        int i = ref.hash & mask;
+        while (entries[i << 1] != null) {
+            i = (i + 1) & mask;
+        }
+        entries[i << 1] = ref;
+        entries[(i << 1) + 1] = value;
+    }
+
+    /**
+     * Drops the entries of collected maps if any map has been collected since the last call.
+     */
+    private void expungeCollectedMaps() {
+        int currentEpoch = WeakMap.pollCollectedMapsEpoch();
+        if (currentEpoch == epoch) {
+            return;
+        }
+        epoch = currentEpoch;
+        if (singleMap != null && singleMap.get() == null) {
+            singleMap = null;
+            singleValue = null;
+        }
+        if (table != null) {
+            rehash();
+            if (used == 0) {
+                table = null;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the table, dropping entries of collected maps and growing it if needed to
+     * accommodate one more entry.
+     */
+    private void rehash() {
+        int live = 0;
+        for (int i = 0; i < table.length; i += 2) {
+            Object key = table[i];
+            if (key != null && ((WeakMap.Ref) key).get() != null) {
+                live++;
+            }
+        }
+        int newCapacity = INITIAL_CAPACITY;
+        while ((live + 1) * 4 > newCapacity * 3) {
+            newCapacity <<= 1;
+        }
+        Object[] newTable = new Object[newCapacity << 1];
+        for (int i = 0; i < table.length; i += 2) {
+            Object key = table[i];
+            if (key != null && ((WeakMap.Ref) key).get() != null) {
+                insertNew(newTable, (WeakMap.Ref) key, table[i + 1]);
+            }
+        }
+        table = newTable;
+        used = live;
+    }
+
+    @TruffleBoundary
+    private Object removeSlowPath(WeakMap.Ref ref) {
+        expungeCollectedMaps();
+        if (table == null) {
+            return null;
+        }
+        int i = find(ref);
+        if (i < 0) {
+            return null;
+        }
+        Object oldValue = table[(i << 1) + 1];
+        int mask = capacity() - 1;
+        // backward shift deletion: move up entries whose probe sequence passes the freed slot
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            Object key = table[j << 1];
+            if (key == null) {
+                break;
+            }
+            int home = ((WeakMap.Ref) key).hash & mask;
+            boolean reachable = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!reachable) {
+                table[i << 1] = key;
+                table[(i << 1) + 1] = table[(j << 1) + 1];
+                i = j;
+            }
+        }
+        table[i << 1] = null;
+        table[(i << 1) + 1] = null;
+        if (--used == 0) {
+            table = null;
+        }
+        return oldValue;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -40,12 +40,22 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.strings.TruffleString;
 
 /**
  * ES6-compliant hash map implementation.
+ *
+ * Deterministic (insertion-ordered) open hash table: entries are appended to parallel key, value
+ * and chain arrays, and a bucket array holds the index of the first entry of each hash chain.
+ * Deleted entries leave a hole that is dropped when the table is compacted. Live cursors are kept
+ * valid across compactions and {@link #clear()} by recording the removed entry indices, so that
+ * cursors can translate their position lazily when they advance.
+ *
+ * Lookups of int and double keys (the result of {@code JSCollectionsNormalizeNode}) do not need
+ * to cross a {@link TruffleBoundary}.
  */
 public final class JSHashMap {
     public interface Cursor {
@@ -72,194 +82,360 @@ public final class JSHashMap {
         Cursor copy();
     }
 
-    private final HashMap<Object, Node> map;
-    private final Node head;
-    private Node tail;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int NO_ENTRY = -1;
+
+    /** Index of the first entry of each hash chain; the length is a power of two. */
+    private int[] buckets;
+    /** Keys in insertion order, {@code null} for deleted entries. */
+    private Object[] keys;
+    private Object[] values;
+    /** Index of the next entry in the same hash chain. */
+    private int[] chain;
+    /** Number of entry slots in use, including deleted entries. */
+    private int usedEntries;
+    private int size;
+    /** Entry layout observed by cursors, created on demand. */
+    private Layout layout;
 
     @TruffleBoundary(allowInlining = true)
     public JSHashMap() {
-        this.map = new HashMap<>();
-        Node dummy = new Node(null, null, null, null);
-        this.head = dummy;
-        this.tail = dummy;
     }
 
-    @TruffleBoundary(allowInlining = true)
     public int size() {
-        return map.size();
+        return size;
     }
 
     /**
      * Insert new entry, if key does not already exist, otherwise update the existing entry's value.
      */
-    @TruffleBoundary
     public void put(Object key, Object value) {
-        Node newNode = new Node(key, value, null, null);
-        Node oldNode = map.putIfAbsent(key, newNode);
-        if (oldNode == null) {
-            newNode.setPrev(tail);
-            tail.setNext(newNode);
-            tail = newNode;
+        assert key != null && value != null;
+        int entry = findEntry(key);
+        if (entry != NO_ENTRY) {
+            values[entry] = value;
         } else {
-            oldNode.setValue(value);
+            appendEntry(key, value);
         }
     }
 
-    @TruffleBoundary
     public Object get(Object key) {
-        Node node = map.get(key);
-        return node == null ? null : node.getValue();
+        int entry = findEntry(key);
+        return entry == NO_ENTRY ? null : values[entry];
     }
 
-    @TruffleBoundary
     public boolean has(Object key) {
-        return map.containsKey(key);
+        return findEntry(key) != NO_ENTRY;
     }
 
-    @TruffleBoundary
     public boolean remove(Object key) {
-        Node node = map.remove(key);
-        if (node == null) {
+        int entry = findEntry(key);
+        if (entry == NO_ENTRY) {
             return false;
-        } else {
-            unlink(node);
-            return true;
         }
-    }
-
-    private void unlink(Node node) {
-        Node next = node.getNext();
-        Node prev = node.getPrev();
-        prev.setNext(next);
-        if (next != null) {
-            next.setPrev(prev);
-        } else {
-            tail = prev;
+        // leave the entry in its hash chain until the next compaction
+        keys[entry] = null;
+        values[entry] = null;
+        size--;
+        if (size < (keys.length >>> 2) && keys.length > INITIAL_CAPACITY) {
+            rehash(keys.length >>> 1);
         }
-        node.setEmpty();
+        return true;
     }
 
     @TruffleBoundary
     public void clear() {
-        map.clear();
-        for (Node current = head.getNext(); current != null; current = current.getNext()) {
-            current.setEmpty();
+        if (layout != null) {
+            layout = layout.transition(null);
         }
-        head.setNext(null);
-        tail = head;
+        buckets = null;
+        keys = null;
+        values = null;
+        chain = null;
+        usedEntries = 0;
+        size = 0;
     }
 
     @TruffleBoundary
     @Override
     public String toString() {
-        return map.toString();
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < usedEntries; i++) {
+            if (keys[i] != null) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return sb.append('}').toString();
     }
 
     public Cursor getEntries() {
-        return new CursorImpl(head);
+        if (layout == null) {
+            layout = new Layout();
+        }
+        return new CursorImpl(this, layout);
     }
 
-    private static final class CursorImpl implements Cursor {
-        private Node current;
-
-        CursorImpl(Node head) {
-            this.current = head;
+    private int findEntry(Object key) {
+        if (buckets == null) {
+            return NO_ENTRY;
+        } else if (key instanceof Integer) {
+            return findInt((int) key);
+        } else if (key instanceof Double) {
+            return findDouble((double) key);
+        } else if (key instanceof TruffleString) {
+            return findString((TruffleString) key);
+        } else {
+            return findObject(key);
         }
+    }
 
-        @Override
-        public boolean advance() {
-            if (current == null) {
-                return false;
-            } else {
-                // if current is no longer in the map, back up to a previous node still in the map
-                while (current.isEmpty() && current.getPrev() != null) {
-                    current = current.getPrev();
-                }
-                Node next = current.getNext();
-                assert next == null || next.getKey() != null;
-                current = next;
-                return next != null;
+    private int findInt(int key) {
+        for (int entry = buckets[intHash(key) & (buckets.length - 1)]; entry != NO_ENTRY; entry = chain[entry]) {
+            Object k = keys[entry];
+            if (k instanceof Integer && (int) k == key) {
+                return entry;
             }
         }
+        return NO_ENTRY;
+    }
 
-        @Override
-        public Object getKey() {
-            Object key = current.getKey();
-            assert key != null;
-            return key;
+    private int findDouble(double key) {
+        long bits = Double.doubleToLongBits(key);
+        for (int entry = buckets[longHash(bits) & (buckets.length - 1)]; entry != NO_ENTRY; entry = chain[entry]) {
+            Object k = keys[entry];
+            if (k instanceof Double && Double.doubleToLongBits((double) k) == bits) {
+                return entry;
+            }
         }
+        return NO_ENTRY;
+    }
 
-        @Override
-        public Object getValue() {
-            Object value = current.getValue();
-            assert value != null;
-            return value;
+    @TruffleBoundary(allowInlining = true)
+    private int findString(TruffleString key) {
+        for (int entry = buckets[mix(key.hashCode()) & (buckets.length - 1)]; entry != NO_ENTRY; entry = chain[entry]) {
+            Object k = keys[entry];
+            if (k instanceof TruffleString && key.equals(k)) {
+                return entry;
+            }
         }
+        return NO_ENTRY;
+    }
 
-        @Override
-        public String toString() {
-            return "Cursor [current=" + current + "]";
+    @TruffleBoundary
+    private int findObject(Object key) {
+        for (int entry = buckets[hash(key) & (buckets.length - 1)]; entry != NO_ENTRY; entry = chain[entry]) {
+            Object k = keys[entry];
+            if (k == key || (k != null && key.equals(k))) {
+                return entry;
+            }
         }
+        return NO_ENTRY;
+    }
 
-        @Override
-        public Cursor copy() {
-            return new CursorImpl(current);
+    private void appendEntry(Object key, Object value) {
+        if (keys == null || usedEntries == keys.length) {
+            grow();
         }
+        insertEntry(key, hash(key), value);
+        size++;
+    }
+
+    private void insertEntry(Object key, int hash, Object value) {
+        int entry = usedEntries++;
+        int bucket = hash & (buckets.length - 1);
+        keys[entry] = key;
+        values[entry] = value;
+        chain[entry] = buckets[bucket];
+        buckets[bucket] = entry;
     }
 
-    private static final class Node {
-        private Object key;
-        private Object value;
-        private Node prev;
-        private Node next;
-
-        Node(Object key, Object value, Node prev, Node next) {
-            this.key = key;
-            this.value = value;
-            this.prev = prev;
-            this.next = next;
+    @TruffleBoundary
+    private void grow() {
+        if (keys == null) {
+            allocate(INITIAL_CAPACITY);
+        } else if (usedEntries - size >= (usedEntries >>> 1)) {
+            // mostly holes: compact in place
+            rehash(keys.length);
+        } else {
+            rehash(keys.length << 1);
         }
+    }
 
-        Object getKey() {
-            return key;
+    /**
+     * Moves all live entries into new arrays of the given capacity, dropping deleted entries.
+     */
+    @TruffleBoundary
+    private void rehash(int newCapacity) {
+        assert newCapacity >= size;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsedEntries = usedEntries;
+        if (layout != null && size != oldUsedEntries) {
+            int[] removedEntries = new int[oldUsedEntries - size];
+            int removed = 0;
+            for (int i = 0; i < oldUsedEntries; i++) {
+                if (oldKeys[i] == null) {
+                    removedEntries[removed++] = i;
+                }
+            }
+            layout = layout.transition(removedEntries);
         }
+        allocate(newCapacity);
+        for (int i = 0; i < oldUsedEntries; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                insertEntry(key, hash(key), oldValues[i]);
+            }
+        }
+        assert usedEntries == size;
+    }
 
-        Object getValue() {
-            return value;
+    private void allocate(int capacity) {
+        // two entries per bucket on average
+        buckets = new int[Math.max(capacity >>> 1, 1)];
+        Arrays.fill(buckets, NO_ENTRY);
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        chain = new int[capacity];
+        usedEntries = 0;
+    }
+
+    private static int hash(Object key) {
+        if (key instanceof Integer) {
+            return intHash((int) key);
+        } else if (key instanceof Double) {
+            return longHash(Double.doubleToLongBits((double) key));
+        } else {
+            return mix(hashCode(key));
         }
+    }
 
-        void setValue(Object value) {
-            this.value = value;
+    @TruffleBoundary(allowInlining = true)
+    private static int hashCode(Object key) {
+        return key.hashCode();
+    }
+
+    private static int intHash(int key) {
+        return mix(key);
+    }
+
+    private static int longHash(long bits) {
+        return mix((int) (bits ^ (bits >>> 32)));
+    }
+
+    private static int mix(int h) {
+        int x = h * 0x9E3779B9;
+        return x ^ (x >>> 16);
+    }
+
+    /**
+     * Describes the entry indices of the table at some point in time. When entries are moved, the
+     * layout is linked to its successor together with the indices of the dropped entries.
+     */
+    private static final class Layout {
+        /** The layout that replaced this one, or {@code null} if current. */
+        private Layout next;
+        /** Sorted indices of the entries dropped in the transition; {@code null} if cleared. */
+        private int[] removedEntries;
+
+        Layout transition(int[] removed) {
+            assert next == null;
+            this.removedEntries = removed;
+            this.next = new Layout();
+            return next;
         }
 
-        Node getPrev() {
-            return prev;
+        /**
+         * Translates an entry index of this layout to the corresponding index in the next layout.
+         */
+        int translate(int index) {
+            if (removedEntries == null) {
+                return 0;
+            }
+            // number of removed entries before index
+            int low = 0;
+            int high = removedEntries.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (removedEntries[mid] < index) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return index - low;
         }
+    }
 
-        void setPrev(Node prev) {
-            this.prev = prev;
+    private static final class CursorImpl implements Cursor {
+        private final JSHashMap map;
+        private Layout layout;
+        /** Index of the next entry to visit, or -1 if the cursor is exhausted. */
+        private int position;
+        private Object currentKey;
+        private Object currentValue;
+
+        CursorImpl(JSHashMap map, Layout layout) {
+            this.map = map;
+            this.layout = layout;
         }
 
-        Node getNext() {
-            return next;
+        private CursorImpl(CursorImpl cursor) {
+            this.map = cursor.map;
+            this.layout = cursor.layout;
+            this.position = cursor.position;
+            this.currentKey = cursor.currentKey;
+            this.currentValue = cursor.currentValue;
         }
 
-        void setNext(Node next) {
-            this.next = next;
+        @Override
+        public boolean advance() {
+            if (position < 0) {
+                return false;
+            }
+            while (layout.next != null) {
+                position = layout.translate(position);
+                layout = layout.next;
+            }
+            Object[] keys = map.keys;
+            while (position < map.usedEntries) {
+                int entry = position++;
+                Object key = keys[entry];
+                if (key != null) {
+                    currentKey = key;
+                    currentValue = map.values[entry];
+                    return true;
+                }
+            }
+            position = -1;
+            currentKey = null;
+            currentValue = null;
+            return false;
         }
 
-        void setEmpty() {
-            this.key = null;
-            this.value = null;
+        @Override
+        public Object getKey() {
+            assert currentKey != null;
+            return currentKey;
         }
 
-        boolean isEmpty() {
-            return this.key == null;
+        @Override
+        public Object getValue() {
+            assert currentValue != null;
+            return currentValue;
         }
 
         @Override
         public String toString() {
-            return "Node [key=" + key + ", value=" + value + "]";
+            return "Cursor [position=" + position + ", key=" + currentKey + "]";
+        }
+
+        @Override
+        public Cursor copy() {
+            return new CursorImpl(this);
         }
     }
 }
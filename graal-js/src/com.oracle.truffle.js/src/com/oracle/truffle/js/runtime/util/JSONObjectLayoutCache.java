@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.Strings;
+
+/**
+ * Per-context cache of the object layouts produced by {@code JSON.parse}.
+ *
+ * The cache is a trie of property keys. Each node stands for the sequence of keys on the path from
+ * the root, i.e., for the layout of an ordinary object that has been populated with these keys in
+ * this order. A child is only ever added for a key that is not an array index and that does not
+ * occur on the path already, so an object that follows a path of the trie is known not to have the
+ * next key yet and the property can be added by a plain shape transition, without going through
+ * the generic [[DefineOwnProperty]] machinery. The node also remembers the interned key string,
+ * which is shared by all objects of that layout instead of a fresh substring of the JSON source.
+ *
+ * Objects are still allocated with the empty root shape (a dynamic object cannot be allocated with
+ * a shape that already has properties); since all objects of a layout add the same keys in the same
+ * order, they follow the same cached shape transitions.
+ */
+public final class JSONObjectLayoutCache {
+
+    /** Maximum number of trie nodes, bounding the footprint for documents with dynamic keys. */
+    private static final int MAX_NODES = 8192;
+    /** Keys longer than this are unlikely to be part of a recurring layout and are not cached. */
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final Node root = new Node(null, null);
+    private final AtomicInteger nodeCount = new AtomicInteger();
+
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the child of {@code parent} for {@code key}, adding it if the key is eligible and the
+     * cache is not full. Must only be called if the object on the path of {@code parent} does not
+     * have an own property {@code key} yet.
+     *
+     * @return the child node, or {@code null} if the layout cannot be cached.
+     */
+    public Node addChild(Node parent, TruffleString key) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (Strings.length(key) > MAX_KEY_LENGTH || JSRuntime.isArrayIndexString(key)) {
+            return null;
+        }
+        Node existing = parent.getChild(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (nodeCount.incrementAndGet() > MAX_NODES) {
+            nodeCount.decrementAndGet();
+            return null;
+        }
+        Node child = new Node(parent, key);
+        Node raced = parent.children().putIfAbsent(key, child);
+        if (raced != null) {
+            nodeCount.decrementAndGet();
+            child = raced;
+        }
+        parent.lastChild = child;
+        return child;
+    }
+
+    public int size() {
+        return nodeCount.get();
+    }
+
+    public static final class Node {
+        private final Node parent;
+        private final TruffleString key;
+        private volatile ConcurrentHashMap<TruffleString, Node> children;
+        /** Monomorphic fast path: the child that was used most recently. */
+        private volatile Node lastChild;
+
+        Node(Node parent, TruffleString key) {
+            this.parent = parent;
+            this.key = key;
+        }
+
+        public TruffleString getKey() {
+            return key;
+        }
+
+        public Node getParent() {
+            return parent;
+        }
+
+        /**
+         * Returns the child for {@code childKey}, or {@code null} if there is none. A {@code null}
+         * result means either that the key has not been seen at this position yet or that it
+         * occurs on the path already (i.e. a duplicate key).
+         */
+        public Node getChild(TruffleString childKey) {
+            Node last = lastChild;
+            if (last != null && (last.key == childKey || Strings.equals(last.key, childKey))) {
+                return last;
+            }
+            ConcurrentHashMap<TruffleString, Node> map = children;
+            if (map == null) {
+                return null;
+            }
+            Node child = map.get(childKey);
+            if (child != null) {
+                lastChild = child;
+            }
+            return child;
+        }
+
+        /**
+         * Returns {@code true} if {@code candidateKey} is one of the keys on the path to this node.
+         */
+        public boolean containsKey(TruffleString candidateKey) {
+            for (Node node = this; node.key != null; node = node.parent) {
+                if (Strings.equals(node.key, candidateKey)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private ConcurrentHashMap<TruffleString, Node> children() {
+            ConcurrentHashMap<TruffleString, Node> map = children;
+            if (map == null) {
+                synchronized (this) {
+                    map = children;
+                    if (map == null) {
+                        map = new ConcurrentHashMap<>(4);
+                        children = map;
+                    }
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,584 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Arrays;
+
+/**
+ * Ordered map from non-negative {@code long} keys to non-null values, implemented as a B+-tree
+ * whose pages store keys in primitive {@code long[]} arrays. Used as the element storage of sparse
+ * arrays, where it avoids boxing the indices and supports bulk range removal and key shifting.
+ *
+ * Lookups return {@code null} for absent keys; key queries return {@code -1} if there is no such
+ * key. Not thread-safe.
+ */
+public final class LongBTreeMap {
+
+    static final int MAX_NODE_SIZE = 64;
+    private static final int MIN_NODE_SIZE = MAX_NODE_SIZE / 4;
+    private static final int INITIAL_LEAF_CAPACITY = 4;
+
+    private Node root;
+    private int size;
+
+    public LongBTreeMap() {
+        this.root = new Leaf(INITIAL_LEAF_CAPACITY);
+    }
+
+    private LongBTreeMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    private abstract static class Node {
+        /**
+         * In leaves, the sorted keys. In inner nodes, {@code keys[i]} is a lower bound of the keys
+         * in {@code children[i]} and an upper bound (exclusive) of the keys in
+         * {@code children[i - 1]}.
+         */
+        long[] keys;
+        int size;
+
+        Node(int capacity) {
+            this.keys = new long[capacity];
+        }
+
+        abstract Node copy();
+    }
+
+    private static final class Leaf extends Node {
+        Object[] values;
+
+        Leaf(int capacity) {
+            super(capacity);
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        Leaf copy() {
+            Leaf copy = new Leaf(keys.length);
+            System.arraycopy(keys, 0, copy.keys, 0, size);
+            System.arraycopy(values, 0, copy.values, 0, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    private static final class Inner extends Node {
+        final Node[] children;
+
+        Inner() {
+            super(MAX_NODE_SIZE);
+            this.children = new Node[MAX_NODE_SIZE];
+        }
+
+        @Override
+        Inner copy() {
+            Inner copy = new Inner();
+            System.arraycopy(keys, 0, copy.keys, 0, size);
+            for (int i = 0; i < size; i++) {
+                copy.children[i] = children[i].copy();
+            }
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a deep copy of this map. The values themselves are not copied.
+     */
+    public LongBTreeMap copy() {
+        return new LongBTreeMap(root.copy(), size);
+    }
+
+    /**
+     * Index of the first key in the leaf that is greater than or equal to {@code key}, or
+     * {@code -(insertionPoint + 1)} if the key is not present.
+     */
+    private static int search(Node node, long key) {
+        return Arrays.binarySearch(node.keys, 0, node.size, key);
+    }
+
+    /**
+     * Index of the first key in the leaf that is greater than or equal to {@code key}.
+     */
+    private static int lowerBound(Leaf leaf, long key) {
+        int pos = search(leaf, key);
+        return pos >= 0 ? pos : -(pos + 1);
+    }
+
+    /**
+     * Index of the child of an inner node that may contain {@code key}.
+     */
+    private static int childIndex(Inner node, long key) {
+        int low = 1;
+        int high = node.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (node.keys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    private Leaf findLeaf(long key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    public Object get(long key) {
+        Leaf leaf = findLeaf(key);
+        int pos = search(leaf, key);
+        return pos >= 0 ? leaf.values[pos] : null;
+    }
+
+    public boolean containsKey(long key) {
+        return search(findLeaf(key), key) >= 0;
+    }
+
+    public void put(long key, Object value) {
+        assert key >= 0 && value != null;
+        Node split = insert(root, key, value);
+        if (split != null) {
+            Inner newRoot = new Inner();
+            newRoot.children[0] = root;
+            newRoot.children[1] = split;
+            newRoot.keys[1] = split.keys[0];
+            newRoot.size = 2;
+            root = newRoot;
+        }
+    }
+
+    /**
+     * Inserts the entry into the subtree. If the node had to be split, returns the new right
+     * sibling, whose {@code keys[0]} is the separator to insert into the parent.
+     */
+    private Node insert(Node node, long key, Object value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int pos = search(leaf, key);
+            if (pos >= 0) {
+                leaf.values[pos] = value;
+                return null;
+            }
+            size++;
+            return insertIntoLeaf(leaf, -(pos + 1), key, value);
+        } else {
+            Inner inner = (Inner) node;
+            int index = childIndex(inner, key);
+            Node split = insert(inner.children[index], key, value);
+            if (split == null) {
+                return null;
+            }
+            return insertIntoInner(inner, index + 1, split);
+        }
+    }
+
+    private static Leaf insertIntoLeaf(Leaf leaf, int pos, long key, Object value) {
+        int n = leaf.size;
+        if (n < leaf.keys.length) {
+            insertAt(leaf, pos, key, value);
+            return null;
+        } else if (n < MAX_NODE_SIZE) {
+            int newCapacity = Math.min(n * 2, MAX_NODE_SIZE);
+            leaf.keys = Arrays.copyOf(leaf.keys, newCapacity);
+            leaf.values = Arrays.copyOf(leaf.values, newCapacity);
+            insertAt(leaf, pos, key, value);
+            return null;
+        }
+        // Appending at the end (the typical case of ascending indices) leaves the left page full.
+        int mid = pos == n ? n : n / 2;
+        Leaf right = new Leaf(MAX_NODE_SIZE);
+        int moved = n - mid;
+        System.arraycopy(leaf.keys, mid, right.keys, 0, moved);
+        System.arraycopy(leaf.values, mid, right.values, 0, moved);
+        Arrays.fill(leaf.values, mid, n, null);
+        leaf.size = mid;
+        right.size = moved;
+        if (pos < mid) {
+            insertAt(leaf, pos, key, value);
+        } else {
+            insertAt(right, pos - mid, key, value);
+        }
+        return right;
+    }
+
+    private static void insertAt(Leaf leaf, int pos, long key, Object value) {
+        int n = leaf.size;
+        System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, n - pos);
+        System.arraycopy(leaf.values, pos, leaf.values, pos + 1, n - pos);
+        leaf.keys[pos] = key;
+        leaf.values[pos] = value;
+        leaf.size = n + 1;
+    }
+
+    private static Inner insertIntoInner(Inner inner, int index, Node child) {
+        int n = inner.size;
+        if (n < MAX_NODE_SIZE) {
+            insertChildAt(inner, index, child);
+            return null;
+        }
+        int mid = index == n ? n : n / 2;
+        Inner right = new Inner();
+        int moved = n - mid;
+        System.arraycopy(inner.keys, mid, right.keys, 0, moved);
+        System.arraycopy(inner.children, mid, right.children, 0, moved);
+        Arrays.fill(inner.children, mid, n, null);
+        inner.size = mid;
+        right.size = moved;
+        if (index < mid) {
+            insertChildAt(inner, index, child);
+        } else {
+            insertChildAt(right, index - mid, child);
+        }
+        return right;
+    }
+
+    private static void insertChildAt(Inner inner, int index, Node child) {
+        int n = inner.size;
+        System.arraycopy(inner.keys, index, inner.keys, index + 1, n - index);
+        System.arraycopy(inner.children, index, inner.children, index + 1, n - index);
+        inner.keys[index] = child.keys[0];
+        inner.children[index] = child;
+        inner.size = n + 1;
+    }
+
+    /**
+     * Removes the entry with the given key, if present.
+     *
+     * @return the removed value or {@code null}
+     */
+    public Object remove(long key) {
+        Leaf leaf = findLeaf(key);
+        int pos = search(leaf, key);
+        if (pos < 0) {
+            return null;
+        }
+        Object value = leaf.values[pos];
+        removeRange(key, key + 1);
+        return value;
+    }
+
+    /**
+     * Removes all entries with keys in the range [from, to).
+     *
+     * @return the number of removed entries
+     */
+    public int removeRange(long from, long to) {
+        if (from >= to || size == 0) {
+            return 0;
+        }
+        int removed = removeRange(root, from, to);
+        size -= removed;
+        shrinkRoot();
+        return removed;
+    }
+
+    /**
+     * Removes all entries with keys greater than or equal to {@code from}.
+     */
+    public int truncate(long from) {
+        return removeRange(from, Long.MAX_VALUE);
+    }
+
+    public void clear() {
+        root = new Leaf(INITIAL_LEAF_CAPACITY);
+        size = 0;
+    }
+
+    private static int removeRange(Node node, long from, long to) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int start = lowerBound(leaf, from);
+            int end = lowerBound(leaf, to);
+            int removed = end - start;
+            if (removed > 0) {
+                int n = leaf.size;
+                System.arraycopy(leaf.keys, end, leaf.keys, start, n - end);
+                System.arraycopy(leaf.values, end, leaf.values, start, n - end);
+                Arrays.fill(leaf.values, n - removed, n, null);
+                leaf.size = n - removed;
+            }
+            return removed;
+        }
+        Inner inner = (Inner) node;
+        int first = childIndex(inner, from);
+        int last = childIndex(inner, to - 1);
+        int removed = removeRange(inner.children[first], from, to);
+        if (first == last) {
+            fixChild(inner, first);
+            return removed;
+        }
+        for (int i = first + 1; i < last; i++) {
+            removed += count(inner.children[i]);
+        }
+        removed += removeRange(inner.children[last], from, to);
+        removeChildren(inner, first + 1, last);
+        fixChild(inner, first + 1);
+        fixChild(inner, first);
+        return removed;
+    }
+
+    private static int count(Node node) {
+        if (node instanceof Leaf) {
+            return node.size;
+        }
+        Inner inner = (Inner) node;
+        int count = 0;
+        for (int i = 0; i < inner.size; i++) {
+            count += count(inner.children[i]);
+        }
+        return count;
+    }
+
+    private static void removeChildren(Inner inner, int start, int end) {
+        int n = inner.size;
+        System.arraycopy(inner.keys, end, inner.keys, start, n - end);
+        System.arraycopy(inner.children, end, inner.children, start, n - end);
+        Arrays.fill(inner.children, n - (end - start), n, null);
+        inner.size = n - (end - start);
+    }
+
+    /**
+     * Removes the child at the given index if it became empty or merges it with a sibling if it
+     * became underfull.
+     */
+    private static void fixChild(Inner inner, int index) {
+        Node child = inner.children[index];
+        if (child.size == 0) {
+            removeChildren(inner, index, index + 1);
+        } else if (child.size < MIN_NODE_SIZE) {
+            if (index > 0 && inner.children[index - 1].size + child.size <= MAX_NODE_SIZE) {
+                merge(inner, index - 1);
+            } else if (index + 1 < inner.size && inner.children[index + 1].size + child.size <= MAX_NODE_SIZE) {
+                merge(inner, index);
+            }
+        }
+    }
+
+    /**
+     * Merges {@code children[index + 1]} into {@code children[index]}.
+     */
+    private static void merge(Inner inner, int index) {
+        Node left = inner.children[index];
+        Node right = inner.children[index + 1];
+        int n = left.size;
+        int m = right.size;
+        if (left instanceof Leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            Leaf rightLeaf = (Leaf) right;
+            if (leftLeaf.keys.length < n + m) {
+                leftLeaf.keys = Arrays.copyOf(leftLeaf.keys, MAX_NODE_SIZE);
+                leftLeaf.values = Arrays.copyOf(leftLeaf.values, MAX_NODE_SIZE);
+            }
+            System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, n, m);
+            System.arraycopy(rightLeaf.values, 0, leftLeaf.values, n, m);
+        } else {
+            Inner leftInner = (Inner) left;
+            Inner rightInner = (Inner) right;
+            System.arraycopy(rightInner.keys, 0, leftInner.keys, n, m);
+            System.arraycopy(rightInner.children, 0, leftInner.children, n, m);
+            leftInner.keys[n] = inner.keys[index + 1];
+        }
+        left.size = n + m;
+        removeChildren(inner, index + 1, index + 2);
+    }
+
+    private void shrinkRoot() {
+        while (root instanceof Inner) {
+            Inner inner = (Inner) root;
+            if (inner.size > 1) {
+                return;
+            } else if (inner.size == 1) {
+                root = inner.children[0];
+            } else {
+                root = new Leaf(INITIAL_LEAF_CAPACITY);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code delta} to all keys greater than or equal to {@code from}. The order of keys must
+     * be preserved, i.e., if {@code delta} is negative, there must not be any keys in the range
+     * [from + delta, from).
+     */
+    public void shiftKeys(long from, long delta) {
+        assert from + delta >= 0;
+        if (delta != 0 && size != 0) {
+            shiftKeys(root, from, delta);
+        }
+    }
+
+    private static void shiftKeys(Node node, long from, long delta) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            for (int i = lowerBound(leaf, from); i < leaf.size; i++) {
+                leaf.keys[i] += delta;
+            }
+            return;
+        }
+        Inner inner = (Inner) node;
+        int first = childIndex(inner, from);
+        long newFrom = from + delta;
+        for (int i = first; i < inner.size; i++) {
+            long bound = inner.keys[i];
+            if (bound >= from) {
+                inner.keys[i] = bound + delta;
+            } else if (bound > newFrom) {
+                // Bound of a child without keys in the vacated range [from + delta, from).
+                inner.keys[i] = newFrom;
+            }
+            shiftKeys(inner.children[i], from, delta);
+        }
+    }
+
+    /**
+     * Returns the smallest key, or {@code -1} if the map is empty.
+     */
+    public long firstKey() {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        return node.size == 0 ? -1 : node.keys[0];
+    }
+
+    /**
+     * Returns the largest key, or {@code -1} if the map is empty.
+     */
+    public long lastKey() {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[node.size - 1];
+        }
+        return node.size == 0 ? -1 : node.keys[node.size - 1];
+    }
+
+    /**
+     * Returns the smallest key strictly greater than {@code key}, or {@code -1} if there is none.
+     */
+    public long higherKey(long key) {
+        return higherKey(root, key);
+    }
+
+    private static long higherKey(Node node, long key) {
+        if (node instanceof Leaf) {
+            int pos = search(node, key);
+            pos = pos >= 0 ? pos + 1 : -(pos + 1);
+            return pos < node.size ? node.keys[pos] : -1;
+        }
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        long result = higherKey(inner.children[index], key);
+        if (result < 0 && index + 1 < inner.size) {
+            Node next = inner.children[index + 1];
+            while (next instanceof Inner) {
+                next = ((Inner) next).children[0];
+            }
+            result = next.keys[0];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the largest key strictly less than {@code key}, or {@code -1} if there is none.
+     */
+    public long lowerKey(long key) {
+        return lowerKey(root, key);
+    }
+
+    private static long lowerKey(Node node, long key) {
+        if (node instanceof Leaf) {
+            int pos = search(node, key);
+            pos = (pos >= 0 ? pos : -(pos + 1)) - 1;
+            return pos >= 0 ? node.keys[pos] : -1;
+        }
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        long result = lowerKey(inner.children[index], key);
+        if (result < 0 && index > 0) {
+            Node prev = inner.children[index - 1];
+            while (prev instanceof Inner) {
+                prev = ((Inner) prev).children[prev.size - 1];
+            }
+            result = prev.keys[prev.size - 1];
+        }
+        return result;
+    }
+
+    /**
+     * Returns all keys in ascending order.
+     */
+    public long[] keys() {
+        long[] keys = new long[size];
+        int count = collectKeys(root, keys, 0);
+        assert count == size;
+        return keys;
+    }
+
+    private static int collectKeys(Node node, long[] keys, int offset) {
+        if (node instanceof Leaf) {
+            System.arraycopy(node.keys, 0, keys, offset, node.size);
+            return offset + node.size;
+        }
+        Inner inner = (Inner) node;
+        int pos = offset;
+        for (int i = 0; i < inner.size; i++) {
+            pos = collectKeys(inner.children[i], keys, pos);
+        }
+        return pos;
+    }
+}
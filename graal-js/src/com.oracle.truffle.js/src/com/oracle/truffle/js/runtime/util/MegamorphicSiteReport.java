@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Per source location record of property access sites that went megamorphic, i.e., replaced their
+ * inline cache with the generic lookup. Enabled with {@code js.megamorphic-site-report} and shared
+ * by all realms of a context; the report is available via {@code Graal.megamorphicSiteReport()}.
+ */
+public final class MegamorphicSiteReport {
+
+    private final ConcurrentHashMap<String, Site> sites = new ConcurrentHashMap<>();
+
+    private static final class Site {
+        final String location;
+        final String kind;
+        final String key;
+        String reason;
+        int shapeCount;
+        int count;
+
+        Site(String location, String kind, String key) {
+            this.location = location;
+            this.kind = kind;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Records that a property access site has been rewritten to the generic case.
+     *
+     * @param kind the kind of access, e.g. the name of the node class
+     * @param shapeCount the number of cached shapes that were replaced
+     */
+    @TruffleBoundary
+    public void record(SourceSection sourceSection, String kind, Object key, String reason, int shapeCount) {
+        String location = formatLocation(sourceSection);
+        String keyString = String.valueOf(key);
+        Site site = sites.computeIfAbsent(location + ' ' + kind + ' ' + keyString, k -> new Site(location, kind, keyString));
+        synchronized (site) {
+            site.reason = reason;
+            site.shapeCount = Math.max(site.shapeCount, shapeCount);
+            site.count++;
+        }
+    }
+
+    private static String formatLocation(SourceSection sourceSection) {
+        if (sourceSection == null || !sourceSection.isAvailable()) {
+            return "<unknown>";
+        }
+        return sourceSection.getSource().getName() + ":" + sourceSection.getStartLine() + ":" + sourceSection.getStartColumn();
+    }
+
+    public int getSiteCount() {
+        return sites.size();
+    }
+
+    /**
+     * Returns the report as text, one site per line, sorted by location.
+     */
+    @TruffleBoundary
+    public String dump() {
+        List<Site> list = new ArrayList<>(sites.values());
+        list.sort(Comparator.comparing((Site s) -> s.location).thenComparing(s -> s.kind).thenComparing(s -> s.key));
+        StringBuilder sb = new StringBuilder();
+        sb.append("Megamorphic property access sites: ").append(list.size()).append('\n');
+        for (Site site : list) {
+            synchronized (site) {
+                sb.append("  ").append(site.location).append(' ').append(site.kind).append(" '").append(site.key).append("' (").append(site.reason);
+                sb.append(", ").append(site.shapeCount).append(" shapes, ").append(site.count).append("x)\n");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import com.ibm.icu.impl.Grego;
+import com.ibm.icu.util.BasicTimeZone;
+import com.ibm.icu.util.GregorianCalendar;
+import com.ibm.icu.util.TimeZone;
+import com.ibm.icu.util.TimeZoneTransition;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Computes the local time zone adjustment (LocalTZA) of a time zone and caches the offsets of the
+ * intervals between the time zone transitions that were queried recently, similar to V8's
+ * DateCache. Most queries are then answered by a range check instead of a calendar computation
+ * and up to three {@link TimeZone#getOffset} calls.
+ *
+ * Not thread-safe, each realm has its own cache.
+ */
+public final class TimeZoneOffsetCache {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final long NO_TRANSITION = Long.MIN_VALUE;
+    /**
+     * Upper bound of the distance between a local standard time and the UTC time whose offset it
+     * is resolved to (the largest time zone offset plus DST savings is well below one day).
+     */
+    private static final long MARGIN = 24 * 60 * 60 * 1000L;
+
+    private final TimeZone timeZone;
+    private final int rawOffset;
+    private final int dstSavings;
+    private final boolean hasTransitions;
+
+    /**
+     * Intervals [segmentStart, segmentEnd] of local standard time with a constant offset.
+     */
+    private final long[] segmentStart = new long[SEGMENT_COUNT];
+    private final long[] segmentEnd = new long[SEGMENT_COUNT];
+    private final int[] segmentOffset = new int[SEGMENT_COUNT];
+    private int segmentCount;
+    private int lastSegment;
+    private int nextSegment;
+
+    private final int[] fields = new int[6];
+
+    public TimeZoneOffsetCache(TimeZone timeZone) {
+        this.timeZone = timeZone;
+        this.rawOffset = timeZone.getRawOffset();
+        this.dstSavings = timeZone.getDSTSavings();
+        this.hasTransitions = timeZone instanceof BasicTimeZone || timeZone instanceof ZoneRulesBasedTimeZone;
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Returns the offset of the time zone at time {@code t}, which is either a UTC time or a local
+     * time.
+     */
+    @TruffleBoundary
+    public int localTZA(long t, boolean isUTC) {
+        long date = isUTC ? (t + rawOffset) : t; // now in local standard millis
+
+        int offset = getOffset(date);
+
+        if (isUTC) {
+            return offset;
+        }
+
+        // getOffset() does not match the needs of ECMAScript specification
+        // when local time does not exist (during STD->DST transition) or when
+        // it occurs twice (during DST->STD transition). We have to check
+        // for these corner cases by looking back in time. This apporach
+        // is taken from TimeZone.getOffset() that does similar tricks
+        // (but is not ECMAScript compliant still).
+
+        if (offset != rawOffset) { // dstOffset != 0
+            int dstOffset = offset - rawOffset;
+            // dstOffset != 0 => good, we know how far back in time to look
+            return getOffset(date - dstOffset);
+        }
+
+        // dstOffset = 0, look back by standard DST savings
+        int savings = dstSavings;
+        if (savings == 0) {
+            // getDSTSavings() returns 0 for some time-zones (like America/Sao_Paulo)
+            // that stopped to use DST. Unfortunately, we may have a date that
+            // used DST still => try to use the usual DST savings (1 hour)
+            savings = 3600000;
+        }
+        offset = getOffset(date - savings);
+        int dstOffset = offset - rawOffset;
+        if (dstOffset != 0 && dstOffset != savings) {
+            // unexpected irregular (historical) DST => have to correct how far
+            // back in time we look
+            offset = getOffset(date - dstOffset);
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the offset for the given local standard time.
+     */
+    private int getOffset(long date) {
+        int last = lastSegment;
+        if (segmentCount != 0 && segmentStart[last] <= date && date <= segmentEnd[last]) {
+            return segmentOffset[last];
+        }
+        for (int i = 0; i < segmentCount; i++) {
+            if (segmentStart[i] <= date && date <= segmentEnd[i]) {
+                lastSegment = i;
+                return segmentOffset[i];
+            }
+        }
+        int offset = computeOffset(date);
+        if (hasTransitions) {
+            addSegment(date, offset);
+        }
+        return offset;
+    }
+
+    private int computeOffset(long date) {
+        Grego.timeToFields(date, fields);
+        return timeZone.getOffset(GregorianCalendar.AD, fields[0], fields[1], fields[2], fields[3], fields[5]);
+    }
+
+    /**
+     * Caches the offset for the interval around {@code date} that is far enough from any time zone
+     * transition so that all local standard times in it resolve to the same offset. Does nothing
+     * if {@code date} is close to a transition.
+     */
+    private void addSegment(long date, int offset) {
+        long previous = previousTransition(date + MARGIN);
+        if (previous != NO_TRANSITION && previous >= date - MARGIN) {
+            return;
+        }
+        long next = nextTransition(date + MARGIN);
+        int index = nextSegment;
+        segmentStart[index] = previous == NO_TRANSITION ? Long.MIN_VALUE : previous + MARGIN + 1;
+        segmentEnd[index] = next == NO_TRANSITION ? Long.MAX_VALUE : next - MARGIN - 1;
+        segmentOffset[index] = offset;
+        lastSegment = index;
+        nextSegment = (index + 1) % SEGMENT_COUNT;
+        segmentCount = Math.max(segmentCount, index + 1);
+    }
+
+    /**
+     * Returns the time of the last transition at or before {@code time}.
+     */
+    private long previousTransition(long time) {
+        if (timeZone instanceof ZoneRulesBasedTimeZone) {
+            return ((ZoneRulesBasedTimeZone) timeZone).getPreviousTransitionTime(time, NO_TRANSITION);
+        }
+        TimeZoneTransition transition = ((BasicTimeZone) timeZone).getPreviousTransition(time, true);
+        return transition == null ? NO_TRANSITION : transition.getTime();
+    }
+
+    /**
+     * Returns the time of the first transition after {@code time}.
+     */
+    private long nextTransition(long time) {
+        if (timeZone instanceof ZoneRulesBasedTimeZone) {
+            return ((ZoneRulesBasedTimeZone) timeZone).getNextTransitionTime(time, NO_TRANSITION);
+        }
+        TimeZoneTransition transition = ((BasicTimeZone) timeZone).getNextTransition(time, false);
+        return transition == null ? NO_TRANSITION : transition.getTime();
+    }
+}
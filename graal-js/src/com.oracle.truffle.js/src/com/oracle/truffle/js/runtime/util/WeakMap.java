@@ -40,10 +40,12 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.HiddenKey;
@@ -53,14 +55,60 @@ import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 
 /**
  * JavaScript WeakMap that emulates ephemeron semantics by storing the value in the key itself
- * (i.e., in a hidden property within the key object).
+ * (i.e., in an {@link InvertedWeakMap} in a hidden property within the key object).
  */
 public final class WeakMap implements Map<JSObject, Object> {
     public static final HiddenKey INVERTED_WEAK_MAP_KEY = new HiddenKey("InvertedWeakMap");
 
+    /**
+     * Weak reference to a map shared by all of its entries.
+     */
+    static final class Ref extends WeakReference<WeakMap> {
+        final int hash;
+
+        Ref(WeakMap map) {
+            super(map, COLLECTED_MAPS);
+            this.hash = System.identityHashCode(map);
+        }
+    }
+
+    /**
+     * Receives the references of garbage collected maps.
+     */
+    private static final ReferenceQueue<WeakMap> COLLECTED_MAPS = new ReferenceQueue<>();
+    /**
+     * Incremented whenever references of collected maps have been dequeued.
+     */
+    private static final AtomicInteger COLLECTED_MAPS_EPOCH = new AtomicInteger();
+
+    private final Ref ref = newRef(this);
+
     public WeakMap() {
     }
 
+    @TruffleBoundary
+    private static Ref newRef(WeakMap map) {
+        return new Ref(map);
+    }
+
+    Ref getRef() {
+        return ref;
+    }
+
+    /**
+     * Returns a number that changes whenever maps have been garbage collected, so that entries
+     * referring to them can be expunged.
+     */
+    static int pollCollectedMapsEpoch() {
+        if (COLLECTED_MAPS.poll() != null) {
+            while (COLLECTED_MAPS.poll() != null) {
+                // drain the queue, a single epoch change covers all of them
+            }
+            return COLLECTED_MAPS_EPOCH.incrementAndGet();
+        }
+        return COLLECTED_MAPS_EPOCH.get();
+    }
+
     private static JSObject checkKey(Object key) {
         if (!(key instanceof JSObject)) {
             throw new IllegalArgumentException("key must be instanceof JSObject");
@@ -68,50 +116,36 @@ public final class WeakMap implements Map<JSObject, Object> {
         return (JSObject) key;
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<WeakMap, Object> getInvertedMap(JSObject k) {
-        return (Map<WeakMap, Object>) JSDynamicObject.getOrNull(k, INVERTED_WEAK_MAP_KEY);
-    }
-
-    private static Map<WeakMap, Object> putInvertedMap(JSObject k) {
-        Map<WeakMap, Object> invertedMap = newInvertedMap();
-        JSObjectUtil.putHiddenProperty(k, INVERTED_WEAK_MAP_KEY, invertedMap);
-        return invertedMap;
+    private static InvertedWeakMap getInvertedMap(JSObject k) {
+        return (InvertedWeakMap) JSDynamicObject.getOrNull(k, INVERTED_WEAK_MAP_KEY);
     }
 
-    @TruffleBoundary
-    public static Map<WeakMap, Object> newInvertedMap() {
-        return new WeakHashMap<>();
-    }
-
-    @TruffleBoundary
-    public Map<WeakMap, Object> newInvertedMapWithEntry(JSObject key, Object value) {
+    public InvertedWeakMap newInvertedMapWithEntry(JSObject key, Object value) {
         assert getInvertedMap(key) == null;
-        Map<WeakMap, Object> map = new WeakHashMap<>();
-        map.put(this, value);
-        return map;
+        return new InvertedWeakMap(ref, value);
     }
 
     @Override
     public boolean containsKey(Object key) {
         JSObject k = checkKey(key);
-        Map<WeakMap, Object> invertedMap = getInvertedMap(k);
+        InvertedWeakMap invertedMap = getInvertedMap(k);
         return invertedMap == null ? false : invertedMap.containsKey(this);
     }
 
     @Override
     public Object get(Object key) {
         JSObject k = checkKey(key);
-        Map<WeakMap, Object> invertedMap = getInvertedMap(k);
+        InvertedWeakMap invertedMap = getInvertedMap(k);
         return invertedMap == null ? null : invertedMap.get(this);
     }
 
     @Override
     public Object put(JSObject key, Object value) {
         JSObject k = checkKey(key);
-        Map<WeakMap, Object> invertedMap = getInvertedMap(k);
+        InvertedWeakMap invertedMap = getInvertedMap(k);
         if (invertedMap == null) {
-            invertedMap = putInvertedMap(k);
+            JSObjectUtil.putHiddenProperty(k, INVERTED_WEAK_MAP_KEY, newInvertedMapWithEntry(k, value));
+            return null;
         }
         return invertedMap.put(this, value);
     }
@@ -119,7 +153,7 @@ public final class WeakMap implements Map<JSObject, Object> {
     @Override
     public Object remove(Object key) {
         JSObject k = checkKey(key);
-        Map<WeakMap, Object> invertedMap = getInvertedMap(k);
+        InvertedWeakMap invertedMap = getInvertedMap(k);
         return invertedMap == null ? null : invertedMap.remove(this);
     }
 
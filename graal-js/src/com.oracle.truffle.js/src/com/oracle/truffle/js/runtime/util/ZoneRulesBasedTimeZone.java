@@ -48,6 +48,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
 import java.time.zone.ZoneRules;
 import java.util.Date;
 import java.util.List;
@@ -102,6 +103,24 @@ public class ZoneRulesBasedTimeZone extends TimeZone {
         throw Errors.shouldNotReachHere();
     }
 
+    /**
+     * Returns the time (in epoch milliseconds) of the last transition at or before the given time,
+     * or {@code noTransition} if there is no such transition.
+     */
+    public long getPreviousTransitionTime(long time, long noTransition) {
+        ZoneOffsetTransition transition = rules.previousTransition(Instant.ofEpochMilli(time + 1));
+        return transition == null ? noTransition : transition.getInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the time (in epoch milliseconds) of the first transition after the given time, or
+     * {@code noTransition} if there is no such transition.
+     */
+    public long getNextTransitionTime(long time, long noTransition) {
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(time));
+        return transition == null ? noTransition : transition.getInstant().toEpochMilli();
+    }
+
     private static int toMillis(ZoneOffset offset) {
         return offset.getTotalSeconds() * 1000;
     }
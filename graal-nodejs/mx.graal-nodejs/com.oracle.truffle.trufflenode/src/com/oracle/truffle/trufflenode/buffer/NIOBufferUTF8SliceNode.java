@@ -41,10 +41,7 @@
 package com.oracle.truffle.trufflenode.buffer;
 
 import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CodingErrorAction;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -141,11 +138,28 @@ public abstract class NIOBufferUTF8SliceNode extends NIOBufferAccessNode {
 
     @TruffleBoundary
     private static TruffleString doDecode(ByteBuffer data) throws CharacterCodingException {
-        CharsetDecoder decoder = utf8.newDecoder();
-        decoder.onMalformedInput(CodingErrorAction.REPORT);
-        decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
-        CharBuffer decoded = decoder.decode(data);
-        return Strings.fromJavaString(decoded.toString());
+        // Copy the bytes once; the buffer contents may change afterwards.
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        if (isAscii(bytes)) {
+            // ASCII is a subset of the compact UTF-16 representation, so no transcoding is needed.
+            return TruffleString.fromByteArrayUncached(bytes, 0, bytes.length, TruffleString.Encoding.US_ASCII, false).switchEncodingUncached(TruffleString.Encoding.UTF_16);
+        }
+        TruffleString utf8String = TruffleString.fromByteArrayUncached(bytes, 0, bytes.length, TruffleString.Encoding.UTF_8, false);
+        if (!utf8String.isValidUncached(TruffleString.Encoding.UTF_8)) {
+            // Let the native implementation deal with the replacement characters.
+            throw new CharacterCodingException();
+        }
+        return utf8String.switchEncodingUncached(TruffleString.Encoding.UTF_16);
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static boolean oobCheck(int start, int end) {
@@ -41,24 +41,20 @@
 package com.oracle.truffle.trufflenode.buffer;
 
 import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.CharsetEncoder;
-import java.nio.charset.CoderResult;
-import java.nio.charset.CodingErrorAction;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.strings.InternalByteArray;
 import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.js.nodes.cast.JSToIntegerAsIntNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
-import com.oracle.truffle.js.runtime.Strings;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferObject;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionObject;
@@ -85,7 +81,7 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
     @Specialization(guards = "accept(target)")
     public Object write(JSDynamicObject target, TruffleString str, int destOffset, int bytes) {
         try {
-            return doWrite(target, str, destOffset, bytes);
+            return doWrite(target, toUTF8(str), destOffset, bytes);
         } catch (CharacterCodingException e) {
             return doNativeFallback(target, str, destOffset, bytes);
         }
@@ -94,7 +90,8 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
     @Specialization(guards = {"accept(target)", "isUndefined(bytes)"})
     public Object writeDefaultOffset(JSDynamicObject target, TruffleString str, int destOffset, Object bytes) {
         try {
-            return doWrite(target, str, destOffset, getBytes(str).length);
+            TruffleString utf8 = toUTF8(str);
+            return doWrite(target, utf8, destOffset, utf8.byteLength(TruffleString.Encoding.UTF_8));
         } catch (CharacterCodingException e) {
             return doNativeFallback(target, str, destOffset, bytes);
         }
@@ -103,7 +100,8 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
     @Specialization(guards = {"accept(target)", "isUndefined(destOffset)", "isUndefined(bytes)"})
     public Object writeDefaultValues(JSDynamicObject target, TruffleString str, Object destOffset, Object bytes) {
         try {
-            return doWrite(target, str, 0, getBytes(str).length);
+            TruffleString utf8 = toUTF8(str);
+            return doWrite(target, utf8, 0, utf8.byteLength(TruffleString.Encoding.UTF_8));
         } catch (CharacterCodingException e) {
             return doNativeFallback(target, str, destOffset, bytes);
         }
@@ -112,7 +110,7 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
     @Specialization(guards = "accept(target)")
     public Object write(JSDynamicObject target, TruffleString str, double destOffset, double bytes) {
         try {
-            return doWrite(target, str, toInt.executeInt(destOffset), toInt.executeInt(bytes));
+            return doWrite(target, toUTF8(str), toInt.executeInt(destOffset), toInt.executeInt(bytes));
         } catch (CharacterCodingException e) {
             return doNativeFallback(target, str, destOffset, bytes);
         }
@@ -134,7 +132,10 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
         return JSFunction.call(getNativeUtf8Write(), target, new Object[]{str, destOffset, bytes});
     }
 
-    private int doWrite(JSDynamicObject target, TruffleString str, int destOffset, int bytes) throws CharacterCodingException {
+    /**
+     * Writes the given UTF-8 string (see {@link #toUTF8}) to the buffer.
+     */
+    private int doWrite(JSDynamicObject target, TruffleString utf8, int destOffset, int bytes) {
         JSArrayBufferObject arrayBuffer = getArrayBuffer(target);
         int bufferOffset = getOffset(target);
         int bufferLen = getLength(target);
@@ -155,7 +156,7 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
             destLimit = bufferLen;
         }
         ByteBuffer buffer = Boundaries.byteBufferSlice(rawBuffer, bufferOffset + destOffset, bufferOffset + destLimit);
-        doEncode(str, buffer);
+        doEncode(utf8, buffer);
         if (interopBuffer) {
             // Write the data to the original interop buffer
             InteropLibrary interop = InteropLibrary.getUncached(arrayBuffer);
@@ -171,29 +172,33 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
     }
 
     @TruffleBoundary
-    private static CoderResult doEncode(TruffleString str, ByteBuffer buffer) throws CharacterCodingException {
-        CharsetEncoder encoder = utf8.newEncoder();
-        encoder.onMalformedInput(CodingErrorAction.REPORT);
-        encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
-        CharBuffer cb = CharBuffer.wrap(Strings.toJavaString(str));
-        CoderResult res = encoder.encode(cb, buffer, true);
-
-        if (res.isUnderflow()) {
-            encoder.encode(cb, buffer, true);
-            res = encoder.flush(buffer);
-        }
-
-        assert res.isError() == (res.isMalformed() || res.isUnmappable());
-        if (res.isError()) {
-            res.throwException();
+    private static void doEncode(TruffleString utf8, ByteBuffer buffer) {
+        InternalByteArray utf8Bytes = utf8.getInternalByteArrayUncached(TruffleString.Encoding.UTF_8);
+        byte[] array = utf8Bytes.getArray();
+        int offset = utf8Bytes.getOffset();
+        int length = utf8Bytes.getLength();
+        if (length > buffer.remaining()) {
+            // Only write complete characters: back up to the start of a UTF-8 sequence.
+            length = buffer.remaining();
+            while (length > 0 && (array[offset + length] & 0xC0) == 0x80) {
+                length--;
+            }
         }
-
-        return res;
+        buffer.put(array, offset, length);
     }
 
+    /**
+     * Transcodes the string to UTF-8. ASCII strings share their compact representation with UTF-8,
+     * so they are not copied.
+     */
     @TruffleBoundary
-    private static byte[] getBytes(TruffleString str) {
-        return Strings.toJavaString(str).getBytes(utf8);
+    private static TruffleString toUTF8(TruffleString str) throws CharacterCodingException {
+        TruffleString.CodeRange codeRange = str.getCodeRangeUncached(TruffleString.Encoding.UTF_16);
+        if (codeRange == TruffleString.CodeRange.BROKEN) {
+            // Unpaired surrogates are replaced by the native implementation.
+            throw new CharacterCodingException();
+        }
+        return str.switchEncodingUncached(TruffleString.Encoding.UTF_8);
     }
 
 }
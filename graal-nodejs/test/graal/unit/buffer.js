@@ -96,6 +96,34 @@ describe('Buffer.utf8Write', function() {
     it('length is zero', function() {
         assert.strictEqual(Buffer.alloc(0).utf8Write.length, 0);
     });
+    it('should write ascii strings', function() {
+        var buffer = Buffer.alloc(8);
+        assert.strictEqual(buffer.utf8Write('hello'), 5);
+        assert.deepStrictEqual([...buffer], [104, 101, 108, 108, 111, 0, 0, 0]);
+    });
+    it('should write non-ascii strings', function() {
+        var buffer = Buffer.alloc(10);
+        assert.strictEqual(buffer.utf8Write('h\u00e9llo\u20ac', 0), 9);
+        assert.deepStrictEqual([...buffer], [104, 195, 169, 108, 108, 111, 226, 130, 172, 0]);
+    });
+    it('should write surrogate pairs', function() {
+        var buffer = Buffer.alloc(6);
+        assert.strictEqual(buffer.utf8Write('\ud83d\ude00x'), 5);
+        assert.deepStrictEqual([...buffer], [240, 159, 152, 128, 120, 0]);
+    });
+    it('should only write complete characters', function() {
+        var buffer = Buffer.alloc(4);
+        assert.strictEqual(buffer.utf8Write('ab\u20ac'), 2);
+        assert.deepStrictEqual([...buffer], [97, 98, 0, 0]);
+        assert.strictEqual(Buffer.alloc(3).utf8Write('\ud83d\ude00'), 0);
+        assert.strictEqual(Buffer.alloc(10).utf8Write('\ud83d\ude00\ud83d\ude00', 1, 7), 4);
+    });
+    it('should replace lone surrogates', function() {
+        var buffer = Buffer.alloc(8);
+        assert.strictEqual(buffer.utf8Write('a\ud800b'), 5);
+        assert.deepStrictEqual([...buffer], [97, 239, 191, 189, 98, 0, 0, 0]);
+        assert.strictEqual(Buffer.alloc(8).utf8Write('\udc00', 0, 2), 0);
+    });
     if (typeof java !== "undefined") {
         it('should accept interop buffer', function() {
             var byteLength = 8;
@@ -162,6 +190,18 @@ describe('Buffer.utf8Slice', function() {
     it('length is zero', function() {
         assert.strictEqual(Buffer.alloc(0).utf8Slice.length, 0);
     });
+    it('should decode ascii', function() {
+        assert.strictEqual(Buffer.from('hello world').utf8Slice(6), 'world');
+    });
+    it('should decode non-ascii', function() {
+        assert.strictEqual(Buffer.from([104, 195, 169, 226, 130, 172, 240, 159, 152, 128]).utf8Slice(), 'h\u00e9\u20ac\ud83d\ude00');
+        assert.strictEqual(Buffer.from([104, 195, 169, 226, 130, 172]).utf8Slice(1, 3), '\u00e9');
+    });
+    it('should replace malformed sequences', function() {
+        assert.strictEqual(Buffer.from([97, 255, 98, 195]).utf8Slice(), 'a\ufffdb\ufffd');
+        assert.strictEqual(Buffer.from([104, 195, 169]).utf8Slice(0, 2), 'h\ufffd');
+        assert.strictEqual(Buffer.from([237, 160, 128]).utf8Slice(), '\ufffd\ufffd\ufffd');
+    });
     if (typeof java !== "undefined") {
         it('should accept interop buffer', function() {
             var javaBuffer = java.nio.ByteBuffer.allocate(8);